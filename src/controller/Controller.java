@@ -20,6 +20,11 @@ public class Controller
 	private final static String ARCHIVO_VERTICES = "./data/bogota_vertices.txt";
 	private final static String ARCHIVO_ARCOS = "./data/bogota_arcos.txt";
 
+	/**
+	 * Nmero de parejas de vrtices con las que se comparan los motores de rutas.
+	 */
+	private final static int CONSULTAS_COMPARACION = 100;
+
 	/**
 	 * Instancia del modelo.
 	 */
@@ -114,6 +119,26 @@ public class Controller
 			{
 				case 0:
 					view.printJump( );
+					String rutaSnapshot = rutaArchivo.replace( ".geojson", ".snapshot" );
+					String[] fuentes = { ARCHIVO_VERTICES, ARCHIVO_ARCOS, rutaArchivo, ARCHIVO_ESTACIONES };
+					if( archivoExiste( rutaSnapshot ) )
+					{
+						try
+						{
+							view.printMessage( "\nCargando el modelo desde " + rutaSnapshot + "...\n" );
+							modelo.cargarSnapshot( rutaSnapshot, fuentes );
+							view.printMessage( "El modelo fue cargado exitosamente!\n" );
+							view.printMessage( modelo.darReporteCompletoDeCarga( ) );
+							prepararMotoresDeRutas( rutaArchivo );
+							break;
+						}
+						catch( IOException | IllegalStateException e )
+						{
+							view.printMessage( "* No se pudo usar el snapshot, se cargarn las fuentes de datos *" );
+							view.printMessage( e.getMessage( ) );
+						}
+					}
+
 					try
 					{
 						view.printMessage( "\nConstruyendo grafo a partir de las fuentes de datos...\n" );
@@ -126,19 +151,25 @@ public class Controller
 						continue;
 					}
 
+					// El snapshot solo se guarda si todas las etapas de la carga funcionaron.
+					boolean cargaCompleta = true;
+
 					try
 					{
 						view.printMessage( "\nCargando comparendos...\n" );
 						view.printMessage( "+ Esto dura alrededor de 2 minutos, no se preocupe +\n" );
-						modelo.cargarComparendosEnGrafo( rutaArchivo );
+						String reporteCarga = modelo.cargarComparendosEnGrafo( rutaArchivo );
 						view.printMessage( "Los comparendos fueron cargados exitosamente!" );
+						view.printMessage( reporteCarga );
 					}
 					catch( IllegalStateException e3 )
 					{
 						view.printMessage( e3.getMessage( ) + ".\n" );
+						cargaCompleta = false;
 					}
 					catch( IOException e3 )
 					{
+						cargaCompleta = false;
 						view.printMessage( "* Hubo un problema cargando los comparendos *" );
 						view.printMessage( "* Asegrese que el archivo de los comparendos est en ./data *" );
 					}
@@ -152,10 +183,12 @@ public class Controller
 					catch( IllegalStateException e3 )
 					{
 						view.printMessage( e3.getMessage( ) + ".\n" );
+						cargaCompleta = false;
 					}
 					catch( IOException e3 )
 					{
 						view.printMessage( "Hubo un problema cargando las estaciones de polica.\n" );
+						cargaCompleta = false;
 					}
 
 					try
@@ -169,11 +202,13 @@ public class Controller
 					{
 						view.printMessage(
 								"* Asegrese de efectuar correctamente la carga de los comparendos antes *" );
+						cargaCompleta = false;
 					}
 					catch( IllegalStateException e3 )
 					{
 						view.printMessage( "* Hubo un problema actualizando los costos de los arcos *\n" );
 						view.printMessage( e3.getMessage( ) );
+						cargaCompleta = false;
 					}
 
 					try
@@ -184,6 +219,22 @@ public class Controller
 					{
 						view.printMessage( e.getMessage( ) + "\n" );
 					}
+
+					if( !cargaCompleta )
+						view.printMessage( "* La carga no fue completa, no se guarda el snapshot del modelo *\n" );
+					else
+					{
+						try
+						{
+							modelo.guardarSnapshot( rutaSnapshot, fuentes );
+							view.printMessage( "Snapshot del modelo guardado en " + rutaSnapshot + "\n" );
+						}
+						catch( IOException | IllegalStateException e )
+						{
+							view.printMessage( "* No se pudo guardar el snapshot del modelo *\n" );
+						}
+					}
+					prepararMotoresDeRutas( rutaArchivo );
 					break;
 
 				case 1:
@@ -345,6 +396,10 @@ public class Controller
 						view.printMessage(
 								"* Asegrese de efectuar correctamente la carga de los comparendos antes *" );
 					}
+					catch( IllegalStateException e1 )
+					{
+						view.printMessage( e1.getMessage( ) + ".\n" );
+					}
 					break;
 					
 				case 6:
@@ -355,6 +410,10 @@ public class Controller
 					{
 						view.printMessage( modelo.identificarZonasDeImpacto( ) );
 					}
+					catch( IllegalStateException e )
+					{
+						view.printMessage( e.getMessage( ) + ".\n" );
+					}
 					catch( NullPointerException e )
 					{
 						view.printMessage(
@@ -369,6 +428,21 @@ public class Controller
 					break;
 
 				case 7:
+					view.printJump( );
+					view.printMessage( "\nComparando los motores de rutas sobre " + CONSULTAS_COMPARACION
+							+ " parejas de vrtices aleatorios...\n" );
+
+					try
+					{
+						view.printMessage( modelo.compararMotoresDeRutas( CONSULTAS_COMPARACION ) );
+					}
+					catch( IllegalStateException e )
+					{
+						view.printMessage( e.getMessage( ) + ".\n" );
+					}
+					break;
+
+				case 8:
 					view.printJump( );
 					view.printMessage( "\nHasta pronto!\n" );
 					view.printJump( );
@@ -384,6 +458,84 @@ public class Controller
 		}
 	}
 
+	/**
+	 * Prepara los motores de las rutas de las partes A y B junto al archivo de
+	 * comparendos dado: las tablas de landmarks (.landmarks) y las jerarquas de
+	 * contraccin (.jerarquias).
+	 */
+	private void prepararMotoresDeRutas( String rutaArchivo )
+	{
+		prepararLandmarks( rutaArchivo.replace( ".geojson", ".landmarks" ) );
+		prepararJerarquias( rutaArchivo.replace( ".geojson", ".jerarquias" ) );
+	}
+
+	/**
+	 * Carga las tablas de landmarks del archivo dado si existen y corresponden al
+	 * modelo; si no, las construye y las guarda en ese archivo.
+	 */
+	private void prepararLandmarks( String rutaLandmarks )
+	{
+		if( archivoExiste( rutaLandmarks ) )
+		{
+			try
+			{
+				view.printMessage( modelo.cargarLandmarks( rutaLandmarks ) );
+				return;
+			}
+			catch( IOException | IllegalStateException e )
+			{
+				view.printMessage( "* No se pudieron usar las tablas de landmarks, se construirn de nuevo *" );
+				view.printMessage( e.getMessage( ) );
+			}
+		}
+
+		try
+		{
+			view.printMessage( "\nConstruyendo las tablas de landmarks...\n" );
+			view.printMessage( modelo.construirLandmarks( ) );
+			modelo.guardarLandmarks( rutaLandmarks );
+			view.printMessage( "Tablas de landmarks guardadas en " + rutaLandmarks + "\n" );
+		}
+		catch( IOException | IllegalStateException e )
+		{
+			view.printMessage( "* No se pudieron preparar las tablas de landmarks *\n" );
+		}
+	}
+
+	/**
+	 * Carga las jerarquas de contraccin del archivo dado si existen y
+	 * corresponden al modelo; si no, las construye y las guarda en ese archivo.
+	 * Mientras no estn listas, las rutas usan ALT o Dijkstra bidireccional.
+	 */
+	private void prepararJerarquias( String rutaJerarquias )
+	{
+		if( archivoExiste( rutaJerarquias ) )
+		{
+			try
+			{
+				view.printMessage( modelo.cargarJerarquias( rutaJerarquias ) );
+				return;
+			}
+			catch( IOException | IllegalStateException e )
+			{
+				view.printMessage( "* No se pudieron usar las jerarquas de contraccin, se construirn de nuevo *" );
+				view.printMessage( e.getMessage( ) );
+			}
+		}
+
+		try
+		{
+			view.printMessage( "\nConstruyendo las jerarquas de contraccin...\n" );
+			view.printMessage( modelo.construirJerarquias( ) );
+			modelo.guardarJerarquias( rutaJerarquias );
+			view.printMessage( "Jerarquas de contraccin guardadas en " + rutaJerarquias + "\n" );
+		}
+		catch( IOException | IllegalStateException e )
+		{
+			view.printMessage( "* No se pudieron preparar las jerarquas de contraccin *\n" );
+		}
+	}
+
 	private boolean opcionExiste( int opcion, int[] posiblesOpciones )
 	{
 		for( int i = 0; i < posiblesOpciones.length; i++ )
@@ -0,0 +1,215 @@
+package model.data_structures;
+
+/**
+ * Motor de caminos ms cortos A* para grafos cuyos costos de tipo double son
+ * distancias geogrficas en kilmetros, como grafoFD, donde el costo de cada
+ * arco es la distancia haversiana entre sus extremos. La heurstica de un
+ * vrtice es la distancia en lnea recta (cuerda, atravesando la esfera) hasta
+ * el destino: nunca es mayor que la distancia haversiana, por lo que es
+ * admisible, y como la cuerda cumple la desigualdad triangular tambin es
+ * consistente. As el costo encontrado es el mismo de Dijkstra, pero la
+ * bsqueda se dirige hacia el destino y asienta muchos menos vrtices.
+ * <p>
+ * La heurstica se multiplica por un factor apenas menor que 1 para absorber
+ * los errores de redondeo, y si aun as un vrtice ya asentado mejora su
+ * distancia, se vuelve a abrir. Ambas cosas garantizan el costo ptimo.
+ * <p>
+ * Igual que DijkstrasShortestPath, el motor se construye una vez, lee la
+ * representacin CSR del grafo y reutiliza sus arreglos de trabajo con un
+ * contador de pocas. No es seguro usar un mismo motor desde varios hilos a la
+ * vez.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class AStarShortestPath
+{
+	/**
+	 * Factor por el que se multiplica la heurstica.
+	 */
+	private final static double HEURISTIC_FACTOR = 1 - 1e-9;
+
+	private int n;
+
+	/**
+	 * Representacin CSR de las adyacencias con los costos de tipo double.
+	 */
+	private int[] offsets;
+	private int[] targets;
+	private double[] cost;
+
+	/**
+	 * Coordenadas cartesianas de cada vrtice sobre una esfera del radio de la
+	 * Tierra, en kilmetros.
+	 */
+	private double[] xs, ys, zs;
+
+	/**
+	 * Arreglos de trabajo. dist[v], prev[v] y h[v] solo son vlidos si mark[v] ==
+	 * epoch.
+	 */
+	private double[] dist;
+	private double[] h;
+	private int[] prev;
+	private int[] mark;
+	private int epoch;
+	private IndexMinPQ pq;
+
+	/**
+	 * ltima consulta resuelta y nmero de vrtices que asent.
+	 */
+	private int lastStart = -1, lastEnd = -1;
+	private int settled;
+
+	/**
+	 * Construye el motor sobre el grafo dado. <b>pre:</b> El costo de tipo double
+	 * de cada arco es mayor o igual que la distancia haversiana (en km) entre las
+	 * coordenadas de sus extremos.
+	 * @param g Grafo no dirigido. g != null
+	 */
+	public AStarShortestPath( UndirectedGraph g )
+	{
+		n = g.numberOfVertices( );
+
+		DijkstrasShortestPath.Adjacencies a = DijkstrasShortestPath.adjacenciesOf( g );
+		offsets = a.offsets;
+		targets = a.targets;
+		cost = a.doubleCost;
+
+		xs = new double[n];
+		ys = new double[n];
+		zs = new double[n];
+		for( int v = 0; v < n; v++ )
+		{
+			double lat = Math.toRadians( g.getVertexLatitude( v ) );
+			double lon = Math.toRadians( g.getVertexLongitude( v ) );
+			xs[v] = KdTree.EARTH_RADIUS * Math.cos( lat ) * Math.cos( lon );
+			ys[v] = KdTree.EARTH_RADIUS * Math.cos( lat ) * Math.sin( lon );
+			zs[v] = KdTree.EARTH_RADIUS * Math.sin( lat );
+		}
+
+		dist = new double[n];
+		h = new double[n];
+		prev = new int[n];
+		mark = new int[n];
+		epoch = 0;
+		pq = new IndexMinPQ( n );
+	}
+
+	/**
+	 * Corre A* desde el nodo de inicio hasta el final.
+	 * @param start Nodo de inicio.
+	 * @param end   Nodo final.
+	 * @return Costo mnimo del camino, Double.POSITIVE_INFINITY si no existe.
+	 */
+	public double aStar( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		nextEpoch( );
+		lastStart = start;
+		lastEnd = end;
+		settled = 0;
+
+		double tx = xs[end], ty = ys[end], tz = zs[end];
+		visit( start, 0, -1, tx, ty, tz );
+		pq.insert( start, h[start] );
+
+		while( !pq.isEmpty( ) )
+		{
+			int node = pq.delMin( );
+			settled++;
+			if( node == end )
+				return dist[end];
+
+			for( int i = offsets[node]; i < offsets[node + 1]; i++ )
+			{
+				int to = targets[i];
+				double newDist = dist[node] + cost[i];
+				if( mark[to] != epoch )
+				{
+					visit( to, newDist, node, tx, ty, tz );
+					pq.insert( to, newDist + h[to] );
+				}
+				else if( newDist < dist[to] )
+				{
+					dist[to] = newDist;
+					prev[to] = node;
+					if( pq.contains( to ) )
+						pq.decreaseKey( to, newDist + h[to] );
+					else
+						pq.insert( to, newDist + h[to] ); // Se vuelve a abrir.
+				}
+			}
+		}
+		// No existe un camino entre el inicio y el final.
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Reconstruye el camino ms corto desde el inicio hasta el final (inclusivos
+	 * ambos). Si la ltima consulta fue la misma pareja de nodos, se reutiliza su
+	 * resultado.
+	 * @return Un iterable de enteros que corresponden a los id's de los nodos en el
+	 *         camino. Si no es alcanzable desde el inicio hasta el final, se
+	 *         retorna un iterable vaco.
+	 */
+	public Iterable<Integer> reconstructPath( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		if( start != lastStart || end != lastEnd )
+			aStar( start, end );
+
+		LinkedList<Integer> path = new LinkedList<>( );
+		if( mark[end] != epoch )
+			return path;
+		for( int at = end; at != -1; at = prev[at] )
+			path.addFirst( at );
+
+		return path;
+	}
+
+	/**
+	 * @return Nmero de vrtices asentados (sacados de la cola) en la ltima
+	 *         consulta.
+	 */
+	public int settledCount( )
+	{
+		return settled;
+	}
+
+	/**
+	 * Marca un nodo como alcanzado en la consulta actual y calcula su heurstica
+	 * hacia el destino de coordenadas (tx, ty, tz).
+	 */
+	private void visit( int v, double d, int from, double tx, double ty, double tz )
+	{
+		mark[v] = epoch;
+		dist[v] = d;
+		prev[v] = from;
+		double dx = xs[v] - tx, dy = ys[v] - ty, dz = zs[v] - tz;
+		h[v] = HEURISTIC_FACTOR * Math.sqrt( dx * dx + dy * dy + dz * dz );
+	}
+
+	/**
+	 * Empieza una consulta nueva.
+	 */
+	private void nextEpoch( )
+	{
+		pq.clear( );
+		if( ++epoch == 0 )
+		{
+			for( int v = 0; v < n; v++ )
+				mark[v] = 0;
+			epoch = 1;
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
@@ -0,0 +1,787 @@
+package model.data_structures;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Jerarqua de contraccin (contraction hierarchy) sobre un grafo no dirigido,
+ * para uno de sus tipos de costo.
+ * <p>
+ * El preprocesamiento contrae los vrtices uno por uno, ordenados sobre todo por
+ * su diferencia de arcos: el nmero de atajos que habra que agregar al
+ * quitarlo menos el nmero de arcos que se quitan. Al contraer v, para cada par
+ * de vecinos u, w se agrega el atajo u - w con el costo de u - v - w, salvo que
+ * una bsqueda local (de testigos) encuentre un camino igual o ms corto que no
+ * pase por v. Un vrtice tiene rango i si fue el i-simo en contraerse. Si el
+ * grafo restante se vuelve muy denso (como en una cuadrcula regular), sus
+ * vrtices quedan sin contraer en un ncleo.
+ * <p>
+ * Como el grafo es no dirigido, los arcos hacia arriba (de un vrtice a sus
+ * vecinos de mayor rango, originales y atajos) sirven para las dos bsquedas de
+ * la consulta: una desde el inicio y otra desde el final, que solo suben de
+ * rango (o se mueven dentro del ncleo) y se encuentran en el vrtice de mayor
+ * rango del camino ms corto. Cada atajo guarda el vrtice contrado por el que
+ * pasa, de modo que el camino se desempaca hasta los vrtices originales.
+ * <p>
+ * La jerarqua corresponde a los costos del grafo al momento de construirla; si
+ * cambian, se debe construir otra. Se puede escribir en un buffer y leer de
+ * nuevo sobre el mismo grafo para no repetir el preprocesamiento. No es seguro
+ * usar una misma jerarqua desde varios hilos a la vez.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class ContractionHierarchy
+{
+	/**
+	 * Nmero mximo de vrtices que asienta cada bsqueda de testigos. Si se
+	 * alcanza sin encontrar un testigo se agrega el atajo, lo que nunca cambia las
+	 * distancias, solo agrega arcos.
+	 */
+	private final static int WITNESS_SETTLED_LIMIT = 60;
+
+	/**
+	 * Grado mximo de un vrtice para contraerlo. Si el siguiente vrtice en orden
+	 * tiene un grado mayor, los vrtices restantes quedan sin contraer en el
+	 * ncleo de la jerarqua, donde la consulta es un Dijkstra bidireccional.
+	 */
+	private final static int MAX_CONTRACTION_DEGREE = 32;
+
+	private int n;
+	private CostType t;
+
+	/**
+	 * Rango (orden de contraccin) de cada vrtice.
+	 */
+	private int[] rank;
+
+	/**
+	 * Representacin CSR de los arcos hacia arriba: los arcos de v van a vrtices
+	 * de mayor rango, con su costo y el vrtice contrado por el que pasan (-1 si
+	 * es un arco original).
+	 */
+	private int[] upOffsets;
+	private int[] upTargets;
+	private double[] upCost;
+	private int[] upMiddle;
+
+	private int shortcuts;
+	private int coreSize;
+
+	/**
+	 * Suma de verificacin de los costos del grafo con los que se construy la
+	 * jerarqua.
+	 */
+	private long checksum;
+
+	/**
+	 * Arreglos de trabajo de las bsquedas hacia arriba desde el inicio (F) y
+	 * desde el final (B). Solo son vlidos si la marca es igual a epoch.
+	 */
+	private double[] distF, distB;
+	private int[] prevF, prevB;
+	private int[] middleF, middleB;
+	private int[] markF, markB;
+	private int epoch;
+	private IndexMinPQ pqF, pqB;
+
+	/**
+	 * Pila para desempacar atajos, de a tres enteros por segmento (desde, hasta,
+	 * vrtice intermedio).
+	 */
+	private int[] stack = new int[48];
+
+	/**
+	 * ltima consulta resuelta, vrtice donde se encontraron las bsquedas, costo y
+	 * nmero de vrtices asentados.
+	 */
+	private int lastStart = -1, lastEnd = -1;
+	private int meet = -1;
+	private double best;
+	private int settled;
+
+	/**
+	 * Adyacencias del grafo restante durante el preprocesamiento. Los vecinos de v
+	 * son neighbors[v][0..degree[v]), sin vrtices contrados ni arcos paralelos.
+	 */
+	private int[][] neighbors;
+	private double[][] weights;
+	private int[][] middles;
+	private int[] degree;
+
+	/**
+	 * Nmero de vecinos contrados y nivel de cada vrtice, para su prioridad.
+	 */
+	private int[] contractedNeighbors, level;
+
+	/**
+	 * Arreglos de trabajo de la bsqueda de testigos.
+	 */
+	private double[] witnessDist;
+	private int[] witnessMark;
+	private int[] witnessTarget;
+	private int witnessEpoch;
+	private IndexMinPQ witnessPQ;
+
+	/**
+	 * Construye la jerarqua sobre el grafo dado con el tipo de costo dado.
+	 * @param g Grafo no dirigido. g != null
+	 * @param t Tipo de costo. t = {DOUBLE, INTEGER}
+	 */
+	public ContractionHierarchy( UndirectedGraph g, CostType t )
+	{
+		this.n = g.numberOfVertices( );
+		this.t = t;
+		rank = new int[n];
+
+		DijkstrasShortestPath.Adjacencies a = DijkstrasShortestPath.adjacenciesOf( g );
+		checksum = costChecksum( a, t );
+		neighbors = new int[n][];
+		weights = new double[n][];
+		middles = new int[n][];
+		degree = new int[n];
+		for( int v = 0; v < n; v++ )
+		{
+			int size = Math.max( a.offsets[v + 1] - a.offsets[v], 1 );
+			neighbors[v] = new int[size];
+			weights[v] = new double[size];
+			middles[v] = new int[size];
+		}
+		for( int v = 0; v < n; v++ )
+			for( int i = a.offsets[v]; i < a.offsets[v + 1]; i++ )
+			{
+				int w = a.targets[i];
+				if( w != v )
+					addArc( v, w, t == CostType.INTEGER ? a.intCost[i] : a.doubleCost[i], -1 );
+			}
+
+		witnessDist = new double[n];
+		witnessMark = new int[n];
+		witnessTarget = new int[n];
+		witnessPQ = new IndexMinPQ( n );
+		contractAll( );
+		neighbors = null;
+		weights = null;
+		middles = null;
+		degree = null;
+		witnessDist = null;
+		witnessMark = null;
+		witnessTarget = null;
+		witnessPQ = null;
+		contractedNeighbors = null;
+		level = null;
+		allocateQueryArrays( );
+	}
+
+	/**
+	 * Construye una jerarqua vaca, para llenarla al leerla.
+	 */
+	private ContractionHierarchy( int n, CostType t )
+	{
+		this.n = n;
+		this.t = t;
+	}
+
+	/**
+	 * Crea los arreglos de trabajo de la consulta.
+	 */
+	private void allocateQueryArrays( )
+	{
+		distF = new double[n];
+		distB = new double[n];
+		prevF = new int[n];
+		prevB = new int[n];
+		middleF = new int[n];
+		middleB = new int[n];
+		markF = new int[n];
+		markB = new int[n];
+		epoch = 0;
+		pqF = new IndexMinPQ( n );
+		pqB = new IndexMinPQ( n );
+	}
+
+	/**
+	 * @return Nmero de bytes que ocupa la jerarqua al escribirla con
+	 *         writeStructure.
+	 */
+	public long structureSize( )
+	{
+		return 4 * 4L + 8 + 4 + 4L * n + 4L * ( n + 1 ) + ( 4L + 8L + 4L ) * upTargets.length;
+	}
+
+	/**
+	 * Escribe la jerarqua en el buffer dado: nmero de vrtices, tipo de costo,
+	 * nmero de atajos, tamao del ncleo, suma de verificacin de los costos,
+	 * nmero de arcos hacia arriba, el rango de cada vrtice y la representacin
+	 * CSR de los arcos hacia arriba.
+	 * @param buffer Buffer con al menos structureSize( ) bytes disponibles.
+	 */
+	public void writeStructure( ByteBuffer buffer )
+	{
+		buffer.putInt( n );
+		buffer.putInt( t.ordinal( ) );
+		buffer.putInt( shortcuts );
+		buffer.putInt( coreSize );
+		buffer.putLong( checksum );
+		buffer.putInt( upTargets.length );
+		buffer.asIntBuffer( ).put( rank );
+		buffer.position( buffer.position( ) + 4 * n );
+		buffer.asIntBuffer( ).put( upOffsets );
+		buffer.position( buffer.position( ) + 4 * ( n + 1 ) );
+		buffer.asIntBuffer( ).put( upTargets );
+		buffer.position( buffer.position( ) + 4 * upTargets.length );
+		buffer.asDoubleBuffer( ).put( upCost );
+		buffer.position( buffer.position( ) + 8 * upCost.length );
+		buffer.asIntBuffer( ).put( upMiddle );
+		buffer.position( buffer.position( ) + 4 * upMiddle.length );
+	}
+
+	/**
+	 * Lee una jerarqua escrita con writeStructure sobre el grafo dado.
+	 * @param buffer Buffer posicionado al comienzo de la jerarqua.
+	 * @param g      Grafo sobre el que se construy la jerarqua. g != null
+	 * @return Jerarqua leda.
+	 * @throws IllegalStateException Si la jerarqua no corresponde al grafo o a
+	 *                               sus costos actuales.
+	 */
+	public static ContractionHierarchy readStructure( ByteBuffer buffer, UndirectedGraph g )
+			throws IllegalStateException
+	{
+		int n = buffer.getInt( );
+		int tipo = buffer.getInt( );
+		if( n != g.numberOfVertices( ) || tipo < 0 || tipo >= CostType.values( ).length )
+			throw new IllegalStateException( "Contraction hierarchy does not match the graph" );
+
+		ContractionHierarchy ch = new ContractionHierarchy( n, CostType.values( )[tipo] );
+		ch.shortcuts = buffer.getInt( );
+		ch.coreSize = buffer.getInt( );
+		ch.checksum = buffer.getLong( );
+		if( ch.checksum != costChecksum( DijkstrasShortestPath.adjacenciesOf( g ), ch.t ) )
+			throw new IllegalStateException( "Contraction hierarchy was built with different edge costs" );
+
+		int m = buffer.getInt( );
+		ch.rank = new int[n];
+		buffer.asIntBuffer( ).get( ch.rank );
+		buffer.position( buffer.position( ) + 4 * n );
+		ch.upOffsets = new int[n + 1];
+		buffer.asIntBuffer( ).get( ch.upOffsets );
+		buffer.position( buffer.position( ) + 4 * ( n + 1 ) );
+		if( m < 0 || ch.upOffsets[0] != 0 || ch.upOffsets[n] != m )
+			throw new IllegalStateException( "Inconsistent contraction hierarchy" );
+
+		ch.upTargets = new int[m];
+		buffer.asIntBuffer( ).get( ch.upTargets );
+		buffer.position( buffer.position( ) + 4 * m );
+		ch.upCost = new double[m];
+		buffer.asDoubleBuffer( ).get( ch.upCost );
+		buffer.position( buffer.position( ) + 8 * m );
+		ch.upMiddle = new int[m];
+		buffer.asIntBuffer( ).get( ch.upMiddle );
+		buffer.position( buffer.position( ) + 4 * m );
+		for( int i = 0; i < m; i++ )
+			if( ch.upTargets[i] < 0 || ch.upTargets[i] >= n || ch.upMiddle[i] < -1 || ch.upMiddle[i] >= n )
+				throw new IllegalStateException( "Inconsistent contraction hierarchy" );
+
+		ch.allocateQueryArrays( );
+		return ch;
+	}
+
+	/**
+	 * @return Tipo de costo de la jerarqua.
+	 */
+	public CostType costType( )
+	{
+		return t;
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Rango del vrtice: la posicin en la que fue contrado.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public int rankOf( int v )
+	{
+		validateNode( v );
+		return rank[v];
+	}
+
+	/**
+	 * @return Nmero de atajos agregados durante el preprocesamiento.
+	 */
+	public int shortcutCount( )
+	{
+		return shortcuts;
+	}
+
+	/**
+	 * @return Nmero de vrtices del ncleo sin contraer.
+	 */
+	public int coreSize( )
+	{
+		return coreSize;
+	}
+
+	/**
+	 * @return Nmero de arcos hacia arriba (originales y atajos) de la jerarqua.
+	 */
+	public int upwardEdgeCount( )
+	{
+		return upTargets.length;
+	}
+
+	/**
+	 * Calcula el costo mnimo entre dos vrtices con la bsqueda bidireccional
+	 * hacia arriba. Cada bsqueda se detiene cuando su menor llave alcanza el mejor
+	 * costo encontrado, y no expande los vrtices a los que se llega ms barato
+	 * bajando desde un vrtice ya alcanzado (stall-on-demand).
+	 * @param start Nodo de inicio.
+	 * @param end   Nodo final.
+	 * @return Costo mnimo del camino, Double.POSITIVE_INFINITY si no existe.
+	 */
+	public double query( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		nextEpoch( );
+		lastStart = start;
+		lastEnd = end;
+		settled = 0;
+		meet = -1;
+		best = Double.POSITIVE_INFINITY;
+
+		reach( start, 0, -1, -1, distF, prevF, middleF, markF );
+		pqF.insert( start, 0 );
+		reach( end, 0, -1, -1, distB, prevB, middleB, markB );
+		pqB.insert( end, 0 );
+
+		while( true )
+		{
+			boolean forward = !pqF.isEmpty( ) && pqF.minKey( ) < best;
+			boolean backward = !pqB.isEmpty( ) && pqB.minKey( ) < best;
+			if( !forward && !backward )
+				break;
+
+			if( forward && ( !backward || pqF.minKey( ) <= pqB.minKey( ) ) )
+				settle( pqF, distF, prevF, middleF, markF, distB, markB );
+			else
+				settle( pqB, distB, prevB, middleB, markB, distF, markF );
+		}
+		return best;
+	}
+
+	/**
+	 * Reconstruye el camino ms corto desde el inicio hasta el final (inclusivos
+	 * ambos) en trminos de los vrtices originales del grafo. Si la ltima
+	 * consulta fue la misma pareja de nodos, se reutiliza su resultado.
+	 * @return Un iterable de enteros que corresponden a los id's de los nodos en el
+	 *         camino. Si no es alcanzable desde el inicio hasta el final, se
+	 *         retorna un iterable vaco.
+	 */
+	public Iterable<Integer> reconstructPath( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		if( start != lastStart || end != lastEnd )
+			query( start, end );
+
+		LinkedList<Integer> path = new LinkedList<>( );
+		if( meet == -1 )
+			return path;
+
+		// Los arcos desde el inicio hasta meet estn en orden inverso.
+		int count = 0;
+		for( int at = meet; prevF[at] != -1; at = prevF[at] )
+			count++;
+		int[] chain = new int[count];
+		for( int at = meet; prevF[at] != -1; at = prevF[at] )
+			chain[--count] = at;
+
+		path.append( start );
+		for( int i = 0; i < chain.length; i++ )
+			unpack( prevF[chain[i]], chain[i], middleF[chain[i]], path );
+		for( int at = meet; prevB[at] != -1; at = prevB[at] )
+			unpack( at, prevB[at], middleB[at], path );
+
+		return path;
+	}
+
+	/**
+	 * @return Nmero de vrtices asentados por las dos bsquedas en la ltima
+	 *         consulta.
+	 */
+	public int settledCount( )
+	{
+		return settled;
+	}
+
+	/**
+	 * Saca el vrtice de menor llave de una de las bsquedas y, si no se puede
+	 * detener, relaja sus arcos hacia arriba.
+	 */
+	private void settle( IndexMinPQ pq, double[] dist, int[] prev, int[] middle, int[] mark, double[] otherDist,
+			int[] otherMark )
+	{
+		int u = pq.delMin( );
+		settled++;
+		if( otherMark[u] == epoch && dist[u] + otherDist[u] < best )
+		{
+			best = dist[u] + otherDist[u];
+			meet = u;
+		}
+
+		// Stall-on-demand: si se llega a u ms barato bajando desde un vrtice ya
+		// alcanzado, u no est en ningn camino ms corto de esta bsqueda.
+		for( int i = upOffsets[u]; i < upOffsets[u + 1]; i++ )
+		{
+			int x = upTargets[i];
+			if( mark[x] == epoch && dist[x] + upCost[i] < dist[u] )
+				return;
+		}
+
+		for( int i = upOffsets[u]; i < upOffsets[u + 1]; i++ )
+		{
+			int x = upTargets[i];
+			double newDist = dist[u] + upCost[i];
+			if( mark[x] != epoch )
+			{
+				reach( x, newDist, u, upMiddle[i], dist, prev, middle, mark );
+				pq.insert( x, newDist );
+			}
+			else if( newDist < dist[x] && pq.contains( x ) )
+			{
+				dist[x] = newDist;
+				prev[x] = u;
+				middle[x] = upMiddle[i];
+				pq.decreaseKey( x, newDist );
+			}
+		}
+	}
+
+	/**
+	 * Marca un nodo como alcanzado en una de las bsquedas de la consulta actual.
+	 */
+	private void reach( int v, double d, int from, int via, double[] dist, int[] prev, int[] middle, int[] mark )
+	{
+		mark[v] = epoch;
+		dist[v] = d;
+		prev[v] = from;
+		middle[v] = via;
+	}
+
+	/**
+	 * Agrega al camino los vrtices originales del arco (posiblemente un atajo)
+	 * desde a hasta b, sin incluir a.
+	 */
+	private void unpack( int a, int b, int via, LinkedList<Integer> path )
+	{
+		int top = push( 0, a, b, via );
+		while( top > 0 )
+		{
+			top -= 3;
+			int from = stack[top], to = stack[top + 1], m = stack[top + 2];
+			if( m == -1 )
+			{
+				path.append( to );
+				continue;
+			}
+			// El vrtice intermedio tiene menor rango que los extremos, as que ambos
+			// arcos estn entre sus arcos hacia arriba. Se apila primero la segunda
+			// mitad para desempacar antes la primera.
+			top = push( top, m, to, middleOf( m, to ) );
+			top = push( top, from, m, middleOf( m, from ) );
+		}
+	}
+
+	/**
+	 * Apila un segmento en la posicin top, creciendo la pila si hace falta.
+	 * @return Nueva posicin del tope.
+	 */
+	private int push( int top, int from, int to, int via )
+	{
+		if( top + 3 > stack.length )
+			stack = Arrays.copyOf( stack, stack.length * 2 );
+		stack[top] = from;
+		stack[top + 1] = to;
+		stack[top + 2] = via;
+		return top + 3;
+	}
+
+	/**
+	 * @return Vrtice intermedio del arco hacia arriba desde v hasta w.
+	 * @throws IllegalStateException Si el arco no existe.
+	 */
+	private int middleOf( int v, int w )
+	{
+		for( int i = upOffsets[v]; i < upOffsets[v + 1]; i++ )
+			if( upTargets[i] == w )
+				return upMiddle[i];
+		throw new IllegalStateException( "Shortcut cannot be unpacked" );
+	}
+
+	/**
+	 * @return Suma de verificacin de los costos del tipo dado en las adyacencias.
+	 */
+	private static long costChecksum( DijkstrasShortestPath.Adjacencies a, CostType t )
+	{
+		int n = a.offsets.length - 1;
+		long suma = 17 * n + a.targets.length;
+		for( int i = 0; i < a.targets.length; i++ )
+			suma = 31 * suma + ( t == CostType.INTEGER ? a.intCost[i] : Double.doubleToLongBits( a.doubleCost[i] ) );
+		return suma;
+	}
+
+	/**
+	 * Contrae todos los vrtices en orden de prioridad y construye la
+	 * representacin CSR de los arcos hacia arriba.
+	 */
+	private void contractAll( )
+	{
+		contractedNeighbors = new int[n];
+		level = new int[n];
+		IndexMinPQ order = new IndexMinPQ( n );
+		for( int v = 0; v < n; v++ )
+			order.insert( v, priority( v ) );
+
+		int[][] upNeighbors = new int[n][];
+		double[][] upWeights = new double[n][];
+		int[][] upMiddles = new int[n][];
+		int next = 0;
+		while( !order.isEmpty( ) )
+		{
+			int v = order.delMin( );
+
+			// Actualizacin perezosa: si la prioridad de v empeor y ya no es la menor,
+			// se vuelve a encolar.
+			double priority = priority( v );
+			if( !order.isEmpty( ) && priority > order.minKey( ) )
+			{
+				order.insert( v, priority );
+				continue;
+			}
+			if( degree[v] > MAX_CONTRACTION_DEGREE )
+			{
+				// Lo que queda es un ncleo denso donde contraer solo agrega atajos.
+				order.insert( v, priority );
+				break;
+			}
+
+			shortcuts += contract( v, false );
+			rank[v] = next++;
+
+			// Los vecinos que quedan tienen mayor rango: son los arcos hacia arriba de v.
+			int d = degree[v];
+			upNeighbors[v] = Arrays.copyOf( neighbors[v], d );
+			upWeights[v] = Arrays.copyOf( weights[v], d );
+			upMiddles[v] = Arrays.copyOf( middles[v], d );
+			neighbors[v] = null;
+			weights[v] = null;
+			middles[v] = null;
+			degree[v] = 0;
+
+			for( int i = 0; i < d; i++ )
+			{
+				int u = upNeighbors[v][i];
+				removeArc( u, v );
+				// Solo se actualizan los trminos que cambian sin bsquedas de testigos; la
+				// diferencia de arcos se recalcula cuando u sale de la cola.
+				int oldLevel = level[u];
+				contractedNeighbors[u]++;
+				level[u] = Math.max( level[u], level[v] + 1 );
+				order.changeKey( u, order.keyOf( u ) + 1 + level[u] - oldLevel );
+			}
+		}
+
+		while( !order.isEmpty( ) )
+		{
+			int v = order.delMin( );
+			rank[v] = next++;
+			coreSize++;
+			upNeighbors[v] = Arrays.copyOf( neighbors[v], degree[v] );
+			upWeights[v] = Arrays.copyOf( weights[v], degree[v] );
+			upMiddles[v] = Arrays.copyOf( middles[v], degree[v] );
+		}
+
+		upOffsets = new int[n + 1];
+		for( int v = 0; v < n; v++ )
+			upOffsets[v + 1] = upOffsets[v] + upNeighbors[v].length;
+		upTargets = new int[upOffsets[n]];
+		upCost = new double[upOffsets[n]];
+		upMiddle = new int[upOffsets[n]];
+		for( int v = 0; v < n; v++ )
+		{
+			System.arraycopy( upNeighbors[v], 0, upTargets, upOffsets[v], upNeighbors[v].length );
+			System.arraycopy( upWeights[v], 0, upCost, upOffsets[v], upWeights[v].length );
+			System.arraycopy( upMiddles[v], 0, upMiddle, upOffsets[v], upMiddles[v].length );
+		}
+	}
+
+	/**
+	 * Prioridad de contraccin de v: dos veces su diferencia de arcos, ms el
+	 * nmero de vecinos ya contrados y su nivel (uno ms que el mayor nivel de sus
+	 * vecinos contrados). Los dos ltimos trminos reparten la contraccin por
+	 * todo el grafo y mantienen bajas las bsquedas de la consulta.
+	 */
+	private double priority( int v )
+	{
+		return 2 * ( contract( v, true ) - degree[v] ) + contractedNeighbors[v] + level[v];
+	}
+
+	/**
+	 * Contrae el vrtice v, o solo simula su contraccin.
+	 * @param simulate True si solo se cuentan los atajos, sin agregarlos.
+	 * @return Nmero de atajos necesarios.
+	 */
+	private int contract( int v, boolean simulate )
+	{
+		int d = degree[v];
+		int[] nb = neighbors[v];
+		double[] ws = weights[v];
+
+		int count = 0;
+		for( int i = 0; i < d - 1; i++ )
+		{
+			int u = nb[i];
+			witnessSearch( u, v, nb, ws, i + 1, d, ws[i] );
+			for( int j = i + 1; j < d; j++ )
+			{
+				int w = nb[j];
+				double viaV = ws[i] + ws[j];
+				if( witnessMark[w] == witnessEpoch && witnessDist[w] <= viaV )
+					continue;
+				count++;
+				if( !simulate )
+				{
+					addArc( u, w, viaV, v );
+					addArc( w, u, viaV, v );
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Dijkstra local desde source en el grafo restante sin pasar por excluded, que
+	 * busca testigos hacia los vrtices targets[from..to). Se detiene al asentarlos
+	 * todos, al superar la mayor distancia pasando por excluded (sourceWeight ms
+	 * el costo hasta el vrtice) o al asentar WITNESS_SETTLED_LIMIT vrtices. Deja
+	 * en witnessDist una cota superior de la distancia de cada vrtice alcanzado.
+	 */
+	private void witnessSearch( int source, int excluded, int[] targets, double[] targetWeights, int from, int to,
+			double sourceWeight )
+	{
+		witnessPQ.clear( );
+		if( ++witnessEpoch == 0 )
+		{
+			Arrays.fill( witnessMark, 0 );
+			Arrays.fill( witnessTarget, 0 );
+			witnessEpoch = 1;
+		}
+
+		double maxDist = 0;
+		for( int j = from; j < to; j++ )
+		{
+			witnessTarget[targets[j]] = witnessEpoch;
+			maxDist = Math.max( maxDist, sourceWeight + targetWeights[j] );
+		}
+		int remaining = to - from;
+
+		witnessMark[source] = witnessEpoch;
+		witnessDist[source] = 0;
+		witnessPQ.insert( source, 0 );
+		int count = 0;
+		while( !witnessPQ.isEmpty( ) && count++ < WITNESS_SETTLED_LIMIT )
+		{
+			if( witnessPQ.minKey( ) > maxDist )
+				break;
+			int x = witnessPQ.delMin( );
+			if( witnessTarget[x] == witnessEpoch && --remaining == 0 )
+				break;
+			for( int i = 0; i < degree[x]; i++ )
+			{
+				int y = neighbors[x][i];
+				if( y == excluded )
+					continue;
+				double newDist = witnessDist[x] + weights[x][i];
+				if( witnessMark[y] != witnessEpoch )
+				{
+					witnessMark[y] = witnessEpoch;
+					witnessDist[y] = newDist;
+					witnessPQ.insert( y, newDist );
+				}
+				else if( newDist < witnessDist[y] && witnessPQ.contains( y ) )
+				{
+					witnessDist[y] = newDist;
+					witnessPQ.decreaseKey( y, newDist );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Agrega el arco desde v hasta w, o baja su costo si ya existe uno ms caro.
+	 */
+	private void addArc( int v, int w, double cost, int via )
+	{
+		int[] nb = neighbors[v];
+		for( int i = 0; i < degree[v]; i++ )
+			if( nb[i] == w )
+			{
+				if( cost < weights[v][i] )
+				{
+					weights[v][i] = cost;
+					middles[v][i] = via;
+				}
+				return;
+			}
+
+		if( degree[v] == nb.length )
+		{
+			neighbors[v] = Arrays.copyOf( nb, nb.length * 2 );
+			weights[v] = Arrays.copyOf( weights[v], nb.length * 2 );
+			middles[v] = Arrays.copyOf( middles[v], nb.length * 2 );
+		}
+		neighbors[v][degree[v]] = w;
+		weights[v][degree[v]] = cost;
+		middles[v][degree[v]] = via;
+		degree[v]++;
+	}
+
+	/**
+	 * Quita el arco desde v hasta w, si existe.
+	 */
+	private void removeArc( int v, int w )
+	{
+		int[] nb = neighbors[v];
+		for( int i = 0; i < degree[v]; i++ )
+			if( nb[i] == w )
+			{
+				int last = --degree[v];
+				nb[i] = nb[last];
+				weights[v][i] = weights[v][last];
+				middles[v][i] = middles[v][last];
+				return;
+			}
+	}
+
+	/**
+	 * Empieza una consulta nueva.
+	 */
+	private void nextEpoch( )
+	{
+		pqF.clear( );
+		pqB.clear( );
+		if( ++epoch == 0 )
+		{
+			Arrays.fill( markF, 0 );
+			Arrays.fill( markB, 0 );
+			epoch = 1;
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
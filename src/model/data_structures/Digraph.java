@@ -1,7 +1,5 @@
 package model.data_structures;
 
-import java.math.BigDecimal;
-
 @SuppressWarnings( "unchecked" )
 public class Digraph
 {
@@ -45,19 +43,11 @@ public class Digraph
 	{
 		this( g.numberOfVertices( ) );
 
-		if( t == CostType.INTEGER )
-			g.t = CostType.INTEGER;
-
-		for( String edge : g )
+		UndirectedGraph<?, ?, ?>.EdgeCursor c = g.edgeCursor( );
+		while( c.next( ) )
 		{
-			int from = Integer.valueOf( edge.split( "," )[0] );
-			int to = Integer.valueOf( edge.split( "," )[1] );
-			double cost;
-			if( edge.split( "," )[2].contains( "E" ) ) // Detecta una notacin cientfica
-				cost = ( new BigDecimal( edge.split( "," )[2] ) ).doubleValue( );
-			else
-				cost = Double.valueOf( edge.split( "," )[2] );
-			
+			int from = c.either( ), to = c.other( );
+			double cost = t == CostType.DOUBLE ? c.doubleCost( ) : c.integerCost( );
 			this.addEdge( new Edge( from, to, cost ) );
 			this.addEdge( new Edge( to, from, cost ) );
 		}
@@ -1,11 +1,5 @@
 package model.data_structures;
 
-import java.util.Iterator;
-
-import model.data_structures.IGraph;
-import model.data_structures.MinHeapPQ;
-import model.data_structures.Vertex;
-
 /**
  * Implementacin del algoritmo de Dijkstra para encontrar el camino ms corto.
  * @author Camilo Martnez & Nicols Quintero
@@ -35,12 +29,9 @@ public class Dijkstra<K extends Comparable<K>, V extends Comparable<V>, L extend
 	private double distancia[];          // distancia[ u ] distancia de vrtice inicial a vrtice con
 								          // ID = u
 	private boolean visitado[];     // para vrtices visitados
-	private MinHeapPQ<Vertex<K, V, E>> pq;                       // priority queue.
+	private IndexMinPQ pq;                // cola de prioridad indexada por ID, con la distancia como llave
 	private int previo[];              // para la impresion de caminos
-	public int tamanio = 0;
 	public double costoMinimo = 0;
-	public double totalIntegerCost = 0;
-	public double totalDoubleCost = 0;
 
 	// inicializamos todas las distancias con valor infinito
 	// inicializamos todos los vrtices como no visitados
@@ -55,7 +46,7 @@ public class Dijkstra<K extends Comparable<K>, V extends Comparable<V>, L extend
 		}
 	}
 
-	private void relajacion( IGraph G, int actual, int adyacente, double peso )
+	private void relajacion( int actual, int adyacente, double peso )
 	{
 		// Si la distancia del origen al vertice actual + peso de su arista es menor a
 		// la distancia del origen al vertice adyacente
@@ -63,7 +54,10 @@ public class Dijkstra<K extends Comparable<K>, V extends Comparable<V>, L extend
 		{
 			distancia[adyacente] = ( distancia[actual] + peso );  // relajamos el vertice actualizando la distancia
 			previo[adyacente] = actual;                         // a su vez actualizamos el vertice previo
-			pq.insert( G.getVertex( adyacente ) );                  // agregamos adyacente a la cola de prioridad
+			if( pq.contains( adyacente ) )                      // disminuimos su llave si ya est en la cola,
+				pq.decreaseKey( adyacente, distancia[adyacente] );
+			else                                                // o lo agregamos a la cola de prioridad
+				pq.insert( adyacente, distancia[adyacente] );
 		}
 	}
 
@@ -74,78 +68,34 @@ public class Dijkstra<K extends Comparable<K>, V extends Comparable<V>, L extend
 
 	public Dijkstra( IGraph G, int inicial, int destino, TipoCosto t )
 	{
-		MinHeapPQ<Vertex<K, V, E>> pq = new MinHeapPQ<>( G.numberOfVertices( ) );
+		pq = new IndexMinPQ( G.numberOfVertices( ) );
 		distancia = new double[G.numberOfVertices( )];
 		visitado = new boolean[G.numberOfVertices( )];
 		previo = new int[G.numberOfVertices( )];
 
 		init( G ); // inicializamos nuestros arreglos
-		pq.insert( G.getVertex( inicial ) ); // Insertamos el vrtice inicial en la Cola de Prioridad
 		distancia[inicial] = 0;      // Este paso es importante, inicializamos la distancia del inicial como 0
-		Vertex<K, V, E> actual, adyacente;
-		double peso;
+		pq.insert( inicial, 0 ); // Insertamos el vrtice inicial en la Cola de Prioridad
+		int actual;
 		while( !pq.isEmpty( ) )
 		{                        // Mientras cola no este vacia
-			actual = pq.poll( );                      // Obtengo de la cola el vertice con menor peso, en un comienzo
-								                      // ser el inicial.Sacamos el elemento de la cola
-			if( visitado[actual.getId( )] )
-				continue; // Si el vrtice actual ya fue visitado entonces sigo sacando elementos de la
-							 // cola
-			visitado[actual.getId( )] = true;         // Marco como visitado el vrtice actual
-			Iterator<Integer> iterador = G.vertexAdjacentTo( actual.getId( ) );
-
-			while( iterador.hasNext( ) )
+			actual = pq.delMin( );                    // Obtengo de la cola el vertice con menor distancia, en un
+								                      // comienzo ser el inicial. Sacamos el elemento de la cola
+			visitado[actual] = true;                  // Marco como visitado el vrtice actual
+			if( actual == destino )
+				break; // La distancia del destino ya es la mnima, no hace falta seguir
+
+			// Se recorren los arcos del vrtice una sola vez, leyendo el costo del arco
+			// en lugar de buscarlo de nuevo por cada adyacente.
+			for( Object o : G.edgesAdjacentTo( actual ) )
 			{
-				int id = iterador.next( );
-				adyacente = G.getVertex( id );
-
-				if( t == TipoCosto.DOUBLE )
-					peso = G.getEdgeDoubleCost( actual.getId( ), id );
-				else // INTEGER
-					peso = G.getEdgeIntegerCost( actual.getId( ), id );
-
+				Edge<K, V, E> arco = ( Edge<K, V, E> ) o;
+				int id = arco.other( actual );
 				if( !visitado[id] )
-				{
-					relajacion( G, actual.getId( ), adyacente.getId( ), peso );
-				}
-				actual = adyacente;
+					relajacion( actual, id, t == TipoCosto.DOUBLE ? arco.getDoubleCost( ) : arco.getIntegerCost( ) );
 			}
 		}
 
 		costoMinimo = distancia[destino];
 	}
-
-	// Impresion del camino mas corto desde el vertice inicial y final ingresados
-	public String print( int destino, IGraph G )
-	{
-		String secuencia = "";
-
-		if( previo[destino] != -1 )// si aun poseo un vertice previo
-		{
-			tamanio++;
-			totalIntegerCost += G.getVertex( destino ).numberOfItems( );
-			totalDoubleCost += G.getEdgeDoubleCost( destino, previo[destino] );
-		}
-
-		secuencia += print( previo[destino], G ) + "\n";  // recursivamente sigo explorando
-		secuencia += String.format( "%d", destino ) + "\n"; // terminada la recursion imprimo los vertices recorridos
-		secuencia += G.getVertexInfo( previo[destino] ) + "\n";
-
-		return secuencia;
-	}
-
-	public UndirectedGraph<?, ?, Integer> crearGrafo( IGraph G, int destino )
-	{
-		UndirectedGraph<?, ?, Integer> g = new UndirectedGraph<>( tamanio );
-		int actual = destino;
-		while( previo[actual] != -1 )
-		{
-			g.addEdge( actual, previo[actual], G.getEdgeDoubleCost( actual, previo[actual] ) );
-			g.setVertexInfo( actual, G.getVertexInfo( actual ) );
-			g.setVertexInfo( previo[actual], G.getVertexInfo( previo[actual] ) );
-			actual = previo[actual];
-		}
-
-		return g;
-	}
 }
\ No newline at end of file
@@ -1,47 +1,207 @@
 package model.data_structures;
 
-import java.util.Arrays;
-
+/**
+ * Motor de caminos ms cortos (Dijkstra) sobre un grafo no dirigido, pensado
+ * para construirse una sola vez por tipo de costo y responder muchas consultas.
+ * Si el grafo est congelado, el motor lee directamente los arreglos de su
+ * representacin CSR (sin copiarlos), de modo que los cambios a los costos de
+ * tipo integer hechos con setEdgeIntegerCost se ven en las consultas
+ * siguientes. Si no lo est, el motor copia las adyacencias al construirse.
+ * <p>
+ * Los arreglos de trabajo (distancias, previos y la cola de prioridad) se crean
+ * una sola vez. En lugar de llenarlos de nuevo en cada consulta, cada vrtice
+ * guarda la poca (nmero de consulta) en la que se le asign distancia; un
+ * vrtice con una poca vieja se considera no visitado. As una consulta solo
+ * recorre los vrtices que alcanza y casi no crea objetos.
+ * <p>
+ * Adems de la bsqueda desde el origen (dijkstra), el motor tiene un modo
+ * bidireccional (bidirectionalDijkstra) que crece una bsqueda desde cada
+ * extremo y se detiene cuando ya no pueden mejorar el mejor camino encontrado.
+ * Como el grafo es no dirigido, ambas bsquedas recorren las mismas
+ * adyacencias.
+ * <p>
+ * No es seguro usar un mismo motor desde varios hilos a la vez.
+ */
 @SuppressWarnings( { "rawtypes" } )
 public class DijkstrasShortestPath
 {
 	private int n;
+	private CostType t;
+
+	/**
+	 * Representacin CSR de las adyacencias: los arcos del vrtice v ocupan las
+	 * posiciones offsets[v] a offsets[v + 1] - 1 de targets y del arreglo de costos
+	 * del tipo del motor.
+	 */
+	private int[] offsets;
+	private int[] targets;
+	private double[] doubleCost;
+	private int[] intCost;
+
+	/**
+	 * Arreglos de trabajo. dist[v] y prev[v] solo son vlidos si mark[v] == epoch.
+	 */
 	private double[] dist;
-	private Integer[] prev;
-	private Digraph g;
+	private int[] prev;
+	private int[] mark;
+	private int epoch;
+	private IndexMinPQ pq;
+
+	/**
+	 * Arreglos de trabajo de la bsqueda desde el destino del modo bidireccional.
+	 * prevB[v] es el siguiente nodo del camino de v hacia el destino. Se crean la
+	 * primera vez que se usa ese modo.
+	 */
+	private double[] distB;
+	private int[] prevB;
+	private int[] markB;
+	private IndexMinPQ pqB;
+
+	/**
+	 * ltima consulta resuelta, para que reconstructPath no repita Dijkstra.
+	 */
+	private int lastStart = -1, lastEnd = -1;
+
+	/**
+	 * Nodo donde se unen las dos bsquedas en el mejor camino de la ltima consulta
+	 * bidireccional, -1 si no hay camino.
+	 */
+	private int meet = -1;
+
+	/**
+	 * Nmero de vrtices asentados (sacados de la cola) en la ltima consulta.
+	 */
+	private int settled;
 
 	/**
 	 * Inicializa el algoritmo proporcionando un grafo no dirigido, el tamao del
 	 * grafo y un tipo de costo que se usar, dado que la implementacin del arco no
 	 * dirigido acepta 2 costos: uno de tipo DOUBLE y otro de tipo INTEGER.
 	 * @param g Grafo no dirigido. g != null
-	 * @param t Tipo de costo que ser usado para crear el grafo dirigido. t =
-	 *          {DOUBLE, INTEGER}
+	 * @param t Tipo de costo que ser usado por el motor. t = {DOUBLE, INTEGER}
 	 */
 	public DijkstrasShortestPath( UndirectedGraph g, CostType t )
 	{
 		this.n = g.numberOfVertices( );
-		this.g = new Digraph( g, t ); // Construye el dgrafo a partir del grafo no dirigido.
+		this.t = t;
+
+		Adjacencies a = adjacenciesOf( g );
+		offsets = a.offsets;
+		targets = a.targets;
+		doubleCost = a.doubleCost;
+		intCost = a.intCost;
+
+		dist = new double[n];
+		prev = new int[n];
+		mark = new int[n];
+		epoch = 0;
+		pq = new IndexMinPQ( n );
+	}
+
+	/**
+	 * Adyacencias de un grafo en representacin CSR.
+	 */
+	static class Adjacencies
+	{
+		int[] offsets;
+		int[] targets;
+		double[] doubleCost;
+		int[] intCost;
+	}
+
+	/**
+	 * Retorna las adyacencias del grafo dado en representacin CSR. Si el grafo
+	 * est congelado se usan sus propios arreglos, sin copiarlos; si no, se copian
+	 * sus adyacencias.
+	 * @param g Grafo no dirigido. g != null
+	 * @return Adyacencias del grafo.
+	 */
+	@SuppressWarnings( "unchecked" )
+	static Adjacencies adjacenciesOf( UndirectedGraph g )
+	{
+		Adjacencies a = new Adjacencies( );
+		if( g.isFrozen( ) )
+		{
+			a.offsets = g.csrOffsets( );
+			a.targets = g.csrTargets( );
+			a.doubleCost = g.csrDoubleCosts( );
+			a.intCost = g.csrIntegerCosts( );
+			return a;
+		}
+
+		int n = g.numberOfVertices( );
+		a.offsets = new int[n + 1];
+		for( int v = 0; v < n; v++ )
+			a.offsets[v + 1] = a.offsets[v] + g.degreeOf( v );
+
+		a.targets = new int[a.offsets[n]];
+		a.doubleCost = new double[a.offsets[n]];
+		a.intCost = new int[a.offsets[n]];
+		for( int v = 0; v < n; v++ )
+		{
+			int i = a.offsets[v];
+			for( Edge e : ( Iterable<Edge> ) g.edgesAdjacentTo( v ) )
+			{
+				a.targets[i] = e.other( v );
+				a.doubleCost[i] = e.getDoubleCost( );
+				a.intCost[i] = e.getIntegerCost( );
+				i++;
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * @return Tipo de costo que usa el motor.
+	 */
+	public CostType costType( )
+	{
+		return t;
+	}
+
+	/**
+	 * @return Nmero de vrtices asentados (sacados de alguna de las colas) en la
+	 *         ltima consulta.
+	 */
+	public int settledCount( )
+	{
+		return settled;
 	}
 
 	/**
 	 * Reconstruye el tamao ms corto de nodos desde el inicio hasta el final
-	 * (inclusivos ambos).
+	 * (inclusivos ambos). Si la ltima consulta hecha con dijkstra o
+	 * bidirectionalDijkstra fue la misma pareja de nodos, o si la ltima fue
+	 * distancesFrom desde el mismo inicio, se reutiliza su resultado en lugar de
+	 * correr el algoritmo de nuevo.
 	 * @return Un iterable de enteros que corresponden a los id's de los nodos en el
 	 *         camino. Si no es alcanzable desde el inicio hasta el final, se
 	 *         retorna un iterable vaco.
 	 */
 	public Iterable<Integer> reconstructPath( int start, int end )
 	{
-		if( end < 0 || end >= n )
-			throw new IllegalArgumentException( "Invalid node index" );
-		if( start < 0 || start >= n )
-			throw new IllegalArgumentException( "Invalid node index" );
-		double dist = dijkstra( start, end );
+		validateNode( start );
+		validateNode( end );
+		if( start != lastStart || ( end != lastEnd && lastEnd != -1 ) )
+			dijkstra( start, end );
+
 		LinkedList<Integer> path = new LinkedList<>( );
-		if( dist == Double.POSITIVE_INFINITY )
+		if( markB != null && markB[end] == epoch )
+		{
+			// La ltima consulta fue bidireccional: el camino va del inicio al nodo de
+			// encuentro por prev y de ah al final por prevB.
+			if( meet == -1 )
+				return path;
+			for( int at = meet; at != -1; at = prev[at] )
+				path.addFirst( at );
+			for( int at = prevB[meet]; at != -1; at = prevB[at] )
+				path.append( at );
+			return path;
+		}
+
+		if( mark[end] != epoch || dist[end] == Double.POSITIVE_INFINITY )
 			return path;
-		for( Integer at = end; at != null; at = prev[at] )
+		for( int at = end; at != -1; at = prev[at] )
 			path.addFirst( at );
 
 		return path;
@@ -49,59 +209,218 @@ public class DijkstrasShortestPath
 
 	/**
 	 * Corre el algoritmo de Dijkstra en un grafo dirigido para encontrar el camino
-	 * ms corto de un nodo de inicio a uno final.
+	 * ms corto de un nodo de inicio a uno final. La cola de prioridad es indexada:
+	 * cada nodo est a lo sumo una vez en ella y una relajacin solo disminuye su
+	 * llave, por lo que la memoria usada por consulta es O(V) y no O(E).
 	 * @param start Nodo de inicio.
 	 * @param end   Nodo final.
 	 * @return Costo mnimo del camino.
 	 */
 	public double dijkstra( int start, int end )
 	{
-		// Arreglo de distancia mnima.
-		dist = new double[n];
-		Arrays.fill( dist, Double.POSITIVE_INFINITY );
-		dist[start] = 0;
+		validateNode( start );
+		validateNode( end );
+		return dijkstra( start, end, end );
+	}
 
-		// Cola de prioridad del siguiente mejor nodo a visitar.
-		MaxHeapPQ<ListNode<?>> pq = new MaxHeapPQ<ListNode<?>>( 2 * n );
-		pq.insert( new ListNode<>( start, 0 ) );
+	/**
+	 * Corre el algoritmo de Dijkstra desde start y se detiene al asentar el nodo
+	 * stop. Si stop es -1 (y end tambin) recorre todos los nodos alcanzables.
+	 */
+	private double dijkstra( int start, int end, int stop )
+	{
+		nextEpoch( );
+		settled = 0;
+		lastStart = start;
+		lastEnd = end;
 
-		// Arreglo que guarda qu nodos ya han sido visitados.
-		boolean[] visited = new boolean[n];
-		prev = new Integer[n];
+		boolean integer = t == CostType.INTEGER;
+		visit( start, 0, -1 );
+		pq.insert( start, 0 );
 
 		while( !pq.isEmpty( ) )
 		{
-			ListNode<?> node = pq.poll( );
-			visited[node.id] = true;
+			int node = pq.delMin( );
+			settled++;
 
-			// Ya se encontr un mejor camino antes de que se procesara este nodo, as que
-			// se puede ignorar.
-			if( dist[node.id] < node.value )
-				continue;
+			// Al sacar el nodo final de la cola ya se conoce su distancia mnima, porque
+			// no se puede encontrar un camino mejor despus de este punto.
+			if( node == stop )
+				return dist[end];
 
-			Iterable<model.data_structures.Digraph.Edge> edges = g.edgesAdjacentTo( node.id );
-			for( model.data_structures.Digraph.Edge edge : edges )
+			for( int i = offsets[node]; i < offsets[node + 1]; i++ )
 			{
-				if( visited[edge.to] )
-					continue;
+				int to = targets[i];
 
-				// Relajacin en el caso que aplique.
-				double newDist = dist[edge.from] + edge.cost;
-				if( newDist < dist[edge.to] )
+				// Relajacin en el caso que aplique. Un nodo que ya sali de la cola tiene su
+				// distancia mnima, as que nunca se relaja de nuevo.
+				double newDist = dist[node] + ( integer ? intCost[i] : doubleCost[i] );
+				if( mark[to] != epoch )
 				{
-					prev[edge.to] = edge.from;
-					dist[edge.to] = newDist;
-					pq.insert( new ListNode( edge.to, dist[edge.to] ) );
+					visit( to, newDist, node );
+					pq.insert( to, newDist );
+				}
+				else if( newDist < dist[to] )
+				{
+					dist[to] = newDist;
+					prev[to] = node;
+					pq.decreaseKey( to, newDist );
 				}
 			}
-
-			// Una vez que se haya visitado todos los nodos que se desprenden del final, se
-			// sabe que se puede retornar la mnima distancia a este nodo porque no se puede
-			// encontrar un camino mejor despus de este punto.
-			if( node.id == end )
-				return dist[end];
 		}
 		// No existe un camino entre el inicio y el final.
 		return Double.POSITIVE_INFINITY;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Corre el algoritmo de Dijkstra desde el nodo dado sin nodo final, hasta
+	 * alcanzar todos los nodos a los que se puede llegar.
+	 * @param source Nodo de inicio.
+	 * @return Arreglo nuevo con la distancia mnima desde el inicio hasta cada
+	 *         nodo, Double.POSITIVE_INFINITY si el nodo no es alcanzable.
+	 */
+	public double[] distancesFrom( int source )
+	{
+		validateNode( source );
+		dijkstra( source, -1, -1 );
+
+		double[] distances = new double[n];
+		for( int v = 0; v < n; v++ )
+			distances[v] = mark[v] == epoch ? dist[v] : Double.POSITIVE_INFINITY;
+		return distances;
+	}
+
+	/**
+	 * Corre el algoritmo de Dijkstra bidireccional: una bsqueda crece desde el
+	 * inicio y otra desde el final, y en cada paso avanza la que tenga la menor
+	 * distancia en su cola. Cada vez que un nodo queda alcanzado por ambas
+	 * bsquedas se actualiza el mejor camino conocido. El algoritmo se detiene
+	 * cuando la suma de las menores distancias de ambas colas es mayor o igual que
+	 * ese camino, porque cualquier otro camino tendra que pasar por un nodo que
+	 * an no sali de alguna de las colas. El criterio es vlido para cualquier
+	 * costo no negativo, tanto DOUBLE como INTEGER.
+	 * <p>
+	 * El costo es el mismo que el de dijkstra. Si hay varios caminos con el mismo
+	 * costo (algo frecuente con costos de tipo INTEGER), el camino reconstruido
+	 * puede ser otro de ellos.
+	 * @param start Nodo de inicio.
+	 * @param end   Nodo final.
+	 * @return Costo mnimo del camino.
+	 */
+	public double bidirectionalDijkstra( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		if( distB == null )
+		{
+			distB = new double[n];
+			prevB = new int[n];
+			markB = new int[n];
+			pqB = new IndexMinPQ( n );
+		}
+		nextEpoch( );
+		settled = 0;
+		lastStart = start;
+		lastEnd = end;
+
+		boolean integer = t == CostType.INTEGER;
+		visit( start, 0, -1 );
+		pq.insert( start, 0 );
+		markB[end] = epoch;
+		distB[end] = 0;
+		prevB[end] = -1;
+		pqB.insert( end, 0 );
+
+		double best = Double.POSITIVE_INFINITY;
+		meet = -1;
+		if( start == end )
+		{
+			meet = start;
+			return 0;
+		}
+
+		while( !pq.isEmpty( ) && !pqB.isEmpty( ) )
+		{
+			double forward = pq.minKey( ), backward = pqB.minKey( );
+			if( forward + backward >= best )
+				break;
+
+			// Se avanza la bsqueda con la menor distancia en su cola.
+			boolean fromStart = forward <= backward;
+			IndexMinPQ q = fromStart ? pq : pqB;
+			double[] d = fromStart ? dist : distB, other = fromStart ? distB : dist;
+			int[] p = fromStart ? prev : prevB;
+			int[] m = fromStart ? mark : markB, otherMark = fromStart ? markB : mark;
+
+			int node = q.delMin( );
+			settled++;
+			for( int i = offsets[node]; i < offsets[node + 1]; i++ )
+			{
+				int to = targets[i];
+				double newDist = d[node] + ( integer ? intCost[i] : doubleCost[i] );
+				if( m[to] != epoch )
+				{
+					m[to] = epoch;
+					d[to] = newDist;
+					p[to] = node;
+					q.insert( to, newDist );
+				}
+				else if( newDist < d[to] )
+				{
+					d[to] = newDist;
+					p[to] = node;
+					q.decreaseKey( to, newDist );
+				}
+				else
+					continue;
+
+				// El nodo tambin fue alcanzado desde el otro extremo.
+				if( otherMark[to] == epoch && d[to] + other[to] < best )
+				{
+					best = d[to] + other[to];
+					meet = to;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Marca un nodo como alcanzado en la consulta actual.
+	 */
+	private void visit( int v, double d, int from )
+	{
+		mark[v] = epoch;
+		dist[v] = d;
+		prev[v] = from;
+	}
+
+	/**
+	 * Empieza una consulta nueva. Solo se limpian los arreglos de trabajo cuando el
+	 * contador de pocas da la vuelta.
+	 */
+	private void nextEpoch( )
+	{
+		pq.clear( );
+		if( pqB != null )
+			pqB.clear( );
+		if( ++epoch == 0 )
+		{
+			for( int v = 0; v < n; v++ )
+				mark[v] = 0;
+			if( markB != null )
+				for( int v = 0; v < n; v++ )
+					markB[v] = 0;
+			epoch = 1;
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
@@ -0,0 +1,228 @@
+package model.data_structures;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matriz de distancias por la red entre un conjunto de fuentes y uno de
+ * destinos. En lugar de correr un Dijkstra por cada pareja, se crece un solo
+ * rbol de caminos ms cortos por fuente y se leen de l las distancias a todos
+ * los destinos; la bsqueda de cada fuente se detiene en cuanto asienta el
+ * ltimo destino. Las fuentes se reparten entre los hilos de un fork-join pool,
+ * y cada tarea toma unos arreglos de trabajo de un pool compartido y los
+ * devuelve al terminar, as que se reutilizan entre tareas y entre llamadas a
+ * compute sin quedar atados a los hilos.
+ * <p>
+ * Las adyacencias del grafo solo se leen, as que se puede calcular una matriz
+ * desde varios hilos a la vez siempre que nadie cambie los costos del grafo
+ * mientras tanto.
+ */
+@SuppressWarnings( { "rawtypes", "serial" } )
+public class DistanceMatrix
+{
+	private int n;
+	private CostType t;
+	private DijkstrasShortestPath.Adjacencies a;
+	private ForkJoinPool pool;
+
+	/**
+	 * Arreglos de trabajo libres. Hay a lo sumo tantos como tareas que hayan
+	 * corrido a la vez. dist[v] solo es vlido si mark[v] == epoch.
+	 */
+	private final ConcurrentLinkedQueue<Scratch> scratch;
+
+	private static class Scratch
+	{
+		double[] dist;
+		int[] mark;
+		int epoch;
+		IndexMinPQ pq;
+
+		Scratch( int n )
+		{
+			dist = new double[n];
+			mark = new int[n];
+			pq = new IndexMinPQ( n );
+		}
+	}
+
+	/**
+	 * Crea el motor usando el fork-join pool comn.
+	 * @param g Grafo no dirigido. g != null
+	 * @param t Tipo de costo. t = {DOUBLE, INTEGER}
+	 */
+	public DistanceMatrix( UndirectedGraph g, CostType t )
+	{
+		this( g, t, ForkJoinPool.commonPool( ) );
+	}
+
+	/**
+	 * Crea el motor.
+	 * @param g    Grafo no dirigido. g != null
+	 * @param t    Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @param pool Pool en el que se reparten las fuentes. pool != null
+	 */
+	public DistanceMatrix( UndirectedGraph g, CostType t, ForkJoinPool pool )
+	{
+		this.n = g.numberOfVertices( );
+		this.t = t;
+		this.a = DijkstrasShortestPath.adjacenciesOf( g );
+		this.pool = pool;
+		scratch = new ConcurrentLinkedQueue<>( );
+	}
+
+	/**
+	 * @return Tipo de costo que usa el motor.
+	 */
+	public CostType costType( )
+	{
+		return t;
+	}
+
+	/**
+	 * Calcula la distancia por la red de cada fuente a cada destino.
+	 * @param sources Vrtices fuente. sources != null
+	 * @param targets Vrtices destino. targets != null
+	 * @return Matriz m con m[i][j] la distancia de sources[i] a targets[j],
+	 *         Double.POSITIVE_INFINITY si no es alcanzable.
+	 * @throws IllegalArgumentException Si algn vrtice no es vlido.
+	 */
+	public double[][] compute( int[] sources, int[] targets )
+	{
+		for( int s : sources )
+			validateNode( s );
+
+		// Se numeran los destinos sin repetidos, empezando en 1; 0 indica que el
+		// vrtice no es destino.
+		int[] targetIndex = new int[n];
+		int k = 0;
+		for( int v : targets )
+		{
+			validateNode( v );
+			if( targetIndex[v] == 0 )
+				targetIndex[v] = ++k;
+		}
+
+		double[][] matrix = new double[sources.length][targets.length];
+		if( k == 0 )
+			return matrix;
+		pool.invoke( new Rows( sources, targets, targetIndex, k, matrix, 0, sources.length ) );
+		return matrix;
+	}
+
+	/**
+	 * Tarea que calcula las filas lo a hi - 1 de la matriz, dividindose en dos
+	 * mientras tenga ms de una fila.
+	 */
+	private class Rows extends RecursiveAction
+	{
+		private int[] sources, targets, targetIndex;
+		private int distinctTargets;
+		private double[][] matrix;
+		private int lo, hi;
+
+		Rows( int[] sources, int[] targets, int[] targetIndex, int distinctTargets, double[][] matrix, int lo,
+				int hi )
+		{
+			this.sources = sources;
+			this.targets = targets;
+			this.targetIndex = targetIndex;
+			this.distinctTargets = distinctTargets;
+			this.matrix = matrix;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute( )
+		{
+			if( hi - lo > 1 )
+			{
+				int mid = ( lo + hi ) >>> 1;
+				invokeAll( new Rows( sources, targets, targetIndex, distinctTargets, matrix, lo, mid ),
+						new Rows( sources, targets, targetIndex, distinctTargets, matrix, mid, hi ) );
+				return;
+			}
+
+			Scratch s = takeScratch( );
+			try
+			{
+				for( int i = lo; i < hi; i++ )
+				{
+					search( s, sources[i], targetIndex, distinctTargets );
+					for( int j = 0; j < targets.length; j++ )
+					{
+						int v = targets[j];
+						matrix[i][j] = s.mark[v] == s.epoch ? s.dist[v] : Double.POSITIVE_INFINITY;
+					}
+				}
+			}
+			finally
+			{
+				scratch.add( s );
+			}
+		}
+	}
+
+	/**
+	 * @return Unos arreglos de trabajo libres, crendolos si no hay ninguno.
+	 */
+	private Scratch takeScratch( )
+	{
+		Scratch s = scratch.poll( );
+		return s != null ? s : new Scratch( n );
+	}
+
+	/**
+	 * Corre Dijkstra desde source hasta asentar los remaining destinos marcados en
+	 * targetIndex, o hasta agotar los vrtices alcanzables.
+	 */
+	private void search( Scratch s, int source, int[] targetIndex, int remaining )
+	{
+		if( ++s.epoch == 0 )
+		{
+			Arrays.fill( s.mark, 0 );
+			s.epoch = 1;
+		}
+		s.pq.clear( );
+
+		boolean integer = t == CostType.INTEGER;
+		s.mark[source] = s.epoch;
+		s.dist[source] = 0;
+		s.pq.insert( source, 0 );
+		while( !s.pq.isEmpty( ) )
+		{
+			int v = s.pq.delMin( );
+			if( targetIndex[v] != 0 && --remaining == 0 )
+				return;
+
+			for( int i = a.offsets[v]; i < a.offsets[v + 1]; i++ )
+			{
+				int w = a.targets[i];
+				double newDist = s.dist[v] + ( integer ? a.intCost[i] : a.doubleCost[i] );
+				if( s.mark[w] != s.epoch )
+				{
+					s.mark[w] = s.epoch;
+					s.dist[w] = newDist;
+					s.pq.insert( w, newDist );
+				}
+				else if( newDist < s.dist[w] )
+				{
+					s.dist[w] = newDist;
+					s.pq.decreaseKey( w, newDist );
+				}
+			}
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
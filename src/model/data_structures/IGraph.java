@@ -5,8 +5,8 @@ import java.util.Iterator;
 /**
  * Interfaz que debe implementar la clase UndirectedGraph.
  * @author Camilo Martnez & Nicols Quintero
- * @param <K> Tipo de llave que se guardar en las tablas de hash con la
- *            informacin.
+ * @param <K> Tipo de llave del grafo. Los items de cada vrtice se guardan sin
+ *            llave, en el orden en que se insertaron.
  * @param <V> Tipo de valor o item que se guardar en cada vertice.
  */
 public interface IGraph<K extends Comparable<K>, V extends Comparable<V>, L extends Comparable<L>> extends Iterable<String>
@@ -48,13 +48,12 @@ public interface IGraph<K extends Comparable<K>, V extends Comparable<V>, L exte
 	public int degreeOf( int v );
 
 	/**
-	 * Le asigna al vertice el item (ambos dados por parmetro). El vertice es
-	 * ubicado dentro de la tabla de hash y a dicha llave se le aade el valor que
-	 * corresponde al item.
+	 * Le asigna al vertice el item (ambos dados por parmetro). El item se aade
+	 * despus de los que ya tena el vertice.
 	 * @param v    vertice en cuestin.
 	 * @param item Nuevo item.
 	 */
-	public void insertVertexItem( int v, K key, V item );
+	public void insertVertexItem( int v, V item );
 
 	/**
 	 * Le asigna al vertice la informacin (ambos dados por parmetro). El vertice
@@ -65,6 +64,26 @@ public interface IGraph<K extends Comparable<K>, V extends Comparable<V>, L exte
 	 */
 	public void setVertexInfo( int v, String info );
 
+	/**
+	 * Le asigna al vertice sus coordenadas geogrficas.
+	 * @param v         vertice en cuestin.
+	 * @param latitude  Latitud del vertice.
+	 * @param longitude Longitud del vertice.
+	 */
+	public void setVertexCoordinates( int v, double latitude, double longitude );
+
+	/**
+	 * @param v Vertice.
+	 * @return Latitud del vertice.
+	 */
+	public double getVertexLatitude( int v );
+
+	/**
+	 * @param v Vertice.
+	 * @return Longitud del vertice.
+	 */
+	public double getVertexLongitude( int v );
+
 	/**
 	 * metodo para obtener el vertice basado en el numero
 	 * @param v
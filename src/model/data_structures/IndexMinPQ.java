@@ -0,0 +1,317 @@
+package model.data_structures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Cola de prioridad mnima indexada. Cada elemento es un ndice entero entre 0
+ * y maxN - 1 con una llave de tipo double. Adems de las operaciones de un heap
+ * permite disminuir la llave de un ndice que ya est en la cola y saber en
+ * O(1) si un ndice est en ella, por lo que sirve para Dijkstra sin insertar
+ * un nodo nuevo por cada relajacin.
+ * <p>
+ * El heap es d-ario: cada nodo tiene hasta d hijos. Con d = 2 es un heap
+ * binario; con d = 4 el heap es menos profundo, lo que abarata decreaseKey
+ * (que es la operacin ms frecuente en Dijkstra) a cambio de un delMin un poco
+ * ms costoso.
+ * @author Camilo Martnez & Nicols Quintero
+ */
+public class IndexMinPQ
+{
+	/**
+	 * Aridad predeterminada del heap.
+	 */
+	public final static int DEFAULT_ARITY = 2;
+
+	/**
+	 * Nmero mximo de ndices.
+	 */
+	private final int maxN;
+
+	/**
+	 * Nmero de hijos de cada nodo del heap.
+	 */
+	private final int d;
+
+	/**
+	 * Nmero de elementos en la cola.
+	 */
+	private int n;
+
+	/**
+	 * Heap de ndices. Los hijos de la posicin i estn en las posiciones d * i + 1
+	 * a d * i + d.
+	 */
+	private final int[] pq;
+
+	/**
+	 * Posicin de cada ndice dentro de pq, -1 si no est en la cola.
+	 */
+	private final int[] qp;
+
+	/**
+	 * Llave de cada ndice.
+	 */
+	private final double[] keys;
+
+	/**
+	 * Construye una cola binaria vaca con ndices entre 0 y maxN - 1.
+	 * @param maxN Nmero mximo de ndices. maxN >= 0
+	 * @throws IllegalArgumentException Si maxN es negativo.
+	 */
+	public IndexMinPQ( int maxN )
+	{
+		this( maxN, DEFAULT_ARITY );
+	}
+
+	/**
+	 * Construye una cola d-aria vaca con ndices entre 0 y maxN - 1.
+	 * @param maxN  Nmero mximo de ndices. maxN >= 0
+	 * @param arity Nmero de hijos de cada nodo del heap. arity >= 2
+	 * @throws IllegalArgumentException Si maxN es negativo o arity es menor que 2.
+	 */
+	public IndexMinPQ( int maxN, int arity )
+	{
+		if( maxN < 0 )
+			throw new IllegalArgumentException( "Capacity cannot be negative" );
+		if( arity < 2 )
+			throw new IllegalArgumentException( "Arity must be at least 2" );
+
+		this.maxN = maxN;
+		this.d = arity;
+		n = 0;
+		pq = new int[maxN];
+		qp = new int[maxN];
+		keys = new double[maxN];
+		for( int i = 0; i < maxN; i++ )
+			qp[i] = -1;
+	}
+
+	/**
+	 * @return True si la cola est vaca, false de lo contrario.
+	 */
+	public boolean isEmpty( )
+	{
+		return n == 0;
+	}
+
+	/**
+	 * @return Nmero de ndices en la cola.
+	 */
+	public int size( )
+	{
+		return n;
+	}
+
+	/**
+	 * @return Nmero mximo de ndices de la cola.
+	 */
+	public int capacity( )
+	{
+		return maxN;
+	}
+
+	/**
+	 * @return Nmero de hijos de cada nodo del heap.
+	 */
+	public int arity( )
+	{
+		return d;
+	}
+
+	/**
+	 * @param i ndice. 0 <= i < maxN
+	 * @return True si el ndice est en la cola, false de lo contrario.
+	 * @throws IllegalArgumentException Si el ndice no es vlido.
+	 */
+	public boolean contains( int i )
+	{
+		validateIndex( i );
+		return qp[i] != -1;
+	}
+
+	/**
+	 * Inserta un ndice con la llave dada.
+	 * @param i   ndice. 0 <= i < maxN
+	 * @param key Llave del ndice.
+	 * @throws IllegalArgumentException Si el ndice no es vlido o ya est en la
+	 *                                  cola.
+	 */
+	public void insert( int i, double key )
+	{
+		if( contains( i ) )
+			throw new IllegalArgumentException( "Index is already in the priority queue" );
+
+		keys[i] = key;
+		pq[n] = i;
+		qp[i] = n;
+		swim( n++ );
+	}
+
+	/**
+	 * Disminuye la llave de un ndice que est en la cola.
+	 * @param i   ndice. 0 <= i < maxN
+	 * @param key Nueva llave. key <= keyOf( i )
+	 * @throws IllegalArgumentException Si el ndice no es vlido, no est en la
+	 *                                  cola o la llave nueva es mayor que la
+	 *                                  actual.
+	 */
+	public void decreaseKey( int i, double key )
+	{
+		if( !contains( i ) )
+			throw new IllegalArgumentException( "Index is not in the priority queue" );
+		if( key > keys[i] )
+			throw new IllegalArgumentException( "New key is greater than the current key" );
+
+		keys[i] = key;
+		swim( qp[i] );
+	}
+
+	/**
+	 * Cambia la llave de un ndice que est en la cola, sea mayor o menor que la
+	 * actual.
+	 * @param i   ndice. 0 <= i < maxN
+	 * @param key Nueva llave.
+	 * @throws IllegalArgumentException Si el ndice no es vlido o no est en la
+	 *                                  cola.
+	 */
+	public void changeKey( int i, double key )
+	{
+		if( !contains( i ) )
+			throw new IllegalArgumentException( "Index is not in the priority queue" );
+
+		double old = keys[i];
+		keys[i] = key;
+		if( key < old )
+			swim( qp[i] );
+		else
+			sink( qp[i] );
+	}
+
+	/**
+	 * @param i ndice. 0 <= i < maxN
+	 * @return Llave del ndice.
+	 * @throws IllegalArgumentException Si el ndice no es vlido o no est en la
+	 *                                  cola.
+	 */
+	public double keyOf( int i )
+	{
+		if( !contains( i ) )
+			throw new IllegalArgumentException( "Index is not in the priority queue" );
+
+		return keys[i];
+	}
+
+	/**
+	 * @return ndice con la menor llave, sin sacarlo de la cola.
+	 * @throws NoSuchElementException Si la cola est vaca.
+	 */
+	public int minIndex( )
+	{
+		if( n == 0 )
+			throw new NoSuchElementException( "Priority queue is empty" );
+
+		return pq[0];
+	}
+
+	/**
+	 * @return Menor llave de la cola.
+	 * @throws NoSuchElementException Si la cola est vaca.
+	 */
+	public double minKey( )
+	{
+		return keys[minIndex( )];
+	}
+
+	/**
+	 * Saca de la cola el ndice con la menor llave.
+	 * @return ndice eliminado.
+	 * @throws NoSuchElementException Si la cola est vaca.
+	 */
+	public int delMin( )
+	{
+		int min = minIndex( );
+		int last = pq[--n];
+		qp[min] = -1;
+		if( n > 0 )
+		{
+			pq[0] = last;
+			qp[last] = 0;
+			sink( 0 );
+		}
+		return min;
+	}
+
+	/**
+	 * Vaca la cola. Solo recorre los ndices que siguen en ella, por lo que cuesta
+	 * O(size) y no O(maxN).
+	 */
+	public void clear( )
+	{
+		for( int k = 0; k < n; k++ )
+			qp[pq[k]] = -1;
+		n = 0;
+	}
+
+	/**
+	 * Sube el elemento en la posicin k hasta que su padre tenga una llave menor o
+	 * igual.
+	 */
+	private void swim( int k )
+	{
+		int i = pq[k];
+		double key = keys[i];
+		while( k > 0 )
+		{
+			int parent = ( k - 1 ) / d;
+			int p = pq[parent];
+			if( keys[p] <= key )
+				break;
+			pq[k] = p;
+			qp[p] = k;
+			k = parent;
+		}
+		pq[k] = i;
+		qp[i] = k;
+	}
+
+	/**
+	 * Baja el elemento en la posicin k hasta que todos sus hijos tengan una llave
+	 * mayor o igual.
+	 */
+	private void sink( int k )
+	{
+		int i = pq[k];
+		double key = keys[i];
+		while( true )
+		{
+			int first = d * k + 1;
+			if( first >= n )
+				break;
+
+			// Se busca el hijo con la menor llave.
+			int child = first;
+			int last = Math.min( first + d, n );
+			for( int c = first + 1; c < last; c++ )
+				if( keys[pq[c]] < keys[pq[child]] )
+					child = c;
+
+			int c = pq[child];
+			if( keys[c] >= key )
+				break;
+			pq[k] = c;
+			qp[c] = k;
+			k = child;
+		}
+		pq[k] = i;
+		qp[i] = k;
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el ndice no est entre 0 y maxN - 1.
+	 */
+	private void validateIndex( int i )
+	{
+		if( i < 0 || i >= maxN )
+			throw new IllegalArgumentException( "Index " + i + " is not between 0 and " + ( maxN - 1 ) );
+	}
+}
@@ -0,0 +1,242 @@
+package model.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de hash de llaves int a objetos, con direccionamiento abierto y sondeo
+ * lineal sobre una tabla de tamao potencia de dos. Funciona igual que
+ * IntIntHashMap (hash de Fibonacci, tabla que se duplica al llenarse a la mitad
+ * y eliminacin corriendo las llaves hacia atrs), pero los valores son
+ * referencias. Las llaves no se convierten a Integer.
+ * <p>
+ * Para recorrer la tabla sin crear iteradores:
+ *
+ * <pre>
+ * for( int s = 0; s < m.capacity( ); s++ )
+ * 	if( m.usedAt( s ) )
+ * 		... m.keyAt( s ), m.valueAt( s ) ...
+ * </pre>
+ *
+ * @param <V> Tipo de los valores.
+ */
+@SuppressWarnings( "unchecked" )
+public class IntObjectHashMap<V>
+{
+	private int[] keys;
+	private V[] values;
+	private boolean[] used;
+	private int size;
+
+	/**
+	 * Nmero de bits que se descartan del hash para obtener una posicin, 32 -
+	 * log2( capacidad ).
+	 */
+	private int shift;
+
+	/**
+	 * Crea una tabla vaca.
+	 */
+	public IntObjectHashMap( )
+	{
+		this( 4 );
+	}
+
+	/**
+	 * Crea una tabla vaca con espacio para el nmero de llaves dado sin
+	 * duplicarse.
+	 * @param expectedSize Nmero esperado de llaves. expectedSize >= 0
+	 * @throws IllegalArgumentException Si expectedSize es negativo.
+	 */
+	public IntObjectHashMap( int expectedSize )
+	{
+		if( expectedSize < 0 )
+			throw new IllegalArgumentException( "Expected size must be non negative" );
+		allocate( Math.max( 8, Integer.highestOneBit( Math.max( 1, 2 * expectedSize - 1 ) ) << 1 ) );
+	}
+
+	/**
+	 * @return Nmero de llaves en la tabla.
+	 */
+	public int size( )
+	{
+		return size;
+	}
+
+	/**
+	 * @return True si la tabla no tiene llaves.
+	 */
+	public boolean isEmpty( )
+	{
+		return size == 0;
+	}
+
+	/**
+	 * @param key Llave.
+	 * @return True si la llave est en la tabla.
+	 */
+	public boolean containsKey( int key )
+	{
+		return slotOf( key ) >= 0;
+	}
+
+	/**
+	 * @param key Llave.
+	 * @return Valor asociado a la llave, null si no est.
+	 */
+	public V get( int key )
+	{
+		int s = slotOf( key );
+		return s >= 0 ? values[s] : null;
+	}
+
+	/**
+	 * Asocia el valor dado a la llave, remplazando el anterior si exista.
+	 * @param key   Llave.
+	 * @param value Valor.
+	 * @return Valor anterior de la llave, null si no estaba.
+	 */
+	public V put( int key, V value )
+	{
+		int s = slotOf( key );
+		if( s >= 0 )
+		{
+			V old = values[s];
+			values[s] = value;
+			return old;
+		}
+
+		s = ~s;
+		keys[s] = key;
+		values[s] = value;
+		used[s] = true;
+		if( ++size > keys.length / 2 )
+			resize( 2 * keys.length );
+		return null;
+	}
+
+	/**
+	 * Elimina la llave de la tabla.
+	 * @param key Llave.
+	 * @return Valor que tena la llave, null si no estaba.
+	 */
+	public V remove( int key )
+	{
+		int s = slotOf( key );
+		if( s < 0 )
+			return null;
+		V old = values[s];
+
+		// Las llaves siguientes del mismo grupo se corren hacia atrs si la posicin
+		// liberada est entre su posicin inicial y su posicin actual.
+		int mask = keys.length - 1;
+		int j = s;
+		while( true )
+		{
+			j = ( j + 1 ) & mask;
+			if( !used[j] )
+				break;
+			int home = hash( keys[j] );
+			if( ( ( j - home ) & mask ) >= ( ( j - s ) & mask ) )
+			{
+				keys[s] = keys[j];
+				values[s] = values[j];
+				s = j;
+			}
+		}
+		used[s] = false;
+		values[s] = null;
+		size--;
+		return old;
+	}
+
+	/**
+	 * Elimina todas las llaves sin cambiar la capacidad.
+	 */
+	public void clear( )
+	{
+		Arrays.fill( used, false );
+		Arrays.fill( values, null );
+		size = 0;
+	}
+
+	/**
+	 * @return Nmero de posiciones de la tabla, para recorrerla con usedAt, keyAt y
+	 *         valueAt.
+	 */
+	public int capacity( )
+	{
+		return keys.length;
+	}
+
+	/**
+	 * @param slot Posicin. 0 <= slot < capacity( )
+	 * @return True si la posicin tiene una llave.
+	 */
+	public boolean usedAt( int slot )
+	{
+		return used[slot];
+	}
+
+	/**
+	 * @param slot Posicin ocupada. 0 <= slot < capacity( )
+	 * @return Llave en la posicin.
+	 */
+	public int keyAt( int slot )
+	{
+		return keys[slot];
+	}
+
+	/**
+	 * @param slot Posicin ocupada. 0 <= slot < capacity( )
+	 * @return Valor en la posicin.
+	 */
+	public V valueAt( int slot )
+	{
+		return values[slot];
+	}
+
+	/**
+	 * @return Posicin de la llave si est; si no, ~p, donde p es la posicin libre
+	 *         donde se insertara.
+	 */
+	private int slotOf( int key )
+	{
+		int mask = keys.length - 1;
+		for( int s = hash( key );; s = ( s + 1 ) & mask )
+		{
+			if( !used[s] )
+				return ~s;
+			if( keys[s] == key )
+				return s;
+		}
+	}
+
+	private int hash( int key )
+	{
+		return ( key * 0x9E3779B9 ) >>> shift;
+	}
+
+	private void allocate( int capacity )
+	{
+		keys = new int[capacity];
+		values = ( V[] ) new Object[capacity];
+		used = new boolean[capacity];
+		shift = 32 - Integer.numberOfTrailingZeros( capacity );
+	}
+
+	private void resize( int capacity )
+	{
+		int[] oldKeys = keys;
+		V[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate( capacity );
+		for( int i = 0; i < oldKeys.length; i++ )
+			if( oldUsed[i] )
+			{
+				int s = ~slotOf( oldKeys[i] );
+				keys[s] = oldKeys[i];
+				values[s] = oldValues[i];
+				used[s] = true;
+			}
+	}
+}
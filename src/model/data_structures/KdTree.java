@@ -0,0 +1,274 @@
+package model.data_structures;
+
+/**
+ * rbol k-d esttico sobre coordenadas geogrficas que permite encontrar el
+ * punto ms cercano a una latitud y longitud dadas. Cada punto se proyecta
+ * sobre la esfera unitaria (x, y, z); la distancia euclidiana (cuerda) entre
+ * dos puntos de la esfera crece con la distancia haversiana, por lo que el
+ * vecino ms cercano encontrado es exacto para la frmula de Haversine.
+ * @author Camilo Martnez & Nicols Quintero
+ */
+public class KdTree
+{
+	/**
+	 * Radio aproximado de la Tierra en kilmetros.
+	 */
+	public final static double EARTH_RADIUS = 6371;
+
+	/**
+	 * Nmero de puntos guardados en el rbol.
+	 */
+	private final int N;
+
+	/**
+	 * ID de cada punto, en el orden implcito del rbol. El nodo del rango [lo, hi)
+	 * est en la posicin (lo + hi) / 2, su subrbol izquierdo en [lo, mid) y el
+	 * derecho en (mid, hi).
+	 */
+	private final int[] ids;
+
+	/**
+	 * Coordenadas cartesianas de cada punto sobre la esfera unitaria, en el mismo
+	 * orden de ids.
+	 */
+	private final double[] xs, ys, zs;
+
+	/**
+	 * Eje (0 = x, 1 = y, 2 = z) por el que divide cada nodo.
+	 */
+	private final byte[] axis;
+
+	/**
+	 * Construye el rbol con los puntos dados. El ID de cada punto es su posicin
+	 * dentro de los arreglos.
+	 * @param latitudes  Latitudes de los puntos en grados. latitudes != null
+	 * @param longitudes Longitudes de los puntos en grados. longitudes != null,
+	 *                   longitudes.length == latitudes.length
+	 * @throws IllegalArgumentException Si los arreglos no tienen el mismo tamao.
+	 */
+	public KdTree( double[] latitudes, double[] longitudes )
+	{
+		if( latitudes.length != longitudes.length )
+			throw new IllegalArgumentException( "Latitudes and longitudes must have the same length" );
+
+		N = latitudes.length;
+		ids = new int[N];
+		xs = new double[N];
+		ys = new double[N];
+		zs = new double[N];
+		axis = new byte[N];
+
+		for( int i = 0; i < N; i++ )
+		{
+			ids[i] = i;
+			double lat = Math.toRadians( latitudes[i] );
+			double lon = Math.toRadians( longitudes[i] );
+			xs[i] = Math.cos( lat ) * Math.cos( lon );
+			ys[i] = Math.cos( lat ) * Math.sin( lon );
+			zs[i] = Math.sin( lat );
+		}
+
+		build( 0, N );
+	}
+
+	/**
+	 * @return Nmero de puntos guardados en el rbol.
+	 */
+	public int size( )
+	{
+		return N;
+	}
+
+	/**
+	 * Retorna el ID del punto ms cercano a la latitud y longitud dadas.
+	 * @param latitude  Latitud en grados.
+	 * @param longitude Longitud en grados.
+	 * @return ID del punto ms cercano, -1 si el rbol est vaco.
+	 */
+	public int nearest( double latitude, double longitude )
+	{
+		return nearest( latitude, longitude, Double.POSITIVE_INFINITY );
+	}
+
+	/**
+	 * Retorna el ID del punto ms cercano a la latitud y longitud dadas, siempre y
+	 * cuando est a una distancia haversiana menor o igual que radius.
+	 * @param latitude  Latitud en grados.
+	 * @param longitude Longitud en grados.
+	 * @param radius    Distancia mxima en kilmetros. radius >= 0
+	 * @return ID del punto ms cercano, -1 si no hay ningn punto dentro del radio.
+	 */
+	public int nearest( double latitude, double longitude, double radius )
+	{
+		double lat = Math.toRadians( latitude );
+		double lon = Math.toRadians( longitude );
+		double x = Math.cos( lat ) * Math.cos( lon );
+		double y = Math.cos( lat ) * Math.sin( lon );
+		double z = Math.sin( lat );
+
+		Query q = new Query( x, y, z );
+		if( radius < Math.PI * EARTH_RADIUS )
+		{
+			double chord = 2 * Math.sin( radius / ( 2 * EARTH_RADIUS ) );
+			q.bestDistance = chord * chord;
+		}
+
+		search( 0, N, q );
+		return q.best;
+	}
+
+	/**
+	 * Busca recursivamente el punto ms cercano dentro del rango [lo, hi). Los
+	 * empates se resuelven a favor del menor ID.
+	 */
+	private void search( int lo, int hi, Query q )
+	{
+		if( lo >= hi )
+			return;
+
+		int mid = ( lo + hi ) >>> 1;
+		double dx = xs[mid] - q.x, dy = ys[mid] - q.y, dz = zs[mid] - q.z;
+		double d = dx * dx + dy * dy + dz * dz;
+		if( d < q.bestDistance || ( d == q.bestDistance && ( q.best == -1 || ids[mid] < q.best ) ) )
+		{
+			q.bestDistance = d;
+			q.best = ids[mid];
+		}
+
+		double diff = axis[mid] == 0 ? dx : axis[mid] == 1 ? dy : dz;
+
+		// diff > 0 indica que el punto buscado est del lado izquierdo del nodo.
+		if( diff > 0 )
+		{
+			search( lo, mid, q );
+			if( diff * diff <= q.bestDistance )
+				search( mid + 1, hi, q );
+		}
+		else
+		{
+			search( mid + 1, hi, q );
+			if( diff * diff <= q.bestDistance )
+				search( lo, mid, q );
+		}
+	}
+
+	/**
+	 * Organiza recursivamente el rango [lo, hi) para que su mediana, segn el eje
+	 * de mayor extensin, quede en la posicin central.
+	 */
+	private void build( int lo, int hi )
+	{
+		if( hi - lo <= 0 )
+			return;
+
+		double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+		for( int i = lo; i < hi; i++ )
+		{
+			minX = Math.min( minX, xs[i] );
+			maxX = Math.max( maxX, xs[i] );
+			minY = Math.min( minY, ys[i] );
+			maxY = Math.max( maxY, ys[i] );
+			minZ = Math.min( minZ, zs[i] );
+			maxZ = Math.max( maxZ, zs[i] );
+		}
+
+		byte a = 0;
+		double extent = maxX - minX;
+		if( maxY - minY > extent )
+		{
+			a = 1;
+			extent = maxY - minY;
+		}
+		if( maxZ - minZ > extent )
+			a = 2;
+
+		int mid = ( lo + hi ) >>> 1;
+		double[] c = a == 0 ? xs : a == 1 ? ys : zs;
+		select( c, lo, hi - 1, mid );
+		axis[mid] = a;
+
+		build( lo, mid );
+		build( mid + 1, hi );
+	}
+
+	/**
+	 * Deja en la posicin k el elemento que tendra si el rango [lo, hi] estuviera
+	 * ordenado segn la coordenada c (quickselect).
+	 */
+	private void select( double[] c, int lo, int hi, int k )
+	{
+		while( hi > lo )
+		{
+			double pivot = c[( lo + hi ) >>> 1];
+			int i = lo, j = hi;
+			while( i <= j )
+			{
+				while( c[i] < pivot )
+					i++;
+				while( c[j] > pivot )
+					j--;
+				if( i <= j )
+					swap( i++, j-- );
+			}
+
+			if( k <= j )
+				hi = j;
+			else if( k >= i )
+				lo = i;
+			else
+				return;
+		}
+	}
+
+	/**
+	 * Intercambia dos puntos dentro de los arreglos del rbol.
+	 */
+	private void swap( int i, int j )
+	{
+		int id = ids[i];
+		ids[i] = ids[j];
+		ids[j] = id;
+
+		double t = xs[i];
+		xs[i] = xs[j];
+		xs[j] = t;
+
+		t = ys[i];
+		ys[i] = ys[j];
+		ys[j] = t;
+
+		t = zs[i];
+		zs[i] = zs[j];
+		zs[j] = t;
+	}
+
+	/**
+	 * Estado de una bsqueda. Cada consulta usa el suyo, de modo que el rbol
+	 * puede consultarse desde varios hilos a la vez.
+	 */
+	private static class Query
+	{
+		/**
+		 * Coordenadas cartesianas del punto buscado.
+		 */
+		private final double x, y, z;
+
+		/**
+		 * ID del mejor candidato encontrado.
+		 */
+		private int best = -1;
+
+		/**
+		 * Distancia al cuadrado (cuerda) del mejor candidato.
+		 */
+		private double bestDistance = Double.POSITIVE_INFINITY;
+
+		private Query( double x, double y, double z )
+		{
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+	}
+}
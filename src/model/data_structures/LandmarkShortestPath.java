@@ -0,0 +1,466 @@
+package model.data_structures;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Motor de caminos ms cortos ALT (A*, landmarks y desigualdad triangular). En
+ * un preprocesamiento se escogen K vrtices de referencia (landmarks) y se
+ * guarda la distancia mnima desde cada uno hasta todos los vrtices. Como el
+ * grafo es no dirigido, para cualquier landmark L se cumple
+ * |d(L, t) - d(L, v)| <= d(v, t), de modo que el mximo de esas diferencias es
+ * una cota inferior de la distancia restante que A* usa como heurstica. Sirve
+ * para cualquiera de los dos tipos de costo, porque no depende de la geometra.
+ * <p>
+ * Los landmarks son primero los vrtices semilla dados (por ejemplo, los de las
+ * estaciones de polica) y luego los vrtices ms lejanos de los ya escogidos.
+ * En cada consulta solo se usan los ACTIVE_LANDMARKS landmarks que dan la mejor
+ * cota entre el inicio y el destino.
+ * <p>
+ * Las distancias se guardan como float para ocupar la mitad de memoria; la cota
+ * se reduce en el mximo error de redondeo para que siga siendo admisible, y un
+ * vrtice ya asentado que mejora su distancia se vuelve a abrir, as que el
+ * costo es siempre el de Dijkstra. Las tablas dependen de los costos del grafo:
+ * si estos cambian, hay que construir el motor de nuevo (ver isValid).
+ * <p>
+ * No es seguro usar un mismo motor desde varios hilos a la vez.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class LandmarkShortestPath
+{
+	/**
+	 * Nmero de landmarks que se usan en cada consulta.
+	 */
+	public final static int ACTIVE_LANDMARKS = 4;
+
+	/**
+	 * Error relativo mximo de la diferencia entre dos distancias guardadas como
+	 * float (2^-22).
+	 */
+	private final static double FLOAT_ERROR = 1.0 / ( 1 << 22 );
+
+	private int n;
+	private CostType t;
+
+	/**
+	 * Error relativo que se descuenta de las cotas. Las distancias enteras (menores
+	 * que 2^24) se guardan exactas en un float, as que para ellas es 0 y la cota
+	 * es consistente.
+	 */
+	private double tableError;
+
+	/**
+	 * Representacin CSR de las adyacencias.
+	 */
+	private int[] offsets;
+	private int[] targets;
+	private double[] doubleCost;
+	private int[] intCost;
+
+	/**
+	 * IDs de los landmarks.
+	 */
+	private int[] landmarks;
+
+	/**
+	 * Distancias desde los landmarks. La distancia del landmark l al vrtice v est
+	 * en la posicin v * K + l, Float.POSITIVE_INFINITY si v no es alcanzable.
+	 */
+	private float[] table;
+
+	/**
+	 * Suma de verificacin de los costos con los que se construyeron las tablas.
+	 */
+	private long checksum;
+
+	/**
+	 * Arreglos de trabajo. dist[v], prev[v] y h[v] solo son vlidos si mark[v] ==
+	 * epoch.
+	 */
+	private double[] dist;
+	private double[] h;
+	private int[] prev;
+	private int[] mark;
+	private int epoch;
+	private IndexMinPQ pq;
+
+	/**
+	 * Landmarks activos de la consulta actual.
+	 */
+	private int[] active;
+	private double[] activeBounds;
+	private int activeCount;
+
+	/**
+	 * ltima consulta resuelta y nmero de vrtices que asent.
+	 */
+	private int lastStart = -1, lastEnd = -1;
+	private int settled;
+
+	/**
+	 * Construye el motor y sus tablas: escoge los landmarks y corre Dijkstra desde
+	 * cada uno.
+	 * @param g     Grafo no dirigido. g != null
+	 * @param t     Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @param seeds Vrtices que se usan como primeros landmarks; los repetidos se
+	 *              ignoran. seeds != null
+	 * @param extra Nmero de landmarks adicionales escogidos como los vrtices ms
+	 *              lejanos de los anteriores. extra >= 0
+	 * @throws IllegalArgumentException Si alguna semilla no es vlida o extra es
+	 *                                  negativo.
+	 */
+	public LandmarkShortestPath( UndirectedGraph g, CostType t, int[] seeds, int extra )
+	{
+		this( g, t );
+		if( extra < 0 )
+			throw new IllegalArgumentException( "Number of extra landmarks cannot be negative" );
+
+		DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( g, t );
+		int[] chosen = new int[seeds.length + extra];
+		float[][] distances = new float[chosen.length][];
+		double[] nearest = new double[n];
+		Arrays.fill( nearest, Double.POSITIVE_INFINITY );
+		int k = 0;
+
+		for( int i = 0; i < seeds.length + extra && n > 0; i++ )
+		{
+			int landmark;
+			if( i < seeds.length )
+			{
+				landmark = seeds[i];
+				validateNode( landmark );
+				if( contains( chosen, k, landmark ) )
+					continue;
+			}
+			else
+			{
+				// El vrtice alcanzable ms lejano de los landmarks ya escogidos. Si an no
+				// hay ninguno, el ms lejano del vrtice 0.
+				double[] from = k == 0 ? dijkstra.distancesFrom( 0 ) : nearest;
+				landmark = -1;
+				for( int v = 0; v < n; v++ )
+					if( from[v] != Double.POSITIVE_INFINITY && !contains( chosen, k, v )
+							&& ( landmark == -1 || from[v] > from[landmark] ) )
+						landmark = v;
+				if( landmark == -1 )
+					break;
+			}
+
+			chosen[k] = landmark;
+			double[] d = dijkstra.distancesFrom( landmark );
+			distances[k] = new float[n];
+			for( int v = 0; v < n; v++ )
+			{
+				nearest[v] = Math.min( nearest[v], d[v] );
+				distances[k][v] = ( float ) d[v];
+			}
+			k++;
+		}
+
+		landmarks = Arrays.copyOf( chosen, k );
+		table = new float[n * k];
+		for( int l = 0; l < k; l++ )
+			for( int v = 0; v < n; v++ )
+				table[v * k + l] = distances[l][v];
+		checksum = costChecksum( );
+	}
+
+	/**
+	 * Construye el motor sin tablas.
+	 */
+	private LandmarkShortestPath( UndirectedGraph g, CostType t )
+	{
+		this.n = g.numberOfVertices( );
+		this.t = t;
+		tableError = t == CostType.INTEGER ? 0 : FLOAT_ERROR;
+
+		DijkstrasShortestPath.Adjacencies a = DijkstrasShortestPath.adjacenciesOf( g );
+		offsets = a.offsets;
+		targets = a.targets;
+		doubleCost = a.doubleCost;
+		intCost = a.intCost;
+
+		dist = new double[n];
+		h = new double[n];
+		prev = new int[n];
+		mark = new int[n];
+		epoch = 0;
+		pq = new IndexMinPQ( n );
+		active = new int[ACTIVE_LANDMARKS];
+		activeBounds = new double[ACTIVE_LANDMARKS];
+	}
+
+	/**
+	 * @return Tipo de costo que usa el motor.
+	 */
+	public CostType costType( )
+	{
+		return t;
+	}
+
+	/**
+	 * @return Copia de los IDs de los landmarks.
+	 */
+	public int[] landmarks( )
+	{
+		return landmarks.clone( );
+	}
+
+	/**
+	 * @return True si los costos actuales del grafo son los mismos con los que se
+	 *         construyeron las tablas, false de lo contrario.
+	 */
+	public boolean isValid( )
+	{
+		return checksum == costChecksum( );
+	}
+
+	/**
+	 * Corre A* con la cota de los landmarks desde el nodo de inicio hasta el final.
+	 * @param start Nodo de inicio.
+	 * @param end   Nodo final.
+	 * @return Costo mnimo del camino, Double.POSITIVE_INFINITY si no existe.
+	 */
+	public double alt( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		nextEpoch( );
+		lastStart = start;
+		lastEnd = end;
+		settled = 0;
+
+		if( !chooseActiveLandmarks( start, end ) )
+			return Double.POSITIVE_INFINITY; // Estn en componentes distintos.
+
+		boolean integer = t == CostType.INTEGER;
+		visit( start, 0, -1, end );
+		pq.insert( start, h[start] );
+
+		while( !pq.isEmpty( ) )
+		{
+			int node = pq.delMin( );
+			settled++;
+			if( node == end )
+				return dist[end];
+
+			for( int i = offsets[node]; i < offsets[node + 1]; i++ )
+			{
+				int to = targets[i];
+				double newDist = dist[node] + ( integer ? intCost[i] : doubleCost[i] );
+				if( mark[to] != epoch )
+				{
+					visit( to, newDist, node, end );
+					pq.insert( to, newDist + h[to] );
+				}
+				else if( newDist < dist[to] )
+				{
+					dist[to] = newDist;
+					prev[to] = node;
+					if( pq.contains( to ) )
+						pq.decreaseKey( to, newDist + h[to] );
+					else
+						pq.insert( to, newDist + h[to] ); // Se vuelve a abrir.
+				}
+			}
+		}
+		// No existe un camino entre el inicio y el final.
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Reconstruye el camino ms corto desde el inicio hasta el final (inclusivos
+	 * ambos). Si la ltima consulta fue la misma pareja de nodos, se reutiliza su
+	 * resultado.
+	 * @return Un iterable de enteros que corresponden a los id's de los nodos en el
+	 *         camino. Si no es alcanzable desde el inicio hasta el final, se
+	 *         retorna un iterable vaco.
+	 */
+	public Iterable<Integer> reconstructPath( int start, int end )
+	{
+		validateNode( start );
+		validateNode( end );
+		if( start != lastStart || end != lastEnd )
+			alt( start, end );
+
+		LinkedList<Integer> path = new LinkedList<>( );
+		if( mark[end] != epoch )
+			return path;
+		for( int at = end; at != -1; at = prev[at] )
+			path.addFirst( at );
+
+		return path;
+	}
+
+	/**
+	 * @return Nmero de vrtices asentados (sacados de la cola) en la ltima
+	 *         consulta.
+	 */
+	public int settledCount( )
+	{
+		return settled;
+	}
+
+	/**
+	 * @return Nmero de bytes que ocupan las tablas al escribirlas con writeTables.
+	 */
+	public long tableSize( )
+	{
+		return 4 + 4 + 8 + 4 + 4L * landmarks.length + 4L * table.length;
+	}
+
+	/**
+	 * Escribe las tablas del motor en el buffer dado, en el orden del buffer:
+	 * nmero de vrtices, tipo de costo, suma de verificacin, nmero de landmarks
+	 * K, los K landmarks y las V * K distancias.
+	 * @param buffer Buffer con al menos tableSize( ) bytes disponibles.
+	 */
+	public void writeTables( ByteBuffer buffer )
+	{
+		buffer.putInt( n );
+		buffer.putInt( t.ordinal( ) );
+		buffer.putLong( checksum );
+		buffer.putInt( landmarks.length );
+		for( int landmark : landmarks )
+			buffer.putInt( landmark );
+		buffer.asFloatBuffer( ).put( table );
+		buffer.position( buffer.position( ) + 4 * table.length );
+	}
+
+	/**
+	 * Lee las tablas escritas con writeTables y construye el motor sobre el grafo
+	 * dado.
+	 * @param buffer Buffer posicionado al comienzo de las tablas.
+	 * @param g      Grafo sobre el que se construyeron las tablas. g != null
+	 * @return Motor con las tablas ledas.
+	 * @throws IllegalStateException Si las tablas no corresponden al grafo o a sus
+	 *                               costos actuales.
+	 */
+	public static LandmarkShortestPath readTables( ByteBuffer buffer, UndirectedGraph g ) throws IllegalStateException
+	{
+		int n = buffer.getInt( );
+		int tipo = buffer.getInt( );
+		if( n != g.numberOfVertices( ) || tipo < 0 || tipo >= CostType.values( ).length )
+			throw new IllegalStateException( "Landmark tables do not match the graph" );
+
+		LandmarkShortestPath motor = new LandmarkShortestPath( g, CostType.values( )[tipo] );
+		motor.checksum = buffer.getLong( );
+		if( motor.checksum != motor.costChecksum( ) )
+			throw new IllegalStateException( "Landmark tables were built with different edge costs" );
+
+		motor.landmarks = new int[buffer.getInt( )];
+		for( int l = 0; l < motor.landmarks.length; l++ )
+		{
+			motor.landmarks[l] = buffer.getInt( );
+			motor.validateNode( motor.landmarks[l] );
+		}
+		motor.table = new float[n * motor.landmarks.length];
+		buffer.asFloatBuffer( ).get( motor.table );
+		buffer.position( buffer.position( ) + 4 * motor.table.length );
+		return motor;
+	}
+
+	/**
+	 * Escoge los landmarks que dan la mejor cota entre start y end.
+	 * @return False si algn landmark alcanza a uno de los dos nodos y no al otro,
+	 *         lo que indica que no hay camino entre ellos.
+	 */
+	private boolean chooseActiveLandmarks( int start, int end )
+	{
+		int k = landmarks.length;
+		double[] bounds = activeBounds;
+		activeCount = 0;
+		for( int l = 0; l < k; l++ )
+		{
+			float ds = table[start * k + l], de = table[end * k + l];
+			if( ds == Float.POSITIVE_INFINITY && de == Float.POSITIVE_INFINITY )
+				continue;
+			if( ds == Float.POSITIVE_INFINITY || de == Float.POSITIVE_INFINITY )
+				return false;
+
+			// Insercin ordenada de mayor a menor cota.
+			double bound = Math.abs( de - ds );
+			if( activeCount == ACTIVE_LANDMARKS && bound <= bounds[activeCount - 1] )
+				continue;
+			int i = activeCount < ACTIVE_LANDMARKS ? activeCount++ : activeCount - 1;
+			while( i > 0 && bounds[i - 1] < bound )
+			{
+				bounds[i] = bounds[i - 1];
+				active[i] = active[i - 1];
+				i--;
+			}
+			bounds[i] = bound;
+			active[i] = l;
+		}
+		return true;
+	}
+
+	/**
+	 * Marca un nodo como alcanzado en la consulta actual y calcula su cota hacia el
+	 * destino con los landmarks activos.
+	 */
+	private void visit( int v, double d, int from, int end )
+	{
+		mark[v] = epoch;
+		dist[v] = d;
+		prev[v] = from;
+
+		int k = landmarks.length;
+		double best = 0;
+		for( int i = 0; i < activeCount; i++ )
+		{
+			float dv = table[v * k + active[i]], de = table[end * k + active[i]];
+			if( dv == Float.POSITIVE_INFINITY )
+				continue;
+			double bound = Math.abs( de - dv ) - ( de + dv ) * tableError;
+			if( bound > best )
+				best = bound;
+		}
+		h[v] = best;
+	}
+
+	/**
+	 * @return Suma de verificacin de los costos del tipo del motor.
+	 */
+	private long costChecksum( )
+	{
+		long suma = 17 * n + targets.length;
+		for( int i = 0; i < targets.length; i++ )
+			suma = 31 * suma + ( t == CostType.INTEGER ? intCost[i] : Double.doubleToLongBits( doubleCost[i] ) );
+		return suma;
+	}
+
+	/**
+	 * @return True si el valor est entre las primeras k posiciones del arreglo.
+	 */
+	private static boolean contains( int[] array, int k, int value )
+	{
+		for( int i = 0; i < k; i++ )
+			if( array[i] == value )
+				return true;
+		return false;
+	}
+
+	/**
+	 * Empieza una consulta nueva.
+	 */
+	private void nextEpoch( )
+	{
+		pq.clear( );
+		if( ++epoch == 0 )
+		{
+			for( int v = 0; v < n; v++ )
+				mark[v] = 0;
+			epoch = 1;
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
@@ -0,0 +1,260 @@
+package model.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de hash de llaves long a valores int, con direccionamiento abierto y
+ * sondeo lineal sobre una tabla de tamao potencia de dos. A diferencia de
+ * HashTable no crea nodos ni listas ni convierte las llaves a Integer: las
+ * llaves, los valores y las marcas de ocupacin viven en tres arreglos
+ * paralelos, y una bsqueda es un recorrido corto sobre posiciones contiguas.
+ * <p>
+ * La posicin inicial de una llave es el hash de Fibonacci (multiplicar por
+ * 2^32 / phi y quedarse con los bits altos), que reparte bien llaves
+ * consecutivas como los ID's de vrtices. La tabla se duplica cuando est llena
+ * a la mitad, y las eliminaciones corren hacia atrs las llaves siguientes en
+ * lugar de dejar marcas de borrado.
+ * <p>
+ * Para recorrer la tabla sin crear iteradores:
+ *
+ * <pre>
+ * for( int s = 0; s < m.capacity( ); s++ )
+ * 	if( m.usedAt( s ) )
+ * 		... m.keyAt( s ), m.valueAt( s ) ...
+ * </pre>
+ */
+public class LongIntHashMap
+{
+	private long[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size;
+
+	/**
+	 * Nmero de bits que se descartan del hash para obtener una posicin, 64 -
+	 * log2( capacidad ).
+	 */
+	private int shift;
+
+	/**
+	 * Crea una tabla vaca.
+	 */
+	public LongIntHashMap( )
+	{
+		this( 4 );
+	}
+
+	/**
+	 * Crea una tabla vaca con espacio para el nmero de llaves dado sin
+	 * duplicarse.
+	 * @param expectedSize Nmero esperado de llaves. expectedSize >= 0
+	 * @throws IllegalArgumentException Si expectedSize es negativo.
+	 */
+	public LongIntHashMap( int expectedSize )
+	{
+		if( expectedSize < 0 )
+			throw new IllegalArgumentException( "Expected size must be non negative" );
+		allocate( Math.max( 8, Integer.highestOneBit( Math.max( 1, 2 * expectedSize - 1 ) ) << 1 ) );
+	}
+
+	/**
+	 * @return Nmero de llaves en la tabla.
+	 */
+	public int size( )
+	{
+		return size;
+	}
+
+	/**
+	 * @return True si la tabla no tiene llaves.
+	 */
+	public boolean isEmpty( )
+	{
+		return size == 0;
+	}
+
+	/**
+	 * @param key Llave.
+	 * @return True si la llave est en la tabla.
+	 */
+	public boolean containsKey( long key )
+	{
+		return slotOf( key ) >= 0;
+	}
+
+	/**
+	 * @param key          Llave.
+	 * @param defaultValue Valor que se retorna si la llave no est.
+	 * @return Valor asociado a la llave, o defaultValue si no est.
+	 */
+	public int get( long key, int defaultValue )
+	{
+		int s = slotOf( key );
+		return s >= 0 ? values[s] : defaultValue;
+	}
+
+	/**
+	 * Asocia el valor dado a la llave, remplazando el anterior si exista.
+	 * @param key   Llave.
+	 * @param value Valor.
+	 * @return True si la llave no estaba en la tabla.
+	 */
+	public boolean put( long key, int value )
+	{
+		int s = slotOf( key );
+		if( s >= 0 )
+		{
+			values[s] = value;
+			return false;
+		}
+		insert( ~s, key, value );
+		return true;
+	}
+
+	/**
+	 * Suma delta al valor de la llave; si no estaba, la agrega con valor delta.
+	 * @param key   Llave.
+	 * @param delta Cantidad a sumar.
+	 * @return Valor nuevo de la llave.
+	 */
+	public int addTo( long key, int delta )
+	{
+		int s = slotOf( key );
+		if( s >= 0 )
+			return values[s] += delta;
+		insert( ~s, key, delta );
+		return delta;
+	}
+
+	/**
+	 * Elimina la llave de la tabla.
+	 * @param key Llave.
+	 * @return True si la llave estaba en la tabla.
+	 */
+	public boolean remove( long key )
+	{
+		int s = slotOf( key );
+		if( s < 0 )
+			return false;
+
+		// Las llaves siguientes del mismo grupo se corren hacia atrs si la posicin
+		// liberada est entre su posicin inicial y su posicin actual.
+		int mask = keys.length - 1;
+		int j = s;
+		while( true )
+		{
+			j = ( j + 1 ) & mask;
+			if( !used[j] )
+				break;
+			int home = hash( keys[j] );
+			if( ( ( j - home ) & mask ) >= ( ( j - s ) & mask ) )
+			{
+				keys[s] = keys[j];
+				values[s] = values[j];
+				s = j;
+			}
+		}
+		used[s] = false;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Elimina todas las llaves sin cambiar la capacidad.
+	 */
+	public void clear( )
+	{
+		Arrays.fill( used, false );
+		size = 0;
+	}
+
+	/**
+	 * @return Nmero de posiciones de la tabla, para recorrerla con usedAt, keyAt y
+	 *         valueAt.
+	 */
+	public int capacity( )
+	{
+		return keys.length;
+	}
+
+	/**
+	 * @param slot Posicin. 0 <= slot < capacity( )
+	 * @return True si la posicin tiene una llave.
+	 */
+	public boolean usedAt( int slot )
+	{
+		return used[slot];
+	}
+
+	/**
+	 * @param slot Posicin ocupada. 0 <= slot < capacity( )
+	 * @return Llave en la posicin.
+	 */
+	public long keyAt( int slot )
+	{
+		return keys[slot];
+	}
+
+	/**
+	 * @param slot Posicin ocupada. 0 <= slot < capacity( )
+	 * @return Valor en la posicin.
+	 */
+	public int valueAt( int slot )
+	{
+		return values[slot];
+	}
+
+	/**
+	 * @return Posicin de la llave si est; si no, ~p, donde p es la posicin libre
+	 *         donde se insertara.
+	 */
+	private int slotOf( long key )
+	{
+		int mask = keys.length - 1;
+		for( int s = hash( key );; s = ( s + 1 ) & mask )
+		{
+			if( !used[s] )
+				return ~s;
+			if( keys[s] == key )
+				return s;
+		}
+	}
+
+	private void insert( int s, long key, int value )
+	{
+		keys[s] = key;
+		values[s] = value;
+		used[s] = true;
+		if( ++size > keys.length / 2 )
+			resize( 2 * keys.length );
+	}
+
+	private int hash( long key )
+	{
+		return ( int ) ( ( key * 0x9E3779B97F4A7C15L ) >>> shift );
+	}
+
+	private void allocate( int capacity )
+	{
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		shift = 64 - Integer.numberOfTrailingZeros( capacity );
+	}
+
+	private void resize( int capacity )
+	{
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate( capacity );
+		for( int i = 0; i < oldKeys.length; i++ )
+			if( oldUsed[i] )
+			{
+				int s = ~slotOf( oldKeys[i] );
+				keys[s] = oldKeys[i];
+				values[s] = oldValues[i];
+				used[s] = true;
+			}
+	}
+}
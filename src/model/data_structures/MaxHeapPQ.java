@@ -33,6 +33,30 @@ public class MaxHeapPQ<T extends Comparable<T>> implements IPriorityHeap<T>
 		this.heapCapacity = heapCapacity;
 	}
 
+	/**
+	 * Construye un heap de prioridad con elementos que ya cumplen la propiedad de
+	 * heap en el orden dado, por ejemplo los obtenidos con peekPosition de otro
+	 * heap. Los elementos quedan exactamente en las posiciones dadas.
+	 * @param elements     Elementos en orden de heap. elements != null
+	 * @param heapCapacity Capacidad del heap. heapCapacity >= elements.length
+	 * @throws IllegalArgumentException Si los elementos no caben o no cumplen la
+	 *                                  propiedad de heap.
+	 */
+	public MaxHeapPQ( T[] elements, int heapCapacity )
+	{
+		this( heapCapacity );
+		if( elements.length > heapCapacity )
+			throw new IllegalArgumentException( "Elements exceed the heap capacity" );
+
+		for( int i = 0; i < elements.length; i++ )
+		{
+			heap[i + 1] = elements[i];
+			if( i > 0 && heap[( i + 1 ) / 2].compareTo( heap[i + 1] ) < 0 )
+				throw new IllegalArgumentException( "Elements are not in heap order" );
+		}
+		heapSize = elements.length;
+	}
+
 	/**
 	 * @return True si el heap est vaco, false de lo contrario.
 	 */
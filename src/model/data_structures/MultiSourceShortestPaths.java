@@ -0,0 +1,183 @@
+package model.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra con varias fuentes: todas las fuentes empiezan con distancia 0 en la
+ * misma cola, de modo que un solo recorrido O(E log V) asigna a cada vrtice la
+ * fuente ms cercana por la red, la distancia hasta ella y el predecesor en el
+ * camino. Es el bosque de caminos ms cortos de las fuentes; cada vrtice
+ * alcanzable pertenece al rbol de exactamente una de ellas.
+ * <p>
+ * Si dos fuentes estn en el mismo vrtice, ese vrtice (y su zona) queda
+ * asignado a la primera de ellas en el arreglo.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class MultiSourceShortestPaths
+{
+	private int n;
+	private CostType t;
+	private int[] sources;
+
+	/**
+	 * Distancia hasta la fuente ms cercana, posicin en sources de esa fuente (-1
+	 * si no es alcanzable) y predecesor en el camino desde ella (-1 en las
+	 * fuentes).
+	 */
+	private double[] distTo;
+	private int[] sourceOf;
+	private int[] edgeTo;
+
+	/**
+	 * Calcula la fuente ms cercana a cada vrtice del grafo.
+	 * @param g       Grafo no dirigido. g != null
+	 * @param t       Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @param sources Vrtices fuente. sources != null
+	 * @throws IllegalArgumentException Si alguna fuente no es vlida.
+	 */
+	public MultiSourceShortestPaths( UndirectedGraph g, CostType t, int[] sources )
+	{
+		this.n = g.numberOfVertices( );
+		this.t = t;
+		this.sources = sources.clone( );
+
+		distTo = new double[n];
+		sourceOf = new int[n];
+		edgeTo = new int[n];
+		Arrays.fill( distTo, Double.POSITIVE_INFINITY );
+		Arrays.fill( sourceOf, -1 );
+		Arrays.fill( edgeTo, -1 );
+
+		IndexMinPQ pq = new IndexMinPQ( n );
+		for( int i = 0; i < this.sources.length; i++ )
+		{
+			int s = this.sources[i];
+			validateNode( s );
+			if( sourceOf[s] != -1 )
+				continue;
+			distTo[s] = 0;
+			sourceOf[s] = i;
+			pq.insert( s, 0 );
+		}
+
+		DijkstrasShortestPath.Adjacencies a = DijkstrasShortestPath.adjacenciesOf( g );
+		boolean integer = t == CostType.INTEGER;
+		while( !pq.isEmpty( ) )
+		{
+			int v = pq.delMin( );
+			for( int i = a.offsets[v]; i < a.offsets[v + 1]; i++ )
+			{
+				int w = a.targets[i];
+				double newDist = distTo[v] + ( integer ? a.intCost[i] : a.doubleCost[i] );
+				if( newDist < distTo[w] )
+				{
+					distTo[w] = newDist;
+					edgeTo[w] = v;
+					sourceOf[w] = sourceOf[v];
+					if( pq.contains( w ) )
+						pq.decreaseKey( w, newDist );
+					else
+						pq.insert( w, newDist );
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Tipo de costo con el que se calcularon las distancias.
+	 */
+	public CostType costType( )
+	{
+		return t;
+	}
+
+	/**
+	 * @return Nmero de fuentes.
+	 */
+	public int numberOfSources( )
+	{
+		return sources.length;
+	}
+
+	/**
+	 * @param i Posicin de la fuente. 0 <= i < numberOfSources( )
+	 * @return Vrtice de la fuente.
+	 */
+	public int source( int i )
+	{
+		return sources[i];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Posicin (en el arreglo de fuentes) de la fuente ms cercana, -1 si
+	 *         ninguna fuente lo alcanza.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public int sourceOf( int v )
+	{
+		validateNode( v );
+		return sourceOf[v];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Distancia por la red desde la fuente ms cercana,
+	 *         Double.POSITIVE_INFINITY si ninguna fuente lo alcanza.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public double distTo( int v )
+	{
+		validateNode( v );
+		return distTo[v];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Predecesor de v en el camino desde su fuente ms cercana, -1 si v es
+	 *         una fuente o no es alcanzable.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public int edgeTo( int v )
+	{
+		validateNode( v );
+		return edgeTo[v];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return True si alguna fuente alcanza a v.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public boolean hasPathTo( int v )
+	{
+		return sourceOf( v ) != -1;
+	}
+
+	/**
+	 * Reconstruye el camino desde la fuente ms cercana a v hasta v (inclusivos
+	 * ambos).
+	 * @param v Vrtice.
+	 * @return Un iterable de enteros que corresponden a los id's de los nodos en el
+	 *         camino. Si ninguna fuente alcanza a v, se retorna un iterable vaco.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public Iterable<Integer> pathTo( int v )
+	{
+		LinkedList<Integer> path = new LinkedList<>( );
+		if( !hasPathTo( v ) )
+			return path;
+		for( int at = v; at != -1; at = edgeTo[at] )
+			path.addFirst( at );
+		return path;
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
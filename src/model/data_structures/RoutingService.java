@@ -0,0 +1,337 @@
+package model.data_structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Servicio de rutas que se puede usar desde varios hilos a la vez. Al crearse
+ * copia las adyacencias y ambos costos del grafo, as que trabaja sobre una
+ * foto inmutable: los cambios posteriores al grafo (por ejemplo a sus costos de
+ * tipo integer) no afectan las consultas en curso ni las siguientes.
+ * <p>
+ * Una consulta en lote (route) se reparte en tareas de hasta TASK_SIZE parejas
+ * que corren en el executor del servicio. Cada tarea toma unos arreglos de
+ * trabajo de un depsito compartido y los devuelve al terminar, de modo que
+ * hay a lo sumo tantos arreglos como tareas simultneas, tanto con un pool de
+ * hilos fijo como con hilos virtuales.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class RoutingService
+{
+	/**
+	 * Nmero mximo de parejas que resuelve cada tarea.
+	 */
+	public static final int TASK_SIZE = 16;
+
+	/**
+	 * Pareja origen-destino de una consulta.
+	 */
+	public static class Query
+	{
+		private final int origin, destination;
+
+		/**
+		 * @param origin      Vrtice de origen.
+		 * @param destination Vrtice de destino.
+		 */
+		public Query( int origin, int destination )
+		{
+			this.origin = origin;
+			this.destination = destination;
+		}
+
+		public int origin( )
+		{
+			return origin;
+		}
+
+		public int destination( )
+		{
+			return destination;
+		}
+	}
+
+	/**
+	 * Resultado de una consulta: el costo mnimo y los vrtices del camino, desde
+	 * el origen hasta el destino (inclusivos ambos).
+	 */
+	public static class Route
+	{
+		private final int origin, destination;
+		private final double cost;
+		private final int[] path;
+
+		Route( int origin, int destination, double cost, int[] path )
+		{
+			this.origin = origin;
+			this.destination = destination;
+			this.cost = cost;
+			this.path = path;
+		}
+
+		public int origin( )
+		{
+			return origin;
+		}
+
+		public int destination( )
+		{
+			return destination;
+		}
+
+		/**
+		 * @return Costo mnimo del camino, Double.POSITIVE_INFINITY si no existe.
+		 */
+		public double cost( )
+		{
+			return cost;
+		}
+
+		/**
+		 * @return Copia de los vrtices del camino; vaco si no existe.
+		 */
+		public int[] path( )
+		{
+			return path.clone( );
+		}
+
+		/**
+		 * @return Nmero de vrtices del camino.
+		 */
+		public int length( )
+		{
+			return path.length;
+		}
+	}
+
+	/**
+	 * Arreglos de trabajo de una tarea. dist[v] y prev[v] solo son vlidos si
+	 * mark[v] == epoch.
+	 */
+	private static class Scratch
+	{
+		double[] dist;
+		int[] prev;
+		int[] mark;
+		int epoch;
+		IndexMinPQ pq;
+
+		Scratch( int n )
+		{
+			dist = new double[n];
+			prev = new int[n];
+			mark = new int[n];
+			pq = new IndexMinPQ( n );
+		}
+	}
+
+	private final int n;
+
+	/**
+	 * Foto CSR del grafo, igual a la de DijkstrasShortestPath pero copiada.
+	 */
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] doubleCost;
+	private final int[] intCost;
+
+	private final Executor executor;
+	private final ConcurrentLinkedQueue<Scratch> scratch;
+
+	/**
+	 * Crea el servicio con el executor predeterminado (ver defaultExecutor).
+	 * @param g Grafo no dirigido. g != null
+	 */
+	public RoutingService( UndirectedGraph g )
+	{
+		this( g, defaultExecutor( ) );
+	}
+
+	/**
+	 * Crea el servicio sobre una foto del grafo dado.
+	 * @param g        Grafo no dirigido. g != null
+	 * @param executor Executor en el que corren las tareas. executor != null
+	 */
+	public RoutingService( UndirectedGraph g, Executor executor )
+	{
+		this.n = g.numberOfVertices( );
+		DijkstrasShortestPath.Adjacencies a = DijkstrasShortestPath.adjacenciesOf( g );
+		offsets = a.offsets.clone( );
+		targets = a.targets.clone( );
+		doubleCost = a.doubleCost.clone( );
+		intCost = a.intCost.clone( );
+		this.executor = executor;
+		scratch = new ConcurrentLinkedQueue<>( );
+	}
+
+	/**
+	 * Retorna un executor con un hilo virtual por tarea si la JVM los soporta
+	 * (Java 21 o superior), o el fork-join pool comn si no. Se busca por
+	 * reflexin para que el cdigo compile con versiones anteriores de Java.
+	 * @return Executor predeterminado.
+	 */
+	public static Executor defaultExecutor( )
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+		}
+		catch( ReflectiveOperationException e )
+		{
+			return ForkJoinPool.commonPool( );
+		}
+	}
+
+	/**
+	 * @return Nmero de vrtices de la foto del grafo.
+	 */
+	public int numberOfVertices( )
+	{
+		return n;
+	}
+
+	/**
+	 * Resuelve una sola consulta en el hilo que llama.
+	 * @param origin      Vrtice de origen.
+	 * @param destination Vrtice de destino.
+	 * @param t           Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @return Ruta de costo mnimo.
+	 * @throws IllegalArgumentException Si algn vrtice no es vlido.
+	 */
+	public Route route( int origin, int destination, CostType t )
+	{
+		validateNode( origin );
+		validateNode( destination );
+		Scratch s = takeScratch( );
+		try
+		{
+			return shortestPath( s, origin, destination, t );
+		}
+		finally
+		{
+			scratch.add( s );
+		}
+	}
+
+	/**
+	 * Resuelve un lote de consultas en paralelo sobre el executor del servicio y
+	 * espera a que terminen todas.
+	 * @param queries Parejas origen-destino. queries != null
+	 * @param t       Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @return Rutas en el mismo orden de las consultas.
+	 * @throws IllegalArgumentException Si algn vrtice no es vlido.
+	 */
+	public List<Route> route( List<Query> queries, CostType t )
+	{
+		for( Query q : queries )
+		{
+			validateNode( q.origin );
+			validateNode( q.destination );
+		}
+
+		Route[] routes = new Route[queries.size( )];
+		ArrayList<CompletableFuture<Void>> tasks = new ArrayList<>( );
+		for( int lo = 0; lo < routes.length; lo += TASK_SIZE )
+		{
+			int from = lo, to = Math.min( lo + TASK_SIZE, routes.length );
+			tasks.add( CompletableFuture.runAsync( ( ) -> {
+				Scratch s = takeScratch( );
+				try
+				{
+					for( int i = from; i < to; i++ )
+					{
+						Query q = queries.get( i );
+						routes[i] = shortestPath( s, q.origin, q.destination, t );
+					}
+				}
+				finally
+				{
+					scratch.add( s );
+				}
+			}, executor ) );
+		}
+		CompletableFuture.allOf( tasks.toArray( new CompletableFuture[0] ) ).join( );
+		return Arrays.asList( routes );
+	}
+
+	/**
+	 * @return Unos arreglos de trabajo libres, crendolos si no hay ninguno.
+	 */
+	private Scratch takeScratch( )
+	{
+		Scratch s = scratch.poll( );
+		return s != null ? s : new Scratch( n );
+	}
+
+	/**
+	 * Corre Dijkstra desde el origen hasta asentar el destino y reconstruye el
+	 * camino.
+	 */
+	private Route shortestPath( Scratch s, int origin, int destination, CostType t )
+	{
+		if( ++s.epoch == 0 )
+		{
+			Arrays.fill( s.mark, 0 );
+			s.epoch = 1;
+		}
+		s.pq.clear( );
+
+		boolean integer = t == CostType.INTEGER;
+		s.mark[origin] = s.epoch;
+		s.dist[origin] = 0;
+		s.prev[origin] = -1;
+		s.pq.insert( origin, 0 );
+		while( !s.pq.isEmpty( ) )
+		{
+			int v = s.pq.delMin( );
+			if( v == destination )
+				break;
+
+			for( int i = offsets[v]; i < offsets[v + 1]; i++ )
+			{
+				int w = targets[i];
+				double newDist = s.dist[v] + ( integer ? intCost[i] : doubleCost[i] );
+				if( s.mark[w] != s.epoch )
+				{
+					s.mark[w] = s.epoch;
+					s.dist[w] = newDist;
+					s.prev[w] = v;
+					s.pq.insert( w, newDist );
+				}
+				else if( newDist < s.dist[w] )
+				{
+					s.dist[w] = newDist;
+					s.prev[w] = v;
+					s.pq.decreaseKey( w, newDist );
+				}
+			}
+		}
+
+		if( s.mark[destination] != s.epoch )
+			return new Route( origin, destination, Double.POSITIVE_INFINITY, new int[0] );
+
+		int length = 1;
+		for( int at = destination; at != origin; at = s.prev[at] )
+			length++;
+		int[] path = new int[length];
+		for( int at = destination, k = length - 1; k >= 0; at = s.prev[at], k-- )
+			path[k] = at;
+		return new Route( origin, destination, s.dist[destination], path );
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
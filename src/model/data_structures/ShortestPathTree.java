@@ -0,0 +1,152 @@
+package model.data_structures;
+
+import java.util.Arrays;
+
+/**
+ * rbol de caminos ms cortos desde una fuente: un Dijkstra completo desde la
+ * fuente guarda distTo[] y edgeTo[] de todos los vrtices, de modo que el
+ * camino a cualquier destino se reconstruye en O(largo del camino) sin volver a
+ * buscar. Sirve cuando se piden muchos caminos desde la misma fuente.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class ShortestPathTree
+{
+	private int n;
+	private CostType t;
+	private int source;
+
+	/**
+	 * Distancia desde la fuente y predecesor en el camino desde ella (-1 en la
+	 * fuente y en los vrtices no alcanzables).
+	 */
+	private double[] distTo;
+	private int[] edgeTo;
+
+	/**
+	 * Calcula el rbol de caminos ms cortos desde la fuente dada.
+	 * @param g      Grafo no dirigido. g != null
+	 * @param t      Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @param source Vrtice fuente.
+	 * @throws IllegalArgumentException Si la fuente no es vlida.
+	 */
+	public ShortestPathTree( UndirectedGraph g, CostType t, int source )
+	{
+		this.n = g.numberOfVertices( );
+		this.t = t;
+		this.source = source;
+		validateNode( source );
+
+		distTo = new double[n];
+		edgeTo = new int[n];
+		Arrays.fill( distTo, Double.POSITIVE_INFINITY );
+		Arrays.fill( edgeTo, -1 );
+		distTo[source] = 0;
+
+		IndexMinPQ pq = new IndexMinPQ( n );
+		pq.insert( source, 0 );
+		DijkstrasShortestPath.Adjacencies a = DijkstrasShortestPath.adjacenciesOf( g );
+		boolean integer = t == CostType.INTEGER;
+		while( !pq.isEmpty( ) )
+		{
+			int v = pq.delMin( );
+			for( int i = a.offsets[v]; i < a.offsets[v + 1]; i++ )
+			{
+				int w = a.targets[i];
+				double newDist = distTo[v] + ( integer ? a.intCost[i] : a.doubleCost[i] );
+				if( newDist < distTo[w] )
+				{
+					distTo[w] = newDist;
+					edgeTo[w] = v;
+					if( pq.contains( w ) )
+						pq.decreaseKey( w, newDist );
+					else
+						pq.insert( w, newDist );
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Vrtice fuente del rbol.
+	 */
+	public int source( )
+	{
+		return source;
+	}
+
+	/**
+	 * @return Tipo de costo con el que se calcularon las distancias.
+	 */
+	public CostType costType( )
+	{
+		return t;
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Distancia desde la fuente, Double.POSITIVE_INFINITY si no es
+	 *         alcanzable.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public double distTo( int v )
+	{
+		validateNode( v );
+		return distTo[v];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Predecesor de v en el camino desde la fuente, -1 si v es la fuente o
+	 *         no es alcanzable.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public int edgeTo( int v )
+	{
+		validateNode( v );
+		return edgeTo[v];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return True si la fuente alcanza a v.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public boolean hasPathTo( int v )
+	{
+		return distTo( v ) != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Reconstruye el camino desde la fuente hasta v (inclusivos ambos).
+	 * @param v Vrtice.
+	 * @return Un iterable de enteros que corresponden a los id's de los nodos en el
+	 *         camino. Si la fuente no alcanza a v, se retorna un iterable vaco.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public Iterable<Integer> pathTo( int v )
+	{
+		LinkedList<Integer> path = new LinkedList<>( );
+		if( !hasPathTo( v ) )
+			return path;
+		for( int at = v; at != -1; at = edgeTo[at] )
+			path.addFirst( at );
+		return path;
+	}
+
+	/**
+	 * @return Memoria aproximada en bytes de los arreglos del rbol.
+	 */
+	public long memorySize( )
+	{
+		return 12L * n;
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nodo no es vlido.
+	 */
+	private void validateNode( int v )
+	{
+		if( v < 0 || v >= n )
+			throw new IllegalArgumentException( "Invalid node index" );
+	}
+}
@@ -0,0 +1,134 @@
+package model.data_structures;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cach LRU de rboles de caminos ms cortos de un grafo, uno por pareja
+ * (fuente, tipo de costo). Un rbol se construye la primera vez que se pide y
+ * se reutiliza en los pedidos siguientes; cuando la memoria de los rboles
+ * guardados supera el lmite se descartan los usados hace ms tiempo.
+ */
+@SuppressWarnings( { "rawtypes" } )
+public class ShortestPathTreeCache
+{
+	private UndirectedGraph g;
+	private long maxBytes;
+	private long bytes;
+	private int hits;
+	private int misses;
+
+	/**
+	 * rboles guardados en orden de acceso: el primero es el usado hace ms tiempo.
+	 * La llave es source * 2 + t.ordinal( ).
+	 */
+	private LinkedHashMap<Long, ShortestPathTree> trees;
+
+	/**
+	 * Crea un cach vaco.
+	 * @param g        Grafo no dirigido. g != null
+	 * @param maxBytes Memoria mxima en bytes de los rboles guardados. Siempre se
+	 *                 guarda al menos el ltimo rbol pedido.
+	 * @throws IllegalArgumentException Si maxBytes es negativo.
+	 */
+	public ShortestPathTreeCache( UndirectedGraph g, long maxBytes )
+	{
+		if( maxBytes < 0 )
+			throw new IllegalArgumentException( "Memory bound must be non negative" );
+		this.g = g;
+		this.maxBytes = maxBytes;
+		trees = new LinkedHashMap<>( 16, 0.75f, true );
+	}
+
+	/**
+	 * Retorna el rbol de caminos ms cortos desde la fuente dada, construyndolo
+	 * si no est guardado.
+	 * @param source Vrtice fuente.
+	 * @param t      Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @return rbol de caminos ms cortos.
+	 * @throws IllegalArgumentException Si la fuente no es vlida.
+	 */
+	public ShortestPathTree get( int source, CostType t )
+	{
+		Long key = source * 2L + t.ordinal( );
+		ShortestPathTree tree = trees.get( key );
+		if( tree != null )
+		{
+			hits++;
+			return tree;
+		}
+
+		misses++;
+		tree = new ShortestPathTree( g, t, source );
+		trees.put( key, tree );
+		bytes += tree.memorySize( );
+
+		Iterator<ShortestPathTree> iter = trees.values( ).iterator( );
+		while( bytes > maxBytes && trees.size( ) > 1 )
+		{
+			bytes -= iter.next( ).memorySize( );
+			iter.remove( );
+		}
+		return tree;
+	}
+
+	/**
+	 * @return Nmero de pedidos que encontraron el rbol guardado.
+	 */
+	public int hits( )
+	{
+		return hits;
+	}
+
+	/**
+	 * @return Nmero de pedidos que tuvieron que construir el rbol.
+	 */
+	public int misses( )
+	{
+		return misses;
+	}
+
+	/**
+	 * @return Nmero de rboles guardados.
+	 */
+	public int size( )
+	{
+		return trees.size( );
+	}
+
+	/**
+	 * @return Memoria aproximada en bytes de los rboles guardados.
+	 */
+	public long memorySize( )
+	{
+		return bytes;
+	}
+
+	/**
+	 * Descarta los rboles del tipo de costo dado, por ejemplo despus de cambiar
+	 * esos costos en el grafo.
+	 * @param t Tipo de costo. t = {DOUBLE, INTEGER}
+	 */
+	public void clear( CostType t )
+	{
+		Iterator<ShortestPathTree> iter = trees.values( ).iterator( );
+		while( iter.hasNext( ) )
+		{
+			ShortestPathTree tree = iter.next( );
+			if( tree.costType( ) == t )
+			{
+				bytes -= tree.memorySize( );
+				iter.remove( );
+			}
+		}
+	}
+
+	/**
+	 * Descarta todos los rboles guardados.
+	 */
+	public void clear( )
+	{
+		trees.clear( );
+		bytes = 0;
+	}
+}
@@ -1,6 +1,11 @@
 package model.data_structures;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Implementacin de un grafo no dirigido genrico.
@@ -18,6 +23,11 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	 */
 	public final static double INFINITY = -1000000000000000.0;
 
+	/**
+	 * Nmero de arcos por tarea al recalcular los costos en paralelo.
+	 */
+	private final static int COST_RANGE_SIZE = 1 << 14;
+
 	/**
 	 * Nmero de vrtices.
 	 */
@@ -39,15 +49,62 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	private int D;
 
 	/**
-	 * Lista de adyacencia.
+	 * Lista de adyacencia. Es null una vez el grafo ha sido congelado.
 	 */
 	private Bag<Edge<K, V, L>>[] adj;
 
 	/**
-	 * Tabla de hash que contiene los vrtices. La llave es el ID del vrtice y el
-	 * valor un objeto de tipo Vertex.
+	 * Indica si el grafo fue congelado en su representacin CSR (compressed sparse
+	 * row). Un grafo congelado no admite nuevos arcos.
+	 */
+	private boolean frozen;
+
+	/**
+	 * Representacin CSR de la lista de adyacencia. Los arcos adyacentes al vrtice
+	 * v ocupan las posiciones offsets[v] a offsets[v + 1] - 1 de los arreglos
+	 * targets, doubleCost e intCost. Cada arco no dirigido aparece dos veces, una
+	 * por cada uno de sus extremos.
+	 */
+	private int[] offsets;
+
+	/**
+	 * ID del vrtice adyacente en cada posicin de la representacin CSR.
+	 */
+	private int[] targets;
+
+	/**
+	 * Costo de tipo double del arco en cada posicin de la representacin CSR.
+	 */
+	private double[] doubleCost;
+
+	/**
+	 * Costo de tipo integer del arco en cada posicin de la representacin CSR.
+	 */
+	private int[] intCost;
+
+	/**
+	 * ndice de arcos de un grafo congelado. sortedSlots tiene las posiciones de
+	 * cada fila ordenadas por vrtice adyacente (y por posicin entre iguales), de
+	 * modo que un arco v-w se encuentra con bsqueda binaria en la fila de v.
+	 * partner[i] es la posicin del mismo arco en la fila del otro extremo.
+	 * <p>
+	 * El ID de un arco es su orden en el recorrido de edgeCursor, de 0 a E - 1, y
+	 * no cambia mientras el grafo exista. edgeOf[i] es el ID del arco en la
+	 * posicin i y edgeSlot[e] es la posicin del arco e en la fila de su extremo
+	 * menor.
+	 */
+	private int[] sortedSlots, partner, edgeOf, edgeSlot;
+
+	/**
+	 * Arreglo denso que contiene los vrtices. La posicin es el ID del vrtice.
+	 */
+	private Vertex<K, V, L>[] vertices;
+
+	/**
+	 * Latitud y longitud geogrficas de cada vrtice. La posicin es el ID del
+	 * vrtice.
 	 */
-	public HashTable<Integer, Vertex<K, V, L>> vertex;
+	private double[] latitudes, longitudes;
 
 	/**
 	 * Tipo de costo que retornar cuando se itera sobre los arcos. DOUBLE es el
@@ -69,13 +126,15 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 		this.E = 0;
 		this.D = 0;
 		this.S = 0;
+		this.frozen = false;
 
-		this.vertex = new HashTable<>( 24007, true );
-
+		vertices = ( Vertex<K, V, L>[] ) new Vertex[numberOfVertices];
+		latitudes = new double[numberOfVertices];
+		longitudes = new double[numberOfVertices];
 		adj = ( Bag<Edge<K, V, L>>[] ) new Bag[numberOfVertices];
 		for( int v = 0; v < numberOfVertices; v++ )
 		{
-			vertex.put( v, new Vertex<>( v ) );
+			vertices[v] = new Vertex<>( v );
 			adj[v] = new Bag<Edge<K, V, L>>( );
 		}
 	}
@@ -112,19 +171,269 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 		return D;
 	}
 
+	/**
+	 * @return True si el grafo ya fue congelado en su representacin CSR, false de
+	 *         lo contrario.
+	 */
+	public boolean isFrozen( )
+	{
+		return frozen;
+	}
+
+	/**
+	 * Congela el grafo: construye la representacin CSR de la lista de adyacencia
+	 * (conservando el orden de iteracin de las bolsas) y libera las bolsas y sus
+	 * arcos. A partir de este momento las consultas sobre arcos leen los arreglos
+	 * primitivos y no se pueden aadir arcos nuevos. Si el grafo ya estaba
+	 * congelado, no hace nada.
+	 */
+	public void freeze( )
+	{
+		if( frozen )
+			return;
+
+		offsets = new int[V + 1];
+		for( int v = 0; v < V; v++ )
+			offsets[v + 1] = offsets[v] + adj[v].size( );
+
+		targets = new int[offsets[V]];
+		doubleCost = new double[offsets[V]];
+		intCost = new int[offsets[V]];
+		for( int v = 0; v < V; v++ )
+		{
+			int i = offsets[v];
+			for( Edge<K, V, L> e : adj[v] )
+			{
+				targets[i] = e.other( v );
+				doubleCost[i] = e.getDoubleCost( );
+				intCost[i] = e.getIntegerCost( );
+				i++;
+			}
+		}
+
+		adj = null;
+		frozen = true;
+		buildEdgeIndex( );
+	}
+
+	/**
+	 * Aade de una sola vez los arcos dados y congela el grafo. El resultado es el
+	 * mismo que llamar addEdge( from[i], to[i], cost[i] ) para i de 0 a n - 1 y
+	 * luego freeze( ), incluyendo el orden de iteracin de las adyacencias, pero la
+	 * representacin CSR se construye directamente, sin crear bolsas ni arcos.
+	 * @param from Uno de los vrtices de cada arco. from.length >= n
+	 * @param to   Otro de los vrtices de cada arco. to.length >= n
+	 * @param cost Costo de tipo double de cada arco. cost.length >= n
+	 * @param n    Nmero de arcos a aadir. n >= 0
+	 * @throws IllegalArgumentException Si alguno de los vrtices no es vlido.
+	 * @throws IllegalStateException    Si el grafo ya fue congelado o ya tiene
+	 *                                  arcos.
+	 */
+	public void addEdgesAndFreeze( int[] from, int[] to, double[] cost, int n )
+			throws IllegalArgumentException, IllegalStateException
+	{
+		addEdgesAndFreeze( from, to, cost, null, n );
+	}
+
+	/**
+	 * Igual que addEdgesAndFreeze( from, to, cost, n ), pero asigna adems el costo
+	 * de tipo integer de cada arco.
+	 * @param from        Uno de los vrtices de cada arco. from.length >= n
+	 * @param to          Otro de los vrtices de cada arco. to.length >= n
+	 * @param cost        Costo de tipo double de cada arco. cost.length >= n
+	 * @param integerCost Costo de tipo integer de cada arco, o null para dejarlos en
+	 *                    0. integerCost.length >= n
+	 * @param n           Nmero de arcos a aadir. n >= 0
+	 * @throws IllegalArgumentException Si alguno de los vrtices no es vlido.
+	 * @throws IllegalStateException    Si el grafo ya fue congelado o ya tiene
+	 *                                  arcos.
+	 */
+	public void addEdgesAndFreeze( int[] from, int[] to, double[] cost, int[] integerCost, int n )
+			throws IllegalArgumentException, IllegalStateException
+	{
+		if( frozen )
+			throw new IllegalStateException( "Graph is frozen, edges cannot be added" );
+		if( E != 0 )
+			throw new IllegalStateException( "Edges can only be added in bulk to a graph without edges" );
+
+		offsets = new int[V + 1];
+		for( int i = 0; i < n; i++ )
+		{
+			validateVertex( from[i] );
+			validateVertex( to[i] );
+			offsets[from[i] + 1]++;
+			offsets[to[i] + 1]++;
+		}
+		for( int v = 0; v < V; v++ )
+			offsets[v + 1] += offsets[v];
+
+		// Las bolsas recorren primero el ltimo arco aadido, por lo que cada fila se
+		// llena desde el final.
+		int[] next = new int[V];
+		System.arraycopy( offsets, 1, next, 0, V );
+		targets = new int[2 * n];
+		doubleCost = new double[2 * n];
+		intCost = new int[2 * n];
+		for( int i = 0; i < n; i++ )
+		{
+			int v = from[i], w = to[i];
+			int j = --next[v];
+			targets[j] = w;
+			doubleCost[j] = cost[i];
+			if( integerCost != null )
+				intCost[j] = integerCost[i];
+			j = --next[w];
+			targets[j] = v;
+			doubleCost[j] = cost[i];
+			if( integerCost != null )
+				intCost[j] = integerCost[i];
+		}
+
+		E = n;
+		adj = null;
+		frozen = true;
+		buildEdgeIndex( );
+	}
+
+	/**
+	 * <b>pre:</b> El grafo est congelado.
+	 * @return Arreglo offsets de la representacin CSR (sin copiarlo).
+	 */
+	int[] csrOffsets( )
+	{
+		return offsets;
+	}
+
+	/**
+	 * <b>pre:</b> El grafo est congelado.
+	 * @return Arreglo targets de la representacin CSR (sin copiarlo).
+	 */
+	int[] csrTargets( )
+	{
+		return targets;
+	}
+
+	/**
+	 * <b>pre:</b> El grafo est congelado.
+	 * @return Costos de tipo double de la representacin CSR (sin copiarlos).
+	 */
+	double[] csrDoubleCosts( )
+	{
+		return doubleCost;
+	}
+
+	/**
+	 * <b>pre:</b> El grafo est congelado.
+	 * @return Costos de tipo integer de la representacin CSR (sin copiarlos). Los
+	 *         cambios hechos con setEdgeIntegerCost se ven en este arreglo.
+	 */
+	int[] csrIntegerCosts( )
+	{
+		return intCost;
+	}
+
+	/**
+	 * @return Nmero de bytes que ocupa la estructura del grafo al escribirla con
+	 *         writeStructure.
+	 * @throws IllegalStateException Si el grafo no ha sido congelado.
+	 */
+	public long structureSize( ) throws IllegalStateException
+	{
+		if( !frozen )
+			throw new IllegalStateException( "Graph must be frozen to be written" );
+
+		return 2 * 4L + 2 * 8L * V + 4L * ( V + 1 ) + ( 4L + 8L + 4L ) * targets.length;
+	}
+
+	/**
+	 * Escribe la estructura del grafo congelado en el buffer dado: nmero de
+	 * vrtices y arcos, coordenadas de cada vrtice y la representacin CSR con
+	 * ambos tipos de costo. Los items de los vrtices no se escriben.
+	 * @param buffer Buffer donde escribir, con al menos structureSize() bytes
+	 *               disponibles. buffer != null
+	 * @throws IllegalStateException Si el grafo no ha sido congelado.
+	 */
+	public void writeStructure( ByteBuffer buffer ) throws IllegalStateException
+	{
+		if( !frozen )
+			throw new IllegalStateException( "Graph must be frozen to be written" );
+
+		buffer.putInt( V );
+		buffer.putInt( E );
+		buffer.asDoubleBuffer( ).put( latitudes );
+		buffer.position( buffer.position( ) + 8 * V );
+		buffer.asDoubleBuffer( ).put( longitudes );
+		buffer.position( buffer.position( ) + 8 * V );
+		buffer.asIntBuffer( ).put( offsets );
+		buffer.position( buffer.position( ) + 4 * ( V + 1 ) );
+		buffer.asIntBuffer( ).put( targets );
+		buffer.position( buffer.position( ) + 4 * targets.length );
+		buffer.asDoubleBuffer( ).put( doubleCost );
+		buffer.position( buffer.position( ) + 8 * doubleCost.length );
+		buffer.asIntBuffer( ).put( intCost );
+		buffer.position( buffer.position( ) + 4 * intCost.length );
+	}
+
+	/**
+	 * Lee un grafo escrito con writeStructure. El grafo retornado queda congelado y
+	 * sus vrtices no tienen items.
+	 * @param buffer Buffer posicionado al inicio de la estructura. buffer != null
+	 * @return Grafo ledo.
+	 * @throws IllegalArgumentException Si la estructura leda no es consistente.
+	 */
+	public static <K extends Comparable<K>, V extends Comparable<V>, L extends Comparable<L>> UndirectedGraph<K, V, L> readStructure(
+			ByteBuffer buffer ) throws IllegalArgumentException
+	{
+		int numberOfVertices = buffer.getInt( );
+		int numberOfEdges = buffer.getInt( );
+		UndirectedGraph<K, V, L> g = new UndirectedGraph<>( numberOfVertices );
+
+		buffer.asDoubleBuffer( ).get( g.latitudes );
+		buffer.position( buffer.position( ) + 8 * numberOfVertices );
+		buffer.asDoubleBuffer( ).get( g.longitudes );
+		buffer.position( buffer.position( ) + 8 * numberOfVertices );
+
+		g.offsets = new int[numberOfVertices + 1];
+		buffer.asIntBuffer( ).get( g.offsets );
+		buffer.position( buffer.position( ) + 4 * ( numberOfVertices + 1 ) );
+
+		int slots = g.offsets[numberOfVertices];
+		if( slots != 2L * numberOfEdges )
+			throw new IllegalArgumentException( "Inconsistent graph structure" );
+
+		g.targets = new int[slots];
+		buffer.asIntBuffer( ).get( g.targets );
+		buffer.position( buffer.position( ) + 4 * slots );
+		g.doubleCost = new double[slots];
+		buffer.asDoubleBuffer( ).get( g.doubleCost );
+		buffer.position( buffer.position( ) + 8 * slots );
+		g.intCost = new int[slots];
+		buffer.asIntBuffer( ).get( g.intCost );
+		buffer.position( buffer.position( ) + 4 * slots );
+
+		g.E = numberOfEdges;
+		g.adj = null;
+		g.frozen = true;
+		g.buildEdgeIndex( );
+		return g;
+	}
+
 	/**
 	 * Aade el arco entre los vrtices dados por parmetro con su costo de tipo
 	 * double.
 	 * @param v Uno de los vrtices.
 	 * @param w Otro de los vrtices.
 	 * @throws IllegalArgumentException Si alguno de los vrtices no son vlidos.
+	 * @throws IllegalStateException    Si el grafo ya fue congelado.
 	 */
 	public void addEdge( int v, int w, double cost ) throws IllegalArgumentException
 	{
 		validateVertex( v );
 		validateVertex( w );
+		if( frozen )
+			throw new IllegalStateException( "Graph is frozen, edges cannot be added" );
 
-		Edge<K, V, L> e = new Edge<K, V, L>( vertex.get( v ), vertex.get( w ), cost );
+		Edge<K, V, L> e = new Edge<K, V, L>( vertices[v], vertices[w], cost );
 		adj[v].add( e );
 		adj[w].add( e );
 		E++;
@@ -141,6 +450,12 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 		validateVertex( v );
 		validateVertex( w );
 
+		if( frozen )
+		{
+			int i = slotOf( v, w );
+			return i != -1 ? doubleCost[i] : INFINITY;
+		}
+
 		for( Edge<K, V, L> e : edgesAdjacentTo( v ) )
 			if( e.either( ) == w || e.other( e.either( ) ) == w ) // Comprueba que este s sea el arco.
 				return e.getDoubleCost( );
@@ -160,6 +475,12 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 		validateVertex( v );
 		validateVertex( w );
 
+		if( frozen )
+		{
+			int i = slotOf( v, w );
+			return i != -1 ? intCost[i] : ( int ) INFINITY;
+		}
+
 		for( Edge<K, V, L> e : edgesAdjacentTo( v ) )
 			if( e.either( ) == w || e.other( e.either( ) ) == w ) // Comprueba que este s sea el arco.
 				return e.getIntegerCost( );
@@ -179,6 +500,18 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 		validateVertex( v );
 		validateVertex( w );
 
+		if( frozen )
+		{
+			// El arco aparece en la fila de ambos extremos.
+			int i = slotOf( v, w );
+			if( i != -1 )
+			{
+				intCost[i] = cost;
+				intCost[partner[i]] = cost;
+			}
+			return;
+		}
+
 		for( Edge<K, V, L> e : edgesAdjacentTo( v ) )
 			if( e.either( ) == w || e.other( e.either( ) ) == w )
 			{
@@ -187,6 +520,309 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 			}
 	}
 
+	/**
+	 * Busca el arco con bsqueda binaria sobre la fila ordenada de v, en
+	 * O(log grado( v )). <b>pre:</b> El grafo est congelado.
+	 * @param v Vrtice de la fila a recorrer.
+	 * @param w Vrtice adyacente buscado.
+	 * @return Posicin en la representacin CSR del primer arco v-w de la fila de
+	 *         v, -1 si no existe.
+	 */
+	private int slotOf( int v, int w )
+	{
+		int p = lowerBound( v, w );
+		return p < offsets[v + 1] && targets[sortedSlots[p]] == w ? sortedSlots[p] : -1;
+	}
+
+	/**
+	 * <b>pre:</b> El grafo est congelado.
+	 * @return Primera posicin p de sortedSlots en la fila de v tal que
+	 *         targets[sortedSlots[p]] >= w, o el final de la fila si no hay.
+	 */
+	private int lowerBound( int v, int w )
+	{
+		int lo = offsets[v], hi = offsets[v + 1];
+		while( lo < hi )
+		{
+			int mid = ( lo + hi ) >>> 1;
+			if( targets[sortedSlots[mid]] < w )
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Construye el ndice de arcos de un grafo recin congelado: ordena cada fila,
+	 * empareja las dos posiciones de cada arco y asigna los ID's en el orden de
+	 * edgeCursor.
+	 * @throws IllegalArgumentException Si la representacin CSR no es consistente
+	 *                                  (un arco no aparece en la fila de ambos
+	 *                                  extremos).
+	 */
+	private void buildEdgeIndex( ) throws IllegalArgumentException
+	{
+		int m = targets.length;
+		long[] keys = new long[m];
+		for( int v = 0; v < V; v++ )
+		{
+			for( int i = offsets[v]; i < offsets[v + 1]; i++ )
+			{
+				if( targets[i] < 0 || targets[i] >= V )
+					throw new IllegalArgumentException( "Inconsistent graph structure" );
+				keys[i] = ( ( long ) targets[i] << 32 ) | i;
+			}
+			Arrays.sort( keys, offsets[v], offsets[v + 1] );
+		}
+		sortedSlots = new int[m];
+		for( int p = 0; p < m; p++ )
+			sortedSlots[p] = ( int ) keys[p];
+
+		// La k-sima aparicin de w en la fila de v es el mismo arco que la k-sima
+		// aparicin de v en la fila de w. Un lazo aparece dos veces seguidas en su
+		// fila.
+		partner = new int[m];
+		for( int v = 0; v < V; v++ )
+		{
+			int p = offsets[v];
+			while( p < offsets[v + 1] )
+			{
+				int w = targets[sortedSlots[p]];
+				int q = p + 1;
+				while( q < offsets[v + 1] && targets[sortedSlots[q]] == w )
+					q++;
+
+				if( w == v )
+				{
+					if( ( q - p ) % 2 != 0 )
+						throw new IllegalArgumentException( "Inconsistent graph structure" );
+					for( int r = p; r < q; r += 2 )
+					{
+						partner[sortedSlots[r]] = sortedSlots[r + 1];
+						partner[sortedSlots[r + 1]] = sortedSlots[r];
+					}
+				}
+				else if( w > v )
+				{
+					int start = lowerBound( w, v );
+					for( int r = p; r < q; r++ )
+					{
+						int k = start + r - p;
+						if( k >= offsets[w + 1] || targets[sortedSlots[k]] != v )
+							throw new IllegalArgumentException( "Inconsistent graph structure" );
+						partner[sortedSlots[r]] = sortedSlots[k];
+						partner[sortedSlots[k]] = sortedSlots[r];
+					}
+				}
+				p = q;
+			}
+		}
+
+		edgeOf = new int[m];
+		edgeSlot = new int[m / 2];
+		int e = 0;
+		for( int v = 0; v < V; v++ )
+			for( int i = offsets[v]; i < offsets[v + 1]; i++ )
+				if( targets[i] > v || ( targets[i] == v && partner[i] > i ) )
+				{
+					edgeOf[i] = edgeOf[partner[i]] = e;
+					edgeSlot[e++] = i;
+				}
+	}
+
+	/**
+	 * @param v Uno de los vrtices del arco.
+	 * @param w Otro vrtice del arco.
+	 * @return ID del arco v-w (el primero, si hay varios), -1 si no existe. Es el
+	 *         mismo ndice que da edgeCursor al visitarlo.
+	 * @throws IllegalArgumentException Si alguno de los vrtices no es vlido.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	public int edgeId( int v, int w ) throws IllegalArgumentException, IllegalStateException
+	{
+		validateVertex( v );
+		validateVertex( w );
+		if( !frozen )
+			throw new IllegalStateException( "Graph must be frozen to have edge ids" );
+
+		int i = slotOf( v, w );
+		return i != -1 ? edgeOf[i] : -1;
+	}
+
+	/**
+	 * @param e ID del arco.
+	 * @return Extremo de menor ID del arco.
+	 * @throws IllegalArgumentException Si el ID no es vlido.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	public int edgeEither( int e ) throws IllegalArgumentException, IllegalStateException
+	{
+		validateEdge( e );
+		return targets[partner[edgeSlot[e]]];
+	}
+
+	/**
+	 * @param e ID del arco.
+	 * @return Extremo de mayor ID del arco.
+	 * @throws IllegalArgumentException Si el ID no es vlido.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	public int edgeOther( int e ) throws IllegalArgumentException, IllegalStateException
+	{
+		validateEdge( e );
+		return targets[edgeSlot[e]];
+	}
+
+	/**
+	 * Asigna de una sola vez el costo de tipo integer de todos los arcos.
+	 * @param costs Costo de cada arco, en la posicin de su ndice en edgeCursor
+	 *              (su ID si el grafo est congelado). costs.length ==
+	 *              numberOfEdges( )
+	 * @throws IllegalArgumentException Si el nmero de costos no es el nmero de
+	 *                                  arcos.
+	 */
+	public void setAllIntegerCosts( int[] costs ) throws IllegalArgumentException
+	{
+		if( costs.length != E )
+			throw new IllegalArgumentException( "Expected " + E + " costs but got " + costs.length );
+
+		if( frozen )
+		{
+			for( int e = 0; e < E; e++ )
+			{
+				int i = edgeSlot[e];
+				intCost[i] = costs[e];
+				intCost[partner[i]] = costs[e];
+			}
+			return;
+		}
+
+		EdgeCursor c = new EdgeCursor( );
+		while( c.next( ) )
+			c.current.setIntegerCost( costs[c.edge] );
+	}
+
+	/**
+	 * Asigna a cada arco v-w el costo de tipo integer weights[v] + weights[w] (por
+	 * ejemplo, el nmero de items de ambos extremos). Recorre los arcos por su ID
+	 * sobre los arreglos primitivos del grafo.
+	 * @param weights Peso de cada vrtice. weights.length == numberOfVertices( )
+	 * @throws IllegalArgumentException Si el nmero de pesos no es el nmero de
+	 *                                  vrtices.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	public void setIntegerCostsFromVertexWeights( int[] weights )
+			throws IllegalArgumentException, IllegalStateException
+	{
+		validateWeights( weights );
+		setIntegerCostsFromVertexWeights( weights, 0, E );
+	}
+
+	/**
+	 * Igual que setIntegerCostsFromVertexWeights( weights ), pero reparte los
+	 * arcos en rangos de COST_RANGE_SIZE que se calculan en paralelo en el pool
+	 * dado. Cada arco solo escribe sus dos posiciones, as que los rangos no
+	 * comparten datos.
+	 * @param weights Peso de cada vrtice. weights.length == numberOfVertices( )
+	 * @param pool    Pool en el que se reparten los rangos. pool != null
+	 * @throws IllegalArgumentException Si el nmero de pesos no es el nmero de
+	 *                                  vrtices.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	public void setIntegerCostsFromVertexWeights( int[] weights, ForkJoinPool pool )
+			throws IllegalArgumentException, IllegalStateException
+	{
+		validateWeights( weights );
+		pool.invoke( new CostRange( weights, 0, E ) );
+	}
+
+	/**
+	 * Vuelve a calcular el costo de tipo integer weights[v] + weights[w] solo de
+	 * los arcos que tocan alguno de los vrtices dados, por ejemplo despus de
+	 * aadir items a esos vrtices.
+	 * @param weights  Peso de cada vrtice. weights.length == numberOfVertices( )
+	 * @param vertices Vrtices cuyo peso cambi; puede haber repetidos.
+	 *                 vertices.length >= n
+	 * @param n        Nmero de vrtices a usar de vertices. n >= 0
+	 * @throws IllegalArgumentException Si el nmero de pesos no es el nmero de
+	 *                                  vrtices o algn vrtice no es vlido.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	public void updateIntegerCostsAround( int[] weights, int[] vertices, int n )
+			throws IllegalArgumentException, IllegalStateException
+	{
+		validateWeights( weights );
+		for( int k = 0; k < n; k++ )
+		{
+			int v = vertices[k];
+			validateVertex( v );
+			for( int i = offsets[v]; i < offsets[v + 1]; i++ )
+			{
+				int cost = weights[v] + weights[targets[i]];
+				intCost[i] = cost;
+				intCost[partner[i]] = cost;
+			}
+		}
+	}
+
+	/**
+	 * Asigna el costo de los arcos con ID de lo a hi - 1.
+	 */
+	private void setIntegerCostsFromVertexWeights( int[] weights, int lo, int hi )
+	{
+		for( int e = lo; e < hi; e++ )
+		{
+			int i = edgeSlot[e], j = partner[i];
+			int cost = weights[targets[j]] + weights[targets[i]];
+			intCost[i] = cost;
+			intCost[j] = cost;
+		}
+	}
+
+	/**
+	 * Tarea que asigna los costos de los arcos con ID de lo a hi - 1, dividindose
+	 * en dos mientras tenga ms de COST_RANGE_SIZE arcos.
+	 */
+	@SuppressWarnings( "serial" )
+	private class CostRange extends RecursiveAction
+	{
+		private int[] weights;
+		private int lo, hi;
+
+		CostRange( int[] weights, int lo, int hi )
+		{
+			this.weights = weights;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute( )
+		{
+			if( hi - lo <= COST_RANGE_SIZE )
+			{
+				setIntegerCostsFromVertexWeights( weights, lo, hi );
+				return;
+			}
+			int mid = ( lo + hi ) >>> 1;
+			invokeAll( new CostRange( weights, lo, mid ), new CostRange( weights, mid, hi ) );
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el nmero de pesos no es el nmero de
+	 *                                  vrtices.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	private void validateWeights( int[] weights ) throws IllegalArgumentException, IllegalStateException
+	{
+		if( !frozen )
+			throw new IllegalStateException( "Graph must be frozen to recompute costs in bulk" );
+		if( weights.length != V )
+			throw new IllegalArgumentException( "Expected " + V + " weights but got " + weights.length );
+	}
+
 	/**
 	 * @param v ID del vrtice.
 	 * @return Grado del vrtice.
@@ -195,34 +831,35 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	public int degreeOf( int v ) throws IllegalArgumentException
 	{
 		validateVertex( v );
-		return adj[v].size( );
+		return frozen ? offsets[v + 1] - offsets[v] : adj[v].size( );
 	}
 
 	/**
-	 * Le asigna al vrtice de ID v el item (ambos dados por parmetro). El vrtice
-	 * es
-	 * ubicado dentro de la tabla de hash y a dicha llave se le aade el valor que
-	 * corresponde al item.
+	 * Le asigna al vrtice de ID v el item (ambos dados por parmetro). El item se
+	 * aade despus de los que ya tena el vrtice.
 	 * @param v    vrtice en cuestin.
 	 * @param item Nuevo item.
 	 * @throws IllegalArgumentException Si el vrtice no es vlido.
 	 */
-	public void insertVertexItem( int v, K key, V item )
+	public void insertVertexItem( int v, V item )
 	{
-		if( !vertex.contains( v ) )
-		{
-			Vertex<K, V, L> v1 = new Vertex<>( v );
-			vertex.put( v, v1 );
-		}
-		vertex.get( v ).insertItem( key, item );
+		validateVertex( v );
+		vertices[v].insertItem( item );
 		S++;
 	}
 
 	/**
-	 * Le asigna al vrtice de ID v el item (ambos dados por parmetro). El vrtice
-	 * es
-	 * ubicado dentro de la tabla de hash y a dicha llave se le aade el valor que
-	 * corresponde al item.
+	 * Quita los items de todos los vrtices. Los items distintivos se conservan.
+	 */
+	public void clearVertexItems( )
+	{
+		for( int v = 0; v < V; v++ )
+			vertices[v].clearItems( );
+		S = 0;
+	}
+
+	/**
+	 * Le asigna al vrtice de ID v el item distintivo (ambos dados por parmetro).
 	 * @param v    Vrtice en cuestin.
 	 * @param item Nuevo item.
 	 * @throws IllegalArgumentException Si el vrtice no es vlido.
@@ -230,20 +867,18 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	public void setVertexDistinctiveItem( int v, L item )
 	{
 		validateVertex( v );
-		vertex.get( v ).setDistinctiveItem( item );
+		vertices[v].setDistinctiveItem( item );
 		D++;
 	}
 
 	public Vertex<K, V, L> getVertex( int v )
 	{
 		validateVertex( v );
-		return vertex.get( v );
+		return vertices[v];
 	}
 
 	/**
-	 * Le asigna al vrtice la informacin (ambos dados por parmetro). El vrtice
-	 * es ubicado dentro de la tabla de hash y a dicha llave se le aade el valor
-	 * que corresponde al item.
+	 * Le asigna al vrtice la informacin (ambos dados por parmetro).
 	 * @param v    Vrtice en cuestin.
 	 * @param info Informacin del vrtice.
 	 * @throws IllegalArgumentException Si el vrtice no es vlido.
@@ -251,7 +886,43 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	public void setVertexInfo( int v, String info )
 	{
 		validateVertex( v );
-		vertex.get( v ).setInfo( info );
+		vertices[v].setInfo( info );
+	}
+
+	/**
+	 * Le asigna al vrtice sus coordenadas geogrficas.
+	 * @param v         Vrtice en cuestin.
+	 * @param latitude  Latitud del vrtice.
+	 * @param longitude Longitud del vrtice.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public void setVertexCoordinates( int v, double latitude, double longitude )
+	{
+		validateVertex( v );
+		latitudes[v] = latitude;
+		longitudes[v] = longitude;
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Latitud del vrtice.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public double getVertexLatitude( int v )
+	{
+		validateVertex( v );
+		return latitudes[v];
+	}
+
+	/**
+	 * @param v Vrtice.
+	 * @return Longitud del vrtice.
+	 * @throws IllegalArgumentException Si el vrtice no es vlido.
+	 */
+	public double getVertexLongitude( int v )
+	{
+		validateVertex( v );
+		return longitudes[v];
 	}
 
 	/**
@@ -261,7 +932,8 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	 */
 	public String getVertexInfo( int v ) throws IllegalArgumentException
 	{
-		return vertex.get( v ).getInfo( );
+		validateVertex( v );
+		return vertices[v].getInfo( );
 	}
 
 	/**
@@ -272,7 +944,7 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	public L getVertexDistinctiveItem( int v )
 	{
 		validateVertex( v );
-		return vertex.get( v ).getDistinctiveItem( );
+		return vertices[v].getDistinctiveItem( );
 	}
 
 	/**
@@ -285,6 +957,25 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	public Iterator<Integer> vertexAdjacentTo( int v ) throws IllegalArgumentException
 	{
 		validateVertex( v );
+
+		if( frozen )
+			return new Iterator<Integer>( )
+			{
+				private int i = offsets[v];
+
+				@Override
+				public boolean hasNext( )
+				{
+					return i < offsets[v + 1];
+				}
+
+				@Override
+				public Integer next( )
+				{
+					return targets[i++];
+				}
+			};
+
 		return new Iterator<Integer>( )
 		{
 			private Iterator<Edge<K, V, L>> iter = edgesAdjacentTo( v ).iterator( );
@@ -307,42 +998,56 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	 * Iterador sobre todos los arcos adyacentes al vrtice cuyo ID es dado por
 	 * parmetro.
 	 * @param v ID del vrtice a chequear sus arcos adyacentes.
-	 * @return Arcos adyacentes al dado por parmetro en forma de iterable.
+	 * @return Arcos adyacentes al dado por parmetro en forma de iterable. Si el
+	 *         grafo est congelado, los arcos se construyen a partir de la
+	 *         representacin CSR y either( ) siempre es v.
 	 * @throws IllegalArgumentException Si el vrtice no es vlido.
 	 */
 	public Iterable<Edge<K, V, L>> edgesAdjacentTo( int v ) throws IllegalArgumentException
 	{
 		validateVertex( v );
-		return adj[v];
+
+		if( !frozen )
+			return adj[v];
+
+		return new Iterable<Edge<K, V, L>>( )
+		{
+			@Override
+			public Iterator<Edge<K, V, L>> iterator( )
+			{
+				return new Iterator<Edge<K, V, L>>( )
+				{
+					private int i = offsets[v];
+
+					@Override
+					public boolean hasNext( )
+					{
+						return i < offsets[v + 1];
+					}
+
+					@Override
+					public Edge<K, V, L> next( )
+					{
+						Edge<K, V, L> e = new Edge<K, V, L>( vertices[v], vertices[targets[i]], doubleCost[i] );
+						e.setIntegerCost( intCost[i] );
+						i++;
+						return e;
+					}
+				};
+			}
+		};
 	}
 
 	/**
 	 * Iterador sobre todos los items asociados al vrtice dado por parmetro.
 	 * @param v ID del vrtice.
-	 * @return Iterador sobre todos los valores dentro de la tabla de hash con llave
-	 *         igual al ID del vrtice.
+	 * @return Iterador sobre todos los items guardados en el vrtice.
 	 * @throws IllegalArgumentException Si el vrtice no es vlido.
 	 */
 	public Iterator<V> vertexItems( int v ) throws IllegalArgumentException
 	{
 		validateVertex( v );
-
-		return new Iterator<V>( )
-		{
-			private Iterator<V> iter = vertex.get( v ).items( );
-
-			@Override
-			public boolean hasNext( )
-			{
-				return iter.hasNext( );
-			}
-
-			@Override
-			public V next( )
-			{
-				return iter.next( );
-			}
-		};
+		return vertices[v].items( );
 	}
 
 	/**
@@ -382,18 +1087,16 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 
 	/**
 	 * Iterador sobre todos los arcos existentes en forma de cadena de los ID's de
-	 * los vrtices del arco concatenados con un "-".
+	 * los vrtices del arco concatenados con un "-", el de menor ID primero. Es un
+	 * adaptador sobre edgeCursor, que recorre los arcos sin crear cadenas.
 	 * @return Iterador sobre todos los arcos v-w existentes.
 	 */
 	public Iterator<String> edges( )
 	{
 		return new Iterator<String>( )
 		{
-			private String actual = "";
-			private int i = -1;
+			private EdgeCursor cursor = new EdgeCursor( );
 			private int numArcosRevisados = 0;
-			private Iterator<Edge<K, V, L>> bolsaActual = null;
-			private HashTable<String, Integer> arcosYaRevisados = new HashTable<String, Integer>( E, true );
 
 			@Override
 			public boolean hasNext( )
@@ -404,55 +1107,37 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 			@Override
 			public String next( )
 			{
-				if( actual == "" || bolsaActual == null || !bolsaActual.hasNext( ) )
-					buscarSiguientePosicionI( );
-
-				boolean primeraVez = true;
-				while( arcosYaRevisados.contains( actual ) || primeraVez )
-				{
-					primeraVez = false;
-					if( !bolsaActual.hasNext( ) )
-						buscarSiguientePosicionI( );
-
-					Edge<K, V, L> e = bolsaActual.next( );
-					actual = e.either( ) + "-" + e.other( e.either( ) );
-				}
-
-				arcosYaRevisados.put( actual, 0 );
-
+				if( !cursor.next( ) )
+					throw new NoSuchElementException( );
 				numArcosRevisados++;
-				return actual;
-			}
-
-			private void buscarSiguientePosicionI( )
-			{
-				while( ++i < adj.length )
-				{
-					if( adj[i].size( ) > 0 )
-					{
-						bolsaActual = adj[i].iterator( );
-						break;
-					}
-				}
+				return cursor.either( ) + "-" + cursor.other( );
 			}
 		};
 	}
 
 	/**
-	 * Iterador sobre todos los arcos existentes en forma de cadena de los ID's de
-	 * los vrtices del arco concatenados con un "-".
-	 * @param t Tipo de costo que se quiere. t != null
+	 * Iterador sobre todos los arcos existentes en forma de cadena "v,w,costo", con
+	 * el costo del tipo del atributo t.
 	 * @return Iterador sobre todos los arcos v-w existentes.
 	 */
 	public Iterator<String> edgesWithCost( )
+	{
+		return edgesWithCost( t );
+	}
+
+	/**
+	 * Iterador sobre todos los arcos existentes en forma de cadena "v,w,costo". No
+	 * cambia el atributo t, as que varios hilos pueden recorrer el grafo con
+	 * distintos tipos de costo a la vez. Es un adaptador sobre edgeCursor.
+	 * @param t Tipo de costo que se quiere. t != null
+	 * @return Iterador sobre todos los arcos v-w existentes.
+	 */
+	public Iterator<String> edgesWithCost( CostType t )
 	{
 		return new Iterator<String>( )
 		{
-			private String actual = "";
-			private int i = -1;
+			private EdgeCursor cursor = new EdgeCursor( );
 			private int numArcosRevisados = 0;
-			private Iterator<Edge<K, V, L>> bolsaActual = null;
-			private HashTable<String, Integer> arcosYaRevisados = new HashTable<String, Integer>( E, true );
 
 			@Override
 			public boolean hasNext( )
@@ -463,42 +1148,188 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 			@Override
 			public String next( )
 			{
-				if( actual == "" || bolsaActual == null || !bolsaActual.hasNext( ) )
-					buscarSiguientePosicionI( );
+				if( !cursor.next( ) )
+					throw new NoSuchElementException( );
+				numArcosRevisados++;
+				if( t == CostType.DOUBLE )
+					return cursor.either( ) + "," + cursor.other( ) + "," + cursor.doubleCost( );
+				else // INTEGER
+					return cursor.either( ) + "," + cursor.other( ) + "," + cursor.integerCost( );
+			}
+		};
+	}
 
-				boolean primeraVez = true;
-				while( arcosYaRevisados.contains( actual ) || primeraVez )
-				{
-					primeraVez = false;
-					if( !bolsaActual.hasNext( ) )
-						buscarSiguientePosicionI( );
+	/**
+	 * @return Un cursor nuevo, antes del primer arco.
+	 */
+	public EdgeCursor edgeCursor( )
+	{
+		return new EdgeCursor( );
+	}
 
-					Edge<K, V, L> e = bolsaActual.next( );
+	/**
+	 * Cursor sobre los arcos no dirigidos del grafo que visita cada arco una sola
+	 * vez, desde su extremo de menor ID, sin crear objetos por arco. Los lazos
+	 * aparecen dos veces en la adyacencia de su vrtice y se visitan en la primera.
+	 * Uso:
+	 *
+	 * <pre>
+	 * EdgeCursor c = g.edgeCursor( );
+	 * while( c.next( ) )
+	 * 	... c.either( ), c.other( ), c.doubleCost( ) ...
+	 * </pre>
+	 *
+	 * El grafo no debe recibir arcos nuevos mientras se recorre.
+	 */
+	public class EdgeCursor
+	{
+		/**
+		 * Nmero de arcos visitados menos uno; es el ndice del arco actual.
+		 */
+		private int edge = -1;
+
+		/**
+		 * Fila (vrtice) y posicin actuales. En un grafo congelado i es la posicin en
+		 * la representacin CSR.
+		 */
+		private int v = 0, i = -1;
+
+		/**
+		 * Indica si ya se visit la primera aparicin de un lazo en la fila actual.
+		 */
+		private boolean loopSeen = false;
+
+		/**
+		 * Recorrido de la bolsa de la fila actual y arco actual, si el grafo no est
+		 * congelado.
+		 */
+		private Iterator<Edge<K, V, L>> bag;
+		private Edge<K, V, L> current;
+
+		private EdgeCursor( )
+		{
+			// Se crea con edgeCursor.
+		}
 
-					if( t == CostType.DOUBLE )
-						actual = e.either( ) + "," + e.other( e.either( ) ) + "," + e.getDoubleCost( );
-					else // INTEGER
-						actual = e.either( ) + "," + e.other( e.either( ) ) + "," + e.getIntegerCost( );
+		/**
+		 * Avanza al siguiente arco.
+		 * @return True si lo encontr, false si ya no quedan arcos.
+		 */
+		public boolean next( )
+		{
+			if( frozen ? nextSlot( ) : nextInBag( ) )
+			{
+				edge++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return ndice del arco actual, entre 0 y numberOfEdges( ) - 1, en el orden
+		 *         en que el cursor visita los arcos. Si el grafo est congelado es
+		 *         el ID del arco (ver edgeId).
+		 */
+		public int edge( )
+		{
+			return edge;
+		}
+
+		/**
+		 * @return Extremo de menor ID del arco actual.
+		 */
+		public int either( )
+		{
+			return v;
+		}
+
+		/**
+		 * @return Extremo de mayor ID del arco actual.
+		 */
+		public int other( )
+		{
+			return frozen ? targets[i] : current.other( v );
+		}
+
+		/**
+		 * @return Costo de tipo double del arco actual.
+		 */
+		public double doubleCost( )
+		{
+			return frozen ? doubleCost[i] : current.getDoubleCost( );
+		}
+
+		/**
+		 * @return Costo de tipo integer del arco actual.
+		 */
+		public int integerCost( )
+		{
+			return frozen ? intCost[i] : current.getIntegerCost( );
+		}
+
+		/**
+		 * <b>pre:</b> El grafo est congelado.
+		 * @return Posicin del arco actual en la fila de either( ) de la
+		 *         representacin CSR.
+		 */
+		int slot( )
+		{
+			return i;
+		}
+
+		private boolean nextSlot( )
+		{
+			while( true )
+			{
+				i++;
+				while( v < V && i >= offsets[v + 1] )
+				{
+					v++;
+					loopSeen = false;
 				}
 
-				arcosYaRevisados.put( actual, 0 );
+				if( v == V )
+					return false;
 
-				numArcosRevisados++;
-				return actual;
+				if( targets[i] > v )
+					return true;
+
+				if( targets[i] == v )
+				{
+					loopSeen = !loopSeen;
+					if( loopSeen )
+						return true;
+				}
 			}
+		}
 
-			private void buscarSiguientePosicionI( )
+		private boolean nextInBag( )
+		{
+			while( true )
 			{
-				while( ++i < adj.length )
+				while( bag == null || !bag.hasNext( ) )
 				{
-					if( adj[i].size( ) > 0 )
-					{
-						bolsaActual = adj[i].iterator( );
-						break;
-					}
+					if( bag != null )
+						v++;
+					if( v >= V )
+						return false;
+					bag = adj[v].iterator( );
+					loopSeen = false;
+				}
+
+				current = bag.next( );
+				int w = current.other( v );
+				if( w > v )
+					return true;
+
+				if( w == v )
+				{
+					loopSeen = !loopSeen;
+					if( loopSeen )
+						return true;
 				}
 			}
-		};
+		}
 	}
 
 	/**
@@ -509,7 +1340,21 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 	public int numberOfItemsOf( int v )
 	{
 		validateVertex( v );
-		return vertex.get( v ).numberOfItems( );
+		return vertices[v].numberOfItems( );
+	}
+
+	/**
+	 * @param v ID del vrtice.
+	 * @param i ndice del item, en el orden de vertexItems( v ). 0 <= i <
+	 *          numberOfItemsOf( v )
+	 * @return i-simo item guardado en el vrtice.
+	 * @throws IllegalArgumentException  Si el vrtice dado no es vlido.
+	 * @throws IndexOutOfBoundsException Si el ndice no es vlido.
+	 */
+	public V vertexItem( int v, int i )
+	{
+		validateVertex( v );
+		return vertices[v].itemAt( i );
 	}
 
 	/**
@@ -524,6 +1369,21 @@ public class UndirectedGraph<K extends Comparable<K>, V extends Comparable<V>, L
 			throw new IllegalArgumentException( "vertex " + v + " is not between 0 and " + ( V - 1 ) );
 	}
 
+	/**
+	 * Valida el ID de un arco.
+	 * @param e ID a validar.
+	 * @throws IllegalArgumentException Si el ID es menor que 0 o mayor o igual al
+	 *                                  nmero de arcos.
+	 * @throws IllegalStateException    Si el grafo no ha sido congelado.
+	 */
+	private void validateEdge( int e ) throws IllegalArgumentException, IllegalStateException
+	{
+		if( !frozen )
+			throw new IllegalStateException( "Graph must be frozen to have edge ids" );
+		if( e < 0 || e >= E )
+			throw new IllegalArgumentException( "edge " + e + " is not between 0 and " + ( E - 1 ) );
+	}
+
 	@Override
 	public Iterator<String> iterator( )
 	{
@@ -1,6 +1,9 @@
 package model.data_structures;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Vrtice de un grafo.
@@ -20,9 +23,13 @@ public class Vertex<K extends Comparable<K>, V extends Comparable<V>, E extends
 	private String info;
 
 	/**
-	 * Items contenidos dentro del vrtice.
+	 * Items contenidos dentro del vrtice, en el orden en que se insertaron, en un
+	 * arreglo que crece. Solo las primeras numberOfItems posiciones son vlidas. Es
+	 * null mientras el vrtice no tenga items, que es el caso de la mayora de
+	 * vrtices de un grafo grande.
 	 */
-	private HashTable<K, V> items = new HashTable<>( );
+	private Object[] items;
+	private int numberOfItems;
 
 	/**
 	 * Item distintivo del vrtice.
@@ -60,23 +67,25 @@ public class Vertex<K extends Comparable<K>, V extends Comparable<V>, E extends
 	}
 
 	/**
-	 * Inserta el par llave-valor dados por parmetro en la tabla de items del
-	 * vrtice.
-	 * @param key  Llave del par. key != null
-	 * @param item Item del par. item != null
+	 * Inserta el item dado por parmetro despus de los que ya tena el vrtice.
+	 * @param item Item a insertar. item != null
 	 */
-	public void insertItem( K key, V item )
+	public void insertItem( V item )
 	{
-		items.put( key, item );
+		if( items == null )
+			items = new Object[1];
+		else if( numberOfItems == items.length )
+			items = Arrays.copyOf( items, items.length + ( items.length >> 1 ) + 1 );
+		items[numberOfItems++] = item;
 	}
 
 	/**
-	 * @param key Llave a obtener su valor.
-	 * @return Valor asociado a la llave.
+	 * Quita todos los items del vrtice.
 	 */
-	public V getItem( K key )
+	public void clearItems( )
 	{
-		return items.get( key );
+		items = null;
+		numberOfItems = 0;
 	}
 
 	/**
@@ -118,28 +127,54 @@ public class Vertex<K extends Comparable<K>, V extends Comparable<V>, E extends
 	 */
 	public int numberOfItems( )
 	{
-		return items.getSize( );
+		return numberOfItems;
+	}
+
+	/**
+	 * Retorna un item del vrtice en O(1) sin crear un iterador. Los items se
+	 * numeran en el orden en que fueron insertados, el mismo en que los recorre
+	 * items( ).
+	 * @param i ndice del item. 0 <= i < numberOfItems( )
+	 * @return i-simo item del vrtice.
+	 * @throws IndexOutOfBoundsException Si el ndice no es vlido.
+	 */
+	@SuppressWarnings( "unchecked" )
+	public V itemAt( int i )
+	{
+		if( i < 0 || i >= numberOfItems )
+			throw new IndexOutOfBoundsException( "Invalid item index" );
+		return ( V ) items[i];
 	}
 	
 	/**
-	 * @return Iterador sobre todos los items guardados en el vrtice.
+	 * @return Iterador sobre todos los items guardados en el vrtice, en el orden
+	 *         en que fueron insertados.
 	 */
 	public Iterator<V> items( )
 	{
+		if( items == null )
+			return Collections.emptyIterator( );
+
 		return new Iterator<V>( )
 		{
-			private Iterator<K> iter = items.keys( );
+			/**
+			 * ndice del siguiente item.
+			 */
+			private int i = 0;
 
 			@Override
 			public boolean hasNext( )
 			{
-				return iter.hasNext( );
+				return i < numberOfItems;
 			}
 
 			@Override
 			public V next( )
 			{
-				return items.get( iter.next( ) );
+				if( !hasNext( ) )
+					throw new NoSuchElementException( );
+
+				return itemAt( i++ );
 			}
 		};
 	}
@@ -1,11 +1,11 @@
 package model.logic;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
-
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import model.logic.Comparendo;
 
@@ -18,42 +18,117 @@ public class DeserializadorJSON extends JsonDeserializer<Comparendo>
 	public Comparendo deserialize( JsonParser jp, DeserializationContext ctxt )
 			throws IOException, JsonProcessingException
 	{
-		JsonNode arbol = jp.getCodec( ).readTree( jp );
-		JsonNode i = arbol.get( "properties" );
-
-		int id = i.get( "OBJECTID" ).asInt( );
-		String fecha = i.get( "FECHA_HORA" ).asText( );
-		String medioDeteccion = i.get( "MEDIO_DETECCION" ).asText( );
-		String claseVehiculo = i.get( "CLASE_VEHICULO" ).asText( );
-		String tipoServicio = i.get( "TIPO_SERVICIO" ).asText( );
-		String codigoInfraccion = i.get( "INFRACCION" ).asText( );
-		String descripcionInfraccion = i.get( "DES_INFRACCION" ).asText( );
-		String localidad = i.get( "LOCALIDAD" ).asText( );
-		JsonNode coordenada = arbol.get( "geometry" ).get( "coordinates" );
-		double[] coordenadaParseada = transformarJsonArray( coordenada );
-
-		Comparendo c = new Comparendo( id, fecha, medioDeteccion, claseVehiculo, tipoServicio, codigoInfraccion,
-				descripcionInfraccion, localidad, coordenadaParseada );
-
-		return c;
+		return leerComparendo( jp );
 	}
-	
+
 	/**
-	 * Transforma un JsonArray a un double array.
-	 * @param jsonArray Arreglo a transformar.
-	 * @return Arreglo de tipo double.
+	 * Lee un comparendo directamente de los eventos del parser, sin construir un
+	 * rbol intermedio. <b>pre:</b> El token actual del parser es el inicio del
+	 * objeto del feature ({). <b>post:</b> El token actual es el final del objeto
+	 * (}).
+	 * @param jp Parser posicionado al inicio del feature.
+	 * @return Comparendo ledo.
+	 * @throws IOException Si hay un problema de lectura o el JSON est mal formado.
 	 */
-	static double[] transformarJsonArray( JsonNode jsonArray )
+	static Comparendo leerComparendo( JsonParser jp ) throws IOException
 	{
-		double[] fData = new double[jsonArray.size( )];
+		if( jp.currentToken( ) != JsonToken.START_OBJECT )
+			throw new JsonParseException( jp, "Se esperaba el comienzo de un objeto." );
+
+		int id = 0;
+		String fecha = null, medioDeteccion = null, claseVehiculo = null, tipoServicio = null,
+				codigoInfraccion = null, descripcionInfraccion = null, localidad = null;
+		double[] coordenada = null;
+
+		while( jp.nextToken( ) == JsonToken.FIELD_NAME )
+		{
+			String campo = jp.getCurrentName( );
+			JsonToken token = jp.nextToken( );
+
+			if( campo.equals( "properties" ) && token == JsonToken.START_OBJECT )
+			{
+				while( jp.nextToken( ) == JsonToken.FIELD_NAME )
+				{
+					String propiedad = jp.getCurrentName( );
+					jp.nextToken( );
+
+					// getValueAsString retorna null para los valores null del JSON (getText
+					// retornara la cadena "null").
+					switch( propiedad )
+					{
+						case "OBJECTID":
+							id = jp.getValueAsInt( );
+							break;
+						case "FECHA_HORA":
+							fecha = jp.getValueAsString( );
+							break;
+						case "MEDIO_DETECCION":
+							medioDeteccion = jp.getValueAsString( );
+							break;
+						case "CLASE_VEHICULO":
+							claseVehiculo = jp.getValueAsString( );
+							break;
+						case "TIPO_SERVICIO":
+							tipoServicio = jp.getValueAsString( );
+							break;
+						case "INFRACCION":
+							codigoInfraccion = jp.getValueAsString( );
+							break;
+						case "DES_INFRACCION":
+							descripcionInfraccion = jp.getValueAsString( );
+							break;
+						case "LOCALIDAD":
+							localidad = jp.getValueAsString( );
+							break;
+						default:
+							jp.skipChildren( );
+							break;
+					}
+				}
+			}
+			else if( campo.equals( "geometry" ) && token == JsonToken.START_OBJECT )
+			{
+				while( jp.nextToken( ) == JsonToken.FIELD_NAME )
+				{
+					String propiedad = jp.getCurrentName( );
+					if( jp.nextToken( ) == JsonToken.START_ARRAY && propiedad.equals( "coordinates" ) )
+						coordenada = leerCoordenada( jp );
+					else
+						jp.skipChildren( );
+				}
+			}
+			else
+				jp.skipChildren( );
+		}
+
+		if( coordenada == null )
+			throw new JsonParseException( jp, "El comparendo " + id + " no tiene coordenadas." );
+
+		return new Comparendo( id, fecha, medioDeteccion, claseVehiculo, tipoServicio, codigoInfraccion,
+				descripcionInfraccion, localidad, coordenada );
+	}
 
+	/**
+	 * Lee la longitud y latitud de un arreglo de coordenadas. <b>pre:</b> El token
+	 * actual es el inicio del arreglo ([). <b>post:</b> El token actual es el final
+	 * del arreglo (]).
+	 * @param jp Parser posicionado al inicio del arreglo.
+	 * @return Arreglo de tamao 2 con la longitud y latitud.
+	 * @throws IOException Si hay un problema de lectura.
+	 */
+	private static double[] leerCoordenada( JsonParser jp ) throws IOException
+	{
+		double[] coordenada = new double[2];
 		int j = 0;
-		for( final JsonNode i : jsonArray )
+		JsonToken token;
+		while( ( token = jp.nextToken( ) ) != JsonToken.END_ARRAY )
 		{
-			fData[j] = Double.parseDouble( i.asText( ) );
+			double valor = token.isNumeric( ) ? jp.getDoubleValue( ) : Double.parseDouble( jp.getText( ) );
+			if( j < 2 )
+				coordenada[j] = valor;
 			j++;
 		}
 
-		return fData;
+		return coordenada;
 	}
 }
\ No newline at end of file
@@ -49,6 +49,40 @@ public class EstacionPolicia implements Comparable<EstacionPolicia>
 	@JsonProperty( "EPOLONGITU" )
 	private double longitud;
 
+	/**
+	 * Construye una estacin de polica vaca. Jackson completa los atributos al
+	 * deserializarla.
+	 */
+	public EstacionPolicia( )
+	{
+	}
+
+	/**
+	 * Construye una estacin de polica con la informacin dada por parmetro.
+	 * @param id          Identificador nico de la estacin.
+	 * @param descripcion Descripcin de la estacin.
+	 * @param dirSitio    Direccin de la estacin.
+	 * @param servicio    Servicio que presta la estacin.
+	 * @param horario     Horario de atencin.
+	 * @param telefono    Telfono de la estacin.
+	 * @param local       Localidad de la estacin.
+	 * @param latitud     Latitud de la estacin.
+	 * @param longitud    Longitud de la estacin.
+	 */
+	public EstacionPolicia( int id, String descripcion, String dirSitio, String servicio, String horario,
+			String telefono, String local, double latitud, double longitud )
+	{
+		this.id = id;
+		this.descripcion = descripcion;
+		this.dirSitio = dirSitio;
+		this.servicio = servicio;
+		this.horario = horario;
+		this.telefono = telefono;
+		this.local = local;
+		this.latitud = latitud;
+		this.longitud = longitud;
+	}
+
 	@JsonProperty( "OBJECTID" )
 	public int darId( )
 	{
@@ -67,6 +101,60 @@ public class EstacionPolicia implements Comparable<EstacionPolicia>
 		return latitud;
 	}
 
+	/**
+	 * @return Descripcin de la estacin.
+	 */
+	@JsonIgnore
+	public String darDescripcion( )
+	{
+		return descripcion;
+	}
+
+	/**
+	 * @return Direccin de la estacin.
+	 */
+	@JsonIgnore
+	public String darDireccion( )
+	{
+		return dirSitio;
+	}
+
+	/**
+	 * @return Servicio que presta la estacin.
+	 */
+	@JsonIgnore
+	public String darServicio( )
+	{
+		return servicio;
+	}
+
+	/**
+	 * @return Horario de atencin de la estacin.
+	 */
+	@JsonIgnore
+	public String darHorario( )
+	{
+		return horario;
+	}
+
+	/**
+	 * @return Telfono de la estacin.
+	 */
+	@JsonIgnore
+	public String darTelefono( )
+	{
+		return telefono;
+	}
+
+	/**
+	 * @return Localidad de la estacin.
+	 */
+	@JsonIgnore
+	public String darLocalidad( )
+	{
+		return local;
+	}
+
 	/**
 	 * Consulta la informacin de la estacin de polica.
 	 * @param mostrar Arreglo booleano de tamao 9 que indica si mostrar uno cierto
@@ -0,0 +1,229 @@
+package model.logic;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lector de archivos de texto con nmeros (como bogota_vertices.txt y
+ * bogota_arcos.txt) que mapea el archivo en memoria y convierte los enteros y
+ * doubles directamente desde los bytes, sin crear un String por lnea ni por
+ * nmero.
+ * @author Camilo Martnez & Nicols Quintero
+ */
+public class LectorMapeado
+{
+	/**
+	 * Potencias de 10 que se representan exactamente como double.
+	 */
+	private static final double[] POTENCIAS_DE_10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * Mayor entero que un double representa sin perder precisin (2^53).
+	 */
+	private static final long MAXIMA_MANTISA_EXACTA = 1L << 53;
+
+	/**
+	 * Contenido del archivo mapeado en memoria.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Tamao del archivo en bytes.
+	 */
+	private final int limite;
+
+	/**
+	 * Posicin actual de lectura.
+	 */
+	private int posicion;
+
+	/**
+	 * Mapea en memoria el archivo dado por parmetro.
+	 * @param rutaArchivo Ruta del archivo. rutaArchivo != null, != ""
+	 * @throws IOException Si hay un problema abriendo el archivo o si este pesa ms
+	 *                     de 2 GB.
+	 */
+	public LectorMapeado( String rutaArchivo ) throws IOException
+	{
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.READ ) )
+		{
+			if( canal.size( ) > Integer.MAX_VALUE )
+				throw new IOException( "El archivo " + rutaArchivo + " es demasiado grande para mapearse" );
+
+			buffer = canal.map( FileChannel.MapMode.READ_ONLY, 0, canal.size( ) );
+			limite = ( int ) canal.size( );
+			posicion = 0;
+		}
+	}
+
+	/**
+	 * @return True si ya se ley todo el archivo, false de lo contrario.
+	 */
+	public boolean terminoArchivo( )
+	{
+		return posicion >= limite;
+	}
+
+	/**
+	 * Salta los espacios y separadores (',', ' ', '\t', '\r') de la lnea actual.
+	 * @return True si no quedan ms nmeros en la lnea actual, false de lo
+	 *         contrario.
+	 */
+	public boolean terminoLinea( )
+	{
+		saltarSeparadores( );
+		return posicion >= limite || buffer.get( posicion ) == '\n';
+	}
+
+	/**
+	 * @return True si el primer caracter no separador de la lnea actual es el
+	 *         dado por parmetro.
+	 */
+	public boolean lineaEmpiezaCon( char caracter )
+	{
+		saltarSeparadores( );
+		return posicion < limite && buffer.get( posicion ) == caracter;
+	}
+
+	/**
+	 * Salta lo que queda de la lnea actual, incluyendo el salto de lnea.
+	 */
+	public void saltarLinea( )
+	{
+		while( posicion < limite && buffer.get( posicion ) != '\n' )
+			posicion++;
+		posicion++;
+	}
+
+	/**
+	 * Lee el siguiente entero de la lnea actual.
+	 * @return Entero ledo.
+	 * @throws NumberFormatException Si en la posicin actual no hay un entero.
+	 */
+	public int leerEntero( ) throws NumberFormatException
+	{
+		saltarSeparadores( );
+		int inicio = posicion;
+		boolean negativo = posicion < limite && buffer.get( posicion ) == '-';
+		if( negativo || ( posicion < limite && buffer.get( posicion ) == '+' ) )
+			posicion++;
+
+		long valor = 0;
+		int digitos = 0;
+		byte b;
+		while( posicion < limite && ( b = buffer.get( posicion ) ) >= '0' && b <= '9' )
+		{
+			valor = valor * 10 + ( b - '0' );
+			if( valor > Integer.MAX_VALUE + 1L )
+				throw new NumberFormatException( "Entero fuera de rango: " + token( inicio ) );
+			digitos++;
+			posicion++;
+		}
+
+		if( digitos == 0 || ( !negativo && valor > Integer.MAX_VALUE ) )
+			throw new NumberFormatException( "Se esperaba un entero: \"" + token( inicio ) + "\"" );
+
+		return ( int ) ( negativo ? -valor : valor );
+	}
+
+	/**
+	 * Lee el siguiente double de la lnea actual. Si la mantisa cabe en 53 bits y
+	 * el exponente decimal est entre -22 y 22, el valor se calcula con una sola
+	 * multiplicacin o divisin entre doubles exactos, lo que da el mismo resultado
+	 * que Double.parseDouble. En otro caso se usa Double.parseDouble.
+	 * @return Double ledo.
+	 * @throws NumberFormatException Si en la posicin actual no hay un nmero.
+	 */
+	public double leerDouble( ) throws NumberFormatException
+	{
+		saltarSeparadores( );
+		int inicio = posicion;
+		boolean negativo = posicion < limite && buffer.get( posicion ) == '-';
+		if( negativo || ( posicion < limite && buffer.get( posicion ) == '+' ) )
+			posicion++;
+
+		long mantisa = 0;
+		int digitos = 0, exponente = 0;
+		boolean exacto = true, punto = false;
+		byte b;
+		while( posicion < limite )
+		{
+			b = buffer.get( posicion );
+			if( b >= '0' && b <= '9' )
+			{
+				if( mantisa < MAXIMA_MANTISA_EXACTA / 10 + 1 )
+				{
+					mantisa = mantisa * 10 + ( b - '0' );
+					if( punto )
+						exponente--;
+				}
+				else
+					exacto = false;
+				digitos++;
+			}
+			else if( b == '.' && !punto )
+				punto = true;
+			else
+				break;
+			posicion++;
+		}
+
+		if( digitos == 0 )
+			throw new NumberFormatException( "Se esperaba un nmero: \"" + token( inicio ) + "\"" );
+
+		if( posicion < limite && ( buffer.get( posicion ) == 'e' || buffer.get( posicion ) == 'E' ) )
+		{
+			posicion++;
+			exacto = false;
+			while( posicion < limite && ( ( b = buffer.get( posicion ) ) == '-' || b == '+' || ( b >= '0' && b <= '9' ) ) )
+				posicion++;
+		}
+
+		if( exacto && mantisa <= MAXIMA_MANTISA_EXACTA && exponente >= -22 )
+		{
+			double valor = exponente < 0 ? mantisa / POTENCIAS_DE_10[-exponente] : mantisa;
+			return negativo ? -valor : valor;
+		}
+
+		return Double.parseDouble( new String( bytes( inicio, posicion ), StandardCharsets.ISO_8859_1 ) );
+	}
+
+	/**
+	 * Salta los separadores en la posicin actual.
+	 */
+	private void saltarSeparadores( )
+	{
+		byte b;
+		while( posicion < limite && ( ( b = buffer.get( posicion ) ) == ',' || b == ' ' || b == '\t' || b == '\r' ) )
+			posicion++;
+	}
+
+	/**
+	 * @return Bytes del archivo entre las posiciones dadas.
+	 */
+	private byte[] bytes( int inicio, int fin )
+	{
+		byte[] bytes = new byte[fin - inicio];
+		for( int i = inicio; i < fin; i++ )
+			bytes[i - inicio] = buffer.get( i );
+		return bytes;
+	}
+
+	/**
+	 * @return Texto desde la posicin dada hasta el siguiente separador o salto de
+	 *         lnea, para los mensajes de error.
+	 */
+	private String token( int inicio )
+	{
+		int fin = inicio;
+		byte b;
+		while( fin < limite && ( b = buffer.get( fin ) ) != ',' && b != ' ' && b != '\t' && b != '\r' && b != '\n' )
+			fin++;
+		return new String( bytes( inicio, fin ), StandardCharsets.ISO_8859_1 );
+	}
+}
@@ -1,36 +1,68 @@
 package model.logic;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.Scanner;
-
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import model.data_structures.Edge;
+import model.data_structures.AStarShortestPath;
+import model.data_structures.ContractionHierarchy;
 import model.data_structures.CostType;
-import model.data_structures.Dijkstra;
 import model.data_structures.DijkstrasShortestPath;
-import model.data_structures.HashTable;
+import model.data_structures.DistanceMatrix;
 import model.data_structures.IGraph;
+import model.data_structures.IntIntHashMap;
+import model.data_structures.IntObjectHashMap;
+import model.data_structures.KdTree;
+import model.data_structures.LandmarkShortestPath;
+import model.data_structures.LongIntHashMap;
 import model.data_structures.MST;
 import model.data_structures.MaxHeapPQ;
+import model.data_structures.MultiSourceShortestPaths;
+import model.data_structures.RoutingService;
+import model.data_structures.ShortestPathTree;
+import model.data_structures.ShortestPathTreeCache;
 import model.data_structures.UndirectedGraph;
 import model.data_structures.Vertex;
 
@@ -42,27 +74,66 @@ import model.data_structures.Vertex;
 public class Modelo
 {
 	/**
-	 * Variables diseadas para hacer ms rpida la carga de comparendos.
+	 * Nmero de estaciones de polica.
 	 */
-	private ArrayList<double[]> ultimas = new ArrayList<double[]>( );
-	private int z = 0;
+	private static final int NUMERO_ESTACIONES_POLICIA = 21;
 
 	/**
-	 * Tamao de las agrupaciones de los vrtices en kilmetros. Representa la
-	 * distancia mnima entre vrtices que debe haber para considerarse del mismo
-	 * grupo.
+	 * Nmero de comparendos.
 	 */
-	private static final double TAMANIO_AGRUPACIONES = 2;
+	private static final int NUMERO_COMPARENDOS = 527655;
 
 	/**
-	 * Nmero de estaciones de polica.
+	 * Firma ("P3SN") y versin del formato del snapshot binario del modelo. La
+	 * versin debe aumentar cada vez que cambie el formato.
 	 */
-	private static final int NUMERO_ESTACIONES_POLICIA = 21;
+	private static final int SNAPSHOT_FIRMA = 0x5033534E;
+	private static final int SNAPSHOT_VERSION = 2;
 
 	/**
-	 * Nmero de comparendos.
+	 * Firma ("P3LA") y versin del formato de la lista de arcos binaria.
 	 */
-	private static final int NUMERO_COMPARENDOS = 527655;
+	private static final int LISTA_ARCOS_FIRMA = 0x50334C41;
+	private static final int LISTA_ARCOS_VERSION = 2;
+
+	/**
+	 * Firma ("P3LM") y versin del formato de las tablas de landmarks.
+	 */
+	private static final int LANDMARKS_FIRMA = 0x50334C4D;
+	private static final int LANDMARKS_VERSION = 1;
+
+	/**
+	 * Firma ("P3CH") y versin del formato de las jerarquas de contraccin.
+	 */
+	private static final int JERARQUIAS_FIRMA = 0x50334348;
+	private static final int JERARQUIAS_VERSION = 1;
+
+	/**
+	 * Nmero de landmarks que se escogen, adems de las estaciones de polica,
+	 * como los vrtices ms lejanos de los anteriores.
+	 */
+	private static final int NUMERO_LANDMARKS_ADICIONALES = 8;
+
+	/**
+	 * Memoria mxima en bytes de los rboles de caminos ms cortos guardados desde
+	 * las estaciones de polica.
+	 */
+	private static final long MEMORIA_ARBOLES = 64L << 20;
+
+	/**
+	 * Tamao en bytes de los buffers de escritura de archivos.
+	 */
+	private static final int TAMANIO_BUFFER = 1 << 16;
+
+	/**
+	 * Nmero de comparendos por lote en la carga en pipeline.
+	 */
+	private static final int TAMANIO_LOTE = 1024;
+
+	/**
+	 * Nmero mximo de lotes en espera entre dos etapas de la carga en pipeline.
+	 */
+	private static final int CAPACIDAD_COLAS = 16;
 
 	/**
 	 * Constantes para la construccin del HTML para pintar el grafo.
@@ -108,11 +179,71 @@ public class Modelo
 	private UndirectedGraph<String, Comparendo, EstacionPolicia> grafoJS;
 
 	/**
-	 * Agrupa los vrtices ms cercanos del grafo. La llave es la concatenacin de
-	 * la latitud y longitud de un vrtice representante del grupo y el valor es la
-	 * lista de ID's de los vrtices del grupo.
+	 * ndice espacial (rbol k-d) sobre las coordenadas de los vrtices de grafoFD.
+	 * Permite encontrar el vrtice ms cercano a un punto en O(log V).
+	 */
+	private KdTree indiceVertices;
+
+	/**
+	 * Motores de caminos ms cortos sobre grafoFD, uno por tipo de costo. Se
+	 * construyen la primera vez que se necesitan y se descartan cuando grafoFD
+	 * cambia.
+	 */
+	private DijkstrasShortestPath motorDistancia, motorComparendos;
+
+	/**
+	 * Motor A* sobre grafoFD para las rutas por distancia. Se construye la primera
+	 * vez que se necesita y se descarta cuando grafoFD cambia.
+	 */
+	private AStarShortestPath motorAEstrella;
+
+	/**
+	 * Motores ALT sobre grafoFD, uno por tipo de costo. Solo existen despus de
+	 * construirLandmarks o cargarLandmarks, y se descartan cuando grafoFD o sus
+	 * costos cambian.
 	 */
-	private HashTable<String, Integer> agrupacionesVertices;
+	private LandmarkShortestPath motorLandmarksDistancia, motorLandmarksComparendos;
+
+	/**
+	 * Jerarquas de contraccin sobre grafoFD, una por tipo de costo. Solo existen
+	 * despus de construirJerarquias o cargarJerarquias, y se descartan cuando
+	 * grafoFD o sus costos cambian.
+	 */
+	private ContractionHierarchy jerarquiaDistancia, jerarquiaComparendos;
+
+	/**
+	 * Estacin ms cercana por la red (en km) a cada vrtice de grafoFD, con la
+	 * distancia y el camino hasta ella. Se calcula la primera vez que se necesita
+	 * y se descarta cuando grafoFD o las estaciones cambian.
+	 */
+	private MultiSourceShortestPaths zonasEstaciones;
+
+	/**
+	 * rboles de caminos ms cortos desde las estaciones, guardados por (estacin,
+	 * tipo de costo). Se crea la primera vez que se necesita y se descarta cuando
+	 * grafoFD cambia.
+	 */
+	private ShortestPathTreeCache arbolesEstaciones;
+
+	/**
+	 * Servicio de rutas concurrente sobre una foto de grafoFD. Se crea la primera
+	 * vez que se necesita y se descarta cuando grafoFD o sus costos cambian.
+	 */
+	private RoutingService servicioRutas;
+
+	/**
+	 * Matriz de distancias por la red (costo double) sobre grafoFD. Se crea la
+	 * primera vez que se necesita, para que sus arreglos de trabajo se reutilicen
+	 * entre llamadas, y se descarta cuando grafoFD cambia.
+	 */
+	private DistanceMatrix matrizDistancias;
+
+	/**
+	 * Nmero de comparendos de cada vrtice de grafoFD con el que se calcularon los
+	 * costos de tipo integer de los arcos. Es null mientras esos costos no se hayan
+	 * calculado con actualizarCostosEnGrafo.
+	 */
+	private int[] comparendosPorVertice;
 
 	/**
 	 * Hex-Colores usados para pintar los componentes conexos.
@@ -127,7 +258,19 @@ public class Modelo
 	public Modelo( ) throws IOException
 	{
 		estaciones = null;
-		agrupacionesVertices = new HashTable<String, Integer>( 7 );
+		indiceVertices = null;
+		motorDistancia = null;
+		motorComparendos = null;
+		motorAEstrella = null;
+		motorLandmarksDistancia = null;
+		motorLandmarksComparendos = null;
+		jerarquiaDistancia = null;
+		jerarquiaComparendos = null;
+		zonasEstaciones = null;
+		arbolesEstaciones = null;
+		servicioRutas = null;
+		matrizDistancias = null;
+		comparendosPorVertice = null;
 		comparendos = null;
 		grafoFD = null;
 		grafoJS = null;
@@ -153,29 +296,262 @@ public class Modelo
 	// ---------------------------------------------------------------------------------------------------------------------------
 
 	/**
-	 * Carga los comparendos en un heap de prioridad que luego utiliza para meter
-	 * los comparendos dentro del grafo en el respectivo vertice cuya distancia
-	 * haversiana al comparendo sea la ms cercana.
+	 * Carga los comparendos en un heap de prioridad y los mete dentro del grafo en
+	 * el respectivo vertice cuya distancia haversiana al comparendo sea la ms
+	 * cercana. La carga funciona como un pipeline de tres etapas conectadas por
+	 * colas acotadas: un hilo lee el archivo y arma lotes de comparendos, varios
+	 * hilos buscan el vrtice ms cercano de cada comparendo en el ndice espacial
+	 * (que es de solo lectura) y el hilo que llama este mtodo inserta los lotes
+	 * en el grafo y en el heap. Los lotes se insertan en el orden del archivo, por
+	 * lo que el resultado no depende del nmero de hilos. El nmero de lotes en
+	 * vuelo (ledos y an no insertados) est acotado por la capacidad de las colas
+	 * por el nmero de hilos, as que los lotes que esperan su turno no crecen sin
+	 * lmite. Si alguna etapa falla, se descartan los comparendos ya insertados y
+	 * lo que depende de ellos.
 	 * @param rutaArchivo Archivo donde estn guardados los comparendos. rutaArchivo
 	 *                    != null, != ""
-	 * @throws IOException Si hubo un problema de lectura del archivo.
+	 * @return Reporte con el rendimiento de cada etapa de la carga.
+	 * @throws IOException           Si hubo un problema de lectura del archivo.
+	 * @throws IllegalStateException Si el archivo no tiene el formato esperado.
 	 */
-	public void cargarComparendosEnGrafo( String rutaArchivo ) throws IOException, IllegalStateException
+	public String cargarComparendosEnGrafo( String rutaArchivo ) throws IOException, IllegalStateException
 	{
-		if( grafoFD != null )
+		if( grafoFD == null )
+			return "";
+
+		comparendos = new MaxHeapPQ<>( NUMERO_COMPARENDOS );
+		comparendosPorVertice = null;
+		int numeroHilos = Math.max( 1, Runtime.getRuntime( ).availableProcessors( ) - 2 );
+		BlockingQueue<LoteComparendos> porUbicar = new ArrayBlockingQueue<>( CAPACIDAD_COLAS );
+		BlockingQueue<LoteComparendos> porInsertar = new ArrayBlockingQueue<>( CAPACIDAD_COLAS );
+		Semaphore enVuelo = new Semaphore( CAPACIDAD_COLAS * numeroHilos );
+		AtomicReference<Throwable> error = new AtomicReference<>( );
+		AtomicLong tiempoLectura = new AtomicLong( ), tiempoUbicacion = new AtomicLong( );
+		long tiempoInsercion = 0, inicio = System.nanoTime( );
+		int insertados = 0;
+
+		ExecutorService hilos = Executors.newFixedThreadPool( numeroHilos + 1 );
+		try
 		{
-			cargarComparendos( rutaArchivo );
-			Comparendo c;
-			int verticeMasCercano;
-			int i = -1;
-			while( ++i < comparendos.getSize( ) )
+			// Etapa 1: lectura del archivo en lotes.
+			hilos.execute( ( ) -> {
+				try( JsonParser jsonParser = new JsonFactory( ).createParser( new File( rutaArchivo ) ) )
+				{
+					long t = System.nanoTime( );
+					if( jsonParser.nextToken( ) != JsonToken.START_ARRAY )
+						throw new IllegalStateException( "Se esperaba el comienzo de un arreglo." );
+
+					// Cada lote toma un permiso antes de llenarse y la insercin lo devuelve.
+					int secuencia = 0;
+					if( !adquirir( enVuelo, error ) )
+						return;
+					LoteComparendos lote = new LoteComparendos( secuencia++ );
+					while( jsonParser.nextToken( ) != JsonToken.END_ARRAY )
+					{
+						lote.comparendos[lote.tamanio++] = DeserializadorJSON.leerComparendo( jsonParser );
+						if( lote.tamanio == TAMANIO_LOTE )
+						{
+							tiempoLectura.addAndGet( System.nanoTime( ) - t );
+							if( !encolar( porUbicar, lote, error ) || !adquirir( enVuelo, error ) )
+								return;
+							t = System.nanoTime( );
+							lote = new LoteComparendos( secuencia++ );
+						}
+					}
+					tiempoLectura.addAndGet( System.nanoTime( ) - t );
+					if( lote.tamanio > 0 )
+						encolar( porUbicar, lote, error );
+				}
+				catch( Throwable e )
+				{
+					error.compareAndSet( null, e );
+				}
+				finally
+				{
+					for( int k = 0; k < numeroHilos; k++ )
+						encolar( porUbicar, LoteComparendos.FIN, error );
+				}
+			} );
+
+			// Etapa 2: bsqueda del vrtice ms cercano.
+			for( int k = 0; k < numeroHilos; k++ )
 			{
-				c = comparendos.peekPosition( i );
-				verticeMasCercano = darVerticeMasCercanoA( c.darLatitud( ), c.darLongitud( ), 0.05 );
-				c.setIdVertex( verticeMasCercano );
-				grafoFD.insertVertexItem( verticeMasCercano, verticeMasCercano + "", c );
+				hilos.execute( ( ) -> {
+					try
+					{
+						LoteComparendos lote;
+						while( ( lote = desencolar( porUbicar, error ) ) != null && lote != LoteComparendos.FIN )
+						{
+							long t = System.nanoTime( );
+							for( int i = 0; i < lote.tamanio; i++ )
+								lote.vertices[i] = darVerticeMasCercanoA( lote.comparendos[i].darLatitud( ),
+										lote.comparendos[i].darLongitud( ) );
+							tiempoUbicacion.addAndGet( System.nanoTime( ) - t );
+							if( !encolar( porInsertar, lote, error ) )
+								return;
+						}
+					}
+					catch( Throwable e )
+					{
+						error.compareAndSet( null, e );
+					}
+					finally
+					{
+						encolar( porInsertar, LoteComparendos.FIN, error );
+					}
+				} );
+			}
+
+			// Etapa 3: insercin en el grafo, en el orden del archivo. Como los permisos
+			// se toman en orden, el lote siguiente siempre tiene uno y no hay bloqueo.
+			try
+			{
+				IntObjectHashMap<LoteComparendos> pendientes = new IntObjectHashMap<>( numeroHilos );
+				int siguiente = 0, terminados = 0;
+				LoteComparendos lote;
+				while( terminados < numeroHilos && ( lote = desencolar( porInsertar, error ) ) != null )
+				{
+					if( lote == LoteComparendos.FIN )
+					{
+						terminados++;
+						continue;
+					}
+
+					pendientes.put( lote.secuencia, lote );
+					long t = System.nanoTime( );
+					while( ( lote = pendientes.remove( siguiente ) ) != null )
+					{
+						for( int i = 0; i < lote.tamanio; i++ )
+						{
+							Comparendo c = lote.comparendos[i];
+							int verticeMasCercano = lote.vertices[i];
+							c.setIdVertex( verticeMasCercano );
+							grafoFD.insertVertexItem( verticeMasCercano, c );
+							comparendos.insert( c );
+						}
+						insertados += lote.tamanio;
+						siguiente++;
+						enVuelo.release( );
+					}
+					tiempoInsercion += System.nanoTime( ) - t;
+				}
+			}
+			catch( Throwable e )
+			{
+				error.compareAndSet( null, e );
 			}
 		}
+		finally
+		{
+			hilos.shutdownNow( );
+		}
+
+		// Una carga a medias no debe parecer completa, falle la etapa que falle.
+		Throwable e = error.get( );
+		if( e != null )
+			descartarComparendos( );
+		if( e instanceof IOException )
+			throw ( IOException ) e;
+		else if( e instanceof RuntimeException )
+			throw ( RuntimeException ) e;
+		else if( e != null )
+			throw new IllegalStateException( "Hubo un problema cargando los comparendos", e );
+
+		long total = System.nanoTime( ) - inicio;
+		String reporte = "Carga de " + insertados + " comparendos en " + total / 1000000 + " ms con " + numeroHilos
+				+ " hilos de ubicacin:\n";
+		reporte += reporteEtapa( "Lectura", insertados, tiempoLectura.get( ) );
+		reporte += reporteEtapa( "Ubicacin", insertados, tiempoUbicacion.get( ) );
+		reporte += reporteEtapa( "Insercin", insertados, tiempoInsercion );
+		return reporte;
+	}
+
+	/**
+	 * Descarta los comparendos de una carga que fall: los quita de los vrtices de
+	 * grafoFD y descarta el heap, el nmero de comparendos por vrtice y lo que
+	 * depende de los costos de tipo integer.
+	 */
+	private void descartarComparendos( )
+	{
+		grafoFD.clearVertexItems( );
+		comparendos = null;
+		comparendosPorVertice = null;
+		descartarMotoresDeComparendos( );
+	}
+
+	/**
+	 * Toma un permiso del semforo dado, esperando mientras ninguna etapa del
+	 * pipeline haya fallado.
+	 * @return True si tom el permiso, false si hubo un error en el pipeline.
+	 */
+	private static boolean adquirir( Semaphore permisos, AtomicReference<Throwable> error )
+	{
+		try
+		{
+			while( error.get( ) == null )
+				if( permisos.tryAcquire( 100, TimeUnit.MILLISECONDS ) )
+					return true;
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+		return false;
+	}
+
+	/**
+	 * Pone un lote en la cola dada, esperando a que haya espacio mientras ninguna
+	 * etapa del pipeline haya fallado.
+	 * @return True si el lote fue encolado, false si hubo un error en el pipeline.
+	 */
+	private static boolean encolar( BlockingQueue<LoteComparendos> cola, LoteComparendos lote,
+			AtomicReference<Throwable> error )
+	{
+		try
+		{
+			while( error.get( ) == null || lote == LoteComparendos.FIN )
+				if( cola.offer( lote, 100, TimeUnit.MILLISECONDS ) )
+					return true;
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+		return false;
+	}
+
+	/**
+	 * Saca un lote de la cola dada, esperando a que haya uno mientras ninguna
+	 * etapa del pipeline haya fallado.
+	 * @return Lote sacado de la cola, null si hubo un error en el pipeline.
+	 */
+	private static LoteComparendos desencolar( BlockingQueue<LoteComparendos> cola, AtomicReference<Throwable> error )
+	{
+		try
+		{
+			while( error.get( ) == null )
+			{
+				LoteComparendos lote = cola.poll( 100, TimeUnit.MILLISECONDS );
+				if( lote != null )
+					return lote;
+			}
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+		return null;
+	}
+
+	/**
+	 * @return Lnea del reporte de carga con el tiempo activo y el rendimiento de
+	 *         una etapa.
+	 */
+	private static String reporteEtapa( String etapa, int cantidad, long nanos )
+	{
+		long milisegundos = nanos / 1000000;
+		long porSegundo = nanos == 0 ? 0 : Math.round( cantidad / ( nanos / 1e9 ) );
+		return "\t" + etapa + ": " + milisegundos + " ms activos, " + porSegundo + " comparendos/s\n";
 	}
 
 	/**
@@ -189,12 +565,20 @@ public class Modelo
 	{
 		if( grafoFD != null )
 		{
-			cargarEstacionesDePolicia( rutaArchivo );
+			try
+			{
+				cargarEstacionesDePolicia( rutaArchivo );
+			}
+			catch( IOException | RuntimeException e )
+			{
+				estaciones = null;
+				throw e;
+			}
 			int i = -1;
 			while( ++i < estaciones.getSize( ) )
 			{
 				EstacionPolicia e = estaciones.peekPosition( i );
-				int verticeMasCercano = darVerticeMasCercanoA( e.darLatitud( ), e.darLongitud( ), 0.05 );
+				int verticeMasCercano = darVerticeMasCercanoA( e.darLatitud( ), e.darLongitud( ) );
 				grafoFD.setVertexDistinctiveItem( verticeMasCercano, e );
 			}
 		}
@@ -210,17 +594,64 @@ public class Modelo
 	{
 		if( grafoFD != null )
 		{
-			Iterator<String> iter = grafoFD.edges( );
-			while( iter.hasNext( ) )
-			{
-				String arco = iter.next( );
-				int v = Integer.parseInt( arco.split( "-" )[0] );
-				int w = Integer.parseInt( arco.split( "-" )[1] );
-				grafoFD.setEdgeIntegerCost( v, w, grafoFD.numberOfItemsOf( v ) + grafoFD.numberOfItemsOf( w ) );
-			}
+			// Los costos se calculan por rangos de arcos en paralelo a partir del nmero
+			// de comparendos de cada vrtice.
+			comparendosPorVertice = new int[grafoFD.numberOfVertices( )];
+			for( int v = 0; v < comparendosPorVertice.length; v++ )
+				comparendosPorVertice[v] = grafoFD.numberOfItemsOf( v );
+			grafoFD.setIntegerCostsFromVertexWeights( comparendosPorVertice, ForkJoinPool.commonPool( ) );
+			descartarMotoresDeComparendos( );
 		}
 	}
 
+	/**
+	 * Agrega comparendos nuevos al heap y al grafo, cada uno en su vrtice ms
+	 * cercano. Si los costos de los arcos ya se calcularon con
+	 * actualizarCostosEnGrafo, solo se vuelven a calcular los de los arcos que
+	 * tocan los vrtices que recibieron comparendos.
+	 * @param nuevos Comparendos nuevos. nuevos != null
+	 * @throws IllegalStateException Si no se han cargado el grafo y los comparendos,
+	 *                               o si se supera la capacidad del heap.
+	 */
+	public void agregarComparendos( List<Comparendo> nuevos ) throws IllegalStateException
+	{
+		if( grafoFD == null || comparendos == null )
+			throw new IllegalStateException( "Se debe cargar el grafo y los comparendos antes" );
+
+		int[] vertices = new int[nuevos.size( )];
+		int n = 0;
+		for( Comparendo c : nuevos )
+		{
+			int v = darVerticeMasCercanoA( c.darLatitud( ), c.darLongitud( ) );
+			c.setIdVertex( v );
+			comparendos.insert( c );
+			grafoFD.insertVertexItem( v, c );
+			vertices[n++] = v;
+		}
+
+		if( comparendosPorVertice != null && n > 0 )
+		{
+			for( int k = 0; k < n; k++ )
+				comparendosPorVertice[vertices[k]]++;
+			grafoFD.updateIntegerCostsAround( comparendosPorVertice, vertices, n );
+			descartarMotoresDeComparendos( );
+		}
+	}
+
+	/**
+	 * Descarta lo que depende de los costos de tipo integer de grafoFD: las tablas
+	 * de landmarks y la jerarqua por nmero de comparendos, el servicio de rutas
+	 * y los rboles de las estaciones por ese costo.
+	 */
+	private void descartarMotoresDeComparendos( )
+	{
+		motorLandmarksComparendos = null;
+		jerarquiaComparendos = null;
+		servicioRutas = null;
+		if( arbolesEstaciones != null )
+			arbolesEstaciones.clear( CostType.INTEGER );
+	}
+
 	/**
 	 * Carga los datos de los comparendos en una lista enlazada, los cuales se
 	 * encuentran dentro de la ruta del archivo dada por parmetro. <b>post:<\b> La
@@ -236,10 +667,10 @@ public class Modelo
 		comparendos = new MaxHeapPQ<>( NUMERO_COMPARENDOS );
 
 		InputStream is = new DataInputStream( new FileInputStream( rutaArchivo ) );
-		ObjectMapper mapper = new ObjectMapper( );
 
-		// Crea una instancia de JsonParser
-		try( JsonParser jsonParser = mapper.getFactory( ).createParser( is ) )
+		// Crea una instancia de JsonParser. Los comparendos se leen token por token,
+		// sin construir un rbol por cada uno.
+		try( JsonParser jsonParser = new JsonFactory( ).createParser( is ) )
 		{
 			// Revisa que el primer token sea de inicio de arreglo o [.
 			if( jsonParser.nextToken( ) != JsonToken.START_ARRAY )
@@ -250,7 +681,7 @@ public class Modelo
 			// Itera los tokens hasta llegar al final del arreglo o ].
 			while( jsonParser.nextToken( ) != JsonToken.END_ARRAY )
 			{
-				Comparendo c = mapper.readValue( jsonParser, Comparendo.class );
+				Comparendo c = DeserializadorJSON.leerComparendo( jsonParser );
 				comparendos.insert( c ); // Inserta el comparendo deserializado en el heap de prioridad.
 			}
 		}
@@ -266,6 +697,7 @@ public class Modelo
 	public void cargarEstacionesDePolicia( String rutaArchivo ) throws IOException
 	{
 		estaciones = new MaxHeapPQ<>( NUMERO_ESTACIONES_POLICIA );
+		zonasEstaciones = null;
 
 		ObjectMapper mapper = new ObjectMapper( );
 		byte[] jsonData = Files.readAllBytes( Paths.get( rutaArchivo ) );
@@ -281,213 +713,778 @@ public class Modelo
 
 	/**
 	 * Realiza la carga del grafo a partir de las fuentes de datos
-	 * (bogota_vertices.txt y bogota_arcos.txt).
+	 * (bogota_vertices.txt y bogota_arcos.txt). Al terminar, el grafo queda
+	 * congelado en su representacin CSR y se construye el ndice espacial de sus
+	 * vrtices. Ambos archivos se mapean en memoria y sus nmeros se leen
+	 * directamente de los bytes, con una sola pasada por archivo.
 	 * @param rutaArchivoVertices Archivo donde estn los vertices.
 	 *                            rutaArchivoVertices != null, != ""
 	 * @param rutaArchivoArcos    Archivo donde estn los arcos. rutaArchivoArcos !=
 	 *                            null, != ""
-	 * @return Cadena con la cantidad de vertices y arcos creados como reporte.
-	 * @throws IOException Si hay un problema en la lectura de los archivos.
+	 * @throws IOException           Si hay un problema en la lectura de los
+	 *                               archivos.
+	 * @throws IllegalStateException Si algn arco tiene un vrtice que no existe.
 	 */
 	public void cargarGrafoFuentesDeDatos( String rutaArchivoVertices, String rutaArchivoArcos ) throws IOException
 	{
-		// Se lee todo el archivo para ver cuntos vertices se necesitan.
-		Scanner sc = new Scanner( new File( rutaArchivoVertices ) );
-		int numberOfVertices = 0;
-		while( sc.hasNextLine( ) )
+		// LECTURA DE VERTICES. Una sola pasada sobre el archivo mapeado; los arreglos
+		// crecen a medida que se necesita.
+		LectorMapeado lector = new LectorMapeado( rutaArchivoVertices );
+		double[] latitudes = new double[1024];
+		double[] longitudes = new double[1024];
+		int numberOfVertices = 0, id;
+		while( !lector.terminoArchivo( ) )
 		{
-			numberOfVertices++;
-			sc.nextLine( );
-		}
-		sc.close( );
+			if( lector.terminoLinea( ) )
+			{
+				lector.saltarLinea( );
+				continue;
+			}
 
-		// LECTURA DE VERTICES.
-		BufferedReader reader = new BufferedReader( new FileReader( rutaArchivoVertices ) );
-		String vertice = reader.readLine( );
+			// Cada lnea tiene el formato id,longitud,latitud.
+			id = lector.leerEntero( );
+			if( id < 0 )
+				throw new IllegalStateException( "ID de vrtice invlido: " + id );
+			if( id >= latitudes.length )
+			{
+				int capacidad = Math.max( 2 * latitudes.length, id + 1 );
+				latitudes = Arrays.copyOf( latitudes, capacidad );
+				longitudes = Arrays.copyOf( longitudes, capacidad );
+			}
+			longitudes[id] = lector.leerDouble( );
+			latitudes[id] = lector.leerDouble( );
+			numberOfVertices = Math.max( numberOfVertices, id + 1 );
+			lector.saltarLinea( );
+		}
 
+		latitudes = Arrays.copyOf( latitudes, numberOfVertices );
+		longitudes = Arrays.copyOf( longitudes, numberOfVertices );
 		grafoFD = new UndirectedGraph<>( numberOfVertices );
-		double latitud, longitud, distanciaMenor, latitudMenor, longitudMenor, latitudA, longitudA, distanciaActual,
-				longitudAdyacente, latitudAdyacente, costo;
-		int id;
-		while( vertice != null )
+		for( int v = 0; v < numberOfVertices; v++ )
+			grafoFD.setVertexCoordinates( v, latitudes[v], longitudes[v] );
+		indiceVertices = new KdTree( latitudes, longitudes );
+		motorDistancia = null;
+		motorComparendos = null;
+		motorAEstrella = null;
+		motorLandmarksDistancia = null;
+		motorLandmarksComparendos = null;
+		jerarquiaDistancia = null;
+		jerarquiaComparendos = null;
+		zonasEstaciones = null;
+		arbolesEstaciones = null;
+		servicioRutas = null;
+		matrizDistancias = null;
+		comparendosPorVertice = null;
+
+		// LECTURA DE ARCOS. Cada lnea tiene el id de un vrtice seguido de los id's
+		// de sus adyacentes; las lneas que empiezan con # son comentarios.
+		lector = new LectorMapeado( rutaArchivoArcos );
+		int[] desde = new int[1024], hasta = new int[1024];
+		double[] costos = new double[1024];
+		int numeroArcos = 0, idAdyacente;
+		while( !lector.terminoArchivo( ) )
 		{
-			id = Integer.parseInt( vertice.split( "," )[0] );
+			if( lector.lineaEmpiezaCon( '#' ) || lector.terminoLinea( ) )
+			{
+				lector.saltarLinea( );
+				continue;
+			}
+
+			id = lector.leerEntero( );
+			while( !lector.terminoLinea( ) )
+			{
+				idAdyacente = lector.leerEntero( );
+				if( id < 0 || id >= numberOfVertices || idAdyacente < 0 || idAdyacente >= numberOfVertices )
+					throw new IllegalStateException( "Arco con un vrtice invlido: " + id + "-" + idAdyacente );
+				if( numeroArcos == desde.length )
+				{
+					desde = Arrays.copyOf( desde, 2 * numeroArcos );
+					hasta = Arrays.copyOf( hasta, 2 * numeroArcos );
+					costos = Arrays.copyOf( costos, 2 * numeroArcos );
+				}
+				desde[numeroArcos] = id;
+				hasta[numeroArcos] = idAdyacente;
+				costos[numeroArcos] = Haversine.distance( latitudes[id], longitudes[id], latitudes[idAdyacente],
+						longitudes[idAdyacente] );
+				numeroArcos++;
+			}
+			lector.saltarLinea( );
+		}
 
-			// Se quita el id de la lnea y se queda con la latitud y longitud concatenadas
-			// con ",".
-			String info = vertice.replaceFirst( id + ",", "" );
+		// Se construye directamente la representacin CSR con todos los arcos.
+		grafoFD.addEdgesAndFreeze( desde, hasta, costos, numeroArcos );
+	}
 
-			if( agrupacionesVertices.isEmpty( ) )
-				agrupacionesVertices.put( info, id );
+	/**
+	 * Construye un archivo JSON legible (con indentacin) que contiene la
+	 * informacin del grafo.
+	 * @param rutaArchivo Archivo donde guardar el archivo JSON.
+	 * @throws IOException En caso que haya un problema creando o escribiendo el
+	 *                     archivo.
+	 * @see #construirJSONDelGrafo(String, boolean)
+	 */
+	public void construirJSONDelGrafo( String rutaArchivo ) throws IOException
+	{
+		construirJSONDelGrafo( rutaArchivo, false );
+	}
+
+	/**
+	 * Construye un archivo JSON que contiene la informacin del grafo, escribiendo
+	 * con un JsonGenerator sobre un canal con buffer. El archivo tiene el campo
+	 * "numeroVertices", el arreglo "vertices" y el arreglo "arcos", con cada arco
+	 * una sola vez (ver escribirArcos). En el modo normal cada vrtice es un objeto
+	 * con "id" y "coordenadas" ([longitud, latitud]) y cada arco un objeto con
+	 * "desde", "hasta", "costo" y "comparendos", los costos de tipo double e
+	 * integer del arco. En el modo compacto no hay espacios, cada vrtice es un
+	 * arreglo [id, longitud, latitud] y los arcos van seguidos en un solo arreglo
+	 * [desde1, hasta1, costo1, comparendos1, desde2, ...].
+	 * @param rutaArchivo Archivo donde guardar el archivo JSON.
+	 * @param compacto    True para el modo compacto, false para el modo legible.
+	 * @throws IOException En caso que haya un problema creando o escribiendo el
+	 *                     archivo.
+	 */
+	public void construirJSONDelGrafo( String rutaArchivo, boolean compacto ) throws IOException
+	{
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE );
+				JsonGenerator w = new JsonFactory( ).createGenerator(
+						new BufferedOutputStream( Channels.newOutputStream( canal ), TAMANIO_BUFFER ) ) )
+		{
+			if( !compacto )
+				w.useDefaultPrettyPrinter( );
+
+			w.writeStartObject( );
+			w.writeNumberField( "numeroVertices", grafoFD.numberOfVertices( ) );
+			w.writeArrayFieldStart( "vertices" );
+			for( int i = 0; i < grafoFD.numberOfVertices( ); i++ )
+			{
+				if( compacto )
+				{
+					w.writeStartArray( );
+					w.writeNumber( i );
+					w.writeNumber( grafoFD.getVertexLongitude( i ) );
+					w.writeNumber( grafoFD.getVertexLatitude( i ) );
+					w.writeEndArray( );
+				}
+				else
+				{
+					w.writeStartObject( );
+					w.writeNumberField( "id", i );
+					w.writeArrayFieldStart( "coordenadas" );
+					w.writeNumber( grafoFD.getVertexLongitude( i ) );
+					w.writeNumber( grafoFD.getVertexLatitude( i ) );
+					w.writeEndArray( );
+					w.writeEndObject( );
+				}
+			}
+			w.writeEndArray( );
+
+			w.writeArrayFieldStart( "arcos" );
+			if( compacto )
+				escribirArcos( ( v, u, costo, comparendos ) -> {
+					w.writeNumber( v );
+					w.writeNumber( u );
+					w.writeNumber( costo );
+					w.writeNumber( comparendos );
+				} );
 			else
+				escribirArcos( ( v, u, costo, comparendos ) -> {
+					w.writeStartObject( );
+					w.writeNumberField( "desde", v );
+					w.writeNumberField( "hasta", u );
+					w.writeNumberField( "costo", costo );
+					w.writeNumberField( "comparendos", comparendos );
+					w.writeEndObject( );
+				} );
+			w.writeEndArray( );
+			w.writeEndObject( );
+		}
+	}
+
+	/**
+	 * Recibe los arcos de grafoFD en escribirArcos.
+	 */
+	private interface EscritorDeArcos
+	{
+		void escribir( int v, int w, double costo, int comparendos ) throws IOException;
+	}
+
+	/**
+	 * Entrega al escritor dado cada arco de grafoFD una sola vez, desde su extremo
+	 * de menor ID, con sus costos de tipo double e integer. Lo usan el JSON y la
+	 * lista de arcos binaria.
+	 * @throws IOException Si el escritor no pudo escribir un arco.
+	 */
+	private void escribirArcos( EscritorDeArcos escritor ) throws IOException
+	{
+		UndirectedGraph<String, Comparendo, EstacionPolicia>.EdgeCursor c = grafoFD.edgeCursor( );
+		while( c.next( ) )
+			escritor.escribir( c.either( ), c.other( ), c.doubleCost( ), c.integerCost( ) );
+	}
+
+	/**
+	 * Carga el grafo a partir de un archivo JSON escrito con construirJSONDelGrafo,
+	 * en modo legible o compacto. El archivo se lee token por token, sin construir
+	 * el rbol del documento.
+	 * @param rutaArchivo Archivo JSON de donde sacar la informacin del grafo.
+	 *                    rutaArchivo != "", != null
+	 * @return Cadena con la cantidad de vertices y arcos creados como reporte.
+	 * @throws IOException           Si hay un problema de lectura en el archivo
+	 *                               JSON.
+	 * @throws IllegalStateException Si el JSON no tiene el formato esperado.
+	 */
+	public String cargarGrafoDeJSON( String rutaArchivo ) throws IOException, IllegalStateException
+	{
+		ListaDeArcos lista = new ListaDeArcos( );
+		try( JsonParser p = new JsonFactory( ).createParser( new File( rutaArchivo ) ) )
+		{
+			if( p.nextToken( ) != JsonToken.START_OBJECT )
+				throw new IllegalStateException( "Se esperaba el comienzo de un objeto." );
+
+			while( p.nextToken( ) == JsonToken.FIELD_NAME )
 			{
-				latitud = Double.parseDouble( info.split( "," )[1] );
-				longitud = Double.parseDouble( info.split( "," )[0] );
-				distanciaMenor = 10000.0; // Distancia obviamente mayor que las dems.
-				latitudMenor = -1;
-				longitudMenor = -1;
-				for( String verticeRepresentante : agrupacionesVertices )
+				String campo = p.getCurrentName( );
+				if( p.nextToken( ) != JsonToken.START_ARRAY
+						|| !( campo.equals( "vertices" ) || campo.equals( "arcos" ) ) )
 				{
-					latitudA = Double.parseDouble( verticeRepresentante.split( "," )[1] );
-					longitudA = Double.parseDouble( verticeRepresentante.split( "," )[0] );
-					distanciaActual = Haversine.distance( latitud, longitud, latitudA, longitudA );
+					p.skipChildren( );
+					continue;
+				}
 
-					if( distanciaMenor > distanciaActual )
-					{
-						distanciaMenor = distanciaActual;
-						latitudMenor = latitudA;
-						longitudMenor = longitudA;
-					}
+				JsonToken token;
+				while( ( token = p.nextToken( ) ) != JsonToken.END_ARRAY )
+				{
+					if( campo.equals( "vertices" ) && token == JsonToken.START_ARRAY )
+						leerVerticeCompacto( p, lista );
+					else if( campo.equals( "vertices" ) && token == JsonToken.START_OBJECT )
+						leerVertice( p, lista );
+					else if( token == JsonToken.START_OBJECT )
+						leerArco( p, lista );
+					else if( token == JsonToken.VALUE_NUMBER_INT )
+						leerArcoCompacto( p, lista );
+					else
+						throw new IllegalStateException( "Elemento con formato invlido en " + p.getCurrentLocation( ) );
 				}
+			}
+		}
 
-				// Si la distancia menor se pasa del lmite, se crea un
-				// nuevo grupo.
-				if( distanciaMenor > TAMANIO_AGRUPACIONES )
-					agrupacionesVertices.put( longitud + "," + latitud, id );
-				// Si no, se aade el ID a la llave con la latitud y longitud correspondientes
-				// al vrtice representante del grupo, con el cual posee la menor distancia.
-				else
-					agrupacionesVertices.put( longitudMenor + "," + latitudMenor, id );
+		grafoJS = lista.construirGrafo( );
+		return darReporteGrafo( grafoJS );
+	}
+
+	/**
+	 * Lee un vrtice en modo legible: {"id": .., "coordenadas": [longitud,
+	 * latitud]}. <b>pre:</b> El token actual es el inicio del objeto.
+	 */
+	private static void leerVertice( JsonParser p, ListaDeArcos lista ) throws IOException
+	{
+		int id = -1;
+		double longitud = 0, latitud = 0;
+		while( p.nextToken( ) == JsonToken.FIELD_NAME )
+		{
+			String campo = p.getCurrentName( );
+			p.nextToken( );
+			if( campo.equals( "id" ) )
+				id = p.getIntValue( );
+			else if( campo.equals( "coordenadas" ) )
+			{
+				p.nextToken( );
+				longitud = p.getDoubleValue( );
+				p.nextToken( );
+				latitud = p.getDoubleValue( );
+				while( p.nextToken( ) != JsonToken.END_ARRAY )
+					p.skipChildren( );
 			}
+			else
+				p.skipChildren( );
+		}
+
+		if( id < 0 )
+			throw new IllegalStateException( "Vrtice sin id en " + p.getCurrentLocation( ) );
+		lista.agregarVertice( id, latitud, longitud );
+	}
 
-			// Se aade el vrtice.
-			grafoFD.setVertexInfo( id, info );
-			vertice = reader.readLine( );
+	/**
+	 * Lee un vrtice en modo compacto: [id, longitud, latitud]. <b>pre:</b> El
+	 * token actual es el inicio del arreglo.
+	 */
+	private static void leerVerticeCompacto( JsonParser p, ListaDeArcos lista ) throws IOException
+	{
+		p.nextToken( );
+		int id = p.getIntValue( );
+		p.nextToken( );
+		double longitud = p.getDoubleValue( );
+		p.nextToken( );
+		double latitud = p.getDoubleValue( );
+		if( p.nextToken( ) != JsonToken.END_ARRAY )
+			throw new IllegalStateException( "Vrtice con formato invlido en " + p.getCurrentLocation( ) );
+		lista.agregarVertice( id, latitud, longitud );
+	}
+
+	/**
+	 * Lee un arco en modo legible: {"desde": .., "hasta": .., "costo": ..,
+	 * "comparendos": ..}. <b>pre:</b> El token actual es el inicio del objeto.
+	 */
+	private static void leerArco( JsonParser p, ListaDeArcos lista ) throws IOException
+	{
+		int desde = -1, hasta = -1, comparendos = 0;
+		double costo = 0;
+		while( p.nextToken( ) == JsonToken.FIELD_NAME )
+		{
+			String campo = p.getCurrentName( );
+			p.nextToken( );
+			if( campo.equals( "desde" ) )
+				desde = p.getIntValue( );
+			else if( campo.equals( "hasta" ) )
+				hasta = p.getIntValue( );
+			else if( campo.equals( "costo" ) )
+				costo = p.getDoubleValue( );
+			else if( campo.equals( "comparendos" ) )
+				comparendos = p.getIntValue( );
+			else
+				p.skipChildren( );
 		}
 
-		reader.close( );
+		if( desde < 0 || hasta < 0 )
+			throw new IllegalStateException( "Arco sin extremos en " + p.getCurrentLocation( ) );
+		lista.agregarArco( desde, hasta, costo, comparendos );
+	}
 
-		// LECTURA DE ARCOS.
-		reader = new BufferedReader( new FileReader( rutaArchivoArcos ) );
-		String arco = reader.readLine( );
+	/**
+	 * Lee un arco en modo compacto: los cuatro nmeros desde, hasta, costo y
+	 * comparendos. <b>pre:</b> El token actual es el primero de ellos.
+	 */
+	private static void leerArcoCompacto( JsonParser p, ListaDeArcos lista ) throws IOException
+	{
+		int desde = p.getIntValue( );
+		p.nextToken( );
+		int hasta = p.getIntValue( );
+		p.nextToken( );
+		double costo = p.getDoubleValue( );
+		p.nextToken( );
+		lista.agregarArco( desde, hasta, costo, p.getIntValue( ) );
+	}
 
-		int idAdyacente;
-		while( arco != null )
+	/**
+	 * Escribe el grafo como una lista de arcos binaria: firma y versin, nmero de
+	 * vrtices y de arcos, latitud y longitud de cada vrtice y luego cada arco una
+	 * sola vez (ver escribirArcos) como (v, w, costo, comparendos), con sus costos
+	 * de tipo double e integer. Todos los valores van en little-endian.
+	 * @param rutaArchivo Archivo donde guardar la lista de arcos. rutaArchivo !=
+	 *                    null, != ""
+	 * @throws IOException En caso que haya un problema creando o escribiendo el
+	 *                     archivo.
+	 */
+	public void construirListaDeArcosBinaria( String rutaArchivo ) throws IOException
+	{
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE ) )
 		{
-			if( !arco.startsWith( "#" ) )
+			ByteBuffer buffer = ByteBuffer.allocateDirect( TAMANIO_BUFFER ).order( ByteOrder.LITTLE_ENDIAN );
+			buffer.putInt( LISTA_ARCOS_FIRMA );
+			buffer.putInt( LISTA_ARCOS_VERSION );
+			buffer.putInt( grafoFD.numberOfVertices( ) );
+			buffer.putInt( grafoFD.numberOfEdges( ) );
+			for( int v = 0; v < grafoFD.numberOfVertices( ); v++ )
 			{
-				String[] linea = arco.split( " " );
+				vaciarSiEstaLleno( canal, buffer, 16 );
+				buffer.putDouble( grafoFD.getVertexLatitude( v ) );
+				buffer.putDouble( grafoFD.getVertexLongitude( v ) );
+			}
 
-				// Solo aparece el id del vrtice y ninguno adyacente.
-				if( linea.length > 1 )
-				{
-					id = Integer.parseInt( linea[0] );
-					String infoVertice = grafoFD.getVertexInfo( id );
-					longitud = Double.parseDouble( infoVertice.split( "," )[0] );
-					latitud = Double.parseDouble( infoVertice.split( "," )[1] );
+			escribirArcos( ( v, w, costo, comparendos ) -> {
+				vaciarSiEstaLleno( canal, buffer, 20 );
+				buffer.putInt( v );
+				buffer.putInt( w );
+				buffer.putDouble( costo );
+				buffer.putInt( comparendos );
+			} );
+
+			buffer.flip( );
+			while( buffer.hasRemaining( ) )
+				canal.write( buffer );
+		}
+	}
 
-					for( int i = 1; i < linea.length; i++ )
-					{
-						idAdyacente = Integer.parseInt( linea[i] );
-						String infoAdyacente = grafoFD.getVertexInfo( idAdyacente );
-						longitudAdyacente = Double.parseDouble( infoAdyacente.split( "," )[0] );
-						latitudAdyacente = Double.parseDouble( infoAdyacente.split( "," )[1] );
-						costo = Haversine.distance( latitud, longitud, latitudAdyacente, longitudAdyacente );
-
-						// Se aade el arco.
-						grafoFD.addEdge( id, idAdyacente, costo );
-					}
-				}
+	/**
+	 * Carga el grafo a partir de una lista de arcos binaria escrita con
+	 * construirListaDeArcosBinaria.
+	 * @param rutaArchivo Archivo de la lista de arcos. rutaArchivo != null, != ""
+	 * @return Cadena con la cantidad de vertices y arcos creados como reporte.
+	 * @throws IOException           Si hay un problema de lectura del archivo.
+	 * @throws IllegalStateException Si el archivo no es una lista de arcos vlida.
+	 */
+	public String cargarGrafoDeListaDeArcosBinaria( String rutaArchivo ) throws IOException, IllegalStateException
+	{
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.READ ) )
+		{
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_ONLY, 0, canal.size( ) );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+			if( canal.size( ) < 16 || buffer.getInt( ) != LISTA_ARCOS_FIRMA
+					|| buffer.getInt( ) != LISTA_ARCOS_VERSION )
+				throw new IllegalStateException( "El archivo " + rutaArchivo + " no es una lista de arcos vlida" );
+
+			int numeroVertices = buffer.getInt( ), numeroArcos = buffer.getInt( );
+			UndirectedGraph<String, Comparendo, EstacionPolicia> g = new UndirectedGraph<>( numeroVertices );
+			for( int v = 0; v < numeroVertices; v++ )
+				g.setVertexCoordinates( v, buffer.getDouble( ), buffer.getDouble( ) );
+
+			int[] desde = new int[numeroArcos], hasta = new int[numeroArcos], comparendos = new int[numeroArcos];
+			double[] costos = new double[numeroArcos];
+			for( int i = 0; i < numeroArcos; i++ )
+			{
+				desde[i] = buffer.getInt( );
+				hasta[i] = buffer.getInt( );
+				costos[i] = buffer.getDouble( );
+				comparendos[i] = buffer.getInt( );
 			}
-			arco = reader.readLine( );
+			g.addEdgesAndFreeze( desde, hasta, costos, comparendos, numeroArcos );
+
+			grafoJS = g;
+			return darReporteGrafo( grafoJS );
+		}
+		catch( BufferUnderflowException | IllegalArgumentException e )
+		{
+			throw new IllegalStateException( "La lista de arcos " + rutaArchivo + " est corrupta", e );
+		}
+	}
+
+	/**
+	 * Escribe el contenido del buffer en el canal si no le quedan al menos los bytes
+	 * dados disponibles, y lo deja listo para seguir escribiendo.
+	 */
+	private static void vaciarSiEstaLleno( FileChannel canal, ByteBuffer buffer, int bytes ) throws IOException
+	{
+		if( buffer.remaining( ) < bytes )
+		{
+			buffer.flip( );
+			while( buffer.hasRemaining( ) )
+				canal.write( buffer );
+			buffer.clear( );
+		}
+	}
+
+	// ------------------------------------------------------------------------------------------------------------
+	// SNAPSHOT BINARIO
+	// ------------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Guarda el modelo completamente cargado en un snapshot binario: la estructura
+	 * de grafoFD (coordenadas, adyacencias y ambos tipos de costo), los comparendos
+	 * en el orden de su heap, los comparendos de cada vrtice en el orden en que
+	 * fueron insertados y las estaciones de polica con el vrtice donde fueron
+	 * ubicadas. Las cadenas se guardan una sola vez en una tabla y los registros
+	 * guardan su posicin en ella.
+	 * <p>
+	 * La cabecera guarda la huella (tamao y fecha de modificacin) de los
+	 * archivos fuente dados, para que cargarSnapshot rechace el snapshot si alguno
+	 * cambi. El snapshot se escribe en un archivo temporal que luego se mueve a
+	 * la ruta dada, as que nunca queda un snapshot a medio escribir en ella.
+	 * @param rutaArchivo Archivo donde guardar el snapshot. rutaArchivo != null, !=
+	 *                    ""
+	 * @param fuentes     Archivos de los que se carg el modelo (vrtices, arcos,
+	 *                    comparendos y estaciones).
+	 * @throws IOException           Si hay un problema de escritura del archivo o
+	 *                               de lectura de las fuentes.
+	 * @throws IllegalStateException Si el grafo, los comparendos, las estaciones o
+	 *                               los costos no han sido cargados.
+	 */
+	public void guardarSnapshot( String rutaArchivo, String... fuentes ) throws IOException, IllegalStateException
+	{
+		if( grafoFD == null || comparendos == null || estaciones == null || comparendosPorVertice == null )
+			throw new IllegalStateException(
+					"Se debe cargar el grafo, los comparendos, las estaciones y los costos antes" );
+		long[] huella = huellaDeFuentes( fuentes );
+
+		// Tabla de cadenas.
+		HashMap<String, Integer> posiciones = new HashMap<>( );
+		ArrayList<byte[]> tabla = new ArrayList<>( );
+		int[][] cadenasComparendos = new int[comparendos.getSize( )][];
+		for( int i = 0; i < comparendos.getSize( ); i++ )
+		{
+			Comparendo c = comparendos.peekPosition( i );
+			cadenasComparendos[i] = new int[] { posicionEnTabla( c.darFecha( ), posiciones, tabla ),
+					posicionEnTabla( c.darMedioDetencion( ), posiciones, tabla ),
+					posicionEnTabla( c.darClaseVehiculo( ), posiciones, tabla ),
+					posicionEnTabla( c.darTipoServicio( ), posiciones, tabla ),
+					posicionEnTabla( c.darCodigoInfraccion( ), posiciones, tabla ),
+					posicionEnTabla( c.darDescripcionInfraccion( ), posiciones, tabla ),
+					posicionEnTabla( c.darLocalidad( ), posiciones, tabla ) };
+		}
+		int[][] cadenasEstaciones = new int[estaciones.getSize( )][];
+		for( int i = 0; i < estaciones.getSize( ); i++ )
+		{
+			EstacionPolicia e = estaciones.peekPosition( i );
+			cadenasEstaciones[i] = new int[] { posicionEnTabla( e.darDescripcion( ), posiciones, tabla ),
+					posicionEnTabla( e.darDireccion( ), posiciones, tabla ),
+					posicionEnTabla( e.darServicio( ), posiciones, tabla ),
+					posicionEnTabla( e.darHorario( ), posiciones, tabla ),
+					posicionEnTabla( e.darTelefono( ), posiciones, tabla ),
+					posicionEnTabla( e.darLocalidad( ), posiciones, tabla ) };
+		}
+
+		long tamanio = 4 * 4 + 4 + 8L * huella.length + grafoFD.structureSize( ) + 4;
+		for( byte[] cadena : tabla )
+			tamanio += 4 + cadena.length;
+		tamanio += 4 + ( long ) comparendos.getSize( ) * ( 4 + 4 + 7 * 4 + 2 * 8 );
+		tamanio += 4L * grafoFD.numberOfVertices( ) + 4L * grafoFD.numberOfStoredItems( );
+		tamanio += 4 + ( long ) estaciones.getSize( ) * ( 4 + 4 + 6 * 4 + 2 * 8 );
+
+		Path destino = Paths.get( rutaArchivo );
+		Path temporal = destino.resolveSibling( destino.getFileName( ) + ".tmp" );
+		Files.deleteIfExists( temporal );
+		try( FileChannel canal = FileChannel.open( temporal, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE ) )
+		{
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_WRITE, 0, tamanio );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+
+			buffer.putInt( SNAPSHOT_FIRMA );
+			buffer.putInt( SNAPSHOT_VERSION );
+			buffer.putLong( tamanio );
+			buffer.putInt( huella.length / 2 );
+			for( long valor : huella )
+				buffer.putLong( valor );
+			grafoFD.writeStructure( buffer );
+
+			buffer.putInt( tabla.size( ) );
+			for( byte[] cadena : tabla )
+			{
+				buffer.putInt( cadena.length );
+				buffer.put( cadena );
+			}
+
+			buffer.putInt( comparendos.getSize( ) );
+			for( int i = 0; i < comparendos.getSize( ); i++ )
+			{
+				Comparendo c = comparendos.peekPosition( i );
+				buffer.putInt( c.darId( ) );
+				buffer.putInt( c.darIdVertex( ) );
+				for( int posicion : cadenasComparendos[i] )
+					buffer.putInt( posicion );
+				buffer.putDouble( c.darLongitud( ) );
+				buffer.putDouble( c.darLatitud( ) );
+			}
+
+			// Comparendos de cada vrtice, como posiciones dentro del heap.
+			IdentityHashMap<Comparendo, Integer> posicionEnHeap = new IdentityHashMap<>( comparendos.getSize( ) );
+			for( int i = 0; i < comparendos.getSize( ); i++ )
+				posicionEnHeap.put( comparendos.peekPosition( i ), i );
+			for( int v = 0; v < grafoFD.numberOfVertices( ); v++ )
+			{
+				int numeroItems = grafoFD.numberOfItemsOf( v );
+				buffer.putInt( numeroItems );
+				for( int k = 0; k < numeroItems; k++ )
+					buffer.putInt( posicionEnHeap.get( grafoFD.vertexItem( v, k ) ) );
+			}
+
+			buffer.putInt( estaciones.getSize( ) );
+			for( int i = 0; i < estaciones.getSize( ); i++ )
+			{
+				EstacionPolicia e = estaciones.peekPosition( i );
+				buffer.putInt( e.darId( ) );
+				buffer.putInt( darVerticeMasCercanoA( e.darLatitud( ), e.darLongitud( ) ) );
+				for( int posicion : cadenasEstaciones[i] )
+					buffer.putInt( posicion );
+				buffer.putDouble( e.darLatitud( ) );
+				buffer.putDouble( e.darLongitud( ) );
+			}
+
+			buffer.force( );
+		}
+		catch( IOException | RuntimeException e )
+		{
+			Files.deleteIfExists( temporal );
+			throw e;
+		}
+
+		try
+		{
+			Files.move( temporal, destino, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch( AtomicMoveNotSupportedException e )
+		{
+			Files.move( temporal, destino, StandardCopyOption.REPLACE_EXISTING );
 		}
+	}
 
-		reader.close( );
+	/**
+	 * @return Tamao y fecha de modificacin (en ms) de cada archivo dado, en
+	 *         posiciones consecutivas.
+	 * @throws IOException Si alguno de los archivos no se puede leer.
+	 */
+	private static long[] huellaDeFuentes( String[] fuentes ) throws IOException
+	{
+		long[] huella = new long[2 * fuentes.length];
+		for( int i = 0; i < fuentes.length; i++ )
+		{
+			Path fuente = Paths.get( fuentes[i] );
+			huella[2 * i] = Files.size( fuente );
+			huella[2 * i + 1] = Files.getLastModifiedTime( fuente ).toMillis( );
+		}
+		return huella;
 	}
 
 	/**
-	 * Construye un archivo JSON que contiene la informacin del grafo.
-	 * @param rutaArchivo Archivo donde guardar el archivo JSON.
-	 * @throws FileNotFoundException En caso que haya un problema creando el
-	 *                               archivo.
+	 * Carga el modelo desde un snapshot escrito con guardarSnapshot. Remplaza
+	 * grafoFD, los comparendos y las estaciones actuales y reconstruye el ndice
+	 * espacial de los vrtices. <b>post:</b> El modelo queda como si se hubieran
+	 * cargado las fuentes de datos, los comparendos, las estaciones y los costos.
+	 * @param rutaArchivo Archivo del snapshot. rutaArchivo != null, != ""
+	 * @param fuentes     Archivos fuente actuales, en el mismo orden en que se
+	 *                    pasaron a guardarSnapshot.
+	 * @return Cadena con la cantidad de vertices y arcos cargados como reporte.
+	 * @throws IOException           Si hay un problema de lectura del archivo o de
+	 *                               las fuentes.
+	 * @throws IllegalStateException Si el archivo no es un snapshot vlido, es de
+	 *                               otra versin o las fuentes cambiaron desde que
+	 *                               se guard.
 	 */
-	public void construirJSONDelGrafo( String rutaArchivo ) throws FileNotFoundException
+	public String cargarSnapshot( String rutaArchivo, String... fuentes ) throws IOException, IllegalStateException
 	{
-		File file = new File( rutaArchivo );
-		PrintWriter w = new PrintWriter( file );
+		long[] huella = huellaDeFuentes( fuentes );
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.READ ) )
+		{
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_ONLY, 0, canal.size( ) );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+
+			if( canal.size( ) < 16 || buffer.getInt( ) != SNAPSHOT_FIRMA )
+				throw new IllegalStateException( "El archivo " + rutaArchivo + " no es un snapshot del modelo" );
+			int version = buffer.getInt( );
+			if( version != SNAPSHOT_VERSION )
+				throw new IllegalStateException(
+						"El snapshot es de la versin " + version + ", se esperaba la " + SNAPSHOT_VERSION );
+			if( buffer.getLong( ) != canal.size( ) )
+				throw new IllegalStateException( "El snapshot " + rutaArchivo + " est incompleto" );
+			boolean mismasFuentes = buffer.getInt( ) * 2 == huella.length;
+			for( int i = 0; mismasFuentes && i < huella.length; i++ )
+				mismasFuentes = buffer.getLong( ) == huella[i];
+			if( !mismasFuentes )
+				throw new IllegalStateException(
+						"El snapshot " + rutaArchivo + " no corresponde a las fuentes de datos actuales" );
+
+			UndirectedGraph<String, Comparendo, EstacionPolicia> grafo = UndirectedGraph.readStructure( buffer );
+
+			String[] tabla = new String[buffer.getInt( )];
+			byte[] bytes = new byte[256];
+			for( int i = 0; i < tabla.length; i++ )
+			{
+				int longitud = buffer.getInt( );
+				if( longitud > bytes.length )
+					bytes = new byte[longitud];
+				buffer.get( bytes, 0, longitud );
+				tabla[i] = new String( bytes, 0, longitud, StandardCharsets.UTF_8 );
+			}
 
-		w.println( "{" );
-		w.println( "\t" + "\"vertices\": [" );
+			Comparendo[] arreglo = new Comparendo[buffer.getInt( )];
+			for( int i = 0; i < arreglo.length; i++ )
+			{
+				int id = buffer.getInt( );
+				int vertice = buffer.getInt( );
+				String fecha = cadenaEnTabla( tabla, buffer.getInt( ) );
+				String medioDeteccion = cadenaEnTabla( tabla, buffer.getInt( ) );
+				String claseVehiculo = cadenaEnTabla( tabla, buffer.getInt( ) );
+				String tipoServicio = cadenaEnTabla( tabla, buffer.getInt( ) );
+				String codigoInfraccion = cadenaEnTabla( tabla, buffer.getInt( ) );
+				String descripcionInfraccion = cadenaEnTabla( tabla, buffer.getInt( ) );
+				String localidad = cadenaEnTabla( tabla, buffer.getInt( ) );
+				double longitud = buffer.getDouble( );
+				double latitud = buffer.getDouble( );
+
+				Comparendo c = new Comparendo( id, fecha, medioDeteccion, claseVehiculo, tipoServicio,
+						codigoInfraccion, descripcionInfraccion, localidad, new double[] { longitud, latitud } );
+				c.setIdVertex( vertice );
+				arreglo[i] = c;
+			}
+			MaxHeapPQ<Comparendo> heap = new MaxHeapPQ<>( arreglo, Math.max( NUMERO_COMPARENDOS, arreglo.length ) );
 
-		int i = 0, idAdyacente;
-		String infoVertice;
-		String latitud, longitud;
-		while( i < grafoFD.numberOfVertices( ) )
-		{
-			w.println( "\t\t" + "{" );
-			infoVertice = grafoFD.getVertexInfo( i );
-			longitud = infoVertice.split( "," )[0];
-			latitud = infoVertice.split( "," )[1];
-			w.println( "\t\t\t" + "\"id\": " + i + "," );
-			w.print( "\t\t\t" + "\"coordenadas\": [" );
-			w.println( longitud + "," + latitud + "]," );
-			w.println( "\t\t\t" + "\"adyacencias\": [" );
+			for( int v = 0; v < grafo.numberOfVertices( ); v++ )
+			{
+				int numeroItems = buffer.getInt( );
+				for( int k = 0; k < numeroItems; k++ )
+					grafo.insertVertexItem( v, arreglo[buffer.getInt( )] );
+			}
 
-			Iterator<Integer> iter = grafoFD.vertexAdjacentTo( i );
-			while( iter.hasNext( ) )
+			EstacionPolicia[] arregloEstaciones = new EstacionPolicia[buffer.getInt( )];
+			for( int i = 0; i < arregloEstaciones.length; i++ )
 			{
-				w.println( "\t\t\t\t" + "{" );
-				idAdyacente = iter.next( );
-				w.println( "\t\t\t\t\t" + "\"id\": " + idAdyacente + "," );
-				w.println( "\t\t\t\t\t" + "\"costo\": " + grafoFD.getEdgeDoubleCost( i, idAdyacente ) );
-
-				boolean tieneSiguiente = iter.hasNext( );
-				if( tieneSiguiente )
-					w.println( "\t\t\t\t" + "}," );
-				else
-					w.println( "\t\t\t\t" + "}" );
+				int id = buffer.getInt( );
+				int vertice = buffer.getInt( );
+				EstacionPolicia e = new EstacionPolicia( id, cadenaEnTabla( tabla, buffer.getInt( ) ),
+						cadenaEnTabla( tabla, buffer.getInt( ) ), cadenaEnTabla( tabla, buffer.getInt( ) ),
+						cadenaEnTabla( tabla, buffer.getInt( ) ), cadenaEnTabla( tabla, buffer.getInt( ) ),
+						cadenaEnTabla( tabla, buffer.getInt( ) ), buffer.getDouble( ), buffer.getDouble( ) );
+				grafo.setVertexDistinctiveItem( vertice, e );
+				arregloEstaciones[i] = e;
 			}
-			w.println( "\t\t\t" + "]" );
-			i++;
+			MaxHeapPQ<EstacionPolicia> heapEstaciones = new MaxHeapPQ<>( arregloEstaciones,
+					Math.max( NUMERO_ESTACIONES_POLICIA, arregloEstaciones.length ) );
 
-			if( i < grafoFD.numberOfVertices( ) )
-				w.println( "\t\t" + "}," );
-			else
-				w.println( "\t\t" + "}" );
-		}
+			double[] latitudes = new double[grafo.numberOfVertices( )];
+			double[] longitudes = new double[grafo.numberOfVertices( )];
+			for( int v = 0; v < grafo.numberOfVertices( ); v++ )
+			{
+				latitudes[v] = grafo.getVertexLatitude( v );
+				longitudes[v] = grafo.getVertexLongitude( v );
+			}
 
-		w.println( "\t" + "]" );
-		w.print( "}" );
-		w.close( );
+			grafoFD = grafo;
+			comparendos = heap;
+			estaciones = heapEstaciones;
+			mayorNumeroComparendosCiudad = null;
+			indiceVertices = new KdTree( latitudes, longitudes );
+			motorDistancia = null;
+			motorComparendos = null;
+			motorAEstrella = null;
+			motorLandmarksDistancia = null;
+			motorLandmarksComparendos = null;
+			jerarquiaDistancia = null;
+			jerarquiaComparendos = null;
+			zonasEstaciones = null;
+			arbolesEstaciones = null;
+			servicioRutas = null;
+			matrizDistancias = null;
+
+			// El snapshot se guarda con los costos ya calculados, as que el nmero de
+			// comparendos de cada vrtice se reconstruye para que agregarComparendos
+			// pueda seguir actualizndolos.
+			comparendosPorVertice = new int[grafoFD.numberOfVertices( )];
+			for( int v = 0; v < comparendosPorVertice.length; v++ )
+				comparendosPorVertice[v] = grafoFD.numberOfItemsOf( v );
+			return darReporteGrafo( grafoFD );
+		}
+		catch( BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e )
+		{
+			throw new IllegalStateException( "El snapshot " + rutaArchivo + " est corrupto", e );
+		}
 	}
 
 	/**
-	 * Carga el grafo a partir de un archivo JSON.
-	 * @param rutaArchivo Archivo JSON de donde sacar la informacin del grafo.
-	 *                    rutaArchivo != "", != null
-	 * @return Cadena con la cantidad de vertices y arcos creados como reporte.
-	 * @throws IOException Si hay un problema de lectura en el archivo JSON.
+	 * Retorna la posicin de la cadena dada dentro de la tabla de cadenas del
+	 * snapshot, aadindola si no estaba.
+	 * @return Posicin de la cadena en la tabla, -1 si la cadena es null.
 	 */
-	public String cargarGrafoDeJSON( String rutaArchivo ) throws IOException
+	private static int posicionEnTabla( String cadena, HashMap<String, Integer> posiciones, ArrayList<byte[]> tabla )
 	{
-		byte[] jsonData = Files.readAllBytes( Paths.get( rutaArchivo ) );
+		if( cadena == null )
+			return -1;
 
-		grafoJS = new UndirectedGraph<>( grafoFD.numberOfVertices( ) );
-
-		int id, idAdyacente;
-		double[] coord;
-		double costo;
-
-		ObjectMapper mapper = new ObjectMapper( );
-		JsonNode n = mapper.readTree( jsonData ), vertice;
-		Iterator<JsonNode> d = n.get( "vertices" ).elements( );
-		while( d.hasNext( ) )
+		Integer posicion = posiciones.get( cadena );
+		if( posicion == null )
 		{
-			vertice = d.next( );
-			id = vertice.get( "id" ).asInt( );
-			coord = DeserializadorJSON.transformarJsonArray( vertice.get( "coordenadas" ) );
-			grafoJS.setVertexInfo( id, coord[0] + "," + coord[1] );
-
-			for( JsonNode adyacencia : vertice.get( "adyacencias" ) )
-			{
-				idAdyacente = adyacencia.get( "id" ).asInt( );
-				costo = adyacencia.get( "costo" ).asDouble( );
-
-				grafoJS.addEdge( id, idAdyacente, costo );
-			}
+			posicion = tabla.size( );
+			posiciones.put( cadena, posicion );
+			tabla.add( cadena.getBytes( StandardCharsets.UTF_8 ) );
 		}
+		return posicion;
+	}
 
-		return darReporteGrafo( grafoJS );
+	/**
+	 * @return Cadena de la tabla en la posicin dada, null si la posicin es -1.
+	 */
+	private static String cadenaEnTabla( String[] tabla, int posicion )
+	{
+		return posicion == -1 ? null : tabla[posicion];
 	}
 
 	// ------------------------------------------------------------------------------------------------------------
@@ -501,11 +1498,26 @@ public class Modelo
 	public String caminoDeCostoMinimoDistancia( double latitudOr, double longitudOr, double latitudDes,
 			double longitudDes ) throws IOException
 	{
-		int verticeOrigen = darVerticeMasCercanoA( latitudOr, longitudOr, 0.05 );
-		int verticeDestino = darVerticeMasCercanoA( latitudDes, longitudDes, 0.05 );
-		DijkstrasShortestPath dsp = new DijkstrasShortestPath( grafoFD, CostType.DOUBLE );
-		double costoMinimo = dsp.dijkstra( verticeOrigen, verticeDestino );
-		Iterable<Integer> camino = dsp.reconstructPath( verticeOrigen, verticeDestino );
+		int verticeOrigen = darVerticeMasCercanoA( latitudOr, longitudOr );
+		int verticeDestino = darVerticeMasCercanoA( latitudDes, longitudDes );
+		double costoMinimo;
+		Iterable<Integer> camino;
+		if( jerarquiaDistancia != null )
+		{
+			costoMinimo = jerarquiaDistancia.query( verticeOrigen, verticeDestino );
+			camino = jerarquiaDistancia.reconstructPath( verticeOrigen, verticeDestino );
+		}
+		else if( motorLandmarksDistancia != null )
+		{
+			costoMinimo = motorLandmarksDistancia.alt( verticeOrigen, verticeDestino );
+			camino = motorLandmarksDistancia.reconstructPath( verticeOrigen, verticeDestino );
+		}
+		else
+		{
+			DijkstrasShortestPath dsp = darMotorDeRutas( CostType.DOUBLE );
+			costoMinimo = dsp.bidirectionalDijkstra( verticeOrigen, verticeDestino );
+			camino = dsp.reconstructPath( verticeOrigen, verticeDestino );
+		}
 		int tamanio = 0;
 		Iterator<Integer> i = camino.iterator( ); 
 		while( i.hasNext( ) )
@@ -528,10 +1540,10 @@ public class Modelo
 		reporte += "Costo mnimo: " + costoMinimo + " comparendos\n";
 		
 		UndirectedGraph<?, ?, ?> g = crearGrafoDeDijkstra( camino );
-		Iterator<String> iter = g.edgesWithCost( );
+		UndirectedGraph<?, ?, ?>.EdgeCursor arco = g.edgeCursor( );
 		double distancia = 0;
-		while( iter.hasNext( ) )
-			distancia += Double.valueOf( iter.next( ).split( "," )[2] );
+		while( arco.next( ) )
+			distancia += arco.doubleCost( );
 		
 		reporte += "Distancia total: " + distancia + " km\n";
 		
@@ -562,8 +1574,8 @@ public class Modelo
 			siguiente = iter.next( );
 			y++;
 			g.addEdge( x, y, grafoFD.getEdgeDoubleCost( anterior, siguiente ) ); 
-			g.setVertexInfo( x, grafoFD.getVertexInfo( anterior ) );
-			g.setVertexInfo( y, grafoFD.getVertexInfo( siguiente ) );
+			g.setVertexCoordinates( x, grafoFD.getVertexLatitude( anterior ), grafoFD.getVertexLongitude( anterior ) );
+			g.setVertexCoordinates( y, grafoFD.getVertexLatitude( siguiente ), grafoFD.getVertexLongitude( siguiente ) );
 			anterior = siguiente;
 			x = y;
 		}
@@ -583,17 +1595,16 @@ public class Modelo
 		int i = -1;
 		while( ++i < g.numberOfVertices( ) )
 		{
-			String infoVertice = g.getVertexInfo( i );
-			String latitud1 = infoVertice.split( "," )[1];
-			String longitud1 = infoVertice.split( "," )[0];
+			double latitud1 = g.getVertexLatitude( i );
+			double longitud1 = g.getVertexLongitude( i );
 
 			w = pintarUnCirculo( w, VALOR_RADIO / 4, colores[0], latitud1, longitud1 );
 
 			// Se itera sobre las adyacencias.
 			for( Edge e : g.edgesAdjacentTo( i ) )
 			{
-				String latitud2 = g.getVertexInfo( e.other( i ) ).split( "," )[1];
-				String longitud2 = g.getVertexInfo( e.other( i ) ).split( "," )[0];
+				double latitud2 = g.getVertexLatitude( e.other( i ) );
+				double longitud2 = g.getVertexLongitude( e.other( i ) );
 				w = pintarUnaLinea( w, colores[0], latitud1, longitud1, latitud2, longitud2 );
 				w = pintarUnCirculo( w, VALOR_RADIO / 8, colores[0], latitud2, longitud2 );
 			}
@@ -658,7 +1669,8 @@ public class Modelo
 		{
 			Comparendo actual = comparendos.poll( );
 			polleados.add( actual );
-			g.setVertexInfo( k, grafoFD.getVertex( actual.darIdVertex( ) ).getInfo( ) );
+			g.setVertexCoordinates( k, grafoFD.getVertexLatitude( actual.darIdVertex( ) ),
+					grafoFD.getVertexLongitude( actual.darIdVertex( ) ) );
 			k++;
 		}
 		
@@ -667,13 +1679,13 @@ public class Modelo
 		
 		for( int i = 0; i < M; i++ )
 		{
-			double latitud1 = Double.parseDouble( g.getVertexInfo( i ).split( "," )[1] );
-			double longitud1 = Double.parseDouble( g.getVertexInfo( i ).split( "," )[0] );
+			double latitud1 = g.getVertexLatitude( i );
+			double longitud1 = g.getVertexLongitude( i );
 
 			for( int j = i + 1; j < M; j++ )
 			{
-				double latitud2 = Double.parseDouble( g.getVertexInfo( j ).split( "," )[1] );
-				double longitud2 = Double.parseDouble( g.getVertexInfo( j ).split( "," )[0] );
+				double latitud2 = g.getVertexLatitude( j );
+				double longitud2 = g.getVertexLongitude( j );
 				double distancia = Haversine.distance( latitud1, longitud1, latitud2, longitud2 );
 				g.addEdge( i, j, distancia );
 			}
@@ -693,11 +1705,26 @@ public class Modelo
 	public String caminoDeCostoMinimoNumeroComparendos( double latitudOr, double longitudOr, double latitudDes,
 			double longitudDes ) throws IOException
 	{
-		int verticeOrigen = darVerticeMasCercanoA( latitudOr, longitudOr, 0.05 );
-		int verticeDestino = darVerticeMasCercanoA( latitudDes, longitudDes, 0.05 );
-		DijkstrasShortestPath dsp = new DijkstrasShortestPath( grafoFD, CostType.INTEGER );
-		double costoMinimo = dsp.dijkstra( verticeOrigen, verticeDestino );
-		Iterable<Integer> camino = dsp.reconstructPath( verticeOrigen, verticeDestino );
+		int verticeOrigen = darVerticeMasCercanoA( latitudOr, longitudOr );
+		int verticeDestino = darVerticeMasCercanoA( latitudDes, longitudDes );
+		double costoMinimo;
+		Iterable<Integer> camino;
+		if( jerarquiaComparendos != null )
+		{
+			costoMinimo = jerarquiaComparendos.query( verticeOrigen, verticeDestino );
+			camino = jerarquiaComparendos.reconstructPath( verticeOrigen, verticeDestino );
+		}
+		else if( motorLandmarksComparendos != null )
+		{
+			costoMinimo = motorLandmarksComparendos.alt( verticeOrigen, verticeDestino );
+			camino = motorLandmarksComparendos.reconstructPath( verticeOrigen, verticeDestino );
+		}
+		else
+		{
+			DijkstrasShortestPath dsp = darMotorDeRutas( CostType.INTEGER );
+			costoMinimo = dsp.bidirectionalDijkstra( verticeOrigen, verticeDestino );
+			camino = dsp.reconstructPath( verticeOrigen, verticeDestino );
+		}
 		int tamanio = 0;
 		Iterator<Integer> i = camino.iterator( ); 
 		while( i.hasNext( ) )
@@ -720,10 +1747,10 @@ public class Modelo
 		reporte += "Costo mnimo: " + costoMinimo + " comparendos\n";
 		
 		UndirectedGraph<?, ?, ?> g = crearGrafoDeDijkstra( camino );
-		Iterator<String> iter = g.edgesWithCost( );
+		UndirectedGraph<?, ?, ?>.EdgeCursor arco = g.edgeCursor( );
 		double distancia = 0;
-		while( iter.hasNext( ) )
-			distancia += Double.valueOf( iter.next( ).split( "," )[2] );
+		while( arco.next( ) )
+			distancia += arco.doubleCost( );
 		
 		reporte += "Distancia total: " + distancia + " km\n";
 		
@@ -755,17 +1782,20 @@ public class Modelo
 		UndirectedGraph<?, ?, ?> g = new UndirectedGraph<>( M );
 
 		for( int i = 0; i < M; i++ )
-			g.setVertexInfo( i, mayorNumeroComparendosCiudad.poll( ).getInfo( ) );
+		{
+			int id = mayorNumeroComparendosCiudad.poll( ).getId( );
+			g.setVertexCoordinates( i, grafoFD.getVertexLatitude( id ), grafoFD.getVertexLongitude( id ) );
+		}
 
 		for( int i = 0; i < M; i++ )
 		{
-			double latitud1 = Double.parseDouble( g.getVertexInfo( i ).split( "," )[1] );
-			double longitud1 = Double.parseDouble( g.getVertexInfo( i ).split( "," )[0] );
+			double latitud1 = g.getVertexLatitude( i );
+			double longitud1 = g.getVertexLongitude( i );
 
 			for( int j = i + 1; j < M; j++ )
 			{
-				double latitud2 = Double.parseDouble( g.getVertexInfo( j ).split( "," )[1] );
-				double longitud2 = Double.parseDouble( g.getVertexInfo( j ).split( "," )[0] );
+				double latitud2 = g.getVertexLatitude( j );
+				double longitud2 = g.getVertexLongitude( j );
 				double distancia = Haversine.distance( latitud1, longitud1, latitud2, longitud2 );
 				g.addEdge( i, j, distancia );
 			}
@@ -818,12 +1848,12 @@ public class Modelo
 		// Se itera sobre los vertices.
 		for( Edge<?, ?, ?> e : arbol )
 		{
-			String latitud1 = g.getVertexInfo( e.either( ) ).split( "," )[1];
-			String longitud1 = g.getVertexInfo( e.either( ) ).split( "," )[0];
+			double latitud1 = g.getVertexLatitude( e.either( ) );
+			double longitud1 = g.getVertexLongitude( e.either( ) );
 			w = pintarUnCirculo( w, VALOR_RADIO, colores[0], latitud1, longitud1 );
 
-			String latitud2 = g.getVertexInfo( e.other( e.either( ) ) ).split( "," )[1];
-			String longitud2 = g.getVertexInfo( e.other( e.either( ) ) ).split( "," )[0];
+			double latitud2 = g.getVertexLatitude( e.other( e.either( ) ) );
+			double longitud2 = g.getVertexLongitude( e.other( e.either( ) ) );
 
 			w = pintarUnCirculo( w, VALOR_RADIO, colores[0], latitud2, longitud2 );
 
@@ -838,50 +1868,80 @@ public class Modelo
 	// PARTE C
 	// ---------------------------------------------------------------------------------------------------------------------------
 	/**
-	 * PARTE C. Punto 1.
-	 * @return Grafo de las zonas de impacto.
-	 * @throws IOException Si hay un problema de lectura de archivos.
+	 * PARTE C. Punto 1. La estacin ms cercana por la red a cada uno de los M
+	 * comparendos ms graves sale de las zonas de las estaciones, y el camino sale
+	 * del rbol de caminos ms cortos de esa estacin. Los rboles se guardan en
+	 * un cach, as que se construyen a lo sumo tantos rboles como estaciones.
+	 * @param M Nmero de comparendos. M > 0
+	 * @return Reporte con la estacin, la distancia y el tamao de cada camino.
+	 * @throws IOException           Si hay un problema de lectura de archivos.
+	 * @throws IllegalStateException Si no se han cargado el grafo y las estaciones.
 	 */
 	public String CaminosMasCortosParaComparendosMasGraves( int M ) throws IOException
 	{
-		UndirectedGraph<?, ?, Integer> g = new UndirectedGraph<>(
-				NUMERO_ESTACIONES_POLICIA + grafoFD.numberOfVertices( ) );
-		Comparendo actual;
-		String reporte = "";
-		int i = 0;
-		while( i < comparendos.getSize( ) && i < M )
+		Stopwatch timer = new Stopwatch( );
+		MultiSourceShortestPaths zonas = darZonasDeEstaciones( );
+		ShortestPathTreeCache arboles = darArbolesDeEstaciones( );
+		int construidos = arboles.misses( ), reutilizados = arboles.hits( );
+
+		ArrayList<Comparendo> polleados = darComparendosMasGraves( M );
+
+		// Cada vrtice de los caminos se agrega a g una sola vez, y cada arco tambin.
+		// Las tablas crecen con los caminos y no con el tamao de grafoFD.
+		IntIntHashMap posicionEnG = new IntIntHashMap( );
+		ArrayList<int[]> arcosEnG = new ArrayList<>( );
+		LongIntHashMap arcosAgregados = new LongIntHashMap( );
+		String detalle = "";
+		for( Comparendo c : polleados )
 		{
-			actual = comparendos.peekPosition( i );
-			int idVertex = actual.darIdVertex( );
-
-			int idEstacionMasCercana = -1;
-			double distanciaMenor = 10000.0;
-			double latitud = Double.parseDouble( grafoFD.getVertexInfo( idVertex ).split( "," )[1] );
-			double longitud = Double.parseDouble( grafoFD.getVertexInfo( idVertex ).split( "," )[0] );
-
-			// Se busca la estacin cuya distancia sea la menor.
-			for( int j = 0; j < NUMERO_ESTACIONES_POLICIA; j++ )
+			int idVertex = c.darIdVertex( );
+			if( !zonas.hasPathTo( idVertex ) )
 			{
-				double distanciaActual = Haversine.distance( Double.parseDouble( g.getVertexInfo( j ).split( "," )[1] ),
-						Double.parseDouble( g.getVertexInfo( j ).split( "," )[0] ), latitud, longitud );
-
-				if( distanciaActual < distanciaMenor )
-				{
-					distanciaMenor = distanciaActual;
-					idEstacionMasCercana = j;
-				}
+				detalle += "\tComparendo " + c.darId( ) + " (vrtice " + idVertex
+						+ "): ninguna estacin llega por la red\n";
+				continue;
 			}
-			Stopwatch timer = new Stopwatch( );
-			Dijkstra dij = new Dijkstra( grafoFD, idEstacionMasCercana, idVertex );
-			@SuppressWarnings( "unchecked" )
-			UndirectedGraph<?, ?, Integer> grafo = dij.crearGrafo( grafoFD, idVertex );
-			reporte += "Tiempo que toma el algoritmo en crear el grafo: " + timer.elapsedTime( ) + " ms\n";
-			pintarCaminosCortosGoogleMaps( grafo );
-			for( int j = 0; j < g.numberOfVertices( ); j++ )
+
+			int estacion = zonas.sourceOf( idVertex );
+			ShortestPathTree arbol = arboles.get( zonas.source( estacion ), CostType.DOUBLE );
+			int tamanio = 0, anterior = -1;
+			for( int v : arbol.pathTo( idVertex ) )
 			{
-				reporte += "Vertices:" + g.getVertex( j ).getId( );
+				tamanio++;
+				if( !posicionEnG.containsKey( v ) )
+					posicionEnG.put( v, posicionEnG.size( ) );
+				if( anterior != -1
+						&& arcosAgregados.put( ( long ) Math.min( anterior, v ) * grafoFD.numberOfVertices( )
+								+ Math.max( anterior, v ), 1 ) )
+					arcosEnG.add( new int[] { anterior, v } );
+				anterior = v;
 			}
+			EstacionPolicia e = estaciones.peekPosition( estacion );
+			detalle += "\tComparendo " + c.darId( ) + " (vrtice " + idVertex + "): estacin " + e.darId( ) + " a "
+					+ String.format( "%.3f", arbol.distTo( idVertex ) ) + " km, " + tamanio + " vrtices\n";
 		}
+
+		int n = posicionEnG.size( );
+		UndirectedGraph<?, ?, Integer> g = new UndirectedGraph<>( n );
+		for( int s = 0; s < posicionEnG.capacity( ); s++ )
+			if( posicionEnG.usedAt( s ) )
+			{
+				int v = posicionEnG.keyAt( s );
+				g.setVertexCoordinates( posicionEnG.valueAt( s ), grafoFD.getVertexLatitude( v ),
+						grafoFD.getVertexLongitude( v ) );
+			}
+		for( int[] arco : arcosEnG )
+			g.addEdge( posicionEnG.get( arco[0], -1 ), posicionEnG.get( arco[1], -1 ),
+					grafoFD.getEdgeDoubleCost( arco[0], arco[1] ) );
+
+		String reporte = "Tiempo que toma el algoritmo en encontrar los caminos: " + timer.elapsedTime( ) + " ms\n";
+		reporte += "rboles de estaciones construidos: " + ( arboles.misses( ) - construidos ) + ", reutilizados: "
+				+ ( arboles.hits( ) - reutilizados ) + "\n";
+		reporte += "Caminos desde la estacin ms cercana a los " + polleados.size( )
+				+ " comparendos ms graves:\n\n" + detalle;
+		reporte += "\nTotal de vrtices en los caminos: " + n + "\n";
+
+		pintarCaminosCortosGoogleMaps( g );
 		return reporte;
 	}
 
@@ -893,17 +1953,16 @@ public class Modelo
 		int i = -1;
 		while( ++i < g.numberOfVertices( ) )
 		{
-			String infoVertice = g.getVertexInfo( i );
-			String latitud1 = infoVertice.split( "," )[1];
-			String longitud1 = infoVertice.split( "," )[0];
+			double latitud1 = g.getVertexLatitude( i );
+			double longitud1 = g.getVertexLongitude( i );
 
 			w = pintarUnCirculo( w, VALOR_RADIO, colores[0], latitud1, longitud1 );
 
 			// Se itera sobre las adyacencias.
 			for( Edge<?, ?, Integer> e : g.edgesAdjacentTo( i ) )
 			{
-				String latitud2 = g.getVertexInfo( e.other( i ) ).split( "," )[1];
-				String longitud2 = g.getVertexInfo( e.other( i ) ).split( "," )[0];
+				double latitud2 = g.getVertexLatitude( e.other( i ) );
+				double longitud2 = g.getVertexLongitude( e.other( i ) );
 				w = pintarUnaLinea( w, colores[0], latitud1, longitud1, latitud2, longitud2 );
 				w = pintarUnCirculo( w, VALOR_RADIO / 2, colores[0], latitud2, longitud2 );
 			}
@@ -933,39 +1992,30 @@ public class Modelo
 		// NUMERO_ESTACIONES_POLICIA - 1.
 		for( int i = 0; i < NUMERO_ESTACIONES_POLICIA; i++ )
 		{
-			g.setVertexInfo( i,
-					estaciones.peekPosition( i ).darLongitud( ) + "," + estaciones.peekPosition( i ).darLatitud( ) );
+			g.setVertexCoordinates( i, estaciones.peekPosition( i ).darLatitud( ),
+					estaciones.peekPosition( i ).darLongitud( ) );
 			g.setVertexDistinctiveItem( i, 0 );
 		}
 
+		// La estacin de cada vrtice es la ms cercana por la red, calculada para
+		// todos los vrtices en un solo recorrido. Los vrtices a los que ninguna
+		// estacin llega no se asignan.
+		MultiSourceShortestPaths zonas = darZonasDeEstaciones( );
+
 		int i = -1;
 		int c = NUMERO_ESTACIONES_POLICIA; // Correccin para no sobreescribir ningn vrtice de g.
 		while( ++i < grafoFD.numberOfVertices( ) )
 		{
 			// Mientras que haya comparendos dentro de un vrtice.
-			if( grafoFD.numberOfItemsOf( i ) != 0 )
+			if( grafoFD.numberOfItemsOf( i ) != 0 && zonas.hasPathTo( i ) )
 			{
 				// Se agrega la informacin del vrtice.
-				g.setVertexInfo( i + c, grafoFD.getVertexInfo( i ) );
-
-				int idEstacionMasCercana = -1;
-				double distanciaMenor = 10000.0;
-				double latitud = Double.parseDouble( grafoFD.getVertexInfo( i ).split( "," )[1] );
-				double longitud = Double.parseDouble( grafoFD.getVertexInfo( i ).split( "," )[0] );
-
-				// Se busca la estacin cuya distancia sea la menor.
-				for( int j = 0; j < NUMERO_ESTACIONES_POLICIA; j++ )
-				{
-					double distanciaActual = Haversine.distance(
-							Double.parseDouble( g.getVertexInfo( j ).split( "," )[1] ),
-							Double.parseDouble( g.getVertexInfo( j ).split( "," )[0] ), latitud, longitud );
+				double latitud = grafoFD.getVertexLatitude( i );
+				double longitud = grafoFD.getVertexLongitude( i );
+				g.setVertexCoordinates( i + c, latitud, longitud );
 
-					if( distanciaActual < distanciaMenor )
-					{
-						distanciaMenor = distanciaActual;
-						idEstacionMasCercana = j;
-					}
-				}
+				int idEstacionMasCercana = zonas.sourceOf( i );
+				double distanciaMenor = zonas.distTo( i );
 
 				// Se agrega a la estacin el comparendo actual y el costo entero del arco que
 				// los une es el nmero de comparendos dentro del vrtice.
@@ -1018,9 +2068,8 @@ public class Modelo
 		int i = -1;
 		while( ++i < NUMERO_ESTACIONES_POLICIA )
 		{
-			String infoVertice = g.getVertexInfo( i );
-			String latitud1 = infoVertice.split( "," )[1];
-			String longitud1 = infoVertice.split( "," )[0];
+			double latitud1 = g.getVertexLatitude( i );
+			double longitud1 = g.getVertexLongitude( i );
 
 			// Se cuentan los comparendos contenidos en esta estacin.
 			double incrementador = 3 * ( 1 + 10 * g.getVertexDistinctiveItem( i ) / grafoFD.numberOfStoredItems( ) );
@@ -1030,8 +2079,8 @@ public class Modelo
 			// Se itera sobre las adyacencias.
 			for( Edge<?, ?, Integer> e : g.edgesAdjacentTo( i ) )
 			{
-				String latitud2 = g.getVertexInfo( e.other( i ) ).split( "," )[1];
-				String longitud2 = g.getVertexInfo( e.other( i ) ).split( "," )[0];
+				double latitud2 = g.getVertexLatitude( e.other( i ) );
+				double longitud2 = g.getVertexLongitude( e.other( i ) );
 				w = pintarUnaLinea( w, colores[i], latitud1, longitud1, latitud2, longitud2 );
 				w = pintarUnCirculo( w, VALOR_RADIO / 2, colores[i], latitud2, longitud2 );
 			}
@@ -1080,15 +2129,15 @@ public class Modelo
 		w.close( );
 	}
 
-	public FileWriter pintarUnCirculo( FileWriter w, double radio, String color, String latitud, String longitud )
+	public FileWriter pintarUnCirculo( FileWriter w, double radio, String color, double latitud, double longitud )
 			throws IOException
 	{
 		// Plantilla para construir un crculo.
 		String circuloBruto = CIRCULO_BRUTO.replace( "VALOR_RADIO", String.valueOf( radio ) );
 
 		ArrayList<String[]> remplazos = new ArrayList<String[]>( );
-		remplazos.add( new String[] { "LATITUD", latitud } );
-		remplazos.add( new String[] { "LONGITUD", longitud } );
+		remplazos.add( new String[] { "LATITUD", String.valueOf( latitud ) } );
+		remplazos.add( new String[] { "LONGITUD", String.valueOf( longitud ) } );
 		remplazos.add( new String[] { "VALOR_RADIO", String.valueOf( radio ) } );
 		remplazos.add( new String[] { "COLOR", color } );
 
@@ -1099,14 +2148,14 @@ public class Modelo
 		return w;
 	}
 
-	public FileWriter pintarUnaLinea( FileWriter w, String color, String latitud1, String longitud1, String latitud2,
-			String longitud2 ) throws IOException
+	public FileWriter pintarUnaLinea( FileWriter w, String color, double latitud1, double longitud1, double latitud2,
+			double longitud2 ) throws IOException
 	{
 		ArrayList<String[]> remplazos = new ArrayList<String[]>( );
-		remplazos.add( new String[] { "LATITUD_INICIO", latitud1 } );
-		remplazos.add( new String[] { "LONGITUD_INICIO", longitud1 } );
-		remplazos.add( new String[] { "LATITUD_FINAL", latitud2 } );
-		remplazos.add( new String[] { "LONGITUD_FINAL", longitud2 } );
+		remplazos.add( new String[] { "LATITUD_INICIO", String.valueOf( latitud1 ) } );
+		remplazos.add( new String[] { "LONGITUD_INICIO", String.valueOf( longitud1 ) } );
+		remplazos.add( new String[] { "LATITUD_FINAL", String.valueOf( latitud2 ) } );
+		remplazos.add( new String[] { "LONGITUD_FINAL", String.valueOf( longitud2 ) } );
 		remplazos.add( new String[] { "COLOR", color } );
 
 		String linea = construirComponente( LINEA_BRUTA, remplazos );
@@ -1129,87 +2178,502 @@ public class Modelo
 	// ---------------------------------------------------------------------------------------------------------------------------
 
 	/**
-	 * Retorna el id del vertice ms cercano a las coordenadas dadas por parmetro.
-	 * <b>pre:</b> grafoFD ya ha sido inicializado.
+	 * Retorna el id del vertice ms cercano a las coordenadas dadas por parmetro,
+	 * segn la distancia haversiana. <b>pre:</b> grafoFD ya ha sido inicializado.
 	 * @param latitud  Latitud a buscar ms cercana.
 	 * @param longitud Longitud a buscar ms cercana.
-	 * @param error    Tolerancia permitida en km.
 	 * @return id del vertice.
 	 */
-	public int darVerticeMasCercanoA( double latitud, double longitud, double error )
+	public int darVerticeMasCercanoA( double latitud, double longitud )
+	{
+		return indiceVertices.nearest( latitud, longitud );
+	}
+
+	/**
+	 * Retorna el id del vertice ms cercano a las coordenadas dadas por parmetro,
+	 * siempre y cuando est dentro del radio dado. <b>pre:</b> grafoFD ya ha sido
+	 * inicializado.
+	 * @param latitud  Latitud a buscar ms cercana.
+	 * @param longitud Longitud a buscar ms cercana.
+	 * @param radio    Distancia mxima permitida en km.
+	 * @return id del vertice, -1 si no hay ningn vrtice dentro del radio.
+	 */
+	public int darVerticeMasCercanoA( double latitud, double longitud, double radio )
+	{
+		return indiceVertices.nearest( latitud, longitud, radio );
+	}
+
+	/**
+	 * @return Grafo cargado a partir de las fuentes de datos o del snapshot, null
+	 *         si no se ha cargado.
+	 */
+	public UndirectedGraph<String, Comparendo, EstacionPolicia> darGrafoFuentesDeDatos( )
+	{
+		return grafoFD;
+	}
+
+	/**
+	 * @return Grafo cargado a partir de un archivo JSON o de una lista de arcos
+	 *         binaria, null si no se ha cargado.
+	 */
+	public UndirectedGraph<String, Comparendo, EstacionPolicia> darGrafoJSON( )
+	{
+		return grafoJS;
+	}
+
+	/**
+	 * Retorna el motor de caminos ms cortos de grafoFD para el tipo de costo dado,
+	 * construyndolo si an no existe. Como grafoFD est congelado, el motor lee
+	 * sus arreglos directamente y ve los costos actualizados con
+	 * actualizarCostosEnGrafo. <b>pre:</b> grafoFD ya ha sido inicializado.
+	 * @param tipo Tipo de costo. tipo = {DOUBLE, INTEGER}
+	 * @return Motor de caminos ms cortos.
+	 */
+	public DijkstrasShortestPath darMotorDeRutas( CostType tipo )
+	{
+		if( tipo == CostType.DOUBLE )
+		{
+			if( motorDistancia == null )
+				motorDistancia = new DijkstrasShortestPath( grafoFD, CostType.DOUBLE );
+			return motorDistancia;
+		}
+
+		if( motorComparendos == null )
+			motorComparendos = new DijkstrasShortestPath( grafoFD, CostType.INTEGER );
+		return motorComparendos;
+	}
+
+	/**
+	 * Retorna el motor A* de grafoFD, construyndolo si an no existe. Sirve para
+	 * las rutas por distancia porque el costo de tipo double de cada arco es la
+	 * distancia haversiana entre sus extremos. <b>pre:</b> grafoFD ya ha sido
+	 * inicializado.
+	 * @return Motor A*.
+	 */
+	public AStarShortestPath darMotorAEstrella( )
+	{
+		if( motorAEstrella == null )
+			motorAEstrella = new AStarShortestPath( grafoFD );
+		return motorAEstrella;
+	}
+
+	/**
+	 * Retorna la estacin ms cercana por la red (en km) a cada vrtice de grafoFD.
+	 * La fuente i corresponde a la estacin en la posicin i de estaciones. Se
+	 * calcula con un solo Dijkstra desde todas las estaciones la primera vez que se
+	 * pide.
+	 * @return Zonas de las estaciones.
+	 * @throws IllegalStateException Si no se han cargado el grafo y las estaciones.
+	 */
+	public MultiSourceShortestPaths darZonasDeEstaciones( ) throws IllegalStateException
+	{
+		if( grafoFD == null || estaciones == null )
+			throw new IllegalStateException( "Se debe cargar el grafo y las estaciones antes" );
+
+		if( zonasEstaciones == null )
+			zonasEstaciones = new MultiSourceShortestPaths( grafoFD, CostType.DOUBLE, darVerticesDeEstaciones( ) );
+		return zonasEstaciones;
+	}
+
+	/**
+	 * Retorna el cach de rboles de caminos ms cortos sobre grafoFD, crendolo si
+	 * an no existe. <b>pre:</b> grafoFD ya ha sido inicializado.
+	 * @return Cach de rboles.
+	 */
+	public ShortestPathTreeCache darArbolesDeEstaciones( )
 	{
-		for( double[] c : ultimas )
+		if( arbolesEstaciones == null )
+			arbolesEstaciones = new ShortestPathTreeCache( grafoFD, MEMORIA_ARBOLES );
+		return arbolesEstaciones;
+	}
+
+	/**
+	 * Retorna el servicio de rutas concurrente de grafoFD, crendolo si an no
+	 * existe. El servicio trabaja sobre una foto del grafo, as que se puede usar
+	 * desde varios hilos a la vez. <b>pre:</b> grafoFD ya ha sido inicializado.
+	 * @return Servicio de rutas.
+	 */
+	public RoutingService darServicioDeRutas( )
+	{
+		if( servicioRutas == null )
+			servicioRutas = new RoutingService( grafoFD );
+		return servicioRutas;
+	}
+
+	/**
+	 * Calcula en paralelo las rutas de costo mnimo de un lote de parejas de
+	 * coordenadas. Cada coordenada se asocia con el vrtice ms cercano de
+	 * grafoFD.
+	 * @param parejas Cada fila es { latitud origen, longitud origen, latitud
+	 *                destino, longitud destino }. parejas != null
+	 * @param t       Tipo de costo. t = {DOUBLE, INTEGER}
+	 * @return Rutas en el orden de las parejas.
+	 * @throws IllegalStateException Si no se ha cargado el grafo.
+	 */
+	public List<RoutingService.Route> calcularRutasEnLote( double[][] parejas, CostType t )
+			throws IllegalStateException
+	{
+		if( grafoFD == null )
+			throw new IllegalStateException( "Se debe cargar el grafo antes" );
+
+		ArrayList<RoutingService.Query> consultas = new ArrayList<>( parejas.length );
+		for( double[] p : parejas )
+			consultas.add( new RoutingService.Query( darVerticeMasCercanoA( p[0], p[1] ),
+					darVerticeMasCercanoA( p[2], p[3] ) ) );
+		return darServicioDeRutas( ).route( consultas, t );
+	}
+
+	/**
+	 * Calcula la distancia por la red (en km) de cada estacin de polica a cada
+	 * uno de los M comparendos ms graves, para analizar qu estaciones cubren los
+	 * comparendos. Se crece un solo rbol por estacin, y las estaciones se
+	 * reparten entre varios hilos.
+	 * @param M Nmero de comparendos. M > 0
+	 * @return Matriz m con m[i][j] la distancia de la estacin en la posicin i de
+	 *         estaciones al j-simo comparendo ms grave,
+	 *         Double.POSITIVE_INFINITY si la estacin no llega a l.
+	 * @throws IllegalStateException Si no se han cargado el grafo y las estaciones.
+	 */
+	public double[][] matrizDeDistanciasEstacionesAComparendos( int M ) throws IllegalStateException
+	{
+		if( grafoFD == null || estaciones == null )
+			throw new IllegalStateException( "Se debe cargar el grafo y las estaciones antes" );
+
+		ArrayList<Comparendo> graves = darComparendosMasGraves( M );
+		int[] vertices = new int[graves.size( )];
+		for( int j = 0; j < vertices.length; j++ )
+			vertices[j] = graves.get( j ).darIdVertex( );
+		if( matrizDistancias == null )
+			matrizDistancias = new DistanceMatrix( grafoFD, CostType.DOUBLE );
+		return matrizDistancias.compute( darVerticesDeEstaciones( ), vertices );
+	}
+
+	/**
+	 * Saca los M comparendos ms graves del heap y luego los devuelve.
+	 * @param M Nmero de comparendos. M > 0
+	 * @return Los comparendos, del ms grave al menos grave.
+	 */
+	private ArrayList<Comparendo> darComparendosMasGraves( int M )
+	{
+		ArrayList<Comparendo> polleados = new ArrayList<>( );
+		while( !comparendos.isEmpty( ) && polleados.size( ) < M )
+			polleados.add( comparendos.poll( ) );
+		for( Comparendo c : polleados )
+			comparendos.insert( c );
+		return polleados;
+	}
+
+	/**
+	 * @return Vrtice de grafoFD ms cercano a cada estacin, en el orden de
+	 *         estaciones.
+	 */
+	private int[] darVerticesDeEstaciones( )
+	{
+		int[] vertices = new int[estaciones.getSize( )];
+		for( int i = 0; i < vertices.length; i++ )
 		{
-			if( Haversine.distance( latitud, longitud, c[1], c[0] ) <= error )
-				return ( int ) c[2];
+			EstacionPolicia e = estaciones.peekPosition( i );
+			vertices[i] = darVerticeMasCercanoA( e.darLatitud( ), e.darLongitud( ) );
 		}
+		return vertices;
+	}
+
+	/**
+	 * Construye los motores ALT de ambos tipos de costo. Los landmarks son los
+	 * vrtices ms cercanos a las estaciones de polica ms
+	 * NUMERO_LANDMARKS_ADICIONALES vrtices escogidos como los ms lejanos de los
+	 * anteriores. Se deben construir despus de actualizarCostosEnGrafo.
+	 * @return Reporte con el tiempo de preprocesamiento y la memoria de las tablas.
+	 * @throws IllegalStateException Si no se han cargado el grafo y las estaciones.
+	 */
+	public String construirLandmarks( ) throws IllegalStateException
+	{
+		if( grafoFD == null || estaciones == null )
+			throw new IllegalStateException( "Se debe cargar el grafo y las estaciones antes" );
+
+		int[] semillas = darVerticesDeEstaciones( );
 
-		int idVerticeMasCercano = -1, idActual;
+		Stopwatch timer = new Stopwatch( );
+		motorLandmarksDistancia = new LandmarkShortestPath( grafoFD, CostType.DOUBLE, semillas,
+				NUMERO_LANDMARKS_ADICIONALES );
+		double tiempoDistancia = timer.elapsedTime( );
+		timer = new Stopwatch( );
+		motorLandmarksComparendos = new LandmarkShortestPath( grafoFD, CostType.INTEGER, semillas,
+				NUMERO_LANDMARKS_ADICIONALES );
+		double tiempoComparendos = timer.elapsedTime( );
+
+		return "Landmarks por distancia: " + motorLandmarksDistancia.landmarks( ).length + " landmarks en "
+				+ String.format( "%.0f", tiempoDistancia ) + " ms, "
+				+ String.format( "%.1f", motorLandmarksDistancia.tableSize( ) / 1048576.0 ) + " MB\n"
+				+ "Landmarks por comparendos: " + motorLandmarksComparendos.landmarks( ).length + " landmarks en "
+				+ String.format( "%.0f", tiempoComparendos ) + " ms, "
+				+ String.format( "%.1f", motorLandmarksComparendos.tableSize( ) / 1048576.0 ) + " MB\n";
+	}
 
-		double distanciaMenor = 10000.0, longitudA, latitudA, distanciaActual;
-		String verticeRepresentanteGrupo = null;
+	/**
+	 * Guarda las tablas de los motores ALT en el archivo dado, para no tener que
+	 * construirlas en la siguiente ejecucin. El formato es: firma, versin, tamao
+	 * total del archivo y las tablas por distancia y por comparendos (ver
+	 * LandmarkShortestPath.writeTables).
+	 * @param rutaArchivo Ruta del archivo. rutaArchivo != null, != ""
+	 * @throws IOException           Si hay un problema escribiendo el archivo.
+	 * @throws IllegalStateException Si no se han construido los landmarks.
+	 */
+	public void guardarLandmarks( String rutaArchivo ) throws IOException, IllegalStateException
+	{
+		if( motorLandmarksDistancia == null || motorLandmarksComparendos == null )
+			throw new IllegalStateException( "Se deben construir los landmarks antes" );
 
-		// Se busca la agrupacin cuyo vrtice representante est ms cerca de la
-		// latitud y longitud dadas por parmetro.
-		for( String verticeRepresentante : agrupacionesVertices )
+		long tamanio = 4 + 4 + 8 + motorLandmarksDistancia.tableSize( ) + motorLandmarksComparendos.tableSize( );
+		Files.deleteIfExists( Paths.get( rutaArchivo ) );
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE ) )
 		{
-			longitudA = Double.parseDouble( verticeRepresentante.split( "," )[0] );
-			latitudA = Double.parseDouble( verticeRepresentante.split( "," )[1] );
-			distanciaActual = Haversine.distance( latitud, longitud, latitudA, longitudA );
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_WRITE, 0, tamanio );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+			buffer.putInt( LANDMARKS_FIRMA );
+			buffer.putInt( LANDMARKS_VERSION );
+			buffer.putLong( tamanio );
+			motorLandmarksDistancia.writeTables( buffer );
+			motorLandmarksComparendos.writeTables( buffer );
+			buffer.force( );
+		}
+	}
 
-			if( distanciaActual < distanciaMenor )
-			{
-				distanciaMenor = distanciaActual;
-				verticeRepresentanteGrupo = verticeRepresentante;
-			}
+	/**
+	 * Carga las tablas de los motores ALT guardadas con guardarLandmarks.
+	 * <b>pre:</b> grafoFD ya ha sido inicializado con los mismos costos con los
+	 * que se construyeron las tablas.
+	 * @param rutaArchivo Ruta del archivo. rutaArchivo != null, != ""
+	 * @return Reporte con el nmero de landmarks cargados.
+	 * @throws IOException           Si hay un problema leyendo el archivo.
+	 * @throws IllegalStateException Si el archivo no tiene tablas vlidas o no
+	 *                               corresponden al grafo o a sus costos actuales.
+	 */
+	public String cargarLandmarks( String rutaArchivo ) throws IOException, IllegalStateException
+	{
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.READ ) )
+		{
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_ONLY, 0, canal.size( ) );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+
+			if( canal.size( ) < 16 || buffer.getInt( ) != LANDMARKS_FIRMA || buffer.getInt( ) != LANDMARKS_VERSION )
+				throw new IllegalStateException( "El archivo " + rutaArchivo + " no tiene tablas de landmarks" );
+			if( buffer.getLong( ) != canal.size( ) )
+				throw new IllegalStateException( "Las tablas de landmarks de " + rutaArchivo + " estn incompletas" );
+
+			LandmarkShortestPath distancia = LandmarkShortestPath.readTables( buffer, grafoFD );
+			LandmarkShortestPath comparendos = LandmarkShortestPath.readTables( buffer, grafoFD );
+			if( distancia.costType( ) != CostType.DOUBLE || comparendos.costType( ) != CostType.INTEGER )
+				throw new IllegalStateException( "Las tablas de landmarks de " + rutaArchivo + " estn en desorden" );
+
+			motorLandmarksDistancia = distancia;
+			motorLandmarksComparendos = comparendos;
+			return "Landmarks cargados: " + distancia.landmarks( ).length + " por distancia y "
+					+ comparendos.landmarks( ).length + " por comparendos\n";
+		}
+		catch( BufferUnderflowException e )
+		{
+			throw new IllegalStateException( "Las tablas de landmarks de " + rutaArchivo + " estn incompletas" );
 		}
+	}
 
-		// Se itera entre los vrtices de la agrupacin ms cercana y se aade el
-		// comparendo al ms cercano.
-		distanciaMenor = 10000.0;
-		String infoVertice;
-		double longitudMenor = 0, latitudMenor = 0;
-		Iterator<Integer> iter = agrupacionesVertices.valuesOf( verticeRepresentanteGrupo );
-		while( iter.hasNext( ) )
+	/**
+	 * Construye las jerarquas de contraccin de ambos tipos de costo. Se deben
+	 * construir despus de actualizarCostosEnGrafo.
+	 * @return Reporte con el tiempo de preprocesamiento y el tamao de cada
+	 *         jerarqua.
+	 * @throws IllegalStateException Si no se ha cargado el grafo.
+	 */
+	public String construirJerarquias( ) throws IllegalStateException
+	{
+		if( grafoFD == null )
+			throw new IllegalStateException( "Se debe cargar el grafo antes" );
+
+		Stopwatch timer = new Stopwatch( );
+		jerarquiaDistancia = new ContractionHierarchy( grafoFD, CostType.DOUBLE );
+		double tiempoDistancia = timer.elapsedTime( );
+		timer = new Stopwatch( );
+		jerarquiaComparendos = new ContractionHierarchy( grafoFD, CostType.INTEGER );
+		double tiempoComparendos = timer.elapsedTime( );
+
+		return "Jerarqua por distancia: " + reporteJerarquia( jerarquiaDistancia, tiempoDistancia )
+				+ "Jerarqua por comparendos: " + reporteJerarquia( jerarquiaComparendos, tiempoComparendos );
+	}
+
+	/**
+	 * @return Reporte del tamao de la jerarqua dada y su tiempo de construccin.
+	 */
+	private static String reporteJerarquia( ContractionHierarchy jerarquia, double tiempo )
+	{
+		return jerarquia.shortcutCount( ) + " atajos, " + jerarquia.upwardEdgeCount( ) + " arcos hacia arriba, "
+				+ jerarquia.coreSize( ) + " vrtices en el ncleo, " + String.format( "%.0f", tiempo ) + " ms\n";
+	}
+
+	/**
+	 * Guarda las jerarquas de contraccin en el archivo dado, para no tener que
+	 * construirlas en la siguiente ejecucin. El formato es: firma, versin, tamao
+	 * total del archivo y las jerarquas por distancia y por comparendos (ver
+	 * ContractionHierarchy.writeStructure).
+	 * @param rutaArchivo Ruta del archivo. rutaArchivo != null, != ""
+	 * @throws IOException           Si hay un problema escribiendo el archivo.
+	 * @throws IllegalStateException Si no se han construido las jerarquas.
+	 */
+	public void guardarJerarquias( String rutaArchivo ) throws IOException, IllegalStateException
+	{
+		if( jerarquiaDistancia == null || jerarquiaComparendos == null )
+			throw new IllegalStateException( "Se deben construir las jerarquas antes" );
+
+		long tamanio = 4 + 4 + 8 + jerarquiaDistancia.structureSize( ) + jerarquiaComparendos.structureSize( );
+		Files.deleteIfExists( Paths.get( rutaArchivo ) );
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE ) )
 		{
-			idActual = iter.next( );
-			infoVertice = grafoFD.getVertexInfo( idActual );
-			longitudA = Double.parseDouble( infoVertice.split( "," )[0] );
-			latitudA = Double.parseDouble( infoVertice.split( "," )[1] );
-			distanciaActual = Haversine.distance( latitud, longitud, latitudA, longitudA );
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_WRITE, 0, tamanio );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+			buffer.putInt( JERARQUIAS_FIRMA );
+			buffer.putInt( JERARQUIAS_VERSION );
+			buffer.putLong( tamanio );
+			jerarquiaDistancia.writeStructure( buffer );
+			jerarquiaComparendos.writeStructure( buffer );
+			buffer.force( );
+		}
+	}
 
-			// Tolerancia.
-			if( distanciaActual <= error )
-			{
-				idVerticeMasCercano = idActual;
-				longitudMenor = longitudA;
-				latitudMenor = latitudA;
-				break;
-			}
+	/**
+	 * Carga las jerarquas de contraccin guardadas con guardarJerarquias.
+	 * <b>pre:</b> grafoFD ya ha sido inicializado con los mismos costos con los
+	 * que se construyeron las jerarquas.
+	 * @param rutaArchivo Ruta del archivo. rutaArchivo != null, != ""
+	 * @return Reporte con el tamao de las jerarquas cargadas.
+	 * @throws IOException           Si hay un problema leyendo el archivo.
+	 * @throws IllegalStateException Si el archivo no tiene jerarquas vlidas o no
+	 *                               corresponden al grafo o a sus costos actuales.
+	 */
+	public String cargarJerarquias( String rutaArchivo ) throws IOException, IllegalStateException
+	{
+		try( FileChannel canal = FileChannel.open( Paths.get( rutaArchivo ), StandardOpenOption.READ ) )
+		{
+			MappedByteBuffer buffer = canal.map( FileChannel.MapMode.READ_ONLY, 0, canal.size( ) );
+			buffer.order( ByteOrder.LITTLE_ENDIAN );
+
+			if( canal.size( ) < 16 || buffer.getInt( ) != JERARQUIAS_FIRMA || buffer.getInt( ) != JERARQUIAS_VERSION )
+				throw new IllegalStateException( "El archivo " + rutaArchivo + " no tiene jerarquas de contraccin" );
+			if( buffer.getLong( ) != canal.size( ) )
+				throw new IllegalStateException( "Las jerarquas de " + rutaArchivo + " estn incompletas" );
+
+			ContractionHierarchy distancia = ContractionHierarchy.readStructure( buffer, grafoFD );
+			ContractionHierarchy comparendos = ContractionHierarchy.readStructure( buffer, grafoFD );
+			if( distancia.costType( ) != CostType.DOUBLE || comparendos.costType( ) != CostType.INTEGER )
+				throw new IllegalStateException( "Las jerarquas de " + rutaArchivo + " estn en desorden" );
+
+			jerarquiaDistancia = distancia;
+			jerarquiaComparendos = comparendos;
+			return "Jerarquas cargadas: " + distancia.shortcutCount( ) + " atajos por distancia y "
+					+ comparendos.shortcutCount( ) + " por comparendos\n";
+		}
+		catch( BufferUnderflowException e )
+		{
+			throw new IllegalStateException( "Las jerarquas de " + rutaArchivo + " estn incompletas" );
+		}
+	}
+
+	/**
+	 * Compara los motores de rutas sobre las mismas parejas de vrtices aleatorios:
+	 * Dijkstra, Dijkstra bidireccional, A* (solo por distancia), ALT (si los
+	 * landmarks fueron construidos o cargados) y la jerarqua de contraccin (si
+	 * fue construida o cargada). Para cada uno reporta el tiempo promedio por
+	 * consulta, el nmero promedio de vrtices asentados y cuntas consultas dieron
+	 * un costo distinto al de Dijkstra.
+	 * @param consultas Nmero de parejas de vrtices. consultas > 0
+	 * @return Reporte de la comparacin.
+	 * @throws IllegalStateException Si no se ha cargado el grafo.
+	 */
+	public String compararMotoresDeRutas( int consultas ) throws IllegalStateException
+	{
+		if( grafoFD == null )
+			throw new IllegalStateException( "Se debe cargar el grafo antes" );
 
-			if( distanciaActual < distanciaMenor )
+		String reporte = "";
+		for( CostType tipo : CostType.values( ) )
+		{
+			DijkstrasShortestPath dijkstra = darMotorDeRutas( tipo );
+			AStarShortestPath aEstrella = tipo == CostType.DOUBLE ? darMotorAEstrella( ) : null;
+			LandmarkShortestPath alt = tipo == CostType.DOUBLE ? motorLandmarksDistancia : motorLandmarksComparendos;
+			ContractionHierarchy ch = tipo == CostType.DOUBLE ? jerarquiaDistancia : jerarquiaComparendos;
+
+			// Tiempo total (ns), vrtices asentados y diferencias de cada motor.
+			long[] tiempo = new long[5], asentados = new long[5];
+			int[] diferencias = new int[5];
+			Random r = new Random( 2020 );
+			for( int k = 0; k < consultas; k++ )
 			{
-				distanciaMenor = distanciaActual;
-				longitudMenor = longitudA;
-				latitudMenor = latitudA;
-				idVerticeMasCercano = idActual;
+				int s = r.nextInt( grafoFD.numberOfVertices( ) ), d = r.nextInt( grafoFD.numberOfVertices( ) );
+				long inicio = System.nanoTime( );
+				double esperado = dijkstra.dijkstra( s, d );
+				tiempo[0] += System.nanoTime( ) - inicio;
+				asentados[0] += dijkstra.settledCount( );
+
+				inicio = System.nanoTime( );
+				double costo = dijkstra.bidirectionalDijkstra( s, d );
+				tiempo[1] += System.nanoTime( ) - inicio;
+				asentados[1] += dijkstra.settledCount( );
+				diferencias[1] += costosDistintos( esperado, costo ) ? 1 : 0;
+
+				if( aEstrella != null )
+				{
+					inicio = System.nanoTime( );
+					costo = aEstrella.aStar( s, d );
+					tiempo[2] += System.nanoTime( ) - inicio;
+					asentados[2] += aEstrella.settledCount( );
+					diferencias[2] += costosDistintos( esperado, costo ) ? 1 : 0;
+				}
+
+				if( alt != null )
+				{
+					inicio = System.nanoTime( );
+					costo = alt.alt( s, d );
+					tiempo[3] += System.nanoTime( ) - inicio;
+					asentados[3] += alt.settledCount( );
+					diferencias[3] += costosDistintos( esperado, costo ) ? 1 : 0;
+				}
+
+				if( ch != null )
+				{
+					inicio = System.nanoTime( );
+					costo = ch.query( s, d );
+					tiempo[4] += System.nanoTime( ) - inicio;
+					asentados[4] += ch.settledCount( );
+					diferencias[4] += costosDistintos( esperado, costo ) ? 1 : 0;
+				}
 			}
-		}
 
-		if( ultimas.size( ) < 20 )
-			ultimas.add( new double[] { longitudMenor, latitudMenor, idVerticeMasCercano } );
-		else
-		{
-			if( z < ultimas.size( ) )
+			reporte += "Costo " + tipo + " (" + consultas + " consultas):\n";
+			String[] nombres = { "Dijkstra", "Bidireccional", "A*", "ALT", "CH" };
+			for( int i = 0; i < nombres.length; i++ )
 			{
-				ultimas.set( z, new double[] { longitudMenor, latitudMenor, idVerticeMasCercano } );
-				z++;
+				if( ( i == 2 && aEstrella == null ) || ( i == 3 && alt == null ) || ( i == 4 && ch == null ) )
+					continue;
+				reporte += String.format( "\t%-14s %8.3f ms/consulta %10d asentados/consulta %4d diferencias\n",
+						nombres[i], tiempo[i] / 1e6 / consultas, asentados[i] / consultas, diferencias[i] );
 			}
-			else
-				z = 0;
+			if( alt != null )
+				reporte += String.format( "\tALT: %d landmarks, %.1f MB\n", alt.landmarks( ).length,
+						alt.tableSize( ) / 1048576.0 );
+			if( ch != null )
+				reporte += String.format( "\tCH: %d atajos, %d vrtices en el ncleo\n", ch.shortcutCount( ),
+						ch.coreSize( ) );
 		}
+		return reporte;
+	}
 
-		return idVerticeMasCercano;
+	/**
+	 * @return True si los costos dados no son iguales (con una tolerancia para los
+	 *         errores de redondeo).
+	 */
+	private static boolean costosDistintos( double esperado, double costo )
+	{
+		return esperado != costo && Math.abs( esperado - costo ) > 1e-9 * Math.max( 1, esperado );
 	}
 
 	/**
@@ -1223,16 +2687,11 @@ public class Modelo
 			Comparendo mayor = null;
 			while( ++i < grafoFD.numberOfVertices( ) )
 			{
-				Iterator<Comparendo> iter = grafoFD.vertexItems( i );
-
-				if( mayor == null && iter.hasNext( ) )
-					mayor = iter.next( );
-
-				while( iter.hasNext( ) )
+				for( int k = 0; k < grafoFD.numberOfItemsOf( i ); k++ )
 				{
-					Comparendo c = iter.next( );
+					Comparendo c = grafoFD.vertexItem( i, k );
 
-					if( c.darId( ) > mayor.darId( ) )
+					if( mayor == null || c.darId( ) > mayor.darId( ) )
 						mayor = c;
 				}
 			}
@@ -1318,8 +2777,8 @@ public class Modelo
 	public String darInformacionDeVertice( int v )
 	{
 		String info = "\n\tID: " + v;
-		info += "\n\tLATITUD: " + grafoFD.getVertexInfo( v ).split( "," )[1];
-		info += "\n\tLONGITUD: " + grafoFD.getVertexInfo( v ).split( "," )[0] + "\n";
+		info += "\n\tLATITUD: " + grafoFD.getVertexLatitude( v );
+		info += "\n\tLONGITUD: " + grafoFD.getVertexLongitude( v ) + "\n";
 		return info;
 	}
 
@@ -1370,4 +2829,124 @@ public class Modelo
 		byte[] encoded = Files.readAllBytes( Paths.get( rutaArchivo ) );
 		return new String( encoded, StandardCharsets.UTF_8 );
 	}
+
+	/**
+	 * Acumula los vrtices y arcos ledos de un archivo del grafo para luego
+	 * construirlo de una sola vez.
+	 */
+	private static class ListaDeArcos
+	{
+		/**
+		 * Coordenadas de cada vrtice. La posicin es el ID del vrtice.
+		 */
+		private double[] latitudes = new double[1024], longitudes = new double[1024];
+
+		/**
+		 * Nmero de vrtices: uno ms que el mayor ID ledo.
+		 */
+		private int numeroVertices;
+
+		/**
+		 * Extremos y costos de tipo double e integer de cada arco ledo.
+		 */
+		private int[] desde = new int[1024], hasta = new int[1024], comparendos = new int[1024];
+		private double[] costos = new double[1024];
+
+		/**
+		 * Nmero de arcos ledos.
+		 */
+		private int numeroArcos;
+
+		/**
+		 * Aade un arco ledo.
+		 */
+		private void agregarArco( int v, int w, double costo, int costoComparendos )
+		{
+			if( numeroArcos == desde.length )
+			{
+				desde = Arrays.copyOf( desde, 2 * numeroArcos );
+				hasta = Arrays.copyOf( hasta, 2 * numeroArcos );
+				comparendos = Arrays.copyOf( comparendos, 2 * numeroArcos );
+				costos = Arrays.copyOf( costos, 2 * numeroArcos );
+			}
+			desde[numeroArcos] = v;
+			hasta[numeroArcos] = w;
+			costos[numeroArcos] = costo;
+			comparendos[numeroArcos] = costoComparendos;
+			numeroArcos++;
+		}
+
+		/**
+		 * Registra las coordenadas de un vrtice ledo.
+		 */
+		private void agregarVertice( int id, double latitud, double longitud )
+		{
+			if( id >= latitudes.length )
+			{
+				int capacidad = Math.max( 2 * latitudes.length, id + 1 );
+				latitudes = Arrays.copyOf( latitudes, capacidad );
+				longitudes = Arrays.copyOf( longitudes, capacidad );
+			}
+			latitudes[id] = latitud;
+			longitudes[id] = longitud;
+			numeroVertices = Math.max( numeroVertices, id + 1 );
+		}
+
+		/**
+		 * Construye el grafo congelado con los vrtices y arcos ledos.
+		 * @throws IllegalStateException Si un arco tiene un extremo que no es un
+		 *                               vrtice ledo.
+		 */
+		private UndirectedGraph<String, Comparendo, EstacionPolicia> construirGrafo( ) throws IllegalStateException
+		{
+			UndirectedGraph<String, Comparendo, EstacionPolicia> g = new UndirectedGraph<>( numeroVertices );
+			for( int v = 0; v < numeroVertices; v++ )
+				g.setVertexCoordinates( v, latitudes[v], longitudes[v] );
+
+			for( int i = 0; i < numeroArcos; i++ )
+				if( desde[i] < 0 || hasta[i] < 0 || desde[i] >= numeroVertices || hasta[i] >= numeroVertices )
+					throw new IllegalStateException(
+							"El arco " + desde[i] + " - " + hasta[i] + " tiene un extremo que no es un vrtice" );
+			g.addEdgesAndFreeze( desde, hasta, costos, comparendos, numeroArcos );
+			return g;
+		}
+	}
+
+	/**
+	 * Lote de comparendos que pasa por las etapas de la carga en pipeline.
+	 */
+	private static class LoteComparendos
+	{
+		/**
+		 * Marca de fin de flujo. Cada etapa la propaga a la siguiente al terminar.
+		 */
+		private static final LoteComparendos FIN = new LoteComparendos( -1 );
+
+		/**
+		 * Posicin del lote dentro del archivo.
+		 */
+		private final int secuencia;
+
+		/**
+		 * Comparendos del lote.
+		 */
+		private final Comparendo[] comparendos;
+
+		/**
+		 * Vrtice ms cercano de cada comparendo del lote.
+		 */
+		private final int[] vertices;
+
+		/**
+		 * Nmero de comparendos del lote.
+		 */
+		private int tamanio;
+
+		private LoteComparendos( int secuencia )
+		{
+			this.secuencia = secuencia;
+			comparendos = new Comparendo[secuencia < 0 ? 0 : TAMANIO_LOTE];
+			vertices = new int[secuencia < 0 ? 0 : TAMANIO_LOTE];
+		}
+	}
 }
\ No newline at end of file
@@ -35,7 +35,8 @@ public class View
 				"5. (C-1) Obtener los caminos ms cortos para que los policas puedan atender los M comparendos ms graves." );
 		System.out.println( "6. (C-2) Identificar las zonas de impacto de las estaciones de polica.\n" );
 
-		System.out.println( "7. Exit." );
+		System.out.println( "7. Comparar los motores de rutas.\n" );
+		System.out.println( "8. Exit." );
 		System.out.println( "" );
 		System.out.println( "Dar el nmero de opcin a resolver, luego oprimir tecla Return: (e.g., 1):" );
 	}
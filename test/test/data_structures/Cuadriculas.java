@@ -0,0 +1,179 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import model.data_structures.CostType;
+import model.data_structures.KdTree;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Grafos de prueba y verificaciones compartidos por los tests de los motores de
+ * caminos ms cortos.
+ * @author Camilo Martnez
+ */
+public class Cuadriculas
+{
+	/**
+	 * Probabilidad de que exista cada arco de la cuadrcula.
+	 */
+	public static final double PROBABILIDAD_ARCO = 0.85;
+
+	/**
+	 * Construye una cuadrcula congelada de lado x lado vrtices, donde el vrtice
+	 * i * lado + j se une con el de su derecha y con el de abajo con probabilidad
+	 * PROBABILIDAD_ARCO. Cada arco tiene un costo double aleatorio en [0.1, 1.1) y
+	 * un costo entero aleatorio en [0, 5]. Al final hay un vrtice aislado, el
+	 * lado * lado.
+	 * @param lado    Nmero de vrtices de cada lado. lado > 0
+	 * @param semilla Semilla de los nmeros aleatorios.
+	 * @return Cuadrcula de lado * lado + 1 vrtices.
+	 */
+	public static UndirectedGraph<String, Integer, Integer> cuadriculaAleatoria( int lado, long semilla )
+	{
+		return cuadriculaAleatoria( lado, 1, 0, semilla );
+	}
+
+	/**
+	 * Construye una cuadrcula como la de cuadriculaAleatoria( lado, semilla ),
+	 * donde adems el vrtice i * lado + j se une con el de abajo a la derecha con
+	 * la probabilidad dada, y que termina con el nmero dado de vrtices aislados.
+	 * @param lado                 Nmero de vrtices de cada lado. lado > 0
+	 * @param aislados             Nmero de vrtices aislados. aislados >= 0
+	 * @param probabilidadDiagonal Probabilidad de cada arco diagonal.
+	 * @param semilla              Semilla de los nmeros aleatorios.
+	 * @return Cuadrcula de lado * lado + aislados vrtices.
+	 */
+	public static UndirectedGraph<String, Integer, Integer> cuadriculaAleatoria( int lado, int aislados,
+			double probabilidadDiagonal, long semilla )
+	{
+		Random r = new Random( semilla );
+		int[] desde = new int[3 * lado * lado], hasta = new int[3 * lado * lado];
+		int m = 0;
+		for( int i = 0; i < lado; i++ )
+			for( int j = 0; j < lado; j++ )
+			{
+				int v = i * lado + j;
+				if( j + 1 < lado && r.nextDouble( ) < PROBABILIDAD_ARCO )
+				{
+					desde[m] = v;
+					hasta[m++] = v + 1;
+				}
+				if( i + 1 < lado && r.nextDouble( ) < PROBABILIDAD_ARCO )
+				{
+					desde[m] = v;
+					hasta[m++] = v + lado;
+				}
+				if( probabilidadDiagonal > 0 && i + 1 < lado && j + 1 < lado
+						&& r.nextDouble( ) < probabilidadDiagonal )
+				{
+					desde[m] = v;
+					hasta[m++] = v + lado + 1;
+				}
+			}
+
+		double[] costos = new double[m];
+		for( int k = 0; k < m; k++ )
+			costos[k] = 0.1 + r.nextDouble( );
+		int[] enteros = new int[m];
+		for( int k = 0; k < m; k++ )
+			enteros[k] = r.nextInt( 6 );
+
+		UndirectedGraph<String, Integer, Integer> grafo = new UndirectedGraph<>( lado * lado + aislados );
+		grafo.addEdgesAndFreeze( desde, hasta, costos, enteros, m );
+		return grafo;
+	}
+
+	/**
+	 * Construye una cuadrcula congelada de lado x lado vrtices alrededor de
+	 * Bogot, ligeramente desordenada, donde el vrtice i * lado + j se une con el
+	 * de su derecha y con el de abajo con probabilidad PROBABILIDAD_ARCO. El costo
+	 * double de cada arco es la distancia haversiana entre sus extremos.
+	 * @param lado    Nmero de vrtices de cada lado. lado > 0
+	 * @param semilla Semilla de los nmeros aleatorios.
+	 * @return Cuadrcula de lado * lado vrtices.
+	 */
+	public static UndirectedGraph<String, Integer, Integer> cuadriculaGeografica( int lado, long semilla )
+	{
+		Random r = new Random( semilla );
+		UndirectedGraph<String, Integer, Integer> grafo = new UndirectedGraph<>( lado * lado );
+		for( int i = 0; i < lado; i++ )
+			for( int j = 0; j < lado; j++ )
+				grafo.setVertexCoordinates( i * lado + j, 4.5 + 0.005 * i + r.nextDouble( ) * 0.001,
+						-74.2 + 0.005 * j + r.nextDouble( ) * 0.001 );
+
+		int[] desde = new int[2 * lado * lado], hasta = new int[2 * lado * lado];
+		double[] costos = new double[2 * lado * lado];
+		int m = 0;
+		for( int i = 0; i < lado; i++ )
+			for( int j = 0; j < lado; j++ )
+			{
+				int v = i * lado + j;
+				if( j + 1 < lado && r.nextDouble( ) < PROBABILIDAD_ARCO )
+				{
+					desde[m] = v;
+					hasta[m] = v + 1;
+					costos[m++] = distancia( grafo, v, v + 1 );
+				}
+				if( i + 1 < lado && r.nextDouble( ) < PROBABILIDAD_ARCO )
+				{
+					desde[m] = v;
+					hasta[m] = v + lado;
+					costos[m++] = distancia( grafo, v, v + lado );
+				}
+			}
+
+		grafo.addEdgesAndFreeze( desde, hasta, costos, m );
+		return grafo;
+	}
+
+	/**
+	 * Verifica que el camino reconstruido por un motor vaya desde el inicio hasta
+	 * el final y que la suma de los costos de sus arcos sea el costo esperado. Si
+	 * el costo esperado es infinito, el camino debe estar vaco.
+	 * @param g        Grafo del motor.
+	 * @param t        Tipo de costo del motor.
+	 * @param s        Vrtice de inicio.
+	 * @param d        Vrtice final.
+	 * @param esperado Costo mnimo entre s y d, segn Dijkstra.
+	 * @param camino   Camino reconstruido por el motor.
+	 */
+	public static void verificarCamino( UndirectedGraph<String, Integer, Integer> g, CostType t, int s, int d,
+			double esperado, Iterable<Integer> camino )
+	{
+		Iterator<Integer> iter = camino.iterator( );
+		if( esperado == Double.POSITIVE_INFINITY )
+		{
+			assertFalse( "El camino debera estar vaco", iter.hasNext( ) );
+			return;
+		}
+		int anterior = iter.next( );
+		assertEquals( "El camino debera empezar en el inicio", s, anterior );
+		double costo = 0;
+		while( iter.hasNext( ) )
+		{
+			int siguiente = iter.next( );
+			costo += t == CostType.DOUBLE ? g.getEdgeDoubleCost( anterior, siguiente )
+					: g.getEdgeIntegerCost( anterior, siguiente );
+			anterior = siguiente;
+		}
+		assertEquals( "El camino debera terminar en el final", d, anterior );
+		assertEquals( "El costo del camino no es el mnimo", esperado, costo, 1e-9 );
+	}
+
+	/**
+	 * @return Distancia haversiana en kilmetros entre los vrtices v y w.
+	 */
+	private static double distancia( UndirectedGraph<String, Integer, Integer> g, int v, int w )
+	{
+		double lat1 = g.getVertexLatitude( v ), lon1 = g.getVertexLongitude( v );
+		double lat2 = g.getVertexLatitude( w ), lon2 = g.getVertexLongitude( w );
+		double dLat = Math.toRadians( lat2 - lat1 );
+		double dLon = Math.toRadians( lon2 - lon1 );
+		double a = Math.pow( Math.sin( dLat / 2 ), 2 ) + Math.cos( Math.toRadians( lat1 ) )
+				* Math.cos( Math.toRadians( lat2 ) ) * Math.pow( Math.sin( dLon / 2 ), 2 );
+		return 2 * KdTree.EARTH_RADIUS * Math.atan2( Math.sqrt( a ), Math.sqrt( 1 - a ) );
+	}
+}
@@ -0,0 +1,73 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.AStarShortestPath;
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test del motor A* con heurstica geogrfica.
+ * @author Camilo Martnez
+ */
+public class TestAStarShortestPath
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 40;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Inicializa una cuadrcula geogrfica de LADO x LADO vrtices, donde el costo
+	 * de cada arco es la distancia haversiana entre sus extremos.
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaGeografica( LADO, 2020 );
+	}
+
+	@Test
+	public void TestSameCostAsDijkstra( )
+	{
+		AStarShortestPath aEstrella = new AStarShortestPath( grafo );
+		DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( grafo, CostType.DOUBLE );
+
+		Random r = new Random( 7 );
+		long asentadosDijkstra = 0, asentadosAEstrella = 0;
+		for( int k = 0; k < 200; k++ )
+		{
+			int s = r.nextInt( LADO * LADO ), d = r.nextInt( LADO * LADO );
+			double esperado = dijkstra.dijkstra( s, d );
+			asentadosDijkstra += dijkstra.settledCount( );
+			assertEquals( "El costo de A* no es el de Dijkstra", esperado, aEstrella.aStar( s, d ), 1e-9 );
+			asentadosAEstrella += aEstrella.settledCount( );
+			Cuadriculas.verificarCamino( grafo, CostType.DOUBLE, s, d, esperado, aEstrella.reconstructPath( s, d ) );
+		}
+
+		assertTrue( "A* debera asentar menos vrtices que Dijkstra", asentadosAEstrella < asentadosDijkstra );
+	}
+
+	@Test
+	public void TestInvalidNode( )
+	{
+		AStarShortestPath aEstrella = new AStarShortestPath( grafo );
+		try
+		{
+			aEstrella.aStar( 0, LADO * LADO );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
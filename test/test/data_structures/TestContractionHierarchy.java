@@ -0,0 +1,171 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.ContractionHierarchy;
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test de la jerarqua de contraccin.
+ * @author Camilo Martnez
+ */
+public class TestContractionHierarchy
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 30;
+
+	/**
+	 * Nmero de vrtices aislados que se agregan despus de la cuadrcula.
+	 */
+	public final int AISLADOS = 2;
+
+	/**
+	 * Probabilidad de cada arco diagonal de la cuadrcula.
+	 */
+	public final double PROBABILIDAD_DIAGONAL = 0.1;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Inicializa una cuadrcula aleatoria de LADO x LADO vrtices con algunas
+	 * diagonales, ms AISLADOS vrtices sin arcos.
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaAleatoria( LADO, AISLADOS, PROBABILIDAD_DIAGONAL, 2020 );
+	}
+
+	/**
+	 * Compara la jerarqua con Dijkstra sobre parejas aleatorias de vrtices,
+	 * incluyendo el costo del camino desempacado.
+	 */
+	private void probarContraDijkstra( UndirectedGraph<String, Integer, Integer> g, ContractionHierarchy ch,
+			CostType t )
+	{
+		DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( g, t );
+		Random r = new Random( 7 );
+		for( int k = 0; k < 300; k++ )
+		{
+			int s = r.nextInt( g.numberOfVertices( ) ), d = r.nextInt( g.numberOfVertices( ) );
+			double esperado = dijkstra.dijkstra( s, d );
+			assertEquals( "El costo de la jerarqua no es el de Dijkstra", esperado, ch.query( s, d ), 1e-9 );
+			Cuadriculas.verificarCamino( g, t, s, d, esperado, ch.reconstructPath( s, d ) );
+		}
+	}
+
+	@Test
+	public void TestSameCostAsDijkstra( )
+	{
+		for( CostType t : CostType.values( ) )
+		{
+			ContractionHierarchy ch = new ContractionHierarchy( grafo, t );
+			assertEquals( "El tipo de costo no es el esperado", t, ch.costType( ) );
+			assertTrue( "Debera haber atajos", ch.shortcutCount( ) > 0 );
+			probarContraDijkstra( grafo, ch, t );
+		}
+	}
+
+	@Test
+	public void TestRanks( )
+	{
+		ContractionHierarchy ch = new ContractionHierarchy( grafo, CostType.DOUBLE );
+		boolean[] usado = new boolean[grafo.numberOfVertices( )];
+		for( int v = 0; v < grafo.numberOfVertices( ); v++ )
+		{
+			int rango = ch.rankOf( v );
+			assertFalse( "Dos vrtices no pueden tener el mismo rango", usado[rango] );
+			usado[rango] = true;
+		}
+	}
+
+	@Test
+	public void TestDenseCore( )
+	{
+		// Un grafo aleatorio denso deja un ncleo sin contraer.
+		Random r = new Random( 11 );
+		UndirectedGraph<String, Integer, Integer> denso = new UndirectedGraph<>( 120 );
+		boolean[][] existe = new boolean[120][120];
+		for( int k = 0; k < 3000; k++ )
+		{
+			int v = r.nextInt( 120 ), w = r.nextInt( 120 );
+			if( v == w || existe[v][w] )
+				continue;
+			existe[v][w] = existe[w][v] = true;
+			denso.addEdge( v, w, 1 + r.nextInt( 20 ) );
+		}
+		denso.freeze( );
+
+		ContractionHierarchy ch = new ContractionHierarchy( denso, CostType.DOUBLE );
+		assertTrue( "Debera quedar un ncleo sin contraer", ch.coreSize( ) > 0 );
+		probarContraDijkstra( denso, ch, CostType.DOUBLE );
+	}
+
+	@Test
+	public void TestUnreachable( )
+	{
+		ContractionHierarchy ch = new ContractionHierarchy( grafo, CostType.INTEGER );
+		assertEquals( "No debera existir un camino", Double.POSITIVE_INFINITY, ch.query( 0, LADO * LADO ), 0 );
+		assertFalse( "El camino debera estar vaco", ch.reconstructPath( 0, LADO * LADO ).iterator( ).hasNext( ) );
+		assertEquals( "El camino al mismo vrtice cuesta 0", 0, ch.query( LADO * LADO + 1, LADO * LADO + 1 ), 0 );
+		assertEquals( "El camino al mismo vrtice es solo ese vrtice", LADO * LADO + 1,
+				ch.reconstructPath( LADO * LADO + 1, LADO * LADO + 1 ).iterator( ).next( ).intValue( ) );
+	}
+
+	@Test
+	public void TestWriteAndRead( )
+	{
+		ContractionHierarchy ch = new ContractionHierarchy( grafo, CostType.INTEGER );
+		ByteBuffer buffer = ByteBuffer.allocate( ( int ) ch.structureSize( ) );
+		ch.writeStructure( buffer );
+		assertEquals( "structureSize no corresponde a lo escrito", ch.structureSize( ), buffer.position( ) );
+
+		buffer.flip( );
+		ContractionHierarchy leida = ContractionHierarchy.readStructure( buffer, grafo );
+		assertEquals( "El tipo de costo no es el esperado", CostType.INTEGER, leida.costType( ) );
+		assertEquals( "El nmero de atajos no es el esperado", ch.shortcutCount( ), leida.shortcutCount( ) );
+		assertEquals( "El nmero de arcos no es el esperado", ch.upwardEdgeCount( ), leida.upwardEdgeCount( ) );
+		for( int v = 0; v < grafo.numberOfVertices( ); v++ )
+			assertEquals( "El rango no es el esperado", ch.rankOf( v ), leida.rankOf( v ) );
+		probarContraDijkstra( grafo, leida, CostType.INTEGER );
+
+		// La jerarqua leda no sirve si cambian los costos.
+		int w = grafo.vertexAdjacentTo( 0 ).next( );
+		grafo.setEdgeIntegerCost( 0, w, grafo.getEdgeIntegerCost( 0, w ) + 1 );
+		buffer.rewind( );
+		try
+		{
+			ContractionHierarchy.readStructure( buffer, grafo );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+
+	@Test
+	public void TestInvalidNode( )
+	{
+		ContractionHierarchy ch = new ContractionHierarchy( grafo, CostType.DOUBLE );
+		try
+		{
+			ch.query( 0, LADO * LADO + AISLADOS );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
@@ -1,11 +1,15 @@
 package test.data_structures;
 
+import static org.junit.Assert.*;
+
 import java.util.Iterator;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import model.data_structures.CostType;
+import model.data_structures.Dijkstra;
 import model.data_structures.DijkstrasShortestPath;
 import model.data_structures.UndirectedGraph;
 
@@ -49,7 +53,7 @@ public class TestDijkstra
 		for( int i = 0; i < V; i++ )
 		{
 			grafo.setVertexInfo( i, i + "-INFO" );
-			grafo.insertVertexItem( i, i + "", i + 100 );
+			grafo.insertVertexItem( i, i + 100 );
 		}
 	}
 
@@ -64,4 +68,79 @@ public class TestDijkstra
 		while( iter.hasNext( ) )
 			System.out.println( iter.next( ) );
 	}
+
+	@Test
+	public void TestShortestDistance( )
+	{
+		setUp2( );
+
+		// El camino ms corto de 1 a 8 es 1 - 4 - 7 - 8.
+		double esperado = Math.sqrt( 1 + 4 * 4 ) + Math.sqrt( 4 * 4 + 7 * 7 ) + Math.sqrt( 7 * 7 + 8 * 8 );
+
+		DijkstrasShortestPath dsp = new DijkstrasShortestPath( grafo, CostType.DOUBLE );
+		assertEquals( "La distancia mnima no es la esperada", esperado, dsp.dijkstra( 1, 8 ), 1e-9 );
+
+		Iterator<Integer> iter = dsp.reconstructPath( 1, 8 ).iterator( );
+		int[] camino = { 1, 4, 7, 8 };
+		for( int i = 0; i < camino.length; i++ )
+			assertEquals( "El camino no es el esperado", camino[i], ( int ) iter.next( ) );
+		assertFalse( "El camino no debera tener ms vrtices", iter.hasNext( ) );
+
+		Dijkstra<?, ?, ?, ?> dij = new Dijkstra<>( grafo, 1, 8 );
+		assertEquals( "La distancia mnima no es la esperada", esperado, dij.costoMinimo, 1e-9 );
+
+		// El vrtice 0 no tiene arcos.
+		assertEquals( "No debera existir un camino", Double.POSITIVE_INFINITY, dsp.dijkstra( 1, 0 ), 0 );
+		assertFalse( "El camino debera estar vaco", dsp.reconstructPath( 1, 0 ).iterator( ).hasNext( ) );
+	}
+
+	@Test
+	public void TestReusedEngine( )
+	{
+		// Grafo aleatorio congelado de 200 vrtices.
+		Random r = new Random( 2020 );
+		UndirectedGraph<String, Integer, Integer> g = new UndirectedGraph<>( 200 );
+		for( int i = 0; i < 600; i++ )
+			g.addEdge( r.nextInt( 200 ), r.nextInt( 200 ), r.nextDouble( ) * 10 );
+		g.freeze( );
+
+		// Un mismo motor usado muchas veces da los mismos resultados que uno nuevo.
+		DijkstrasShortestPath motor = new DijkstrasShortestPath( g, CostType.DOUBLE );
+		for( int k = 0; k < 100; k++ )
+		{
+			int s = r.nextInt( 200 ), d = r.nextInt( 200 );
+			assertEquals( "La distancia no es la misma que con un motor nuevo",
+					new DijkstrasShortestPath( g, CostType.DOUBLE ).dijkstra( s, d ), motor.dijkstra( s, d ), 0 );
+		}
+
+		// El motor de tipo INTEGER ve los costos asignados despus de construirse.
+		setUp2( );
+		grafo.freeze( );
+		DijkstrasShortestPath enteros = new DijkstrasShortestPath( grafo, CostType.INTEGER );
+		assertEquals( "Con costos en 0 la distancia debera ser 0", 0, enteros.dijkstra( 1, 8 ), 0 );
+		grafo.setEdgeIntegerCost( 7, 8, 5 );
+		assertEquals( "La distancia no es la esperada", 5, enteros.dijkstra( 1, 8 ), 0 );
+	}
+
+	@Test
+	public void TestBidirectional( )
+	{
+		// Los costos enteros pequeos dan muchos empates y arcos de costo 0.
+		Random r = new Random( 7 );
+		UndirectedGraph<String, Integer, Integer> g = Cuadriculas.cuadriculaAleatoria( 17, 7 );
+
+		for( CostType t : CostType.values( ) )
+		{
+			DijkstrasShortestPath motor = new DijkstrasShortestPath( g, t );
+			for( int k = 0; k < 200; k++ )
+			{
+				int s = r.nextInt( g.numberOfVertices( ) );
+				int d = k % 20 == 0 ? s : r.nextInt( g.numberOfVertices( ) );
+				double esperado = motor.dijkstra( s, d );
+				double obtenido = motor.bidirectionalDijkstra( s, d );
+				assertEquals( "El costo bidireccional no es el esperado", esperado, obtenido, 1e-9 );
+				Cuadriculas.verificarCamino( g, t, s, d, esperado, motor.reconstructPath( s, d ) );
+			}
+		}
+	}
 }
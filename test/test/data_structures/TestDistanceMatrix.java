@@ -0,0 +1,112 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.DistanceMatrix;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test de la matriz de distancias entre varias fuentes y varios destinos.
+ * @author Camilo Martnez
+ */
+public class TestDistanceMatrix
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 25;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Inicializa la cuadrcula aleatoria de LADO x LADO vrtices, ms un vrtice
+	 * aislado (ver Cuadriculas).
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaAleatoria( LADO, 2020 );
+	}
+
+	@Test
+	public void TestSameAsDijkstra( )
+	{
+		Random r = new Random( 7 );
+		int[] fuentes = new int[21], destinos = new int[40];
+		for( int i = 0; i < fuentes.length; i++ )
+			fuentes[i] = r.nextInt( LADO * LADO );
+		for( int j = 0; j < destinos.length; j++ )
+			destinos[j] = r.nextInt( LADO * LADO + 1 );
+		destinos[1] = destinos[0];
+		destinos[2] = LADO * LADO;
+
+		ForkJoinPool pool = new ForkJoinPool( 3 );
+		for( CostType t : CostType.values( ) )
+		{
+			DistanceMatrix motor = new DistanceMatrix( grafo, t, pool );
+			assertEquals( "El tipo de costo no es el esperado", t, motor.costType( ) );
+			double[][] matriz = motor.compute( fuentes, destinos );
+			assertEquals( "El nmero de filas no es el esperado", fuentes.length, matriz.length );
+
+			DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( grafo, t );
+			for( int i = 0; i < fuentes.length; i++ )
+			{
+				assertEquals( "El nmero de columnas no es el esperado", destinos.length, matriz[i].length );
+				for( int j = 0; j < destinos.length; j++ )
+					assertEquals( "La distancia no es la de Dijkstra", dijkstra.dijkstra( fuentes[i], destinos[j] ),
+							matriz[i][j], 1e-9 );
+			}
+		}
+		pool.shutdown( );
+	}
+
+	@Test
+	public void TestRepeatedCalls( )
+	{
+		// El mismo motor se usa varias veces, con destinos distintos, y debe dar lo
+		// mismo que un motor nuevo aunque reutilice sus arreglos de trabajo.
+		DistanceMatrix motor = new DistanceMatrix( grafo, CostType.INTEGER );
+		Random r = new Random( 11 );
+		for( int k = 0; k < 5; k++ )
+		{
+			int[] fuentes = new int[1 + r.nextInt( 10 )], destinos = new int[1 + r.nextInt( 10 )];
+			for( int i = 0; i < fuentes.length; i++ )
+				fuentes[i] = r.nextInt( LADO * LADO + 1 );
+			for( int j = 0; j < destinos.length; j++ )
+				destinos[j] = r.nextInt( LADO * LADO + 1 );
+
+			double[][] esperada = new DistanceMatrix( grafo, CostType.INTEGER ).compute( fuentes, destinos );
+			double[][] matriz = motor.compute( fuentes, destinos );
+			for( int i = 0; i < fuentes.length; i++ )
+				assertArrayEquals( "La fila no es la de un motor nuevo", esperada[i], matriz[i], 0 );
+		}
+	}
+
+	@Test
+	public void TestEmptyAndInvalid( )
+	{
+		DistanceMatrix motor = new DistanceMatrix( grafo, CostType.DOUBLE );
+		double[][] matriz = motor.compute( new int[] { 0, 1 }, new int[0] );
+		assertEquals( "El nmero de filas no es el esperado", 2, matriz.length );
+		assertEquals( "Las filas deberan estar vacas", 0, matriz[0].length );
+		assertEquals( "Sin fuentes no hay filas", 0, motor.compute( new int[0], new int[] { 3 } ).length );
+
+		try
+		{
+			motor.compute( new int[] { 0 }, new int[] { LADO * LADO + 1 } );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
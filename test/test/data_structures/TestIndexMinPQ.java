@@ -0,0 +1,194 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.IndexMinPQ;
+
+/**
+ * Test de la cola de prioridad mnima indexada.
+ * @author Camilo Martnez
+ */
+public class TestIndexMinPQ
+{
+	/**
+	 * Nmero mximo de ndices.
+	 */
+	private static final int N = 500;
+
+	/**
+	 * Cola binaria.
+	 */
+	private IndexMinPQ binaria;
+
+	/**
+	 * Cola 4-aria.
+	 */
+	private IndexMinPQ cuaternaria;
+
+	/**
+	 * Inicializa dos colas vacas, una binaria y una 4-aria.
+	 */
+	@Before
+	public void setUp( )
+	{
+		binaria = new IndexMinPQ( N );
+		cuaternaria = new IndexMinPQ( N, 4 );
+	}
+
+	/**
+	 * Inserta llaves aleatorias, disminuye algunas y comprueba que delMin las saque
+	 * en orden.
+	 */
+	private void probarOrden( IndexMinPQ pq )
+	{
+		Random r = new Random( 2020 );
+		double[] llaves = new double[N];
+		for( int i = 0; i < N; i++ )
+		{
+			llaves[i] = r.nextDouble( ) * 1000;
+			pq.insert( i, llaves[i] );
+			assertTrue( "El ndice debera estar en la cola", pq.contains( i ) );
+		}
+		for( int i = 0; i < N; i += 3 )
+		{
+			llaves[i] /= 2;
+			pq.decreaseKey( i, llaves[i] );
+			assertEquals( "La llave no es la esperada", llaves[i], pq.keyOf( i ), 0 );
+		}
+
+		assertEquals( "El tamao no es el esperado", N, pq.size( ) );
+
+		double[] ordenadas = llaves.clone( );
+		Arrays.sort( ordenadas );
+		for( int k = 0; k < N; k++ )
+		{
+			assertEquals( "La menor llave no es la esperada", ordenadas[k], pq.minKey( ), 0 );
+			int i = pq.delMin( );
+			assertEquals( "El ndice sacado no tiene la menor llave", ordenadas[k], llaves[i], 0 );
+			assertFalse( "El ndice no debera seguir en la cola", pq.contains( i ) );
+		}
+		assertTrue( "La cola debera estar vaca", pq.isEmpty( ) );
+	}
+
+	@Test
+	public void TestOrder( )
+	{
+		probarOrden( binaria );
+		probarOrden( cuaternaria );
+	}
+
+	@Test
+	public void TestClear( )
+	{
+		for( int i = 0; i < N; i += 2 )
+			cuaternaria.insert( i, N - i );
+		cuaternaria.delMin( );
+		cuaternaria.clear( );
+
+		assertTrue( "La cola debera estar vaca", cuaternaria.isEmpty( ) );
+		for( int i = 0; i < N; i++ )
+			assertFalse( "Ningn ndice debera estar en la cola", cuaternaria.contains( i ) );
+
+		// Se puede volver a usar despus de vaciarla.
+		probarOrden( cuaternaria );
+	}
+
+	@Test
+	public void TestChangeKey( )
+	{
+		for( int i = 0; i < 10; i++ )
+			binaria.insert( i, i );
+		binaria.changeKey( 0, 20 );
+		binaria.changeKey( 9, -1 );
+		binaria.changeKey( 5, 5 );
+
+		assertEquals( "La llave no es la esperada", 20, binaria.keyOf( 0 ), 0 );
+		int[] esperado = { 9, 1, 2, 3, 4, 5, 6, 7, 8, 0 };
+		for( int k = 0; k < esperado.length; k++ )
+			assertEquals( "El ndice sacado no es el esperado", esperado[k], binaria.delMin( ) );
+
+		try
+		{
+			binaria.changeKey( 3, 1 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+
+	@Test
+	public void TestExceptions( )
+	{
+		binaria.insert( 3, 10 );
+
+		try
+		{
+			binaria.insert( 3, 5 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+
+		try
+		{
+			binaria.decreaseKey( 3, 20 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+
+		try
+		{
+			binaria.decreaseKey( 4, 1 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+
+		try
+		{
+			binaria.contains( N );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+
+		assertEquals( "Debera sacar el nico ndice", 3, binaria.delMin( ) );
+		try
+		{
+			binaria.delMin( );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( NoSuchElementException e )
+		{
+			// Debe lanzar excepcin.
+		}
+
+		try
+		{
+			new IndexMinPQ( 10, 1 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
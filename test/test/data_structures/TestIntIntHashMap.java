@@ -0,0 +1,111 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.IntIntHashMap;
+
+/**
+ * Test de la tabla de hash de llaves int a valores int.
+ * @author Camilo Martnez
+ */
+public class TestIntIntHashMap
+{
+	private IntIntHashMap tabla;
+
+	/**
+	 * Tabla de java.util con la que se compara.
+	 */
+	private HashMap<Integer, Integer> esperada;
+
+	@Before
+	public void setUp( )
+	{
+		tabla = new IntIntHashMap( );
+		esperada = new HashMap<>( );
+	}
+
+	/**
+	 * Comprueba que la tabla y la tabla esperada tengan las mismas parejas,
+	 * recorriendo la tabla por posiciones.
+	 */
+	private void comparar( )
+	{
+		assertEquals( "El tamao no es el esperado", esperada.size( ), tabla.size( ) );
+		int vistas = 0;
+		for( int s = 0; s < tabla.capacity( ); s++ )
+			if( tabla.usedAt( s ) )
+			{
+				vistas++;
+				assertEquals( "El valor no es el esperado", (int) esperada.get( tabla.keyAt( s ) ), tabla.valueAt( s ) );
+			}
+		assertEquals( "El recorrido no pas por todas las llaves", esperada.size( ), vistas );
+	}
+
+	@Test
+	public void TestAgainstHashMap( )
+	{
+		Random r = new Random( 2020 );
+		for( int k = 0; k < 20000; k++ )
+		{
+			// Llaves negativas, cero y positivas en un rango pequeo para forzar
+			// colisiones y eliminaciones de llaves presentes.
+			int llave = r.nextInt( 600 ) - 300, valor = r.nextInt( );
+			switch( r.nextInt( 4 ) )
+			{
+			case 0:
+				assertEquals( "put no indica si la llave es nueva", !esperada.containsKey( llave ), tabla.put( llave, valor ) );
+				esperada.put( llave, valor );
+				break;
+			case 1:
+				assertEquals( "remove no indica si la llave estaba", esperada.remove( llave ) != null, tabla.remove( llave ) );
+				break;
+			case 2:
+				int nuevo = esperada.getOrDefault( llave, 0 ) + 5;
+				esperada.put( llave, nuevo );
+				assertEquals( "addTo no retorna el valor nuevo", nuevo, tabla.addTo( llave, 5 ) );
+				break;
+			default:
+				assertEquals( "containsKey no es el esperado", esperada.containsKey( llave ), tabla.containsKey( llave ) );
+				assertEquals( "get no es el esperado", esperada.getOrDefault( llave, -1 ), (Integer) tabla.get( llave, -1 ) );
+			}
+		}
+		comparar( );
+	}
+
+	@Test
+	public void TestGrowAndClear( )
+	{
+		tabla = new IntIntHashMap( 10 );
+		int capacidad = tabla.capacity( );
+		for( int i = 0; i < 10; i++ )
+			tabla.put( i * 1024, i );
+		assertEquals( "No debera crecer con el tamao esperado", capacidad, tabla.capacity( ) );
+
+		for( int i = 10; i < 5000; i++ )
+			tabla.put( i * 1024, i );
+		for( int i = 0; i < 5000; i++ )
+			esperada.put( i * 1024, i );
+		comparar( );
+
+		tabla.clear( );
+		assertTrue( "La tabla debera estar vaca", tabla.isEmpty( ) );
+		assertFalse( "La llave no debera estar", tabla.containsKey( 0 ) );
+		assertEquals( "get debera retornar el valor por defecto", 7, tabla.get( 1024, 7 ) );
+
+		try
+		{
+			new IntIntHashMap( -1 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.IntObjectHashMap;
+
+/**
+ * Test de la tabla de hash de llaves int a objetos.
+ * @author Camilo Martnez
+ */
+public class TestIntObjectHashMap
+{
+	private IntObjectHashMap<String> tabla;
+
+	/**
+	 * Tabla de java.util con la que se compara.
+	 */
+	private HashMap<Integer, String> esperada;
+
+	@Before
+	public void setUp( )
+	{
+		tabla = new IntObjectHashMap<>( );
+		esperada = new HashMap<>( );
+	}
+
+	@Test
+	public void TestAgainstHashMap( )
+	{
+		Random r = new Random( 2020 );
+		for( int k = 0; k < 20000; k++ )
+		{
+			int llave = r.nextInt( 600 ) - 300;
+			switch( r.nextInt( 3 ) )
+			{
+			case 0:
+				String valor = "v" + k;
+				assertEquals( "put no retorna el valor anterior", esperada.put( llave, valor ), tabla.put( llave, valor ) );
+				break;
+			case 1:
+				assertEquals( "remove no retorna el valor eliminado", esperada.remove( llave ), tabla.remove( llave ) );
+				break;
+			default:
+				assertEquals( "containsKey no es el esperado", esperada.containsKey( llave ), tabla.containsKey( llave ) );
+				assertEquals( "get no es el esperado", esperada.get( llave ), tabla.get( llave ) );
+			}
+		}
+
+		assertEquals( "El tamao no es el esperado", esperada.size( ), tabla.size( ) );
+		int vistas = 0;
+		for( int s = 0; s < tabla.capacity( ); s++ )
+			if( tabla.usedAt( s ) )
+			{
+				vistas++;
+				assertEquals( "El valor no es el esperado", esperada.get( tabla.keyAt( s ) ), tabla.valueAt( s ) );
+			}
+			else
+				assertNull( "Una posicin libre no debera guardar un valor", tabla.valueAt( s ) );
+		assertEquals( "El recorrido no pas por todas las llaves", esperada.size( ), vistas );
+
+		tabla.clear( );
+		assertTrue( "La tabla debera estar vaca", tabla.isEmpty( ) );
+		assertNull( "La llave no debera estar", tabla.get( 0 ) );
+	}
+}
@@ -0,0 +1,133 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.KdTree;
+
+/**
+ * Test del rbol k-d de coordenadas geogrficas.
+ * @author Camilo Martnez
+ */
+public class TestKdTree
+{
+	/**
+	 * Nmero de puntos.
+	 */
+	public final int N = 2000;
+
+	private double[] latitudes;
+
+	private double[] longitudes;
+
+	private KdTree arbol;
+
+	/**
+	 * Inicializa un rbol con N puntos aleatorios alrededor de Bogot.
+	 */
+	@Before
+	public void setUp( )
+	{
+		Random r = new Random( 2020 );
+		latitudes = new double[N];
+		longitudes = new double[N];
+		for( int i = 0; i < N; i++ )
+		{
+			latitudes[i] = 4.45 + r.nextDouble( ) * 0.35;
+			longitudes[i] = -74.25 + r.nextDouble( ) * 0.25;
+		}
+		arbol = new KdTree( latitudes, longitudes );
+	}
+
+	/**
+	 * Distancia haversiana en kilmetros.
+	 */
+	private double distancia( double lat1, double lon1, double lat2, double lon2 )
+	{
+		double dLat = Math.toRadians( lat2 - lat1 );
+		double dLon = Math.toRadians( lon2 - lon1 );
+		double a = Math.pow( Math.sin( dLat / 2 ), 2 ) + Math.cos( Math.toRadians( lat1 ) )
+				* Math.cos( Math.toRadians( lat2 ) ) * Math.pow( Math.sin( dLon / 2 ), 2 );
+		return 2 * KdTree.EARTH_RADIUS * Math.atan2( Math.sqrt( a ), Math.sqrt( 1 - a ) );
+	}
+
+	/**
+	 * Busca por fuerza bruta el punto ms cercano.
+	 */
+	private int masCercano( double lat, double lon )
+	{
+		int mejor = -1;
+		double menor = Double.POSITIVE_INFINITY;
+		for( int i = 0; i < N; i++ )
+		{
+			double d = distancia( lat, lon, latitudes[i], longitudes[i] );
+			if( d < menor )
+			{
+				menor = d;
+				mejor = i;
+			}
+		}
+		return mejor;
+	}
+
+	@Test
+	public void TestNearest( )
+	{
+		assertEquals( "El tamao no es el esperado", N, arbol.size( ) );
+
+		Random r = new Random( 7 );
+		for( int k = 0; k < 500; k++ )
+		{
+			double lat = 4.4 + r.nextDouble( ) * 0.45;
+			double lon = -74.3 + r.nextDouble( ) * 0.35;
+			int esperado = masCercano( lat, lon );
+			int obtenido = arbol.nearest( lat, lon );
+			assertEquals( "La distancia al punto encontrado no es la menor",
+					distancia( lat, lon, latitudes[esperado], longitudes[esperado] ),
+					distancia( lat, lon, latitudes[obtenido], longitudes[obtenido] ), 1e-9 );
+		}
+
+		// Cada punto del rbol es su propio vecino ms cercano.
+		for( int i = 0; i < N; i += 37 )
+			assertEquals( "El punto ms cercano a un punto del rbol debera ser l mismo", i,
+					arbol.nearest( latitudes[i], longitudes[i] ) );
+	}
+
+	@Test
+	public void TestNearestRadius( )
+	{
+		Random r = new Random( 11 );
+		for( int k = 0; k < 200; k++ )
+		{
+			double lat = 4.4 + r.nextDouble( ) * 0.45;
+			double lon = -74.3 + r.nextDouble( ) * 0.35;
+			int esperado = masCercano( lat, lon );
+			double d = distancia( lat, lon, latitudes[esperado], longitudes[esperado] );
+
+			assertEquals( "Debera encontrar el punto dentro del radio", esperado, arbol.nearest( lat, lon, d + 1e-6 ) );
+			assertEquals( "No debera encontrar puntos fuera del radio", -1, arbol.nearest( lat, lon, d * 0.999 ) );
+		}
+	}
+
+	@Test
+	public void TestEmpty( )
+	{
+		KdTree vacio = new KdTree( new double[0], new double[0] );
+		assertEquals( "El rbol debera estar vaco", 0, vacio.size( ) );
+		assertEquals( "No debera encontrar puntos en un rbol vaco", -1, vacio.nearest( 4.6, -74.1 ) );
+
+		try
+		{
+			new KdTree( new double[2], new double[3] );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
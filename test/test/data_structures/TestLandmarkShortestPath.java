@@ -0,0 +1,144 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.LandmarkShortestPath;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test del motor ALT (A* con landmarks y la desigualdad triangular).
+ * @author Camilo Martnez
+ */
+public class TestLandmarkShortestPath
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 30;
+
+	/**
+	 * Nmero de vrtices aislados que se agregan despus de la cuadrcula.
+	 */
+	public final int AISLADOS = 3;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Inicializa una cuadrcula aleatoria de LADO x LADO vrtices, ms AISLADOS
+	 * vrtices sin arcos.
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaAleatoria( LADO, AISLADOS, 0, 2020 );
+	}
+
+	/**
+	 * Compara ALT con Dijkstra sobre parejas aleatorias de vrtices.
+	 */
+	private void probarContraDijkstra( LandmarkShortestPath alt, CostType t )
+	{
+		DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( grafo, t );
+		Random r = new Random( 7 );
+		long asentadosDijkstra = 0, asentadosALT = 0;
+		for( int k = 0; k < 200; k++ )
+		{
+			int s = r.nextInt( LADO * LADO ), d = r.nextInt( LADO * LADO );
+			double esperado = dijkstra.dijkstra( s, d );
+			asentadosDijkstra += dijkstra.settledCount( );
+			assertEquals( "El costo de ALT no es el de Dijkstra", esperado, alt.alt( s, d ), 1e-9 );
+			asentadosALT += alt.settledCount( );
+			Cuadriculas.verificarCamino( grafo, t, s, d, esperado, alt.reconstructPath( s, d ) );
+		}
+
+		assertTrue( "ALT debera asentar menos vrtices que Dijkstra", asentadosALT < asentadosDijkstra );
+	}
+
+	@Test
+	public void TestSameCostAsDijkstra( )
+	{
+		int[] semillas = { 0, LADO * LADO - 1, 0 };
+		for( CostType t : CostType.values( ) )
+		{
+			LandmarkShortestPath alt = new LandmarkShortestPath( grafo, t, semillas, 4 );
+			assertEquals( "El tipo de costo no es el esperado", t, alt.costType( ) );
+			assertEquals( "La semilla repetida debera ignorarse", 6, alt.landmarks( ).length );
+			assertEquals( "El primer landmark debera ser la primera semilla", 0, alt.landmarks( )[0] );
+			probarContraDijkstra( alt, t );
+		}
+	}
+
+	@Test
+	public void TestUnreachable( )
+	{
+		LandmarkShortestPath alt = new LandmarkShortestPath( grafo, CostType.DOUBLE, new int[] { 0 }, 2 );
+		assertEquals( "No debera existir un camino", Double.POSITIVE_INFINITY, alt.alt( 0, LADO * LADO ), 0 );
+		assertFalse( "El camino debera estar vaco", alt.reconstructPath( 0, LADO * LADO ).iterator( ).hasNext( ) );
+		assertEquals( "El camino al mismo vrtice cuesta 0", 0, alt.alt( LADO * LADO + 1, LADO * LADO + 1 ), 0 );
+	}
+
+	@Test
+	public void TestTablesRoundTrip( )
+	{
+		LandmarkShortestPath alt = new LandmarkShortestPath( grafo, CostType.INTEGER, new int[] { 5 }, 3 );
+		ByteBuffer buffer = ByteBuffer.allocate( ( int ) alt.tableSize( ) );
+		alt.writeTables( buffer );
+		assertEquals( "tableSize no corresponde a lo escrito", alt.tableSize( ), buffer.position( ) );
+
+		buffer.flip( );
+		LandmarkShortestPath leido = LandmarkShortestPath.readTables( buffer, grafo );
+		assertEquals( "El tipo de costo no es el esperado", CostType.INTEGER, leido.costType( ) );
+		assertArrayEquals( "Los landmarks no son los esperados", alt.landmarks( ), leido.landmarks( ) );
+		probarContraDijkstra( leido, CostType.INTEGER );
+
+		// Las tablas dejan de ser vlidas si cambian los costos.
+		assertTrue( "Las tablas deberan ser vlidas", leido.isValid( ) );
+		int w = grafo.vertexAdjacentTo( 0 ).next( );
+		grafo.setEdgeIntegerCost( 0, w, grafo.getEdgeIntegerCost( 0, w ) + 1 );
+		assertFalse( "Las tablas no deberan ser vlidas", leido.isValid( ) );
+
+		buffer.rewind( );
+		try
+		{
+			LandmarkShortestPath.readTables( buffer, grafo );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+
+	@Test
+	public void TestInvalidNode( )
+	{
+		try
+		{
+			new LandmarkShortestPath( grafo, CostType.DOUBLE, new int[] { -1 }, 0 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+
+		LandmarkShortestPath alt = new LandmarkShortestPath( grafo, CostType.DOUBLE, new int[0], 2 );
+		try
+		{
+			alt.alt( 0, LADO * LADO + AISLADOS );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
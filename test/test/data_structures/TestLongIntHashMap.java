@@ -0,0 +1,77 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.LongIntHashMap;
+
+/**
+ * Test de la tabla de hash de llaves long a valores int.
+ * @author Camilo Martnez
+ */
+public class TestLongIntHashMap
+{
+	private LongIntHashMap tabla;
+
+	/**
+	 * Tabla de java.util con la que se compara.
+	 */
+	private HashMap<Long, Integer> esperada;
+
+	@Before
+	public void setUp( )
+	{
+		tabla = new LongIntHashMap( );
+		esperada = new HashMap<>( );
+	}
+
+	@Test
+	public void TestAgainstHashMap( )
+	{
+		// Llaves compuestas v * n + w con n grande, como las de los arcos, ms
+		// llaves negativas.
+		long n = 3_000_000_000L;
+		Random r = new Random( 2020 );
+		for( int k = 0; k < 20000; k++ )
+		{
+			long llave = ( r.nextInt( 30 ) - 5 ) * n + r.nextInt( 30 );
+			switch( r.nextInt( 4 ) )
+			{
+			case 0:
+				int valor = r.nextInt( );
+				assertEquals( "put no indica si la llave es nueva", !esperada.containsKey( llave ), tabla.put( llave, valor ) );
+				esperada.put( llave, valor );
+				break;
+			case 1:
+				assertEquals( "remove no indica si la llave estaba", esperada.remove( llave ) != null, tabla.remove( llave ) );
+				break;
+			case 2:
+				int nuevo = esperada.getOrDefault( llave, 0 ) + 1;
+				esperada.put( llave, nuevo );
+				assertEquals( "addTo no retorna el valor nuevo", nuevo, tabla.addTo( llave, 1 ) );
+				break;
+			default:
+				assertEquals( "containsKey no es el esperado", esperada.containsKey( llave ), tabla.containsKey( llave ) );
+				assertEquals( "get no es el esperado", esperada.getOrDefault( llave, -1 ), (Integer) tabla.get( llave, -1 ) );
+			}
+		}
+
+		assertEquals( "El tamao no es el esperado", esperada.size( ), tabla.size( ) );
+		int vistas = 0;
+		for( int s = 0; s < tabla.capacity( ); s++ )
+			if( tabla.usedAt( s ) )
+			{
+				vistas++;
+				assertEquals( "El valor no es el esperado", (int) esperada.get( tabla.keyAt( s ) ), tabla.valueAt( s ) );
+			}
+		assertEquals( "El recorrido no pas por todas las llaves", esperada.size( ), vistas );
+
+		tabla.clear( );
+		assertTrue( "La tabla debera estar vaca", tabla.isEmpty( ) );
+	}
+}
@@ -1,6 +1,7 @@
 package test.data_structures;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.util.Random;
 
@@ -185,4 +186,32 @@ public class TestMaxHeapPQ
 
 		assertEquals( "Debi retornar 0.", 0, heap.getSize( ) );
 	}
+
+	@Test
+	public void TestHeapOrderedConstructor( )
+	{
+		setUp2( );
+
+		Integer[] elementos = new Integer[heap.getSize( )];
+		for( int i = 0; i < elementos.length; i++ )
+			elementos[i] = heap.peekPosition( i );
+
+		MaxHeapPQ<Integer> copia = new MaxHeapPQ<>( elementos, CAPACITY );
+		assertEquals( "Debi retornar " + CAPACITY + ".", CAPACITY, copia.getSize( ) );
+		for( int i = 0; i < elementos.length; i++ )
+			assertEquals( "Los elementos debieron quedar en las mismas posiciones.", elementos[i],
+					copia.peekPosition( i ) );
+		for( int i = 0; i < elementos.length; i++ )
+			assertEquals( "Debi retornar el mismo mximo.", heap.poll( ), copia.poll( ) );
+
+		try
+		{
+			new MaxHeapPQ<>( new Integer[] { 1, 5, 3 }, CAPACITY );
+			fail( "Debi lanzar excepcin." );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Se espera esta excepcin.
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.MultiSourceShortestPaths;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test del Dijkstra con varias fuentes.
+ * @author Camilo Martnez
+ */
+public class TestMultiSourceShortestPaths
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 25;
+
+	/**
+	 * Vrtices fuente; el ltimo repite al primero.
+	 */
+	private int[] fuentes;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Inicializa la cuadrcula aleatoria de LADO x LADO vrtices, ms un vrtice
+	 * aislado (ver Cuadriculas), y escoge 5 fuentes.
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaAleatoria( LADO, 2020 );
+		fuentes = new int[] { 0, 312, LADO * LADO - 1, 77, 0 };
+	}
+
+	@Test
+	public void TestNearestSource( )
+	{
+		MultiSourceShortestPaths zonas = new MultiSourceShortestPaths( grafo, CostType.DOUBLE, fuentes );
+		assertEquals( "El nmero de fuentes no es el esperado", fuentes.length, zonas.numberOfSources( ) );
+
+		DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( grafo, CostType.DOUBLE );
+		double[][] distancias = new double[fuentes.length][];
+		for( int i = 0; i < fuentes.length; i++ )
+			distancias[i] = dijkstra.distancesFrom( fuentes[i] );
+
+		for( int v = 0; v < LADO * LADO; v++ )
+		{
+			double menor = Double.POSITIVE_INFINITY;
+			for( int i = 0; i < fuentes.length; i++ )
+				menor = Math.min( menor, distancias[i][v] );
+			assertEquals( "La distancia a la fuente ms cercana no es la esperada", menor, zonas.distTo( v ), 1e-9 );
+			if( menor == Double.POSITIVE_INFINITY )
+			{
+				assertEquals( "El vrtice no debera tener fuente", -1, zonas.sourceOf( v ) );
+				continue;
+			}
+
+			int fuente = zonas.sourceOf( v );
+			assertTrue( "La fuente repetida no debera tener vrtices", fuente != fuentes.length - 1 );
+			assertEquals( "La fuente asignada no es la ms cercana", menor, distancias[fuente][v], 1e-9 );
+
+			// El camino va desde la fuente hasta v y cuesta la distancia.
+			Iterator<Integer> iter = zonas.pathTo( v ).iterator( );
+			int anterior = iter.next( );
+			assertEquals( "El camino debera empezar en la fuente", fuentes[fuente], anterior );
+			double costo = 0;
+			while( iter.hasNext( ) )
+			{
+				int siguiente = iter.next( );
+				costo += grafo.getEdgeDoubleCost( anterior, siguiente );
+				assertEquals( "Todo el camino debera ser de la misma fuente", fuente, zonas.sourceOf( siguiente ) );
+				anterior = siguiente;
+			}
+			assertEquals( "El camino debera terminar en v", v, anterior );
+			assertEquals( "El costo del camino no es la distancia", menor, costo, 1e-9 );
+		}
+	}
+
+	@Test
+	public void TestSourcesAndUnreachable( )
+	{
+		MultiSourceShortestPaths zonas = new MultiSourceShortestPaths( grafo, CostType.INTEGER, fuentes );
+		for( int i = 0; i < fuentes.length - 1; i++ )
+		{
+			assertEquals( "La fuente debera ser su propia zona", i, zonas.sourceOf( fuentes[i] ) );
+			assertEquals( "La distancia de una fuente es 0", 0, zonas.distTo( fuentes[i] ), 0 );
+			assertEquals( "Una fuente no tiene predecesor", -1, zonas.edgeTo( fuentes[i] ) );
+		}
+
+		int aislado = LADO * LADO;
+		assertFalse( "Ninguna fuente debera alcanzar al vrtice aislado", zonas.hasPathTo( aislado ) );
+		assertEquals( "La distancia debera ser infinita", Double.POSITIVE_INFINITY, zonas.distTo( aislado ), 0 );
+		assertFalse( "El camino debera estar vaco", zonas.pathTo( aislado ).iterator( ).hasNext( ) );
+
+		try
+		{
+			new MultiSourceShortestPaths( grafo, CostType.DOUBLE, new int[] { 0, LADO * LADO + 1 } );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.RoutingService;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test del servicio de rutas concurrente.
+ * @author Camilo Martnez
+ */
+public class TestRoutingService
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 25;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Parejas origen-destino aleatorias; incluye el vrtice aislado.
+	 */
+	private List<RoutingService.Query> consultas;
+
+	/**
+	 * Inicializa la cuadrcula aleatoria de LADO x LADO vrtices, ms un vrtice
+	 * aislado (ver Cuadriculas), y 200 consultas.
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaAleatoria( LADO, 2020 );
+
+		Random r = new Random( 2020 );
+		consultas = new ArrayList<>( );
+		for( int k = 0; k < 200; k++ )
+			consultas.add( new RoutingService.Query( r.nextInt( LADO * LADO + 1 ), r.nextInt( LADO * LADO + 1 ) ) );
+	}
+
+	/**
+	 * Comprueba que cada ruta tenga el costo de Dijkstra y que su camino vaya del
+	 * origen al destino con ese costo.
+	 */
+	private void probarContraDijkstra( List<RoutingService.Route> rutas, CostType t )
+	{
+		DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( grafo, t );
+		assertEquals( "El nmero de rutas no es el esperado", consultas.size( ), rutas.size( ) );
+		for( int k = 0; k < rutas.size( ); k++ )
+		{
+			RoutingService.Query q = consultas.get( k );
+			RoutingService.Route ruta = rutas.get( k );
+			assertEquals( "El origen no es el de la consulta", q.origin( ), ruta.origin( ) );
+			assertEquals( "El destino no es el de la consulta", q.destination( ), ruta.destination( ) );
+
+			double esperado = dijkstra.dijkstra( q.origin( ), q.destination( ) );
+			assertEquals( "El costo no es el de Dijkstra", esperado, ruta.cost( ), 1e-9 );
+			int[] camino = ruta.path( );
+			if( esperado == Double.POSITIVE_INFINITY )
+			{
+				assertEquals( "El camino debera estar vaco", 0, camino.length );
+				continue;
+			}
+			assertEquals( "El camino debera empezar en el origen", q.origin( ), camino[0] );
+			assertEquals( "El camino debera terminar en el destino", q.destination( ), camino[camino.length - 1] );
+			double costo = 0;
+			for( int i = 1; i < camino.length; i++ )
+				costo += t == CostType.DOUBLE ? grafo.getEdgeDoubleCost( camino[i - 1], camino[i] )
+						: grafo.getEdgeIntegerCost( camino[i - 1], camino[i] );
+			assertEquals( "El costo del camino no es el mnimo", esperado, costo, 1e-9 );
+		}
+	}
+
+	@Test
+	public void TestBatchOnFixedPool( )
+	{
+		ExecutorService hilos = Executors.newFixedThreadPool( 4 );
+		RoutingService servicio = new RoutingService( grafo, hilos );
+		for( CostType t : CostType.values( ) )
+			probarContraDijkstra( servicio.route( consultas, t ), t );
+		hilos.shutdown( );
+	}
+
+	@Test
+	public void TestDefaultExecutor( )
+	{
+		RoutingService servicio = new RoutingService( grafo );
+		probarContraDijkstra( servicio.route( consultas, CostType.INTEGER ), CostType.INTEGER );
+		assertEquals( "Un lote vaco no tiene rutas", 0,
+				servicio.route( new ArrayList<RoutingService.Query>( ), CostType.DOUBLE ).size( ) );
+	}
+
+	@Test
+	public void TestSnapshot( )
+	{
+		RoutingService servicio = new RoutingService( grafo, Runnable::run );
+		RoutingService.Route antes = servicio.route( 0, LADO * LADO - 1, CostType.INTEGER );
+
+		// Los cambios al grafo no se ven en el servicio.
+		int[] camino = antes.path( );
+		for( int i = 1; i < camino.length; i++ )
+			grafo.setEdgeIntegerCost( camino[i - 1], camino[i], 1000 );
+		assertEquals( "El servicio no debera ver los costos nuevos", antes.cost( ),
+				servicio.route( 0, LADO * LADO - 1, CostType.INTEGER ).cost( ), 0 );
+
+		try
+		{
+			servicio.route( 0, LADO * LADO + 1, CostType.DOUBLE );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
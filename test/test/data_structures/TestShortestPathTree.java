@@ -0,0 +1,125 @@
+package test.data_structures;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.CostType;
+import model.data_structures.DijkstrasShortestPath;
+import model.data_structures.ShortestPathTree;
+import model.data_structures.ShortestPathTreeCache;
+import model.data_structures.UndirectedGraph;
+
+/**
+ * Test del rbol de caminos ms cortos y de su cach.
+ * @author Camilo Martnez
+ */
+public class TestShortestPathTree
+{
+	/**
+	 * Lado de la cuadrcula de vrtices.
+	 */
+	public final int LADO = 25;
+
+	private UndirectedGraph<String, Integer, Integer> grafo;
+
+	/**
+	 * Inicializa la cuadrcula aleatoria de LADO x LADO vrtices, ms un vrtice
+	 * aislado (ver Cuadriculas).
+	 */
+	@Before
+	public void setUp( )
+	{
+		grafo = Cuadriculas.cuadriculaAleatoria( LADO, 2020 );
+	}
+
+	@Test
+	public void TestSameAsDijkstra( )
+	{
+		for( CostType t : CostType.values( ) )
+		{
+			DijkstrasShortestPath dijkstra = new DijkstrasShortestPath( grafo, t );
+			for( int s : new int[] { 0, 312, LADO * LADO - 1 } )
+			{
+				ShortestPathTree arbol = new ShortestPathTree( grafo, t, s );
+				assertEquals( "La fuente no es la esperada", s, arbol.source( ) );
+				assertEquals( "El tipo de costo no es el esperado", t, arbol.costType( ) );
+				assertEquals( "La fuente no tiene predecesor", -1, arbol.edgeTo( s ) );
+
+				double[] distancias = dijkstra.distancesFrom( s );
+				for( int v = 0; v < LADO * LADO; v++ )
+				{
+					assertEquals( "La distancia no es la de Dijkstra", distancias[v], arbol.distTo( v ), 1e-9 );
+					if( !arbol.hasPathTo( v ) )
+						continue;
+
+					// El camino va desde la fuente hasta v y cuesta la distancia.
+					Iterator<Integer> iter = arbol.pathTo( v ).iterator( );
+					int anterior = iter.next( );
+					assertEquals( "El camino debera empezar en la fuente", s, anterior );
+					double costo = 0;
+					while( iter.hasNext( ) )
+					{
+						int siguiente = iter.next( );
+						costo += t == CostType.DOUBLE ? grafo.getEdgeDoubleCost( anterior, siguiente )
+								: grafo.getEdgeIntegerCost( anterior, siguiente );
+						anterior = siguiente;
+					}
+					assertEquals( "El camino debera terminar en v", v, anterior );
+					assertEquals( "El costo del camino no es la distancia", distancias[v], costo, 1e-9 );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void TestUnreachable( )
+	{
+		ShortestPathTree arbol = new ShortestPathTree( grafo, CostType.DOUBLE, 0 );
+		int aislado = LADO * LADO;
+		assertFalse( "La fuente no debera alcanzar al vrtice aislado", arbol.hasPathTo( aislado ) );
+		assertEquals( "La distancia debera ser infinita", Double.POSITIVE_INFINITY, arbol.distTo( aislado ), 0 );
+		assertFalse( "El camino debera estar vaco", arbol.pathTo( aislado ).iterator( ).hasNext( ) );
+
+		try
+		{
+			new ShortestPathTree( grafo, CostType.DOUBLE, LADO * LADO + 1 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+
+	@Test
+	public void TestCache( )
+	{
+		long tamanio = new ShortestPathTree( grafo, CostType.DOUBLE, 0 ).memorySize( );
+		ShortestPathTreeCache cache = new ShortestPathTreeCache( grafo, 2 * tamanio );
+
+		ShortestPathTree a = cache.get( 0, CostType.DOUBLE );
+		assertSame( "Debera reutilizar el rbol guardado", a, cache.get( 0, CostType.DOUBLE ) );
+		ShortestPathTree b = cache.get( 0, CostType.INTEGER );
+		assertTrue( "Cada tipo de costo tiene su rbol", a != b );
+		assertEquals( "El nmero de rboles no es el esperado", 2, cache.size( ) );
+
+		// a es el ms reciente, as que se descarta b.
+		cache.get( 0, CostType.DOUBLE );
+		cache.get( 5, CostType.DOUBLE );
+		assertEquals( "No debera superar el lmite de memoria", 2, cache.size( ) );
+		assertSame( "El rbol usado ms recientemente debera seguir guardado", a, cache.get( 0, CostType.DOUBLE ) );
+		assertTrue( "El rbol usado hace ms tiempo se debera descartar", b != cache.get( 0, CostType.INTEGER ) );
+		assertEquals( "El nmero de aciertos no es el esperado", 3, cache.hits( ) );
+		assertEquals( "El nmero de fallos no es el esperado", 4, cache.misses( ) );
+
+		cache.clear( CostType.INTEGER );
+		assertEquals( "Solo debera quedar el rbol double", 1, cache.size( ) );
+		assertEquals( "La memoria no es la esperada", tamanio, cache.memorySize( ) );
+		cache.clear( );
+		assertEquals( "El cach debera estar vaco", 0, cache.size( ) );
+	}
+}
@@ -2,8 +2,10 @@ package test.data_structures;
 
 import static org.junit.Assert.*;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -55,7 +57,7 @@ public class TestUndirectedGraph
 		for( int i = 0; i < V; i++ )
 		{
 			grafo.setVertexInfo( i, i + "-INFO" );
-			grafo.insertVertexItem( i, i + "", i + 100 );
+			grafo.insertVertexItem( i, i + 100 );
 		}
 	}
 
@@ -232,19 +234,27 @@ public class TestUndirectedGraph
 	@Test
 	public void TestSetVertexItem( )
 	{
-		grafo.insertVertexItem( 0, 1 + "", 1 );
+		grafo.insertVertexItem( 0, 1 );
 		Iterator<Integer> iter = grafo.vertexItems( 0 );
 		assertEquals( "No guard el item.", 1, iter.next( ).intValue( ) );
 		assertEquals( "No guard el item.", false, iter.hasNext( ) );
 
-		grafo.insertVertexItem( 1, 1 + "", 1 );
-		grafo.insertVertexItem( 1, 2 + "", 2 );
-		grafo.insertVertexItem( 1, 3 + "", 3 );
+		grafo.insertVertexItem( 1, 1 );
+		grafo.insertVertexItem( 1, 2 );
+		grafo.insertVertexItem( 1, 3 );
 		iter = grafo.vertexItems( 1 );
 		assertEquals( "No guard el item.", 1, iter.next( ).intValue( ) );
 		assertEquals( "No guard el item.", 2, iter.next( ).intValue( ) );
 		assertEquals( "No guard el item.", 3, iter.next( ).intValue( ) );
 		assertEquals( "No guard el item.", false, iter.hasNext( ) );
+
+		grafo.insertVertexItem( 1, 4 );
+		int[] esperados = { 1, 2, 3, 4 };
+		assertEquals( "El nmero de items no es el esperado.", esperados.length, grafo.numberOfItemsOf( 1 ) );
+		for( int k = 0; k < esperados.length; k++ )
+			assertEquals( "El item no est en el orden del iterador.", esperados[k], grafo.vertexItem( 1, k ).intValue( ) );
+		assertEquals( "Un vrtice sin items no tiene items.", 0, grafo.numberOfItemsOf( 2 ) );
+		assertFalse( "Un vrtice sin items no tiene items.", grafo.vertexItems( 2 ).hasNext( ) );
 	}
 
 	@Test
@@ -274,6 +284,15 @@ public class TestUndirectedGraph
 	{
 		for( int i = 0; i < V; i++ )
 			assertEquals( "No debera haber items en ningn vertice.", false, grafo.vertexItems( i ).hasNext( ) );
+
+		grafo.insertVertexItem( 3, 30 );
+		grafo.insertVertexItem( 3, 10 );
+		grafo.insertVertexItem( 3, 20 );
+		Iterator<Integer> iter = grafo.vertexItems( 3 );
+		assertEquals( "No se recorrieron los items en orden de insercin.", 30, ( int ) iter.next( ) );
+		assertEquals( "No se recorrieron los items en orden de insercin.", 10, ( int ) iter.next( ) );
+		assertEquals( "No se recorrieron los items en orden de insercin.", 20, ( int ) iter.next( ) );
+		assertEquals( "No se debera tener ms items.", false, iter.hasNext( ) );
 	}
 
 	@Test
@@ -316,4 +335,319 @@ public class TestUndirectedGraph
 				fail( "No se encontr el arco " + arcoActual );
 		}
 	}
+
+	/**
+	 * Recorre el grafo con un cursor y comprueba que cada arco aparezca una sola
+	 * vez, con el extremo menor primero, sus costos y un ndice consecutivo.
+	 */
+	private void probarCursor( int arcosEsperados )
+	{
+		boolean[][] visto = new boolean[V][V];
+		UndirectedGraph<String, Integer, Integer>.EdgeCursor cursor = grafo.edgeCursor( );
+		int k = 0;
+		while( cursor.next( ) )
+		{
+			int v = cursor.either( ), w = cursor.other( );
+			assertEquals( "El ndice del arco no es el esperado.", k, cursor.edge( ) );
+			assertTrue( "El extremo menor debera ir primero.", v <= w );
+			assertFalse( "El arco " + v + "-" + w + " se visit dos veces.", visto[v][w] );
+			visto[v][w] = true;
+			assertEquals( "El costo double no es el del arco.", grafo.getEdgeDoubleCost( v, w ), cursor.doubleCost( ),
+					0 );
+			assertEquals( "El costo integer no es el del arco.", grafo.getEdgeIntegerCost( v, w ),
+					cursor.integerCost( ) );
+			k++;
+		}
+		assertEquals( "No se recorrieron todos los arcos.", arcosEsperados, k );
+		assertFalse( "El cursor no debera avanzar despus del final.", cursor.next( ) );
+	}
+
+	@Test
+	public void TestEdgeCursor( )
+	{
+		setUp2( );
+		grafo.addEdge( 6, 6, 2.5 );
+		grafo.setEdgeIntegerCost( 4, 7, 3 );
+
+		probarCursor( 11 );
+		grafo.freeze( );
+		probarCursor( 11 );
+
+		// Un grafo sin arcos no tiene nada que recorrer.
+		setUp( );
+		probarCursor( 0 );
+	}
+
+	@Test
+	public void TestEdgeIds( )
+	{
+		setUp2( );
+		grafo.addEdge( 6, 6, 2.5 );
+		grafo.addEdge( 8, 7, 1.5 ); // Arco repetido.
+
+		try
+		{
+			grafo.edgeId( 1, 2 );
+			fail( "Solo un grafo congelado tiene ID's de arcos." );
+		}
+		catch( IllegalStateException e )
+		{
+			// Se espera esta excepcin.
+		}
+
+		// Sin congelar, los costos se asignan en el orden del cursor.
+		int[] costos = new int[grafo.numberOfEdges( )];
+		for( int e = 0; e < costos.length; e++ )
+			costos[e] = 3 * e;
+		grafo.setAllIntegerCosts( costos );
+		UndirectedGraph<String, Integer, Integer>.EdgeCursor cursor = grafo.edgeCursor( );
+		while( cursor.next( ) )
+			assertEquals( "No se asign el costo del arco.", 3 * cursor.edge( ), cursor.integerCost( ) );
+
+		grafo.freeze( );
+		boolean[] visto = new boolean[grafo.numberOfEdges( )];
+		cursor = grafo.edgeCursor( );
+		while( cursor.next( ) )
+		{
+			int e = cursor.edge( );
+			visto[e] = true;
+			assertEquals( "El extremo menor no es el esperado.", cursor.either( ), grafo.edgeEither( e ) );
+			assertEquals( "El extremo mayor no es el esperado.", cursor.other( ), grafo.edgeOther( e ) );
+			assertEquals( "Se perdi el costo al congelar.", 3 * e, cursor.integerCost( ) );
+		}
+		for( boolean v : visto )
+			assertTrue( "Falt un ID de arco.", v );
+
+		assertEquals( "El ID no es el esperado.", grafo.edgeId( 2, 1 ), grafo.edgeId( 1, 2 ) );
+		assertEquals( "El arco no existe.", -1, grafo.edgeId( 1, 6 ) );
+		int lazo = grafo.edgeId( 6, 6 );
+		assertEquals( "El lazo no es el esperado.", 6, grafo.edgeEither( lazo ) );
+		assertEquals( "El lazo no es el esperado.", 6, grafo.edgeOther( lazo ) );
+
+		// Con el grafo congelado, ambos sentidos de cada arco cambian juntos.
+		for( int e = 0; e < costos.length; e++ )
+			costos[e] = e + 1;
+		grafo.setAllIntegerCosts( costos );
+		int e = grafo.edgeId( 4, 7 );
+		assertEquals( "No se actualiz el arco.", e + 1, grafo.getEdgeIntegerCost( 4, 7 ) );
+		assertEquals( "No se actualizaron ambos sentidos del arco.", e + 1, grafo.getEdgeIntegerCost( 7, 4 ) );
+		grafo.setEdgeIntegerCost( 6, 6, 40 );
+		assertEquals( "No se actualiz el lazo.", 40, grafo.getEdgeIntegerCost( 6, 6 ) );
+
+		try
+		{
+			grafo.setAllIntegerCosts( new int[3] );
+			fail( "El nmero de costos debera ser el nmero de arcos." );
+		}
+		catch( IllegalArgumentException ex )
+		{
+			// Se espera esta excepcin.
+		}
+
+		try
+		{
+			grafo.edgeEither( grafo.numberOfEdges( ) );
+			fail( "El ID del arco no es vlido." );
+		}
+		catch( IllegalArgumentException ex )
+		{
+			// Se espera esta excepcin.
+		}
+	}
+
+	@Test
+	public void TestCostsFromVertexWeights( )
+	{
+		setUp2( );
+		int[] pesos = new int[V];
+		try
+		{
+			grafo.setIntegerCostsFromVertexWeights( pesos );
+			fail( "Solo se pueden recalcular los costos de un grafo congelado." );
+		}
+		catch( IllegalStateException e )
+		{
+			// Se espera esta excepcin.
+		}
+
+		grafo.addEdge( 6, 6, 2.5 );
+		grafo.freeze( );
+		for( int v = 0; v < V; v++ )
+			pesos[v] = v * v;
+		grafo.setIntegerCostsFromVertexWeights( pesos );
+		UndirectedGraph<String, Integer, Integer>.EdgeCursor cursor = grafo.edgeCursor( );
+		while( cursor.next( ) )
+			assertEquals( "El costo no es la suma de los pesos.", pesos[cursor.either( )] + pesos[cursor.other( )],
+					grafo.getEdgeIntegerCost( cursor.other( ), cursor.either( ) ) );
+
+		// En paralelo el resultado es el mismo.
+		for( int v = 0; v < V; v++ )
+			pesos[v] = 2 * v + 1;
+		grafo.setIntegerCostsFromVertexWeights( pesos, new ForkJoinPool( 2 ) );
+		cursor = grafo.edgeCursor( );
+		while( cursor.next( ) )
+			assertEquals( "El costo no es la suma de los pesos.", pesos[cursor.either( )] + pesos[cursor.other( )],
+					cursor.integerCost( ) );
+
+		// Solo cambian los arcos que tocan los vrtices dados.
+		int costo12 = grafo.getEdgeIntegerCost( 1, 2 );
+		pesos[7] += 10;
+		pesos[6] += 5;
+		pesos[1] += 100;
+		grafo.updateIntegerCostsAround( pesos, new int[] { 7, 6, 7 }, 3 );
+		assertEquals( "No se actualiz el arco.", pesos[4] + pesos[7], grafo.getEdgeIntegerCost( 4, 7 ) );
+		assertEquals( "No se actualiz el arco.", pesos[7] + pesos[8], grafo.getEdgeIntegerCost( 8, 7 ) );
+		assertEquals( "No se actualiz el arco.", pesos[6] + pesos[7], grafo.getEdgeIntegerCost( 6, 7 ) );
+		assertEquals( "No se actualiz el lazo.", 2 * pesos[6], grafo.getEdgeIntegerCost( 6, 6 ) );
+		assertEquals( "No debera cambiar un arco que no toca los vrtices.", costo12, grafo.getEdgeIntegerCost( 1, 2 ) );
+
+		try
+		{
+			grafo.updateIntegerCostsAround( new int[V - 1], new int[0], 0 );
+			fail( "El nmero de pesos debera ser el nmero de vrtices." );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Se espera esta excepcin.
+		}
+	}
+
+	@Test
+	public void TestFreeze( )
+	{
+		setUp2( );
+		grafo.setEdgeIntegerCost( 4, 7, 3 );
+		grafo.freeze( );
+
+		assertEquals( "El grafo debera estar congelado.", true, grafo.isFrozen( ) );
+		assertEquals( "Cambi el nmero de arcos.", 10, grafo.numberOfEdges( ) );
+		assertEquals( "Cambi el grado.", 4, grafo.degreeOf( 1 ) );
+		assertEquals( "Cambi el grado.", 1, grafo.degreeOf( 8 ) );
+		assertEquals( "Cambi el grado.", 0, grafo.degreeOf( 0 ) );
+		assertEquals( "No se encontr el costo real.", Math.sqrt( 1 + 5 * 5 ) + "",
+				grafo.getEdgeDoubleCost( 5, 1 ) + "" );
+		assertEquals( "No debera haber ningn costo.", UndirectedGraph.INFINITY + "",
+				grafo.getEdgeDoubleCost( 1, 6 ) + "" );
+		assertEquals( "No conserv el costo de tipo integer.", 3, grafo.getEdgeIntegerCost( 7, 4 ) );
+
+		grafo.setEdgeIntegerCost( 8, 7, 5 );
+		assertEquals( "No actualiz ambos sentidos del arco.", 5, grafo.getEdgeIntegerCost( 7, 8 ) );
+		assertEquals( "No actualiz ambos sentidos del arco.", 5, grafo.getEdgeIntegerCost( 8, 7 ) );
+
+		Iterator<Integer> iter = grafo.vertexAdjacentTo( 4 );
+		int j = 0;
+		while( iter.hasNext( ) )
+		{
+			int w = iter.next( );
+			if( w != 1 && w != 6 && w != 7 )
+				fail( "Fall al encontrar los adyacentes de 4." );
+			j++;
+		}
+		assertEquals( "Fall al encontrar los adyacentes de 4.", 3, j );
+
+		int k = 0;
+		Iterator<String> arcos = grafo.edges( );
+		while( arcos.hasNext( ) )
+		{
+			String[] arco = arcos.next( ).split( "-" );
+			int v = Integer.parseInt( arco[0] ), w = Integer.parseInt( arco[1] );
+			assertEquals( "Se retorn un arco que no existe.", true, grafo.getEdgeDoubleCost( v, w ) > 0 );
+			k++;
+		}
+		assertEquals( "No se recorrieron todos los arcos.", 10, k );
+
+		try
+		{
+			grafo.addEdge( 0, 1, 1.0 );
+			fail( "No debera poder aadir arcos a un grafo congelado." );
+		}
+		catch( IllegalStateException e )
+		{
+			// Se espera esta excepcin.
+		}
+	}
+
+	@Test
+	public void TestStructure( )
+	{
+		setUp2( );
+
+		try
+		{
+			grafo.structureSize( );
+			fail( "Solo se debera poder escribir un grafo congelado." );
+		}
+		catch( IllegalStateException e )
+		{
+			// Se espera esta excepcin.
+		}
+
+		for( int i = 0; i < V; i++ )
+			grafo.setVertexCoordinates( i, 4.5 + i, -74.0 - i );
+		grafo.freeze( );
+		grafo.setEdgeIntegerCost( 4, 7, 11 );
+
+		ByteBuffer buffer = ByteBuffer.allocate( ( int ) grafo.structureSize( ) );
+		grafo.writeStructure( buffer );
+		assertEquals( "No se escribi todo el grafo.", 0, buffer.remaining( ) );
+
+		buffer.flip( );
+		UndirectedGraph<String, Integer, Integer> leido = UndirectedGraph.readStructure( buffer );
+		assertEquals( "El grafo ledo debera estar congelado.", true, leido.isFrozen( ) );
+		assertEquals( "No se leyeron todos los vrtices.", V, leido.numberOfVertices( ) );
+		assertEquals( "No se leyeron todos los arcos.", 10, leido.numberOfEdges( ) );
+		for( int i = 0; i < V; i++ )
+		{
+			assertEquals( "La latitud leda no es la esperada.", 4.5 + i, leido.getVertexLatitude( i ), 0 );
+			assertEquals( "La longitud leda no es la esperada.", -74.0 - i, leido.getVertexLongitude( i ), 0 );
+			assertEquals( "El grado ledo no es el esperado.", grafo.degreeOf( i ), leido.degreeOf( i ) );
+			for( int j = 0; j < V; j++ )
+				assertEquals( "El costo ledo no es el esperado.", grafo.getEdgeDoubleCost( i, j ),
+						leido.getEdgeDoubleCost( i, j ), 0 );
+		}
+		assertEquals( "El costo entero ledo no es el esperado.", 11, leido.getEdgeIntegerCost( 7, 4 ) );
+	}
+
+	@Test
+	public void TestAddEdgesAndFreeze( )
+	{
+		setUp2( );
+		grafo.freeze( );
+
+		int[] desde = { 1, 1, 1, 1, 2, 3, 4, 4, 7, 7 };
+		int[] hasta = { 2, 3, 5, 4, 3, 5, 6, 7, 6, 8 };
+		double[] costos = new double[desde.length];
+		for( int i = 0; i < desde.length; i++ )
+			costos[i] = Math.sqrt( desde[i] * desde[i] + hasta[i] * hasta[i] );
+
+		UndirectedGraph<String, Integer, Integer> otro = new UndirectedGraph<>( V );
+		otro.addEdgesAndFreeze( desde, hasta, costos, desde.length );
+		assertEquals( "El grafo debera estar congelado.", true, otro.isFrozen( ) );
+		assertEquals( "No se aadieron todos los arcos.", grafo.numberOfEdges( ), otro.numberOfEdges( ) );
+
+		// Las adyacencias deben recorrerse en el mismo orden que con addEdge.
+		for( int v = 0; v < V; v++ )
+		{
+			Iterator<Integer> esperado = grafo.vertexAdjacentTo( v );
+			Iterator<Integer> obtenido = otro.vertexAdjacentTo( v );
+			while( esperado.hasNext( ) )
+			{
+				int w = esperado.next( );
+				assertEquals( "Las adyacencias no estn en el mismo orden.", w, ( int ) obtenido.next( ) );
+				assertEquals( "El costo no es el esperado.", grafo.getEdgeDoubleCost( v, w ),
+						otro.getEdgeDoubleCost( v, w ), 0 );
+			}
+			assertEquals( "Hay adyacencias de ms.", false, obtenido.hasNext( ) );
+		}
+
+		try
+		{
+			otro.addEdgesAndFreeze( desde, hasta, costos, desde.length );
+			fail( "No debera poder aadir arcos a un grafo congelado." );
+		}
+		catch( IllegalStateException e )
+		{
+			// Se espera esta excepcin.
+		}
+	}
 }
\ No newline at end of file
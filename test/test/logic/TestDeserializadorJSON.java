@@ -0,0 +1,113 @@
+package test.logic;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import model.logic.Comparendo;
+import model.logic.DeserializadorJSON;
+
+/**
+ * Test de la lectura de comparendos token por token.
+ * @author Camilo Martnez
+ */
+public class TestDeserializadorJSON
+{
+	private DeserializadorJSON deserializador;
+
+	private JsonFactory fabrica;
+
+	@Before
+	public void setUp( )
+	{
+		deserializador = new DeserializadorJSON( );
+		fabrica = new JsonFactory( );
+	}
+
+	/**
+	 * Lee los features del arreglo JSON dado con el deserializador.
+	 */
+	private Comparendo[] leer( String json, int cantidad ) throws IOException
+	{
+		Comparendo[] leidos = new Comparendo[cantidad];
+		try( JsonParser jp = fabrica.createParser( json ) )
+		{
+			assertEquals( "Se esperaba un arreglo", JsonToken.START_ARRAY, jp.nextToken( ) );
+			for( int i = 0; i < cantidad; i++ )
+			{
+				jp.nextToken( );
+				leidos[i] = deserializador.deserialize( jp, null );
+				assertEquals( "El parser debera quedar al final del feature", JsonToken.END_OBJECT,
+						jp.currentToken( ) );
+			}
+			assertEquals( "Sobran features en el arreglo", JsonToken.END_ARRAY, jp.nextToken( ) );
+		}
+		return leidos;
+	}
+
+	private void comparar( Comparendo esperado, Comparendo c )
+	{
+		assertEquals( "El OBJECTID no es el esperado", esperado.darId( ), c.darId( ) );
+		assertEquals( "La fecha no es la esperada", esperado.darFecha( ), c.darFecha( ) );
+		assertEquals( "El medio de deteccin no es el esperado", esperado.darMedioDetencion( ),
+				c.darMedioDetencion( ) );
+		assertEquals( "La clase de vehculo no es la esperada", esperado.darClaseVehiculo( ), c.darClaseVehiculo( ) );
+		assertEquals( "El tipo de servicio no es el esperado", esperado.darTipoServicio( ), c.darTipoServicio( ) );
+		assertEquals( "La infraccin no es la esperada", esperado.darCodigoInfraccion( ), c.darCodigoInfraccion( ) );
+		assertEquals( "La descripcin no es la esperada", esperado.darDescripcionInfraccion( ),
+				c.darDescripcionInfraccion( ) );
+		assertEquals( "La localidad no es la esperada", esperado.darLocalidad( ), c.darLocalidad( ) );
+		assertEquals( "La longitud no es la esperada", esperado.darLongitud( ), c.darLongitud( ), 0 );
+		assertEquals( "La latitud no es la esperada", esperado.darLatitud( ), c.darLatitud( ), 0 );
+	}
+
+	@Test
+	public void TestFeatures( ) throws IOException
+	{
+		String json = "[{\"type\": \"Feature\", \"properties\": {\"OBJECTID\": 7, \"FECHA_HORA\": \"2018/01/01 10:00:00\", "
+				+ "\"MEDIO_DETECCION\": \"LAPIZ\", \"CLASE_VEHICULO\": \"AUTOMVIL\", \"TIPO_SERVICIO\": \"Pblico\", "
+				+ "\"INFRACCION\": \"C26\", \"DES_INFRACCION\": \"desc\", \"LOCALIDAD\": \"KENNEDY\"}, "
+				+ "\"geometry\": {\"type\": \"Point\", \"coordinates\": [-74.1440418067054, 4.648560960309524]}},"
+
+				// Geometra antes de las propiedades, propiedades en otro orden, valores
+				// null, propiedades desconocidas anidadas y coordenadas enteras.
+				+ "{\"geometry\": {\"coordinates\": [-74, 5, 2600], \"type\": \"Point\"}, \"id\": {\"a\": [1, 2]}, "
+				+ "\"properties\": {\"LOCALIDAD\": \"SUBA\", \"EXTRA\": {\"x\": [null]}, \"DES_INFRACCION\": null, "
+				+ "\"TIPO_SERVICIO\": \"Oficial\", \"INFRACCION\": \"D02\", \"CLASE_VEHICULO\": null, "
+				+ "\"MEDIO_DETECCION\": \"GPS\", \"FECHA_HORA\": \"2018/12/31\", \"OBJECTID\": 527655}, "
+				+ "\"type\": \"Feature\"},"
+
+				// Coordenadas con exponente y como cadenas.
+				+ "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [\"-7.41E1\", 4.6e0]}, "
+				+ "\"properties\": {\"OBJECTID\": 3}}]";
+
+		Comparendo[] leidos = leer( json, 3 );
+		comparar( new Comparendo( 7, "2018/01/01 10:00:00", "LAPIZ", "AUTOMVIL", "Pblico", "C26", "desc", "KENNEDY",
+				new double[] { -74.1440418067054, 4.648560960309524 } ), leidos[0] );
+		comparar( new Comparendo( 527655, "2018/12/31", "GPS", null, "Oficial", "D02", null, "SUBA",
+				new double[] { -74, 5 } ), leidos[1] );
+		comparar( new Comparendo( 3, null, null, null, null, null, null, null, new double[] { -74.1, 4.6 } ),
+				leidos[2] );
+	}
+
+	@Test
+	public void TestWithoutCoordinates( ) throws IOException
+	{
+		try
+		{
+			leer( "[{\"type\": \"Feature\", \"properties\": {\"OBJECTID\": 1}}]", 1 );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IOException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package test.logic;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.logic.LectorMapeado;
+
+/**
+ * Test del lector de nmeros sobre archivos mapeados en memoria. Cada nmero se
+ * compara con el resultado de Integer.parseInt o Double.parseDouble.
+ * @author Camilo Martnez
+ */
+public class TestLectorMapeado
+{
+	private File archivo;
+
+	@Before
+	public void setUp( ) throws IOException
+	{
+		archivo = File.createTempFile( "lector", ".txt" );
+	}
+
+	@After
+	public void tearDown( )
+	{
+		archivo.delete( );
+	}
+
+	/**
+	 * Escribe el contenido dado en el archivo temporal y lo abre con el lector.
+	 */
+	private LectorMapeado lector( String contenido ) throws IOException
+	{
+		Files.write( archivo.toPath( ), contenido.getBytes( StandardCharsets.ISO_8859_1 ) );
+		return new LectorMapeado( archivo.getPath( ) );
+	}
+
+	/**
+	 * Comprueba que leer el double del lector d exactamente el mismo double (bit
+	 * a bit, para distinguir -0.0 de 0.0) que Double.parseDouble.
+	 */
+	private void probarDouble( LectorMapeado lector, String numero )
+	{
+		assertEquals( "No ley " + numero + " igual a Double.parseDouble",
+				Double.doubleToRawLongBits( Double.parseDouble( numero ) ),
+				Double.doubleToRawLongBits( lector.leerDouble( ) ) );
+	}
+
+	@Test
+	public void TestIntegers( ) throws IOException
+	{
+		String[] enteros = { "0", "7", "-7", "+42", "007", "2147483647", "-2147483648", "-0" };
+		LectorMapeado lector = lector( String.join( ",", enteros ) + "\n" );
+		for( String entero : enteros )
+			assertEquals( "No ley " + entero + " igual a Integer.parseInt", Integer.parseInt( entero ),
+					lector.leerEntero( ) );
+		assertTrue( "Debera terminar la lnea", lector.terminoLinea( ) );
+		lector.saltarLinea( );
+		assertTrue( "Debera terminar el archivo", lector.terminoArchivo( ) );
+	}
+
+	@Test
+	public void TestIntegersOutOfRange( ) throws IOException
+	{
+		String[] invalidos = { "2147483648", "-2147483649", "99999999999999999999", "-", "x1", "" };
+		for( String invalido : invalidos )
+		{
+			LectorMapeado lector = lector( invalido + "\n" );
+			try
+			{
+				lector.leerEntero( );
+				fail( "Debera lanzar excepcin con \"" + invalido + "\"" );
+			}
+			catch( NumberFormatException e )
+			{
+				// Debe lanzar excepcin, igual que Integer.parseInt.
+			}
+		}
+	}
+
+	@Test
+	public void TestDoubles( ) throws IOException
+	{
+		String[] doubles = { "0", "0.0", "-0.0", "-0", ".5", "-.5", "+.25", "5.", "4.711858434234308",
+				"-74.17984536338314", "1e3", "1E-3", "-2.5e+2", "6.02214076e23", "4.9e-324", "1.7976931348623157e308",
+				"123456789012345678901234567890", "0.1234567890123456789012345", "-74.103158699999938",
+				"9007199254740993", "0.000000000000000000000000123", "1234567.0000000000000000001" };
+		LectorMapeado lector = lector( String.join( " ", doubles ) + "\n" );
+		for( String numero : doubles )
+			probarDouble( lector, numero );
+		assertTrue( "Debera terminar la lnea", lector.terminoLinea( ) );
+	}
+
+	@Test
+	public void TestRandomDoubles( ) throws IOException
+	{
+		Random r = new Random( 2020 );
+		String[] doubles = new String[2000];
+		for( int i = 0; i < doubles.length; i++ )
+		{
+			// Mantisas de hasta 25 dgitos, con el punto en cualquier parte y a veces con
+			// exponente.
+			String digitos = "";
+			int cantidad = 1 + r.nextInt( 25 );
+			for( int k = 0; k < cantidad; k++ )
+				digitos += r.nextInt( 10 );
+			int punto = r.nextInt( cantidad + 1 );
+			doubles[i] = ( r.nextBoolean( ) ? "-" : "" ) + digitos.substring( 0, punto ) + "."
+					+ digitos.substring( punto ) + ( r.nextInt( 4 ) == 0 ? "e" + ( r.nextInt( 40 ) - 20 ) : "" );
+		}
+
+		LectorMapeado lector = lector( String.join( ",", doubles ) );
+		for( String numero : doubles )
+			probarDouble( lector, numero );
+		assertTrue( "Debera terminar el archivo", lector.terminoArchivo( ) );
+	}
+
+	@Test
+	public void TestSeparatorsAndLines( ) throws IOException
+	{
+		LectorMapeado lector = lector( "# comentario, 1 2\r\n0,-74.5,4.25\r\n\r\n1\t 2 ,3\r\n  #x" );
+		assertTrue( "La lnea empieza con #", lector.lineaEmpiezaCon( '#' ) );
+		lector.saltarLinea( );
+
+		assertFalse( "La lnea no empieza con #", lector.lineaEmpiezaCon( '#' ) );
+		assertEquals( "No ley el ID", 0, lector.leerEntero( ) );
+		probarDouble( lector, "-74.5" );
+		probarDouble( lector, "4.25" );
+		assertTrue( "El \\r no debera contar como nmero", lector.terminoLinea( ) );
+		lector.saltarLinea( );
+
+		assertTrue( "La lnea vaca con \\r debera terminar", lector.terminoLinea( ) );
+		lector.saltarLinea( );
+
+		assertEquals( "No ley el entero", 1, lector.leerEntero( ) );
+		assertEquals( "No ley el entero", 2, lector.leerEntero( ) );
+		assertEquals( "No ley el entero", 3, lector.leerEntero( ) );
+		assertTrue( "Debera terminar la lnea", lector.terminoLinea( ) );
+		lector.saltarLinea( );
+
+		// ltima lnea sin salto de lnea.
+		assertTrue( "La lnea empieza con #", lector.lineaEmpiezaCon( '#' ) );
+		lector.saltarLinea( );
+		assertTrue( "Debera terminar el archivo", lector.terminoArchivo( ) );
+		assertFalse( "Al final del archivo ninguna lnea empieza con #", lector.lineaEmpiezaCon( '#' ) );
+		assertTrue( "Al final del archivo la lnea est terminada", lector.terminoLinea( ) );
+		lector.saltarLinea( );
+		assertTrue( "Saltar lneas al final no debera cambiar nada", lector.terminoArchivo( ) );
+
+		try
+		{
+			lector.leerDouble( );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( NumberFormatException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+}
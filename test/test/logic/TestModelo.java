@@ -0,0 +1,355 @@
+package test.logic;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.data_structures.Edge;
+import model.data_structures.UndirectedGraph;
+import model.logic.Comparendo;
+import model.logic.Modelo;
+
+/**
+ * Test de la carga del modelo y de su snapshot binario, sobre unas fuentes de
+ * datos pequeas escritas en un directorio temporal.
+ * @author Camilo Martnez
+ */
+public class TestModelo
+{
+	/**
+	 * Lado de la cuadrcula de vrtices de las fuentes.
+	 */
+	public final int LADO = 4;
+
+	/**
+	 * Nmero de comparendos de las fuentes.
+	 */
+	public final int COMPARENDOS = 40;
+
+	private Modelo modelo;
+
+	private Path directorio;
+
+	private String vertices, arcos, comparendos, estaciones, snapshot;
+
+	/**
+	 * Escribe las fuentes de datos: una cuadrcula de LADO x LADO vrtices en
+	 * Bogot, donde cada vrtice se une con el de su derecha y el de abajo,
+	 * COMPARENDOS comparendos alrededor de vrtices aleatorios y dos estaciones de
+	 * polica.
+	 */
+	@Before
+	public void setUp( ) throws IOException
+	{
+		modelo = new Modelo( );
+		directorio = Files.createTempDirectory( "modelo" );
+		vertices = escribir( "vertices.txt", textoVertices( ) );
+		arcos = escribir( "arcos.txt", textoArcos( ) );
+		comparendos = escribir( "comparendos.geojson", textoComparendos( COMPARENDOS ) + "]" );
+		estaciones = escribir( "estaciones.geojson", textoEstaciones( ) );
+		snapshot = directorio.resolve( "comparendos.snapshot" ).toString( );
+	}
+
+	@After
+	public void tearDown( )
+	{
+		for( File f : directorio.toFile( ).listFiles( ) )
+			f.delete( );
+		directorio.toFile( ).delete( );
+	}
+
+	private String escribir( String nombre, String contenido ) throws IOException
+	{
+		Path archivo = directorio.resolve( nombre );
+		Files.write( archivo, contenido.getBytes( StandardCharsets.UTF_8 ) );
+		return archivo.toString( );
+	}
+
+	private double latitud( int v )
+	{
+		return 4.6 + 0.001 * ( v / LADO );
+	}
+
+	private double longitud( int v )
+	{
+		return -74.1 + 0.001 * ( v % LADO );
+	}
+
+	private String textoVertices( )
+	{
+		String texto = "";
+		for( int v = 0; v < LADO * LADO; v++ )
+			texto += v + "," + longitud( v ) + "," + latitud( v ) + "\n";
+		return texto;
+	}
+
+	private String textoArcos( )
+	{
+		String texto = "# Arcos de la cuadrcula\n";
+		for( int v = 0; v < LADO * LADO; v++ )
+		{
+			texto += v;
+			if( v % LADO + 1 < LADO )
+				texto += " " + ( v + 1 );
+			if( v / LADO + 1 < LADO )
+				texto += " " + ( v + LADO );
+			texto += "\n";
+		}
+		return texto;
+	}
+
+	/**
+	 * @return Arreglo JSON de n comparendos, sin el cierre.
+	 */
+	private String textoComparendos( int n )
+	{
+		Random r = new Random( 2020 );
+		String[] servicios = { "Particular", "Pblico", "Oficial" };
+		StringBuilder texto = new StringBuilder( "[" );
+		for( int i = 0; i < n; i++ )
+		{
+			int v = r.nextInt( LADO * LADO );
+			texto.append( ( i > 0 ? "," : "" ) + "{\"type\": \"Feature\", \"properties\": {\"OBJECTID\": " + ( i + 1 )
+					+ ", \"FECHA_HORA\": \"2018/01/01\", \"MEDIO_DETECCION\": \"LAPIZ\", \"CLASE_VEHICULO\": \"AUTOMVIL\", "
+					+ "\"TIPO_SERVICIO\": \"" + servicios[r.nextInt( 3 )] + "\", \"INFRACCION\": \"C" + r.nextInt( 40 )
+					+ "\", \"DES_INFRACCION\": \"desc\", \"LOCALIDAD\": \"KENNEDY\"}, \"geometry\": {\"type\": \"Point\", "
+					+ "\"coordinates\": [" + ( longitud( v ) + 1e-5 ) + ", " + ( latitud( v ) - 1e-5 ) + "]}}" );
+		}
+		return texto.toString( );
+	}
+
+	private String textoEstaciones( )
+	{
+		return "{\"type\": \"FeatureCollection\", \"features\": [" + textoEstacion( 1, 0 ) + ","
+				+ textoEstacion( 2, LADO * LADO - 1 ) + "]}";
+	}
+
+	private String textoEstacion( int id, int v )
+	{
+		return "{\"type\": \"Feature\", \"properties\": {\"OBJECTID\": " + id + ", \"EPODESCRIP\": \"Estacin " + id
+				+ "\", \"EPODIR_SITIO\": \"KR " + id + "\", \"EPOSERVICIO\": \"s\", \"EPOHORARIO\": \"24h\", "
+				+ "\"EPOTELEFON\": \"123\", \"EPOIULOCAL\": \"08\", \"EPOLATITUD\": " + latitud( v )
+				+ ", \"EPOLONGITU\": " + longitud( v ) + "}}";
+	}
+
+	/**
+	 * @return Archivos fuente en el orden que usa el controlador.
+	 */
+	private String[] fuentes( )
+	{
+		return new String[] { vertices, arcos, comparendos, estaciones };
+	}
+
+	/**
+	 * Carga el modelo completo desde las fuentes de datos.
+	 */
+	private void cargarFuentes( Modelo m ) throws IOException
+	{
+		m.cargarGrafoFuentesDeDatos( vertices, arcos );
+		m.cargarComparendosEnGrafo( comparendos );
+		m.cargarEstacionesEnGrafo( estaciones );
+		m.actualizarCostosEnGrafo( );
+	}
+
+	/**
+	 * Comprueba que ambos grafos tengan las mismas coordenadas y los mismos arcos,
+	 * con los mismos costos de tipo double e integer. Las adyacencias de cada
+	 * vrtice se comparan sin importar su orden.
+	 */
+	private void compararGrafos( UndirectedGraph<?, ?, ?> esperado, UndirectedGraph<?, ?, ?> g )
+	{
+		assertEquals( "El nmero de vrtices no es el esperado", esperado.numberOfVertices( ), g.numberOfVertices( ) );
+		assertEquals( "El nmero de arcos no es el esperado", esperado.numberOfEdges( ), g.numberOfEdges( ) );
+		for( int v = 0; v < esperado.numberOfVertices( ); v++ )
+		{
+			assertEquals( "La latitud no es la esperada", esperado.getVertexLatitude( v ), g.getVertexLatitude( v ), 0 );
+			assertEquals( "La longitud no es la esperada", esperado.getVertexLongitude( v ), g.getVertexLongitude( v ),
+					0 );
+			assertEquals( "Las adyacencias de " + v + " no son las esperadas", adyacencias( esperado, v ),
+					adyacencias( g, v ) );
+		}
+	}
+
+	/**
+	 * @return Adyacencias del vrtice como "w costo comparendos", ordenadas.
+	 */
+	private List<String> adyacencias( UndirectedGraph<?, ?, ?> g, int v )
+	{
+		List<String> lista = new ArrayList<>( );
+		for( Edge<?, ?, ?> e : g.edgesAdjacentTo( v ) )
+			lista.add( e.other( v ) + " " + e.getDoubleCost( ) + " " + e.getIntegerCost( ) );
+		Collections.sort( lista );
+		return lista;
+	}
+
+	@Test
+	public void TestJSON( ) throws IOException
+	{
+		cargarFuentes( modelo );
+		for( boolean compacto : new boolean[] { false, true } )
+		{
+			String json = directorio.resolve( "grafo" + compacto + ".json" ).toString( );
+			modelo.construirJSONDelGrafo( json, compacto );
+			modelo.cargarGrafoDeJSON( json );
+			compararGrafos( modelo.darGrafoFuentesDeDatos( ), modelo.darGrafoJSON( ) );
+		}
+	}
+
+	@Test
+	public void TestBinaryEdgeList( ) throws IOException
+	{
+		cargarFuentes( modelo );
+		String lista = directorio.resolve( "grafo.bin" ).toString( );
+		modelo.construirListaDeArcosBinaria( lista );
+		modelo.cargarGrafoDeListaDeArcosBinaria( lista );
+		compararGrafos( modelo.darGrafoFuentesDeDatos( ), modelo.darGrafoJSON( ) );
+
+		try
+		{
+			modelo.cargarGrafoDeListaDeArcosBinaria( comparendos );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+
+	@Test
+	public void TestSnapshot( ) throws IOException
+	{
+		cargarFuentes( modelo );
+		modelo.guardarSnapshot( snapshot, fuentes( ) );
+		assertFalse( "No debera quedar el archivo temporal", new File( snapshot + ".tmp" ).exists( ) );
+
+		Modelo cargado = new Modelo( );
+		cargado.cargarSnapshot( snapshot, fuentes( ) );
+		assertEquals( "El modelo cargado del snapshot no es igual al original", modelo.darReporteCompletoDeCarga( ),
+				cargado.darReporteCompletoDeCarga( ) );
+	}
+
+	@Test
+	public void TestAddAfterSnapshot( ) throws IOException
+	{
+		cargarFuentes( modelo );
+		modelo.guardarSnapshot( snapshot, fuentes( ) );
+
+		Modelo cargado = new Modelo( );
+		cargado.cargarSnapshot( snapshot, fuentes( ) );
+		int[] vertices = { 5, 5, 10 };
+		List<Comparendo> nuevos = new ArrayList<>( );
+		for( int k = 0; k < vertices.length; k++ )
+			nuevos.add( new Comparendo( COMPARENDOS + k + 1, "2019/01/01", "GPS", "MOTO", "Particular", "C02", "desc",
+					"SUBA", new double[] { longitud( vertices[k] ), latitud( vertices[k] ) } ) );
+		int antes = cargado.darGrafoFuentesDeDatos( ).numberOfItemsOf( 5 );
+		cargado.agregarComparendos( nuevos );
+		assertEquals( "Los comparendos no quedaron en su vrtice", antes + 2,
+				cargado.darGrafoFuentesDeDatos( ).numberOfItemsOf( 5 ) );
+
+		// El costo de cada arco debe ser la suma de los comparendos de sus extremos,
+		// tambin en los arcos que tocan los vrtices que recibieron comparendos.
+		UndirectedGraph<?, ?, ?> g = cargado.darGrafoFuentesDeDatos( );
+		UndirectedGraph<?, ?, ?>.EdgeCursor arco = g.edgeCursor( );
+		int revisados = 0;
+		while( arco.next( ) )
+		{
+			int v = arco.either( ), w = arco.other( );
+			assertEquals( "El costo del arco " + v + "-" + w + " no est actualizado",
+					g.numberOfItemsOf( v ) + g.numberOfItemsOf( w ), arco.integerCost( ) );
+			if( Arrays.asList( 5, 10 ).contains( v ) || Arrays.asList( 5, 10 ).contains( w ) )
+				revisados++;
+		}
+		assertTrue( "Deberan existir arcos que tocan los vrtices nuevos", revisados > 0 );
+	}
+
+	@Test
+	public void TestSnapshotWithChangedSources( ) throws IOException
+	{
+		cargarFuentes( modelo );
+		modelo.guardarSnapshot( snapshot, fuentes( ) );
+
+		File archivo = new File( comparendos );
+		assertTrue( "No se pudo cambiar la fecha del archivo",
+				archivo.setLastModified( archivo.lastModified( ) + 10000 ) );
+		try
+		{
+			new Modelo( ).cargarSnapshot( snapshot, fuentes( ) );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+	}
+
+	@Test
+	public void TestSnapshotAfterFailedLoad( ) throws IOException
+	{
+		String malo = escribir( "malo.geojson", "[{\"type\": \"Feature\", \"properties\": {\"OBJECTID\": 1}}" );
+		modelo.cargarGrafoFuentesDeDatos( vertices, arcos );
+		try
+		{
+			modelo.cargarComparendosEnGrafo( malo );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IOException | IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+		modelo.cargarEstacionesEnGrafo( estaciones );
+		modelo.actualizarCostosEnGrafo( );
+
+		try
+		{
+			modelo.guardarSnapshot( snapshot, fuentes( ) );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+		assertFalse( "No debera escribir el snapshot", new File( snapshot ).exists( ) );
+	}
+
+	@Test
+	public void TestFailedLoadIsDiscarded( ) throws IOException
+	{
+		// Varios lotes completos antes del comparendo invlido, para que la insercin
+		// alcance a empezar antes del error.
+		String malo = escribir( "malo.geojson",
+				textoComparendos( 5000 ) + ",{\"type\": \"Feature\", \"properties\": {\"OBJECTID\": 1}}]" );
+		modelo.cargarGrafoFuentesDeDatos( vertices, arcos );
+		try
+		{
+			modelo.cargarComparendosEnGrafo( malo );
+			fail( "Debera lanzar excepcin" );
+		}
+		catch( IOException | IllegalStateException e )
+		{
+			// Debe lanzar excepcin.
+		}
+		assertEquals( "No deberan quedar comparendos en el grafo", 0,
+				modelo.darGrafoFuentesDeDatos( ).numberOfStoredItems( ) );
+		for( int v = 0; v < LADO * LADO; v++ )
+			assertEquals( "No deberan quedar comparendos en el vrtice", 0,
+					modelo.darGrafoFuentesDeDatos( ).numberOfItemsOf( v ) );
+
+		// Una carga correcta despus del error no ve los comparendos de la anterior.
+		modelo.cargarComparendosEnGrafo( comparendos );
+		assertEquals( "El nmero de comparendos no es el esperado", COMPARENDOS,
+				modelo.darGrafoFuentesDeDatos( ).numberOfStoredItems( ) );
+	}
+}